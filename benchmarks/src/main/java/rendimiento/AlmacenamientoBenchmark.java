@@ -0,0 +1,115 @@
+package rendimiento;
+
+import celda.ColocadorMinas;
+import celda.TableroBuscaminas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import persistence.DatabaseManager;
+import persistence.PartidaService;
+import persistence.SlotGuardadoService;
+import persistence.TipoAlmacenamiento;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Las mismas operaciones de los servicios con cada almacenamiento. SQLITE y
+ * MAPEADO escriben en un directorio temporal (DirectorioPruebas) que se borra
+ * al terminar. Los registros del archivo mapeado admiten tableros de hasta
+ * 100x100.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AlmacenamientoBenchmark {
+    private static final int SLOT = 3;
+
+    @Param({"SQLITE", "MAPEADO", "MEMORIA"})
+    TipoAlmacenamiento almacenamiento;
+
+    @Param({"20", "100"})
+    int lado;
+
+    private Path directorio;
+    private TableroBuscaminas tablero;
+    private SlotGuardadoService slotService;
+    private PartidaService partidaService;
+    private int partidaId;
+
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        directorio = DirectorioPruebas.crear();
+        tablero = new TableroBuscaminas(lado, lado, lado * lado / 6);
+        tablero.setColocadorMinas(new ColocadorMinas(20240601L));
+        tablero.colocarMinas(lado / 2, lado / 2);
+        tablero.revelarCelda(lado / 2, lado / 2);
+
+        slotService = new SlotGuardadoService(almacenamiento);
+        partidaService = new PartidaService(almacenamiento);
+        partidaId = partidaService.guardarPartida("jmh", tablero);
+    }
+
+
+    @Setup(Level.Iteration)
+    public void sincronizarServicio() throws Exception {
+        slotService.guardarEnSlot(SLOT, "benchmark", "jmh", tablero);
+    }
+
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws Exception {
+        slotService.cerrar();
+        TipoAlmacenamiento.cerrarAbiertos();
+        if (almacenamiento == TipoAlmacenamiento.SQLITE) {
+            DatabaseManager.getInstance().cerrar();
+        }
+        DirectorioPruebas.borrar(directorio);
+    }
+
+    // ========== BENCHMARKS ==========
+
+    @Benchmark
+    public TableroBuscaminas guardarEnSlot() throws Exception {
+        slotService.guardarEnSlot(SLOT, "benchmark", "jmh", tablero);
+        return tablero;
+    }
+
+
+    // Una bandera por invocación: solo viaja la celda cambiada
+    @Benchmark
+    public TableroBuscaminas guardarAutomaticamente() throws Exception {
+        tablero.marcarCelda(0, 0);
+        slotService.guardarAutomaticamente(SLOT, "benchmark", "jmh", tablero);
+        return tablero;
+    }
+
+
+    @Benchmark
+    public TableroBuscaminas cargarDesdeSlot() throws Exception {
+        return slotService.cargarDesdeSlot(SLOT);
+    }
+
+
+    @Benchmark
+    public TableroBuscaminas actualizarPartida() {
+        partidaService.actualizarPartida(partidaId, tablero);
+        return tablero;
+    }
+}
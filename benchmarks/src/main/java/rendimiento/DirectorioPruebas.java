@@ -0,0 +1,45 @@
+package rendimiento;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+
+/**
+ * Directorio temporal donde los benchmarks de persistencia dejan la base de
+ * datos, los archivos mapeados y los diarios, para no tocar los guardados del
+ * directorio de trabajo.
+ *
+ * DatabaseManager fija su ruta al cargarse, así que hay que crearlo antes del
+ * primer acceso a la persistencia. Cada trial corre en su propio fork (@Fork),
+ * de modo que la JVM todavía no ha abierto nada.
+ */
+final class DirectorioPruebas {
+
+    private DirectorioPruebas() {
+    }
+
+
+    static Path crear() throws IOException {
+        Path directorio = Files.createTempDirectory("buscaminas-jmh");
+        System.setProperty("buscaminas.db.ruta", directorio.resolve("buscaminas.db").toString());
+        System.setProperty("buscaminas.almacenamiento.directorio", directorio.toString());
+        System.setProperty("buscaminas.diarios.directorio", directorio.resolve("diarios").toString());
+        return directorio;
+    }
+
+
+    // Se llama después de cerrar servicios y conexiones
+    static void borrar(Path directorio) throws IOException {
+        List<Path> rutas;
+        try (Stream<Path> recorrido = Files.walk(directorio)) {
+            rutas = recorrido.sorted(Comparator.reverseOrder()).toList();
+        }
+        for (Path ruta : rutas) {
+            Files.deleteIfExists(ruta);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package rendimiento;
+
+import celda.ColocadorMinas;
+import celda.TableroBuscaminas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import persistence.DatabaseManager;
+import persistence.PartidaDAO;
+import persistence.SlotGuardadoDAO;
+import persistence.SlotGuardadoService;
+import persistence.TipoAlmacenamiento;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Guardado y carga contra SQLite, con la base de datos en un directorio
+ * temporal (DirectorioPruebas) que se borra al terminar.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PersistenciaBenchmark {
+    private static final int SLOT = 3;
+
+    @Param({"20", "100", "1000"})
+    int lado;
+
+    @Param({"0.10", "0.15", "0.20"})
+    double densidad;
+
+    private TableroBuscaminas tablero;
+    // Celda que sigue oculta tras el primer clic: cada marcarCelda sobre ella cambia algo que guardar
+    private int filaOculta;
+    private int columnaOculta;
+    private Path directorio;
+    private SlotGuardadoDAO slotDAO;
+    private PartidaDAO partidaDAO;
+    private SlotGuardadoService slotService;
+
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException, SQLException {
+        directorio = DirectorioPruebas.crear();
+        slotDAO = new SlotGuardadoDAO();
+        partidaDAO = new PartidaDAO();
+        slotService = new SlotGuardadoService();
+
+        tablero = new TableroBuscaminas(lado, lado, (int) (lado * lado * densidad));
+        tablero.setColocadorMinas(new ColocadorMinas(20240601L));
+        tablero.colocarMinas(lado / 2, lado / 2);
+        tablero.revelarCelda(lado / 2, lado / 2);
+        buscarCeldaOculta();
+
+        slotDAO.guardarEnSlot(SLOT, "benchmark", "jmh", tablero);
+    }
+
+
+    @Setup(Level.Iteration)
+    public void sincronizarServicio() throws Exception {
+        slotService.guardarEnSlot(SLOT, "benchmark", "jmh", tablero);
+    }
+
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        slotService.cerrar();
+        TipoAlmacenamiento.cerrarAbiertos();
+        DatabaseManager.getInstance().cerrar();
+        DirectorioPruebas.borrar(directorio);
+    }
+
+
+    private void buscarCeldaOculta() {
+        for (int fila = 0; fila < lado; fila++) {
+            for (int columna = 0; columna < lado; columna++) {
+                if (!tablero.getCelda(fila, columna).estaRevelada()) {
+                    filaOculta = fila;
+                    columnaOculta = columna;
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("El primer clic reveló todo el tablero");
+    }
+
+    // ========== BENCHMARKS ==========
+
+    @Benchmark
+    public TableroBuscaminas guardarEnSlot() throws SQLException {
+        slotDAO.guardarEnSlot(SLOT, "benchmark", "jmh", tablero);
+        return tablero;
+    }
+
+
+    @Benchmark
+    public TableroBuscaminas cargarDesdeSlot() throws SQLException {
+        return slotDAO.cargarDesdeSlot(SLOT);
+    }
+
+
+    // Una bandera por invocación: mide el guardado incremental, compactaciones periódicas incluidas
+    @Benchmark
+    public TableroBuscaminas guardarAutomaticamente() throws Exception {
+        tablero.marcarCelda(filaOculta, columnaOculta);
+        slotService.guardarAutomaticamente(SLOT, "benchmark", "jmh", tablero);
+        return tablero;
+    }
+
+
+    @Benchmark
+    public int guardarPartida() throws SQLException {
+        return partidaDAO.guardarPartida("jmh", tablero);
+    }
+}
@@ -0,0 +1,149 @@
+package rendimiento;
+
+import celda.ColocadorMinas;
+import celda.TableroBuscaminas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Operaciones del motor parametrizadas por lado del tablero y densidad de
+ * minas. Todas usan la misma semilla para que las cifras sean comparables
+ * entre ejecuciones.
+ *
+ * revelarCelda modifica el tablero, así que sus benchmarks usan una copia que
+ * se rehace antes de cada invocación (Level.Invocation); en tableros pequeños
+ * el clic simple queda por debajo de la resolución de ese modo y su cifra es
+ * solo orientativa.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TableroBenchmark {
+    private static final long SEMILLA = 20240601L;
+
+    @Param({"20", "100", "1000"})
+    int lado;
+
+    @Param({"0.10", "0.15", "0.20"})
+    double densidad;
+
+    private TableroBuscaminas tablero;
+    private int centro;
+    // Celda con número (clic sin cascada) y celda vacía (cascada completa)
+    private int filaNumero;
+    private int columnaNumero;
+    private int filaVacia;
+    private int columnaVacia;
+
+
+    @Setup(Level.Trial)
+    public void prepararTablero() {
+        tablero = crearTablero();
+        centro = lado / 2;
+        filaNumero = -1;
+        filaVacia = -1;
+        for (int fila = 0; fila < lado; fila++) {
+            for (int columna = 0; columna < lado; columna++) {
+                if (tablero.getCelda(fila, columna).esMina()) {
+                    continue;
+                }
+                if (tablero.getCelda(fila, columna).esVacia()) {
+                    if (filaVacia < 0) {
+                        filaVacia = fila;
+                        columnaVacia = columna;
+                    }
+                } else if (filaNumero < 0) {
+                    filaNumero = fila;
+                    columnaNumero = columna;
+                }
+            }
+        }
+    }
+
+
+    private TableroBuscaminas crearTablero() {
+        TableroBuscaminas nuevo = new TableroBuscaminas(lado, lado, (int) (lado * lado * densidad));
+        nuevo.setColocadorMinas(new ColocadorMinas(SEMILLA));
+        nuevo.colocarMinas(lado / 2, lado / 2);
+        return nuevo;
+    }
+
+
+    // ========== BENCHMARKS ==========
+
+    // Incluye reiniciar(): restar la cifra de reiniciar para aislar la colocación
+    @Benchmark
+    public TableroBuscaminas colocarMinas() {
+        tablero.reiniciar();
+        tablero.setColocadorMinas(new ColocadorMinas(SEMILLA));
+        tablero.colocarMinas(centro, centro);
+        return tablero;
+    }
+
+
+    @Benchmark
+    public TableroBuscaminas calcularMinasAdyacentes() {
+        tablero.recalcularMinasAdyacentes();
+        return tablero;
+    }
+
+
+    @Benchmark
+    public boolean revelarCeldaSinCascada(TableroSinRevelar sinRevelar) {
+        return sinRevelar.tablero.revelarCelda(filaNumero, columnaNumero);
+    }
+
+
+    @Benchmark
+    public int revelarCeldaCascada(TableroSinRevelar sinRevelar) {
+        sinRevelar.tablero.revelarCelda(filaVacia, columnaVacia);
+        return sinRevelar.tablero.getCeldasUltimaCascada();
+    }
+
+
+    // Marca y desmarca la misma celda para dejar el tablero igual
+    @Benchmark
+    public boolean marcarCelda() {
+        tablero.marcarCelda(centro, centro);
+        return tablero.marcarCelda(centro, centro);
+    }
+
+
+    @Benchmark
+    public TableroBuscaminas reiniciar() {
+        tablero.reiniciar();
+        return tablero;
+    }
+
+    // ========== ESTADOS ==========
+
+    // Copia del tablero que se rehace antes de cada invocación que haya revelado algo
+    @State(Scope.Thread)
+    public static class TableroSinRevelar {
+        TableroBuscaminas tablero;
+
+
+        @Setup(Level.Invocation)
+        public void restaurar(TableroBenchmark benchmark) {
+            if (tablero == null || tablero.getCeldasReveladas() > 0) {
+                tablero = benchmark.crearTablero();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package celda;
+
+
+/**
+ * Calcula los contadores de minas adyacentes recorriendo solo las minas:
+ * cada mina incrementa a sus (como mucho) ocho vecinas, de modo que el coste
+ * es proporcional a la cantidad de minas y no al tamaño del tablero.
+ * Las celdas que son mina conservan su contador a cero.
+ */
+final class CalculadorAdyacencias {
+
+    private CalculadorAdyacencias() {
+    }
+
+
+    static void sumarMinas(byte[] celdas, int filas, int columnas, int[] indicesMinas) {
+        for (int indiceMina : indicesMinas) {
+            int fila = indiceMina / columnas;
+            int columna = indiceMina - fila * columnas;
+
+            int filaInicio = Math.max(0, fila - 1);
+            int filaFin = Math.min(filas - 1, fila + 1);
+            int columnaInicio = Math.max(0, columna - 1);
+            int columnaFin = Math.min(columnas - 1, columna + 1);
+
+            for (int f = filaInicio; f <= filaFin; f++) {
+                int base = f * columnas;
+                for (int c = columnaInicio; c <= columnaFin; c++) {
+                    int vecina = base + c;
+                    if ((celdas[vecina] & Celda.BIT_MINA) == 0) {
+                        celdas[vecina]++;
+                    }
+                }
+            }
+        }
+    }
+
+
+    static void recalcular(byte[] celdas, int filas, int columnas) {
+        for (int i = 0; i < celdas.length; i++) {
+            celdas[i] &= ~Celda.MASCARA_ADYACENTES;
+        }
+        sumarMinas(celdas, filas, columnas, buscarMinas(celdas));
+    }
+
+
+    static int[] buscarMinas(byte[] celdas) {
+        int total = 0;
+        for (byte estado : celdas) {
+            if ((estado & Celda.BIT_MINA) != 0) {
+                total++;
+            }
+        }
+
+        int[] indicesMinas = new int[total];
+        int encontradas = 0;
+        for (int i = 0; encontradas < total; i++) {
+            if ((celdas[i] & Celda.BIT_MINA) != 0) {
+                indicesMinas[encontradas++] = i;
+            }
+        }
+        return indicesMinas;
+    }
+}
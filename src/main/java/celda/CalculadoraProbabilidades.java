@@ -0,0 +1,465 @@
+package celda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Calcula la probabilidad exacta de mina de cada celda oculta usando solo la
+ * información visible.
+ *
+ * La frontera se divide en componentes independientes que se enumeran en
+ * paralelo. Cada componente aporta cuántas soluciones tiene con s minas; las
+ * celdas interiores (ocultas y sin números vecinos) reciben el resto de minas
+ * de forma uniforme, así que cada combinación de componentes se pondera por
+ * C(interiores, minasRestantes - s). Las ponderaciones se calculan en
+ * logaritmos para no desbordar en tableros grandes.
+ *
+ * Los conteos por componente se memorizan por su firma, de modo que entre
+ * pistas sucesivas solo se vuelve a enumerar lo que cambió. Si una componente
+ * supera el presupuesto de nodos se estima por muestreo y el resultado se
+ * marca como aproximado.
+ *
+ * El resultado guarda una probabilidad por celda de la frontera y una sola
+ * para todo el interior, así que su tamaño crece con la frontera y no con el
+ * tablero.
+ */
+public class CalculadoraProbabilidades {
+    static final long NODOS_MAXIMOS_DEFAULT = 200_000;
+    static final int MUESTRAS_DEFAULT = 400;
+    static final long NODOS_POR_MUESTRA_DEFAULT = 5_000;
+    private static final int CAPACIDAD_CACHE = 256;
+
+    private final ForkJoinPool pool;
+    private final long nodosMaximos;
+    private final int muestras;
+    private final long nodosPorMuestra;
+    private final Map<String, Conteo> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Conteo> mayor) {
+            return size() > CAPACIDAD_CACHE;
+        }
+    };
+    private int aciertosCache;
+    private int fallosCache;
+
+
+    public CalculadoraProbabilidades() {
+        this(ForkJoinPool.commonPool(), NODOS_MAXIMOS_DEFAULT, MUESTRAS_DEFAULT, NODOS_POR_MUESTRA_DEFAULT);
+    }
+
+
+    CalculadoraProbabilidades(ForkJoinPool pool, long nodosMaximos, int muestras, long nodosPorMuestra) {
+        this.pool = pool;
+        this.nodosMaximos = nodosMaximos;
+        this.muestras = muestras;
+        this.nodosPorMuestra = nodosPorMuestra;
+    }
+
+
+    public Resultado calcular(TableroBuscaminas tablero) {
+        FronteraTablero frontera = FronteraTablero.construir(tablero);
+        byte[] sinDecidir = new byte[frontera.getTotalVariables()];
+
+        List<int[]> componentes = SolucionadorBuscaminas.componentesPendientes(frontera, sinDecidir);
+        EnumeradorComponente[] enumeradores = new EnumeradorComponente[componentes.size()];
+        Conteo[] conteos = new Conteo[componentes.size()];
+        List<TareaComponente> pendientes = new ArrayList<>();
+
+        for (int i = 0; i < enumeradores.length; i++) {
+            enumeradores[i] = new EnumeradorComponente(frontera, sinDecidir, componentes.get(i));
+            conteos[i] = cache.get(enumeradores[i].getFirma());
+            if (conteos[i] != null) {
+                aciertosCache++;
+            } else {
+                fallosCache++;
+                pendientes.add(new TareaComponente(enumeradores[i], i));
+            }
+        }
+
+        if (pendientes.size() == 1) {
+            pendientes.get(0).compute();
+        } else if (!pendientes.isEmpty()) {
+            pool.invoke(new TareaTodas(pendientes));
+        }
+        for (TareaComponente tarea : pendientes) {
+            conteos[tarea.posicion] = tarea.conteo;
+            cache.put(tarea.enumerador.getFirma(), tarea.conteo);
+        }
+
+        return combinar(tablero, frontera, enumeradores, conteos);
+    }
+
+    // ========== COMBINACIÓN ==========
+
+    /**
+     * Cada componente solo aporta su ventana de cantidades de minas con
+     * soluciones, así que los vectores miden la suma de los anchos de las
+     * ventanas y no el número de variables. Una pasada hacia atrás guarda,
+     * para cada componente, el peso de todo lo que viene después según las
+     * minas que hayan puesto las anteriores (incluido el peso del interior);
+     * la pasada hacia delante lleva solo la distribución de las anteriores.
+     * Cada componente se pondera con un producto de esas dos, sin volver a
+     * convolucionar el resto del tablero para cada una.
+     *
+     * Todo va en logaritmos: el peso del interior puede variar cientos de
+     * órdenes de magnitud a lo largo de la ventana y en lineal se anularía.
+     */
+    private static Resultado combinar(TableroBuscaminas tablero, FronteraTablero frontera,
+                                      EnumeradorComponente[] enumeradores, Conteo[] conteos) {
+        int interiores = frontera.celdasInteriores;
+        int minasRestantes = frontera.minasRestantes;
+        int componentes = conteos.length;
+        boolean aproximado = false;
+
+        // Las componentes anteriores a i suman entre minimoAntes[i] y minimoAntes[i] + anchoAntes[i] minas
+        int[] minimoAntes = new int[componentes + 1];
+        int[] anchoAntes = new int[componentes + 1];
+        double[][] logSoluciones = new double[componentes][];
+        for (int i = 0; i < componentes; i++) {
+            logSoluciones[i] = logaritmos(conteos[i].soluciones);
+            minimoAntes[i + 1] = minimoAntes[i] + conteos[i].minimo;
+            anchoAntes[i + 1] = anchoAntes[i] + conteos[i].soluciones.length - 1;
+            aproximado |= conteos[i].aproximado;
+        }
+
+        // posteriores[i][t] = log del peso de las componentes i.. y del interior si las anteriores tienen minimoAntes[i] + t minas
+        double[][] posteriores = new double[componentes + 1][];
+        posteriores[componentes] = logPesosInteriores(interiores, minasRestantes, minimoAntes[componentes],
+                                                      anchoAntes[componentes] + 1);
+        for (int i = componentes - 1; i >= 0; i--) {
+            posteriores[i] = correlacionarLog(logSoluciones[i], posteriores[i + 1]);
+        }
+
+        // Por variable de la frontera; NaN si su componente no tiene soluciones compatibles
+        double[] probabilidades = new double[frontera.getTotalVariables()];
+        Arrays.fill(probabilidades, Double.NaN);
+
+        // anteriores[t] = log de las formas de que las componentes ya vistas tengan minimoAntes[i] + t minas
+        double[] anteriores = {0};
+        for (int i = 0; i < componentes; i++) {
+            Conteo conteo = conteos[i];
+            double[] logPesos = correlacionarLog(anteriores, posteriores[i + 1]);
+            double maximo = Double.NEGATIVE_INFINITY;
+            for (int j = 0; j < logPesos.length; j++) {
+                logPesos[j] += logSoluciones[i][j];
+                maximo = Math.max(maximo, logPesos[j]);
+            }
+
+            if (maximo != Double.NEGATIVE_INFINITY) {
+                // peso[j] = probabilidad de que la componente tenga minimo + j minas, sin normalizar
+                int[] variables = enumeradores[i].getVariables();
+                double[] vecesMina = new double[variables.length];
+                double total = 0;
+                for (int j = 0; j < logPesos.length; j++) {
+                    double[] fila = conteo.minasPorCantidad[conteo.minimo + j];
+                    if (fila == null) {
+                        continue;
+                    }
+                    double peso = Math.exp(logPesos[j] - maximo);
+                    total += peso;
+                    double porSolucion = peso / conteo.soluciones[j];
+                    for (int local = 0; local < variables.length; local++) {
+                        vecesMina[local] += fila[local] * porSolucion;
+                    }
+                }
+                for (int local = 0; local < variables.length; local++) {
+                    probabilidades[variables[local]] = vecesMina[local] / total;
+                }
+            }
+
+            anteriores = convolucionarLog(anteriores, logSoluciones[i]);
+        }
+
+        // Minas esperadas en el interior: E[minasRestantes - s] repartidas entre las interiores
+        double probabilidadInterior = Double.NaN;
+        if (interiores > 0) {
+            double[] finales = posteriores[componentes];
+            double maximo = Double.NEGATIVE_INFINITY;
+            for (int t = 0; t < finales.length; t++) {
+                maximo = Math.max(maximo, anteriores[t] + finales[t]);
+            }
+            if (maximo != Double.NEGATIVE_INFINITY) {
+                double total = 0;
+                double esperadas = 0;
+                for (int t = 0; t < finales.length; t++) {
+                    double peso = Math.exp(anteriores[t] + finales[t] - maximo);
+                    total += peso;
+                    esperadas += peso * (minasRestantes - minimoAntes[componentes] - t);
+                }
+                probabilidadInterior = esperadas / total / interiores;
+            }
+        }
+
+        return new Resultado(tablero, frontera, probabilidades, probabilidadInterior, aproximado);
+    }
+
+
+    // resultado[t] = log Σ exp(a[t - j] + b[j]): las cantidades de minas de dos grupos se suman
+    private static double[] convolucionarLog(double[] a, double[] b) {
+        double[] resultado = new double[a.length + b.length - 1];
+        for (int t = 0; t < resultado.length; t++) {
+            int desde = Math.max(0, t - a.length + 1);
+            int hasta = Math.min(b.length - 1, t);
+            double maximo = Double.NEGATIVE_INFINITY;
+            for (int j = desde; j <= hasta; j++) {
+                maximo = Math.max(maximo, a[t - j] + b[j]);
+            }
+            double suma = 0;
+            if (maximo != Double.NEGATIVE_INFINITY) {
+                for (int j = desde; j <= hasta; j++) {
+                    suma += Math.exp(a[t - j] + b[j] - maximo);
+                }
+            }
+            resultado[t] = maximo + Math.log(suma);
+        }
+        return resultado;
+    }
+
+
+    // resultado[t] = log Σ exp(a[j] + b[t + j]): peso de lo que queda según lo que ya se ha puesto
+    private static double[] correlacionarLog(double[] a, double[] b) {
+        double[] resultado = new double[b.length - a.length + 1];
+        for (int t = 0; t < resultado.length; t++) {
+            double maximo = Double.NEGATIVE_INFINITY;
+            for (int j = 0; j < a.length; j++) {
+                maximo = Math.max(maximo, a[j] + b[t + j]);
+            }
+            double suma = 0;
+            if (maximo != Double.NEGATIVE_INFINITY) {
+                for (int j = 0; j < a.length; j++) {
+                    suma += Math.exp(a[j] + b[t + j] - maximo);
+                }
+            }
+            resultado[t] = maximo + Math.log(suma);
+        }
+        return resultado;
+    }
+
+
+    private static double[] logaritmos(double[] valores) {
+        double[] resultado = new double[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            resultado[i] = Math.log(valores[i]);
+        }
+        return resultado;
+    }
+
+
+    /**
+     * resultado[t] = log C(interiores, minasRestantes - desde - t): las formas
+     * de repartir en el interior las minas que no están en la frontera, o
+     * -infinito si no caben. Solo la primera se calcula entera; las demás
+     * salen de la anterior con C(n, k - 1) = C(n, k) * k / (n - k + 1).
+     */
+    static double[] logPesosInteriores(int interiores, int minasRestantes, int desde, int cantidad) {
+        double[] resultado = new double[cantidad];
+        Arrays.fill(resultado, Double.NEGATIVE_INFINITY);
+        double anterior = Double.NEGATIVE_INFINITY;
+        for (int t = 0; t < cantidad; t++) {
+            int k = minasRestantes - desde - t;
+            if (k < 0) {
+                break;
+            }
+            if (k > interiores) {
+                continue;
+            }
+            anterior = anterior == Double.NEGATIVE_INFINITY
+                    ? logCombinaciones(interiores, k)
+                    : anterior + Math.log((double) (k + 1) / (interiores - k));
+            resultado[t] = anterior;
+        }
+        return resultado;
+    }
+
+
+    // log C(n, k) sumando log((n - k + i) / i); n y k son como mucho el número de celdas
+    static double logCombinaciones(int n, int k) {
+        k = Math.min(k, n - k);
+        double resultado = 0;
+        for (int i = 1; i <= k; i++) {
+            resultado += Math.log((double) (n - k + i) / i);
+        }
+        return resultado;
+    }
+
+    // ========== MÉTRICAS ==========
+
+    public int getAciertosCache() {
+        return aciertosCache;
+    }
+
+
+    public int getFallosCache() {
+        return fallosCache;
+    }
+
+    // ========== CLASES INTERNAS ==========
+
+    // Conteos de una componente recortados a las cantidades de minas con alguna solución
+    private static final class Conteo {
+        final int minimo;
+        // soluciones[j] = soluciones con minimo + j minas
+        final double[] soluciones;
+        final double[][] minasPorCantidad;
+        final boolean aproximado;
+
+
+        Conteo(double[] soluciones, double[][] minasPorCantidad, boolean aproximado) {
+            int minimo = 0;
+            while (minimo < soluciones.length - 1 && soluciones[minimo] == 0) {
+                minimo++;
+            }
+            int maximo = soluciones.length - 1;
+            while (maximo > minimo && soluciones[maximo] == 0) {
+                maximo--;
+            }
+            this.minimo = minimo;
+            this.soluciones = Arrays.copyOfRange(soluciones, minimo, maximo + 1);
+            this.minasPorCantidad = minasPorCantidad;
+            this.aproximado = aproximado;
+        }
+    }
+
+
+    private static final class TareaTodas extends RecursiveAction {
+        private final List<TareaComponente> tareas;
+
+
+        TareaTodas(List<TareaComponente> tareas) {
+            this.tareas = tareas;
+        }
+
+
+        @Override
+        protected void compute() {
+            invokeAll(tareas);
+        }
+    }
+
+
+    private final class TareaComponente extends RecursiveAction {
+        final EnumeradorComponente enumerador;
+        final int posicion;
+        Conteo conteo;
+
+
+        TareaComponente(EnumeradorComponente enumerador, int posicion) {
+            this.enumerador = enumerador;
+            this.posicion = posicion;
+        }
+
+
+        @Override
+        protected void compute() {
+            boolean aproximado = false;
+            if (!enumerador.enumerar(nodosMaximos)) {
+                aproximado = true;
+                enumerador.muestrear(muestras, nodosPorMuestra, new SplittableRandom(enumerador.getFirma().hashCode()));
+            }
+            conteo = new Conteo(enumerador.getSoluciones(), enumerador.getMinasPorCantidad(), aproximado);
+        }
+    }
+
+    // ========== RESULTADO ==========
+
+    /**
+     * Probabilidades del tablero tal como estaba al calcularlas. Las celdas
+     * que no son de la frontera se consultan en el propio tablero, así que
+     * el resultado deja de valer tras la siguiente jugada.
+     */
+    public static final class Resultado {
+        private final int columnas;
+        private final byte[] estados;
+        private final FronteraTablero frontera;
+        // Por variable de la frontera
+        private final double[] probabilidades;
+        private final double probabilidadInterior;
+        private final boolean aproximado;
+        private final int celdaMasSegura;
+
+
+        Resultado(TableroBuscaminas tablero, FronteraTablero frontera, double[] probabilidades,
+                  double probabilidadInterior, boolean aproximado) {
+            this.columnas = tablero.getColumnas();
+            this.estados = tablero.getEstadosCeldas();
+            this.frontera = frontera;
+            this.probabilidades = probabilidades;
+            this.probabilidadInterior = probabilidadInterior;
+            this.aproximado = aproximado;
+            this.celdaMasSegura = buscarCeldaMasSegura();
+        }
+
+
+        /** Probabilidad de mina en [0, 1], o NaN si la celda está revelada o marcada. */
+        public double getProbabilidad(int fila, int columna) {
+            int indice = fila * columnas + columna;
+            int variable = frontera.getVariable(indice);
+            if (variable >= 0) {
+                return probabilidades[variable];
+            }
+            return (estados[indice] & (Celda.BIT_REVELADA | Celda.BIT_MARCADA)) == 0 ? probabilidadInterior : Double.NaN;
+        }
+
+
+        public double getProbabilidadInterior() {
+            return probabilidadInterior;
+        }
+
+
+        public boolean isAproximado() {
+            return aproximado;
+        }
+
+
+        /** Índice de la celda oculta con menor probabilidad de mina, o -1 si no queda ninguna. */
+        public int getCeldaMasSegura() {
+            return celdaMasSegura;
+        }
+
+
+        public int getFila(int indice) { return indice / columnas; }
+        public int getColumna(int indice) { return indice % columnas; }
+
+
+        // Ante un empate gana el índice menor, igual que si se recorriera el tablero entero
+        private int buscarCeldaMasSegura() {
+            int mejor = -1;
+            double menor = Double.NaN;
+            for (int variable = 0; variable < probabilidades.length; variable++) {
+                double probabilidad = probabilidades[variable];
+                int celda = frontera.celdas[variable];
+                if (!Double.isNaN(probabilidad)
+                        && (mejor < 0 || probabilidad < menor || (probabilidad == menor && celda < mejor))) {
+                    mejor = celda;
+                    menor = probabilidad;
+                }
+            }
+
+            if (Double.isNaN(probabilidadInterior) || (mejor >= 0 && probabilidadInterior > menor)) {
+                return mejor;
+            }
+            int interior = primeraCeldaInterior();
+            if (interior >= 0 && (mejor < 0 || probabilidadInterior < menor || interior < mejor)) {
+                return interior;
+            }
+            return mejor;
+        }
+
+
+        private int primeraCeldaInterior() {
+            for (int indice = 0; indice < estados.length; indice++) {
+                if ((estados[indice] & (Celda.BIT_REVELADA | Celda.BIT_MARCADA)) == 0 && frontera.getVariable(indice) < 0) {
+                    return indice;
+                }
+            }
+            return -1;
+        }
+    }
+}
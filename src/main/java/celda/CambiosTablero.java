@@ -0,0 +1,110 @@
+package celda;
+
+import java.util.Arrays;
+
+
+/**
+ * Conjunto de celdas modificadas por la última operación del tablero
+ * (revelar, marcar o cascada). Guarda los índices en un búfer de enteros
+ * primitivos y el nuevo estado empaquetado de cada celda en un búfer de
+ * bytes paralelo, para que la interfaz o la persistencia trabajen solo con
+ * lo que cambió.
+ *
+ * El tablero reutiliza la misma instancia entre operaciones: su contenido
+ * es válido hasta la siguiente llamada a revelarCelda o marcarCelda.
+ */
+public final class CambiosTablero {
+    private final int columnas;
+    private int[] indices;
+    private byte[] estados;
+    private int cantidad;
+
+
+    CambiosTablero(int columnas) {
+        this.columnas = columnas;
+        this.indices = new int[16];
+        this.estados = new byte[16];
+    }
+
+    // ========== REGISTRO ==========
+
+    void registrar(int indice, int estado) {
+        if (cantidad == indices.length) {
+            int capacidad = indices.length * 2;
+            indices = Arrays.copyOf(indices, capacidad);
+            estados = Arrays.copyOf(estados, capacidad);
+        }
+        indices[cantidad] = indice;
+        estados[cantidad] = (byte) estado;
+        cantidad++;
+    }
+
+
+    void limpiar() {
+        cantidad = 0;
+    }
+
+    // ========== CONSULTA ==========
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+
+    public boolean estaVacio() {
+        return cantidad == 0;
+    }
+
+
+    public int getIndice(int posicion) {
+        return indices[verificarPosicion(posicion)];
+    }
+
+
+    public int getFila(int posicion) {
+        return getIndice(posicion) / columnas;
+    }
+
+
+    public int getColumna(int posicion) {
+        return getIndice(posicion) % columnas;
+    }
+
+
+    public boolean esMina(int posicion) {
+        return (getEstado(posicion) & Celda.BIT_MINA) != 0;
+    }
+
+
+    public boolean estaRevelada(int posicion) {
+        return (getEstado(posicion) & Celda.BIT_REVELADA) != 0;
+    }
+
+
+    public boolean estaMarcada(int posicion) {
+        return (getEstado(posicion) & Celda.BIT_MARCADA) != 0;
+    }
+
+
+    public int getMinasAdyacentes(int posicion) {
+        return getEstado(posicion) & Celda.MASCARA_ADYACENTES;
+    }
+
+
+    public int[] getIndices() {
+        return Arrays.copyOf(indices, cantidad);
+    }
+
+
+    int getEstado(int posicion) {
+        return estados[verificarPosicion(posicion)];
+    }
+
+
+    private int verificarPosicion(int posicion) {
+        if (posicion < 0 || posicion >= cantidad) {
+            throw new IndexOutOfBoundsException("Posición de cambio inválida: " + posicion);
+        }
+        return posicion;
+    }
+}
@@ -2,78 +2,100 @@ package celda;
 
 
 public class Celda {
-    private boolean esMina;
-    private boolean estaRevelada;
-    private boolean estaMarcada;
-    private int minasAdyacentes;
+    // Formato empaquetado de una celda en un byte (compartido con TableroBuscaminas)
+    static final int MASCARA_ADYACENTES = 0x0F;
+    static final int BIT_MINA = 0x10;
+    static final int BIT_REVELADA = 0x20;
+    static final int BIT_MARCADA = 0x40;
+
+    private byte estado;
     
     // ========== CONSTRUCTOR ==========
 
     public Celda() {
-        this.esMina = false;
-        this.estaRevelada = false;
-        this.estaMarcada = false;
-        this.minasAdyacentes = 0;
+        this.estado = 0;
+    }
+    
+    // ========== ACCESO AL ESTADO EMPAQUETADO ==========
+
+    int leerEstado() {
+        return estado;
+    }
+    
+
+    void escribirEstado(int nuevoEstado) {
+        this.estado = (byte) nuevoEstado;
     }
     
     // ========== GETTERS ==========
 
     public boolean esMina() {
-        return esMina;
+        return (leerEstado() & BIT_MINA) != 0;
     }
     
 
     public boolean estaRevelada() {
-        return estaRevelada;
+        return (leerEstado() & BIT_REVELADA) != 0;
     }
     
 
     public boolean estaMarcada() {
-        return estaMarcada;
+        return (leerEstado() & BIT_MARCADA) != 0;
     }
     
 
     public int getMinasAdyacentes() {
-        return minasAdyacentes;
+        return leerEstado() & MASCARA_ADYACENTES;
     }
     
     // ========== SETTERS ==========
 
     public void establecerComoMina() {
-        this.esMina = true;
+        escribirEstado(leerEstado() | BIT_MINA);
     }
     
 
     public void revelar() {
-        this.estaRevelada = true;
+        escribirEstado(leerEstado() | BIT_REVELADA);
     }
     
 
     public void alternarMarcado() {
-        this.estaMarcada = !this.estaMarcada;
+        escribirEstado(leerEstado() ^ BIT_MARCADA);
     }
     
 
     public void incrementarMinasAdyacentes() {
-        this.minasAdyacentes++;
+        escribirEstado(leerEstado() + 1);
+    }
+    
+
+    public void establecerMinasAdyacentes(int minasAdyacentes) {
+        if (minasAdyacentes < 0 || minasAdyacentes > 8) {
+            throw new IllegalArgumentException("Cantidad de minas adyacentes inválida: " + minasAdyacentes);
+        }
+        escribirEstado((leerEstado() & ~MASCARA_ADYACENTES) | minasAdyacentes);
     }
     
     // ========== MÉTODOS DE UTILIDAD ==========
 
     public boolean esVacia() {
-        return !esMina && minasAdyacentes == 0;
+        return esVacia(leerEstado());
     }
     
 
     public boolean tieneMinasAdyacentes() {
-        return !esMina && minasAdyacentes > 0;
+        int estadoActual = leerEstado();
+        return (estadoActual & BIT_MINA) == 0 && (estadoActual & MASCARA_ADYACENTES) > 0;
     }
     
 
     public void reiniciar() {
-        this.esMina = false;
-        this.estaRevelada = false;
-        this.estaMarcada = false;
-        this.minasAdyacentes = 0;
+        escribirEstado(0);
+    }
+    
+
+    static boolean esVacia(int estado) {
+        return (estado & (BIT_MINA | MASCARA_ADYACENTES)) == 0;
     }
 } 
\ No newline at end of file
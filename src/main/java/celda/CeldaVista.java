@@ -0,0 +1,30 @@
+package celda;
+
+
+/**
+ * Vista ligera (flyweight) sobre una celda del almacenamiento empaquetado de
+ * TableroBuscaminas. No guarda estado propio: lee y escribe el byte de la celda
+ * directamente en el arreglo del tablero.
+ */
+final class CeldaVista extends Celda {
+    private final byte[] celdas;
+    private final int indice;
+
+
+    CeldaVista(byte[] celdas, int indice) {
+        this.celdas = celdas;
+        this.indice = indice;
+    }
+
+
+    @Override
+    int leerEstado() {
+        return celdas[indice];
+    }
+
+
+    @Override
+    void escribirEstado(int nuevoEstado) {
+        celdas[indice] = (byte) nuevoEstado;
+    }
+}
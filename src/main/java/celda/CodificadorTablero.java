@@ -0,0 +1,115 @@
+package celda;
+
+
+/**
+ * Serializa un tablero como tres mapas de bits consecutivos (minas,
+ * reveladas y marcadas), un bit por celda en el orden fila * columnas +
+ * columna. Los contadores de minas adyacentes no se guardan: se recalculan
+ * al decodificar a partir de las minas.
+ *
+ * Un tablero de 20x20 ocupa 150 bytes frente a las 400 filas del formato
+ * anterior.
+ */
+public final class CodificadorTablero {
+    public static final int VERSION_FORMATO = 1;
+
+    private CodificadorTablero() {
+    }
+
+
+    public static byte[] codificar(TableroBuscaminas tablero) {
+        byte[] celdas = tablero.getEstadosCeldas();
+        int bytesPorMapa = bytesPorMapa(celdas.length);
+        byte[] datos = new byte[3 * bytesPorMapa];
+
+        for (int i = 0; i < celdas.length; i++) {
+            int estado = celdas[i];
+            int posicion = i >>> 3;
+            byte bit = (byte) (1 << (i & 7));
+            if ((estado & Celda.BIT_MINA) != 0) {
+                datos[posicion] |= bit;
+            }
+            if ((estado & Celda.BIT_REVELADA) != 0) {
+                datos[bytesPorMapa + posicion] |= bit;
+            }
+            if ((estado & Celda.BIT_MARCADA) != 0) {
+                datos[2 * bytesPorMapa + posicion] |= bit;
+            }
+        }
+        return datos;
+    }
+
+
+    /**
+     * Reconstruye el tablero, sus contadores de adyacencia y sus contadores de
+     * partida (celdas reveladas, banderas y si terminó).
+     */
+    public static TableroBuscaminas decodificar(byte[] datos, int filas, int columnas, int cantidadMinas) {
+        TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, cantidadMinas);
+        byte[] celdas = tablero.getEstadosCeldas();
+        int bytesPorMapa = bytesPorMapa(celdas.length);
+        if (datos == null || datos.length != 3 * bytesPorMapa) {
+            throw new IllegalArgumentException("Datos de tablero inválidos para " + filas + "x" + columnas);
+        }
+
+        for (int i = 0; i < celdas.length; i++) {
+            int posicion = i >>> 3;
+            int bit = 1 << (i & 7);
+            int estado = 0;
+            if ((datos[posicion] & bit) != 0) {
+                estado |= Celda.BIT_MINA;
+            }
+            if ((datos[bytesPorMapa + posicion] & bit) != 0) {
+                estado |= Celda.BIT_REVELADA;
+            }
+            if ((datos[2 * bytesPorMapa + posicion] & bit) != 0) {
+                estado |= Celda.BIT_MARCADA;
+            }
+            celdas[i] = (byte) estado;
+        }
+
+        CalculadorAdyacencias.sumarMinas(celdas, filas, columnas, CalculadorAdyacencias.buscarMinas(celdas));
+        tablero.restaurarContadores();
+        return tablero;
+    }
+
+
+    /**
+     * Sobrescribe en unos datos ya codificados el estado de las celdas
+     * indicadas, sin decodificar el tablero. Lo usa el guardado incremental
+     * para plegar los cambios pendientes en el BLOB.
+     */
+    public static void aplicarCambios(byte[] datos, int totalCeldas, int[] indices, byte[] estados) {
+        int bytesPorMapa = bytesPorMapa(totalCeldas);
+        if (datos == null || datos.length != 3 * bytesPorMapa) {
+            throw new IllegalArgumentException("Datos de tablero inválidos para " + totalCeldas + " celdas");
+        }
+
+        for (int i = 0; i < indices.length; i++) {
+            int indice = indices[i];
+            if (indice < 0 || indice >= totalCeldas) {
+                throw new IllegalArgumentException("Celda fuera del tablero: " + indice);
+            }
+            int posicion = indice >>> 3;
+            int bit = 1 << (indice & 7);
+            int estado = estados[i];
+            actualizarBit(datos, posicion, bit, (estado & Celda.BIT_MINA) != 0);
+            actualizarBit(datos, bytesPorMapa + posicion, bit, (estado & Celda.BIT_REVELADA) != 0);
+            actualizarBit(datos, 2 * bytesPorMapa + posicion, bit, (estado & Celda.BIT_MARCADA) != 0);
+        }
+    }
+
+
+    private static void actualizarBit(byte[] datos, int posicion, int bit, boolean activo) {
+        if (activo) {
+            datos[posicion] |= (byte) bit;
+        } else {
+            datos[posicion] &= (byte) ~bit;
+        }
+    }
+
+
+    static int bytesPorMapa(int totalCeldas) {
+        return (totalCeldas + 7) >>> 3;
+    }
+}
@@ -0,0 +1,72 @@
+package celda;
+
+
+/**
+ * Cola FIFO circular de enteros primitivos. Se reutiliza entre operaciones
+ * para no crear objetos por celda; solo crece (duplicando) si se llena.
+ */
+final class ColaEnteros {
+    private int[] elementos;
+    private int cabeza;
+    private int tamano;
+
+
+    ColaEnteros(int capacidadInicial) {
+        this.elementos = new int[Math.max(4, capacidadInicial)];
+    }
+
+
+    void agregar(int valor) {
+        if (tamano == elementos.length) {
+            crecer();
+        }
+        int posicion = cabeza + tamano;
+        if (posicion >= elementos.length) {
+            posicion -= elementos.length;
+        }
+        elementos[posicion] = valor;
+        tamano++;
+    }
+
+
+    int extraer() {
+        int valor = elementos[cabeza];
+        cabeza++;
+        if (cabeza == elementos.length) {
+            cabeza = 0;
+        }
+        tamano--;
+        return valor;
+    }
+
+
+    boolean estaVacia() {
+        return tamano == 0;
+    }
+
+
+    int getTamano() {
+        return tamano;
+    }
+
+
+    int getCapacidad() {
+        return elementos.length;
+    }
+
+
+    void limpiar() {
+        cabeza = 0;
+        tamano = 0;
+    }
+
+
+    private void crecer() {
+        int[] nuevos = new int[elementos.length * 2];
+        int primerTramo = Math.min(tamano, elementos.length - cabeza);
+        System.arraycopy(elementos, cabeza, nuevos, 0, primerTramo);
+        System.arraycopy(elementos, 0, nuevos, primerTramo, tamano - primerTramo);
+        elementos = nuevos;
+        cabeza = 0;
+    }
+}
@@ -0,0 +1,122 @@
+package celda;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+
+/**
+ * Coloca las minas de un tablero muestreando celdas sin reemplazo con el
+ * algoritmo de Floyd: cada mina cuesta un único número aleatorio, sin
+ * reintentos, por lo que el tiempo es proporcional a la cantidad de minas
+ * incluso con densidades cercanas al 100%.
+ *
+ * Alrededor del primer clic se reserva una zona segura cuadrada de
+ * radio configurable (0 = solo la celda pulsada, 1 = vecindario 3x3).
+ */
+public class ColocadorMinas {
+    private final RandomGenerator generador;
+    private int radioZonaSegura;
+
+    // ========== CONSTRUCTORES ==========
+
+    public ColocadorMinas() {
+        this(RandomGenerator.getDefault());
+    }
+
+
+    public ColocadorMinas(long semilla) {
+        this(new SplittableRandom(semilla));
+    }
+
+
+    public ColocadorMinas(RandomGenerator generador) {
+        if (generador == null) {
+            throw new IllegalArgumentException("El generador aleatorio no puede ser nulo");
+        }
+        this.generador = generador;
+        this.radioZonaSegura = 0;
+    }
+
+    // ========== COLOCACIÓN ==========
+
+    /**
+     * Marca {@code cantidadMinas} celdas como mina en el arreglo empaquetado y
+     * devuelve sus índices. Si la zona segura no deja sitio suficiente se reduce
+     * a la celda pulsada.
+     */
+    int[] colocar(byte[] celdas, int filas, int columnas, int cantidadMinas,
+                  int filaPrimerClic, int columnaPrimerClic) {
+        int[] excluidas = calcularZonaSegura(filas, columnas, filaPrimerClic, columnaPrimerClic, radioZonaSegura);
+        if (celdas.length - excluidas.length < cantidadMinas) {
+            excluidas = calcularZonaSegura(filas, columnas, filaPrimerClic, columnaPrimerClic, 0);
+        }
+
+        int disponibles = celdas.length - excluidas.length;
+        if (disponibles < cantidadMinas) {
+            throw new IllegalStateException("No caben " + cantidadMinas + " minas en el tablero");
+        }
+
+        // Algoritmo de Floyd sobre el rango [0, disponibles); el propio bit de mina
+        // del tablero hace de conjunto de elegidos.
+        int[] indicesMinas = new int[cantidadMinas];
+        int colocadas = 0;
+        for (int j = disponibles - cantidadMinas; j < disponibles; j++) {
+            int indice = traducirRango(generador.nextInt(j + 1), excluidas);
+            if ((celdas[indice] & Celda.BIT_MINA) != 0) {
+                indice = traducirRango(j, excluidas);
+            }
+            celdas[indice] |= Celda.BIT_MINA;
+            indicesMinas[colocadas++] = indice;
+        }
+
+        return indicesMinas;
+    }
+
+
+    // Devuelve los índices de la zona segura en orden ascendente
+    private static int[] calcularZonaSegura(int filas, int columnas, int fila, int columna, int radio) {
+        if (fila < 0 || fila >= filas || columna < 0 || columna >= columnas) {
+            return new int[0];
+        }
+
+        int filaInicio = Math.max(0, fila - radio);
+        int filaFin = Math.min(filas - 1, fila + radio);
+        int columnaInicio = Math.max(0, columna - radio);
+        int columnaFin = Math.min(columnas - 1, columna + radio);
+
+        int[] excluidas = new int[(filaFin - filaInicio + 1) * (columnaFin - columnaInicio + 1)];
+        int total = 0;
+        for (int f = filaInicio; f <= filaFin; f++) {
+            for (int c = columnaInicio; c <= columnaFin; c++) {
+                excluidas[total++] = f * columnas + c;
+            }
+        }
+        return excluidas;
+    }
+
+
+    // Convierte la posición k entre las celdas permitidas en un índice real del tablero
+    private static int traducirRango(int posicion, int[] excluidas) {
+        for (int excluida : excluidas) {
+            if (excluida > posicion) {
+                break;
+            }
+            posicion++;
+        }
+        return posicion;
+    }
+
+    // ========== CONFIGURACIÓN ==========
+
+    public int getRadioZonaSegura() {
+        return radioZonaSegura;
+    }
+
+
+    public void setRadioZonaSegura(int radioZonaSegura) {
+        if (radioZonaSegura < 0) {
+            throw new IllegalArgumentException("El radio de la zona segura no puede ser negativo");
+        }
+        this.radioZonaSegura = radioZonaSegura;
+    }
+}
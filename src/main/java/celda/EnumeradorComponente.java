@@ -0,0 +1,317 @@
+package celda;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+
+/**
+ * Enumera por backtracking todas las asignaciones mina/segura de una
+ * componente de la frontera que satisfacen sus restricciones. Agrupa los
+ * resultados por cantidad de minas de la solución: cuántas soluciones hay
+ * con m minas y, para cada variable, en cuántas de ellas es mina. Los
+ * conteos por variable se guardan solo para las cantidades de minas que
+ * tienen alguna solución; cada solución cuesta al menos un nodo por
+ * variable, así que su memoria queda acotada por el presupuesto.
+ *
+ * La búsqueda tiene un presupuesto de nodos; si se agota, el resultado se
+ * marca como incompleto y no debe usarse para deducciones. Para componentes
+ * demasiado grandes se puede muestrear en su lugar, con resultados
+ * aproximados.
+ */
+final class EnumeradorComponente {
+    static final byte DESCONOCIDA = 0;
+    static final byte SEGURA = 1;
+    static final byte MINA = 2;
+
+    // variable local -> variable global de la frontera
+    private final int[] variables;
+    // restricción local -> variables locales sin decidir
+    private final int[][] restricciones;
+    // restricción local -> minas que faltan por colocar
+    private final int[] objetivos;
+    // variable local -> restricciones locales
+    private final int[][] restriccionesDeVariable;
+    private final int[] orden;
+
+    private final int[] minasAsignadas;
+    private final int[] libres;
+    private final boolean[] esMina;
+    private double[] soluciones;
+    // minasPorCantidad[m][v]; la fila m es null mientras no haya soluciones con m minas
+    private double[][] minasPorCantidad;
+    private long nodosRestantes;
+
+
+    /**
+     * @param frontera  modelo completo de la frontera
+     * @param decididas estado ya deducido de cada variable global (DESCONOCIDA, SEGURA o MINA)
+     * @param variables variables globales sin decidir que forman la componente
+     */
+    EnumeradorComponente(FronteraTablero frontera, byte[] decididas, int[] variables) {
+        this.variables = variables;
+        int total = variables.length;
+
+        int[] localPorGlobal = new int[frontera.getTotalVariables()];
+        Arrays.fill(localPorGlobal, -1);
+        for (int i = 0; i < total; i++) {
+            localPorGlobal[variables[i]] = i;
+        }
+
+        // Restricciones que tocan la componente, reducidas a sus variables sin decidir
+        ListaEnteros idsRestricciones = new ListaEnteros(16);
+        boolean[] vista = new boolean[frontera.restricciones.length];
+        for (int variable : variables) {
+            for (int r : frontera.restriccionesDeVariable[variable]) {
+                if (!vista[r]) {
+                    vista[r] = true;
+                    idsRestricciones.agregar(r);
+                }
+            }
+        }
+
+        int cantidad = idsRestricciones.getTamano();
+        this.restricciones = new int[cantidad][];
+        this.objetivos = new int[cantidad];
+        int[] apariciones = new int[total];
+        for (int i = 0; i < cantidad; i++) {
+            int r = idsRestricciones.obtener(i);
+            int objetivo = frontera.valores[r];
+            ListaEnteros locales = new ListaEnteros(8);
+            for (int global : frontera.restricciones[r]) {
+                if (decididas[global] == MINA) {
+                    objetivo--;
+                } else if (decididas[global] == DESCONOCIDA && localPorGlobal[global] >= 0) {
+                    locales.agregar(localPorGlobal[global]);
+                    apariciones[localPorGlobal[global]]++;
+                }
+            }
+            restricciones[i] = locales.aArreglo();
+            objetivos[i] = objetivo;
+        }
+
+        this.restriccionesDeVariable = new int[total][];
+        for (int v = 0; v < total; v++) {
+            restriccionesDeVariable[v] = new int[apariciones[v]];
+            apariciones[v] = 0;
+        }
+        for (int i = 0; i < cantidad; i++) {
+            for (int v : restricciones[i]) {
+                restriccionesDeVariable[v][apariciones[v]++] = i;
+            }
+        }
+
+        this.orden = calcularOrden(total);
+        this.minasAsignadas = new int[cantidad];
+        this.libres = new int[cantidad];
+        this.esMina = new boolean[total];
+    }
+
+
+    /**
+     * Recorre todas las soluciones. Devuelve false si se agotó el presupuesto
+     * de nodos antes de terminar.
+     */
+    boolean enumerar(long nodosMaximos) {
+        if (!prepararBusqueda()) {
+            return true; // Restricciones contradictorias (banderas incorrectas): sin soluciones
+        }
+        this.nodosRestantes = nodosMaximos;
+        return buscar(0, 0);
+    }
+
+
+    /**
+     * Busca hasta {@code muestras} soluciones con backtracking aleatorio, cada
+     * una con su propio presupuesto de nodos. Los conteos resultantes son una
+     * aproximación. Devuelve false si no se encontró ninguna solución.
+     */
+    boolean muestrear(int muestras, long nodosPorMuestra, RandomGenerator aleatorio) {
+        if (!prepararBusqueda()) {
+            return false;
+        }
+        boolean encontrada = false;
+        for (int i = 0; i < muestras; i++) {
+            this.nodosRestantes = nodosPorMuestra;
+            encontrada |= buscarMuestra(0, 0, aleatorio);
+        }
+        return encontrada;
+    }
+
+
+    private boolean prepararBusqueda() {
+        int total = variables.length;
+        this.soluciones = new double[total + 1];
+        this.minasPorCantidad = new double[total + 1][];
+
+        for (int i = 0; i < restricciones.length; i++) {
+            minasAsignadas[i] = 0;
+            libres[i] = restricciones[i].length;
+            if (objetivos[i] < 0 || objetivos[i] > libres[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private boolean buscar(int profundidad, int minas) {
+        if (--nodosRestantes < 0) {
+            return false;
+        }
+
+        if (profundidad == orden.length) {
+            registrarSolucion(minas);
+            return true;
+        }
+
+        int variable = orden[profundidad];
+        for (int valor = 0; valor <= 1; valor++) {
+            if (asignar(variable, valor)) {
+                esMina[variable] = valor == 1;
+                boolean completo = buscar(profundidad + 1, minas + valor);
+                esMina[variable] = false;
+                desasignar(variable, valor);
+                if (!completo) {
+                    return false;
+                }
+            } else {
+                desasignar(variable, valor);
+            }
+        }
+        return true;
+    }
+
+
+    // Se detiene en la primera solución; el orden de los valores se sortea en cada nivel
+    private boolean buscarMuestra(int profundidad, int minas, RandomGenerator aleatorio) {
+        if (--nodosRestantes < 0) {
+            return false;
+        }
+
+        if (profundidad == orden.length) {
+            registrarSolucion(minas);
+            return true;
+        }
+
+        int variable = orden[profundidad];
+        int primero = aleatorio.nextBoolean() ? 1 : 0;
+        for (int intento = 0; intento <= 1; intento++) {
+            int valor = intento == 0 ? primero : 1 - primero;
+            boolean encontrada = false;
+            if (asignar(variable, valor)) {
+                esMina[variable] = valor == 1;
+                encontrada = buscarMuestra(profundidad + 1, minas + valor, aleatorio);
+                esMina[variable] = false;
+            }
+            desasignar(variable, valor);
+            if (encontrada) {
+                return true;
+            }
+            if (nodosRestantes < 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+
+    private void registrarSolucion(int minas) {
+        soluciones[minas]++;
+        double[] fila = minasPorCantidad[minas];
+        if (fila == null) {
+            fila = new double[esMina.length];
+            minasPorCantidad[minas] = fila;
+        }
+        for (int v = 0; v < esMina.length; v++) {
+            if (esMina[v]) {
+                fila[v]++;
+            }
+        }
+    }
+
+
+    private boolean asignar(int variable, int valor) {
+        boolean valido = true;
+        for (int r : restriccionesDeVariable[variable]) {
+            minasAsignadas[r] += valor;
+            libres[r]--;
+            if (minasAsignadas[r] > objetivos[r] || minasAsignadas[r] + libres[r] < objetivos[r]) {
+                valido = false;
+            }
+        }
+        return valido;
+    }
+
+
+    private void desasignar(int variable, int valor) {
+        for (int r : restriccionesDeVariable[variable]) {
+            minasAsignadas[r] -= valor;
+            libres[r]++;
+        }
+    }
+
+
+    // Orden en anchura a través de las restricciones para que se cierren pronto y poden antes
+    private int[] calcularOrden(int total) {
+        int[] resultado = new int[total];
+        boolean[] visitada = new boolean[total];
+        int cantidad = 0;
+        int cabeza = 0;
+
+        for (int inicio = 0; inicio < total; inicio++) {
+            if (visitada[inicio]) {
+                continue;
+            }
+            visitada[inicio] = true;
+            resultado[cantidad++] = inicio;
+            while (cabeza < cantidad) {
+                int actual = resultado[cabeza++];
+                for (int r : restriccionesDeVariable[actual]) {
+                    for (int vecina : restricciones[r]) {
+                        if (!visitada[vecina]) {
+                            visitada[vecina] = true;
+                            resultado[cantidad++] = vecina;
+                        }
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+
+    // ========== RESULTADOS ==========
+
+    int[] getVariables() {
+        return variables;
+    }
+
+
+    /**
+     * Descripción canónica de las restricciones locales. Dos componentes con la
+     * misma firma tienen exactamente los mismos conteos de soluciones.
+     */
+    String getFirma() {
+        StringBuilder firma = new StringBuilder();
+        firma.append(variables.length).append(':');
+        for (int i = 0; i < restricciones.length; i++) {
+            firma.append(objetivos[i]).append('=');
+            for (int v : restricciones[i]) {
+                firma.append(v).append(',');
+            }
+            firma.append(';');
+        }
+        return firma.toString();
+    }
+
+
+    // soluciones[m] = cantidad de soluciones con m minas
+    double[] getSoluciones() {
+        return soluciones;
+    }
+
+
+    // minasPorCantidad[m][v] = soluciones con m minas en las que la variable local v es mina; null si no hay ninguna
+    double[][] getMinasPorCantidad() {
+        return minasPorCantidad;
+    }
+}
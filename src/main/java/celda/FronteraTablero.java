@@ -0,0 +1,173 @@
+package celda;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Modelo de restricciones construido solo con la información visible del
+ * tablero: los números de las celdas reveladas y las banderas (que se
+ * consideran minas). Cada celda oculta vecina de un número es una variable
+ * y cada número con vecinas ocultas es una restricción "la suma de estas
+ * variables vale N".
+ *
+ * Construirla recorre los bytes del tablero una vez, de ocho en ocho mientras
+ * no haya reveladas, y solo reserva memoria para la frontera: las variables
+ * se indexan por celda en un MapaEnteros y no en un arreglo del tamaño del
+ * tablero.
+ */
+final class FronteraTablero {
+    private static final VarHandle OCHO_CELDAS =
+        MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long UNOS = 0x0101010101010101L;
+    private static final long REVELADAS_EN_OCHO = UNOS * Celda.BIT_REVELADA;
+    private static final long MARCADAS_EN_OCHO = UNOS * Celda.BIT_MARCADA;
+
+    final int columnas;
+    // variable -> índice de la celda en el tablero
+    final int[] celdas;
+    // índice de la celda -> variable
+    private final MapaEnteros variablePorCelda;
+    // restricción -> variables que involucra
+    final int[][] restricciones;
+    // restricción -> minas que faltan entre sus variables (número - banderas vecinas)
+    final int[] valores;
+    // variable -> restricciones en las que aparece
+    final int[][] restriccionesDeVariable;
+    // celdas ocultas sin marcar que no tocan ningún número
+    final int celdasInteriores;
+    // minas totales menos banderas colocadas
+    final int minasRestantes;
+
+
+    private FronteraTablero(int columnas, int[] celdas, MapaEnteros variablePorCelda, int[][] restricciones,
+                            int[] valores, int[][] restriccionesDeVariable, int celdasInteriores, int minasRestantes) {
+        this.columnas = columnas;
+        this.celdas = celdas;
+        this.variablePorCelda = variablePorCelda;
+        this.restricciones = restricciones;
+        this.valores = valores;
+        this.restriccionesDeVariable = restriccionesDeVariable;
+        this.celdasInteriores = celdasInteriores;
+        this.minasRestantes = minasRestantes;
+    }
+
+
+    static FronteraTablero construir(TableroBuscaminas tablero) {
+        byte[] estados = tablero.getEstadosCeldas();
+        int filas = tablero.getFilas();
+        int columnas = tablero.getColumnas();
+
+        MapaEnteros variablePorCelda = new MapaEnteros(64);
+        ListaEnteros celdasVariables = new ListaEnteros(64);
+        List<int[]> listaRestricciones = new ArrayList<>();
+        ListaEnteros listaValores = new ListaEnteros(64);
+        int[] vecinasOcultas = new int[8];
+        int ocultas = 0;
+        int banderas = 0;
+
+        for (int indice = 0; indice < estados.length; indice++) {
+            // Casi todo un tablero grande está oculto: ocho celdas sin reveladas se cuentan de una vez
+            if ((indice & 7) == 0 && indice + 8 <= estados.length) {
+                long ocho = (long) OCHO_CELDAS.get(estados, indice);
+                if ((ocho & REVELADAS_EN_OCHO) == 0) {
+                    int marcadas = Long.bitCount(ocho & MARCADAS_EN_OCHO);
+                    banderas += marcadas;
+                    ocultas += 8 - marcadas;
+                    indice += 7;
+                    continue;
+                }
+            }
+
+            int estado = estados[indice];
+            if ((estado & Celda.BIT_REVELADA) == 0) {
+                if ((estado & Celda.BIT_MARCADA) != 0) {
+                    banderas++;
+                } else {
+                    ocultas++;
+                }
+                continue;
+            }
+
+            int numero = estado & Celda.MASCARA_ADYACENTES;
+            if ((estado & Celda.BIT_MINA) != 0 || numero == 0) {
+                continue;
+            }
+
+            int fila = indice / columnas;
+            int columna = indice - fila * columnas;
+            int cantidadOcultas = 0;
+            int banderasVecinas = 0;
+
+            for (int f = Math.max(0, fila - 1); f <= Math.min(filas - 1, fila + 1); f++) {
+                for (int c = Math.max(0, columna - 1); c <= Math.min(columnas - 1, columna + 1); c++) {
+                    int vecina = f * columnas + c;
+                    int estadoVecina = estados[vecina];
+                    if ((estadoVecina & Celda.BIT_REVELADA) != 0) {
+                        continue;
+                    }
+                    if ((estadoVecina & Celda.BIT_MARCADA) != 0) {
+                        banderasVecinas++;
+                    } else {
+                        vecinasOcultas[cantidadOcultas++] = vecina;
+                    }
+                }
+            }
+
+            if (cantidadOcultas == 0) {
+                continue;
+            }
+
+            int[] variables = new int[cantidadOcultas];
+            for (int i = 0; i < cantidadOcultas; i++) {
+                int variable = variablePorCelda.obtener(vecinasOcultas[i]);
+                if (variable == MapaEnteros.AUSENTE) {
+                    variable = celdasVariables.getTamano();
+                    variablePorCelda.poner(vecinasOcultas[i], variable);
+                    celdasVariables.agregar(vecinasOcultas[i]);
+                }
+                variables[i] = variable;
+            }
+            listaRestricciones.add(variables);
+            listaValores.agregar(numero - banderasVecinas);
+        }
+
+        int totalVariables = celdasVariables.getTamano();
+        int[][] restricciones = listaRestricciones.toArray(new int[0][]);
+
+        int[] apariciones = new int[totalVariables];
+        for (int[] variables : restricciones) {
+            for (int variable : variables) {
+                apariciones[variable]++;
+            }
+        }
+        int[][] restriccionesDeVariable = new int[totalVariables][];
+        for (int variable = 0; variable < totalVariables; variable++) {
+            restriccionesDeVariable[variable] = new int[apariciones[variable]];
+            apariciones[variable] = 0;
+        }
+        for (int r = 0; r < restricciones.length; r++) {
+            for (int variable : restricciones[r]) {
+                restriccionesDeVariable[variable][apariciones[variable]++] = r;
+            }
+        }
+
+        return new FronteraTablero(columnas, celdasVariables.aArreglo(), variablePorCelda, restricciones,
+                                   listaValores.aArreglo(), restriccionesDeVariable, ocultas - totalVariables,
+                                   tablero.getCantidadMinas() - banderas);
+    }
+
+
+    // Variable de la celda, o -1 si la celda no está en la frontera
+    int getVariable(int indice) {
+        return variablePorCelda.obtener(indice);
+    }
+
+
+    int getTotalVariables() {
+        return celdas.length;
+    }
+}
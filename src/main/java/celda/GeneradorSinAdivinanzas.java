@@ -0,0 +1,181 @@
+package celda;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Colocador de minas que solo acepta tableros que se pueden resolver sin
+ * adivinar desde el primer clic.
+ *
+ * Cada candidato se genera con Floyd a partir de semillaBase + intento y se
+ * juega con {@link SolucionadorBuscaminas}; se acepta si el solucionador lo
+ * gana sin ninguna jugada a ciegas. Los candidatos se prueban en paralelo
+ * sobre un ForkJoinPool y en cuanto uno funciona los demás se abandonan. Los
+ * intentos siguen numerándose de una generación a la siguiente, así que al
+ * reiniciar la partida sale otro tablero aunque el primer clic se repita.
+ *
+ * Se queda el intento válido de menor número. Mientras ninguna generación
+ * agote el tiempo límite, la misma semilla da la misma serie de tableros
+ * aunque cambie el reparto entre hilos. Al agotarse, un intento menor puede
+ * haberse abandonado a medias, y si no hay ninguno válido se coloca un
+ * tablero normal; desde ahí la serie depende de la velocidad de la máquina.
+ */
+public class GeneradorSinAdivinanzas extends ColocadorMinas {
+    static final long TIEMPO_LIMITE_MS_DEFAULT = 100;
+    static final long NODOS_SOLUCIONADOR = 20_000;
+
+    private final long semillaBase;
+    private final ForkJoinPool pool;
+    // Primer intento de la próxima generación
+    private long primerIntento;
+    private long tiempoLimiteMs = TIEMPO_LIMITE_MS_DEFAULT;
+    private int intentosUltimaGeneracion;
+    private long nanosUltimaGeneracion;
+    private boolean ultimaGeneracionSinAdivinanzas;
+
+    // ========== CONSTRUCTORES ==========
+
+    public GeneradorSinAdivinanzas() {
+        this(new SplittableRandom().nextLong());
+    }
+
+
+    public GeneradorSinAdivinanzas(long semilla) {
+        this(semilla, ForkJoinPool.commonPool());
+    }
+
+
+    GeneradorSinAdivinanzas(long semilla, ForkJoinPool pool) {
+        super(semilla);
+        this.semillaBase = semilla;
+        this.pool = pool;
+        setRadioZonaSegura(1);
+    }
+
+    // ========== COLOCACIÓN ==========
+
+    @Override
+    int[] colocar(byte[] celdas, int filas, int columnas, int cantidadMinas,
+                  int filaPrimerClic, int columnaPrimerClic) {
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(tiempoLimiteMs);
+        int radio = Math.max(1, getRadioZonaSegura());
+
+        AtomicLong siguienteIntento = new AtomicLong(primerIntento);
+        AtomicLong mejorIntento = new AtomicLong(Long.MAX_VALUE);
+        AtomicInteger intentos = new AtomicInteger();
+
+        List<ForkJoinTask<?>> trabajadores = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, pool.getParallelism()); i++) {
+            trabajadores.add(pool.submit(() -> {
+                while (System.nanoTime() < limite) {
+                    long intento = siguienteIntento.getAndIncrement();
+                    if (intento > mejorIntento.get()) {
+                        return;
+                    }
+                    intentos.incrementAndGet();
+                    if (esResolubleSinAdivinar(intento, filas, columnas, cantidadMinas,
+                                               filaPrimerClic, columnaPrimerClic, radio, limite, mejorIntento)) {
+                        mejorIntento.accumulateAndGet(intento, Math::min);
+                        return;
+                    }
+                }
+            }));
+        }
+        for (ForkJoinTask<?> trabajador : trabajadores) {
+            trabajador.join();
+        }
+
+        int[] indicesMinas;
+        long elegido = mejorIntento.get();
+        if (elegido != Long.MAX_VALUE) {
+            ColocadorMinas candidato = crearCandidato(elegido, radio);
+            indicesMinas = candidato.colocar(celdas, filas, columnas, cantidadMinas, filaPrimerClic, columnaPrimerClic);
+        } else {
+            indicesMinas = super.colocar(celdas, filas, columnas, cantidadMinas, filaPrimerClic, columnaPrimerClic);
+        }
+
+        this.intentosUltimaGeneracion = intentos.get();
+        this.nanosUltimaGeneracion = System.nanoTime() - inicio;
+        this.ultimaGeneracionSinAdivinanzas = elegido != Long.MAX_VALUE;
+        // Tras un acierto se sigue justo después de él, y no de los que otros hilos ya habían cogido,
+        // para que la serie no dependa del reparto entre hilos
+        this.primerIntento = elegido != Long.MAX_VALUE ? elegido + 1 : siguienteIntento.get();
+        return indicesMinas;
+    }
+
+
+    private ColocadorMinas crearCandidato(long intento, int radio) {
+        ColocadorMinas candidato = new ColocadorMinas(semillaBase + intento);
+        candidato.setRadioZonaSegura(radio);
+        return candidato;
+    }
+
+
+    // Juega el candidato solo con jugadas demostradas; abandona si otro hilo ya encontró uno mejor
+    private boolean esResolubleSinAdivinar(long intento, int filas, int columnas, int cantidadMinas,
+                                           int filaPrimerClic, int columnaPrimerClic, int radio,
+                                           long limite, AtomicLong mejorIntento) {
+        TableroBuscaminas simulado = new TableroBuscaminas(filas, columnas, cantidadMinas);
+        simulado.setColocadorMinas(crearCandidato(intento, radio));
+        simulado.colocarMinas(filaPrimerClic, columnaPrimerClic);
+        simulado.revelarCelda(filaPrimerClic, columnaPrimerClic);
+
+        SolucionadorBuscaminas solucionador = new SolucionadorBuscaminas(NODOS_SOLUCIONADOR);
+        while (!simulado.isJuegoTerminado()) {
+            if (intento > mejorIntento.get() || System.nanoTime() >= limite) {
+                return false;
+            }
+            SolucionadorBuscaminas.Resultado resultado = solucionador.resolver(simulado);
+            if (!resultado.hayJugadaSegura()) {
+                return false;
+            }
+            for (int i = 0; i < resultado.getCantidadSeguras(); i++) {
+                simulado.revelarCelda(resultado.getFilaSegura(i), resultado.getColumnaSegura(i));
+            }
+            for (int i = 0; i < resultado.getCantidadMinas(); i++) {
+                if (!simulado.estaMarcada(resultado.getIndiceMina(i))) {
+                    simulado.marcarCelda(resultado.getFilaMina(i), resultado.getColumnaMina(i));
+                }
+            }
+        }
+        return simulado.isJuegoGanado();
+    }
+
+    // ========== CONFIGURACIÓN Y MÉTRICAS ==========
+
+    public long getTiempoLimiteMs() {
+        return tiempoLimiteMs;
+    }
+
+
+    public void setTiempoLimiteMs(long tiempoLimiteMs) {
+        if (tiempoLimiteMs <= 0) {
+            throw new IllegalArgumentException("El tiempo límite debe ser positivo");
+        }
+        this.tiempoLimiteMs = tiempoLimiteMs;
+    }
+
+
+    public int getIntentosUltimaGeneracion() {
+        return intentosUltimaGeneracion;
+    }
+
+
+    public long getNanosUltimaGeneracion() {
+        return nanosUltimaGeneracion;
+    }
+
+
+    /** false si se agotó el tiempo y se colocó un tablero normal. */
+    public boolean isUltimaGeneracionSinAdivinanzas() {
+        return ultimaGeneracionSinAdivinanzas;
+    }
+}
@@ -0,0 +1,51 @@
+package celda;
+
+import java.util.Arrays;
+
+
+/**
+ * Lista creciente de enteros primitivos, pensada para reutilizarse
+ * (limpiar no libera memoria) y evitar el boxing de List&lt;Integer&gt;.
+ */
+final class ListaEnteros {
+    private int[] elementos;
+    private int tamano;
+
+
+    ListaEnteros(int capacidadInicial) {
+        this.elementos = new int[Math.max(4, capacidadInicial)];
+    }
+
+
+    void agregar(int valor) {
+        if (tamano == elementos.length) {
+            elementos = Arrays.copyOf(elementos, elementos.length * 2);
+        }
+        elementos[tamano++] = valor;
+    }
+
+
+    int obtener(int posicion) {
+        return elementos[posicion];
+    }
+
+
+    int getTamano() {
+        return tamano;
+    }
+
+
+    boolean estaVacia() {
+        return tamano == 0;
+    }
+
+
+    void limpiar() {
+        tamano = 0;
+    }
+
+
+    int[] aArreglo() {
+        return Arrays.copyOf(elementos, tamano);
+    }
+}
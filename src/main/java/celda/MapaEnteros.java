@@ -0,0 +1,81 @@
+package celda;
+
+import java.util.Arrays;
+
+
+/**
+ * Mapa de enteros no negativos a enteros con direccionamiento abierto, para
+ * indexar por celda solo las que interesan (la frontera) sin reservar un
+ * arreglo del tamaño del tablero ni el boxing de Map&lt;Integer, Integer&gt;.
+ */
+final class MapaEnteros {
+    static final int AUSENTE = -1;
+
+    private int[] claves;
+    private int[] valores;
+    private int tamano;
+
+
+    MapaEnteros(int capacidadInicial) {
+        int capacidad = Integer.highestOneBit(Math.max(8, capacidadInicial * 2 - 1)) << 1;
+        claves = new int[capacidad];
+        valores = new int[capacidad];
+        Arrays.fill(claves, AUSENTE);
+    }
+
+
+    // Valor asociado a la clave, o AUSENTE
+    int obtener(int clave) {
+        int mascara = claves.length - 1;
+        for (int i = posicion(clave, mascara); claves[i] != AUSENTE; i = (i + 1) & mascara) {
+            if (claves[i] == clave) {
+                return valores[i];
+            }
+        }
+        return AUSENTE;
+    }
+
+
+    void poner(int clave, int valor) {
+        if ((tamano + 1) * 2 > claves.length) {
+            crecer();
+        }
+        int mascara = claves.length - 1;
+        int i = posicion(clave, mascara);
+        while (claves[i] != AUSENTE && claves[i] != clave) {
+            i = (i + 1) & mascara;
+        }
+        if (claves[i] == AUSENTE) {
+            claves[i] = clave;
+            tamano++;
+        }
+        valores[i] = valor;
+    }
+
+
+    int getTamano() {
+        return tamano;
+    }
+
+
+    private void crecer() {
+        int[] clavesAnteriores = claves;
+        int[] valoresAnteriores = valores;
+        claves = new int[clavesAnteriores.length * 2];
+        valores = new int[clavesAnteriores.length * 2];
+        Arrays.fill(claves, AUSENTE);
+        tamano = 0;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != AUSENTE) {
+                poner(clavesAnteriores[i], valoresAnteriores[i]);
+            }
+        }
+    }
+
+
+    // Las celdas vecinas tienen índices consecutivos: se dispersan para no agruparse
+    private static int posicion(int clave, int mascara) {
+        int h = clave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+}
@@ -0,0 +1,28 @@
+package celda;
+
+
+/**
+ * Avisos del tablero para quien lo muestra. Cada revelarCelda o marcarCelda
+ * que cambia algo produce un único celdasCambiadas con todas sus celdas
+ * (la cascada incluida), así que repintar cuesta lo que la jugada y no lo que
+ * el tablero. Si la jugada termina la partida, después llega partidaTerminada.
+ *
+ * Los avisos se entregan en el hilo que hace la jugada, antes de que esta
+ * devuelva. Colocar las minas no avisa: no cambia nada visible.
+ */
+public interface ObservadorTablero {
+
+    // Las celdas de la última operación; cambios solo es válido durante la llamada
+    default void celdasCambiadas(TableroBuscaminas tablero, CambiosTablero cambios) {
+    }
+
+
+    // Al revelar la última celda segura (ganada) o una mina (perdida)
+    default void partidaTerminada(TableroBuscaminas tablero, boolean ganada) {
+    }
+
+
+    // Tras reiniciar: todas las celdas vuelven a estar ocultas y sin bandera
+    default void tableroReiniciado(TableroBuscaminas tablero) {
+    }
+}
@@ -0,0 +1,85 @@
+package celda;
+
+
+/**
+ * Motor de revelado en cascada (flood fill) sobre el almacenamiento
+ * empaquetado del tablero. Recorre en anchura con una cola de índices
+ * primitivos reutilizable: no crea objetos por celda y la cola solo
+ * contiene el frente de la inundación.
+ *
+ * Guarda el coste de la última ejecución (celdas visitadas, reveladas y
+ * tiempo) para poder medirlo.
+ */
+final class RellenoInundacion {
+    private final ColaEnteros pendientes = new ColaEnteros(256);
+    private int celdasVisitadas;
+    private int celdasReveladas;
+    private long nanosUltimaEjecucion;
+
+
+    /**
+     * Revela la región de celdas vacías conectada a {@code indiceInicial}, que
+     * ya debe estar revelada y vacía, junto con su borde numerado. Las celdas
+     * marcadas no se revelan. Cada celda revelada se anota en {@code cambios}.
+     * Devuelve la cantidad de celdas reveladas.
+     */
+    int rellenar(byte[] celdas, int filas, int columnas, int indiceInicial, CambiosTablero cambios) {
+        long inicio = System.nanoTime();
+        int visitadas = 0;
+        int reveladas = 0;
+
+        pendientes.limpiar();
+        pendientes.agregar(indiceInicial);
+
+        while (!pendientes.estaVacia()) {
+            int actual = pendientes.extraer();
+            int fila = actual / columnas;
+            int columna = actual - fila * columnas;
+
+            int filaInicio = Math.max(0, fila - 1);
+            int filaFin = Math.min(filas - 1, fila + 1);
+            int columnaInicio = Math.max(0, columna - 1);
+            int columnaFin = Math.min(columnas - 1, columna + 1);
+
+            for (int f = filaInicio; f <= filaFin; f++) {
+                int base = f * columnas;
+                for (int c = columnaInicio; c <= columnaFin; c++) {
+                    int vecina = base + c;
+                    int estado = celdas[vecina];
+                    visitadas++;
+
+                    if ((estado & (Celda.BIT_REVELADA | Celda.BIT_MARCADA)) == 0) {
+                        celdas[vecina] = (byte) (estado | Celda.BIT_REVELADA);
+                        cambios.registrar(vecina, estado | Celda.BIT_REVELADA);
+                        reveladas++;
+
+                        if (Celda.esVacia(estado)) {
+                            pendientes.agregar(vecina);
+                        }
+                    }
+                }
+            }
+        }
+
+        this.celdasVisitadas = visitadas;
+        this.celdasReveladas = reveladas;
+        this.nanosUltimaEjecucion = System.nanoTime() - inicio;
+        return reveladas;
+    }
+
+    // ========== MÉTRICAS ==========
+
+    int getCeldasVisitadas() {
+        return celdasVisitadas;
+    }
+
+
+    int getCeldasReveladas() {
+        return celdasReveladas;
+    }
+
+
+    long getNanosUltimaEjecucion() {
+        return nanosUltimaEjecucion;
+    }
+}
@@ -0,0 +1,243 @@
+package celda;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Revelado en cascada paralelo para tableros muy grandes.
+ *
+ * El tablero se divide en bloques cuadrados. En cada ronda, los bloques que
+ * tienen semillas pendientes se inundan en paralelo sobre un ForkJoinPool;
+ * cada bloque solo escribe en sus propias celdas y las vecinas que caen en
+ * otro bloque se envían como semillas para la ronda siguiente. Como revelar
+ * es monótono, el conjunto final de celdas reveladas es el mismo que el del
+ * recorrido secuencial.
+ */
+final class RellenoParalelo {
+    static final int LADO_BLOQUE_DEFAULT = 256;
+
+    private final ForkJoinPool pool;
+    private final int ladoBloque;
+    private int celdasVisitadas;
+    private int celdasReveladas;
+    private long nanosUltimaEjecucion;
+
+
+    RellenoParalelo() {
+        this(ForkJoinPool.commonPool(), LADO_BLOQUE_DEFAULT);
+    }
+
+
+    RellenoParalelo(ForkJoinPool pool, int ladoBloque) {
+        if (ladoBloque <= 0) {
+            throw new IllegalArgumentException("El lado del bloque debe ser positivo");
+        }
+        this.pool = pool;
+        this.ladoBloque = ladoBloque;
+    }
+
+
+    /**
+     * Equivalente paralelo de {@link RellenoInundacion#rellenar}: la celda
+     * inicial ya debe estar revelada y vacía.
+     */
+    int rellenar(byte[] celdas, int filas, int columnas, int indiceInicial, CambiosTablero cambios) {
+        long inicio = System.nanoTime();
+        Particion particion = new Particion(filas, columnas, ladoBloque);
+
+        ListaEnteros[] entradas = new ListaEnteros[particion.totalBloques];
+        List<TareaBloque> tareas = new ArrayList<>();
+        tareas.add(new TareaBloque(celdas, particion, particion.bloqueDe(indiceInicial), null, indiceInicial));
+
+        int visitadas = 0;
+        int reveladas = 0;
+
+        while (!tareas.isEmpty()) {
+            pool.invoke(new TareaRonda(tareas));
+
+            // Repartir las semillas de borde entre los bloques destino
+            List<Integer> bloquesActivos = new ArrayList<>();
+            for (TareaBloque tarea : tareas) {
+                visitadas += tarea.visitadas;
+                reveladas += tarea.reveladas;
+
+                ListaEnteros reveladasBloque = tarea.reveladasBloque;
+                for (int i = 0; i < reveladasBloque.getTamano(); i++) {
+                    int indice = reveladasBloque.obtener(i);
+                    cambios.registrar(indice, celdas[indice]);
+                }
+
+                ListaEnteros salida = tarea.salida;
+                for (int i = 0; i < salida.getTamano(); i++) {
+                    int indice = salida.obtener(i);
+                    int bloque = particion.bloqueDe(indice);
+                    if (entradas[bloque] == null) {
+                        entradas[bloque] = new ListaEnteros(64);
+                    }
+                    if (entradas[bloque].estaVacia()) {
+                        bloquesActivos.add(bloque);
+                    }
+                    entradas[bloque].agregar(indice);
+                }
+            }
+
+            tareas = new ArrayList<>(bloquesActivos.size());
+            for (int bloque : bloquesActivos) {
+                ListaEnteros semillas = entradas[bloque];
+                entradas[bloque] = new ListaEnteros(64);
+                tareas.add(new TareaBloque(celdas, particion, bloque, semillas, -1));
+            }
+        }
+
+        this.celdasVisitadas = visitadas;
+        this.celdasReveladas = reveladas;
+        this.nanosUltimaEjecucion = System.nanoTime() - inicio;
+        return reveladas;
+    }
+
+    // ========== MÉTRICAS ==========
+
+    int getCeldasVisitadas() {
+        return celdasVisitadas;
+    }
+
+
+    int getCeldasReveladas() {
+        return celdasReveladas;
+    }
+
+
+    long getNanosUltimaEjecucion() {
+        return nanosUltimaEjecucion;
+    }
+
+    // ========== CLASES INTERNAS ==========
+
+    private static final class Particion {
+        final int filas;
+        final int columnas;
+        final int lado;
+        final int bloquesPorFila;
+        final int totalBloques;
+
+
+        Particion(int filas, int columnas, int lado) {
+            this.filas = filas;
+            this.columnas = columnas;
+            this.lado = lado;
+            this.bloquesPorFila = (columnas + lado - 1) / lado;
+            this.totalBloques = ((filas + lado - 1) / lado) * bloquesPorFila;
+        }
+
+
+        int bloqueDe(int indice) {
+            int fila = indice / columnas;
+            int columna = indice - fila * columnas;
+            return (fila / lado) * bloquesPorFila + columna / lado;
+        }
+    }
+
+
+    private static final class TareaRonda extends RecursiveAction {
+        private final List<TareaBloque> tareas;
+
+
+        TareaRonda(List<TareaBloque> tareas) {
+            this.tareas = tareas;
+        }
+
+
+        @Override
+        protected void compute() {
+            invokeAll(tareas);
+        }
+    }
+
+
+    private static final class TareaBloque extends RecursiveAction {
+        private final byte[] celdas;
+        private final Particion particion;
+        private final int bloque;
+        private final ListaEnteros semillas;
+        private final int indiceExpandir;
+        final ListaEnteros salida = new ListaEnteros(64);
+        final ListaEnteros reveladasBloque = new ListaEnteros(256);
+        int visitadas;
+        int reveladas;
+
+
+        TareaBloque(byte[] celdas, Particion particion, int bloque, ListaEnteros semillas, int indiceExpandir) {
+            this.celdas = celdas;
+            this.particion = particion;
+            this.bloque = bloque;
+            this.semillas = semillas;
+            this.indiceExpandir = indiceExpandir;
+        }
+
+
+        @Override
+        protected void compute() {
+            int columnas = particion.columnas;
+            int filaBloque = bloque / particion.bloquesPorFila;
+            int columnaBloque = bloque - filaBloque * particion.bloquesPorFila;
+            int filaMin = filaBloque * particion.lado;
+            int filaMax = Math.min(particion.filas, filaMin + particion.lado) - 1;
+            int columnaMin = columnaBloque * particion.lado;
+            int columnaMax = Math.min(columnas, columnaMin + particion.lado) - 1;
+
+            ColaEnteros pendientes = new ColaEnteros(256);
+            if (indiceExpandir >= 0) {
+                pendientes.agregar(indiceExpandir);
+            }
+            if (semillas != null) {
+                for (int i = 0; i < semillas.getTamano(); i++) {
+                    revelar(semillas.obtener(i), pendientes);
+                }
+            }
+
+            while (!pendientes.estaVacia()) {
+                int actual = pendientes.extraer();
+                int fila = actual / columnas;
+                int columna = actual - fila * columnas;
+
+                int filaInicio = Math.max(0, fila - 1);
+                int filaFin = Math.min(particion.filas - 1, fila + 1);
+                int columnaInicio = Math.max(0, columna - 1);
+                int columnaFin = Math.min(columnas - 1, columna + 1);
+
+                for (int f = filaInicio; f <= filaFin; f++) {
+                    int base = f * columnas;
+                    for (int c = columnaInicio; c <= columnaFin; c++) {
+                        int vecina = base + c;
+                        visitadas++;
+
+                        if (f >= filaMin && f <= filaMax && c >= columnaMin && c <= columnaMax) {
+                            revelar(vecina, pendientes);
+                        } else if ((celdas[vecina] & (Celda.BIT_REVELADA | Celda.BIT_MARCADA)) == 0) {
+                            // Lectura sin sincronizar de otro bloque: los bits solo se activan, así que
+                            // como mucho se envía una semilla de más, que su bloque descartará.
+                            salida.agregar(vecina);
+                        }
+                    }
+                }
+            }
+        }
+
+
+        private void revelar(int indice, ColaEnteros pendientes) {
+            int estado = celdas[indice];
+            if ((estado & (Celda.BIT_REVELADA | Celda.BIT_MARCADA)) == 0) {
+                celdas[indice] = (byte) (estado | Celda.BIT_REVELADA);
+                reveladasBloque.agregar(indice);
+                reveladas++;
+
+                if (Celda.esVacia(estado)) {
+                    pendientes.agregar(indice);
+                }
+            }
+        }
+    }
+}
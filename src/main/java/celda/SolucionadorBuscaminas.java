@@ -0,0 +1,344 @@
+package celda;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Solucionador de buscaminas que usa solo la información visible (números
+ * revelados y banderas) para encontrar celdas demostrablemente seguras y
+ * minas seguras. Aplica:
+ *
+ * 1. Regla de celda única: si a un número le faltan 0 minas, sus vecinas
+ *    ocultas son seguras; si le faltan tantas como vecinas ocultas, son minas.
+ * 2. Reglas de subconjunto/superconjunto entre pares de números que
+ *    comparten vecinas. Las dos primeras se aplican juntas desde una cola
+ *    de restricciones cambiadas, así que el coste crece con la frontera y
+ *    no con el número de pasadas.
+ * 3. Enumeración exacta de cada componente independiente de la frontera,
+ *    con un presupuesto de nodos para acotar la latencia.
+ *
+ * Las banderas se consideran minas correctas.
+ */
+public class SolucionadorBuscaminas {
+    static final long NODOS_MAXIMOS_DEFAULT = 200_000;
+
+    private final long nodosMaximos;
+
+
+    public SolucionadorBuscaminas() {
+        this(NODOS_MAXIMOS_DEFAULT);
+    }
+
+
+    public SolucionadorBuscaminas(long nodosMaximosPorComponente) {
+        this.nodosMaximos = nodosMaximosPorComponente;
+    }
+
+
+    public Resultado resolver(TableroBuscaminas tablero) {
+        FronteraTablero frontera = FronteraTablero.construir(tablero);
+        byte[] decididas = new byte[frontera.getTotalVariables()];
+
+        propagar(frontera, decididas);
+
+        for (int[] componente : componentesPendientes(frontera, decididas)) {
+            EnumeradorComponente enumerador = new EnumeradorComponente(frontera, decididas, componente);
+            if (!enumerador.enumerar(nodosMaximos)) {
+                continue;
+            }
+            deducirDeEnumeracion(enumerador, decididas);
+        }
+
+        return construirResultado(tablero, frontera, decididas);
+    }
+
+    // ========== REGLAS ==========
+
+    /**
+     * Aplica las dos reglas locales hasta que no deducen nada más. Una
+     * restricción vuelve a la cola solo cuando se decide alguna de sus
+     * variables, y al procesarla se compara con sus vecinas; como el
+     * resultado de un par solo depende de las variables de sus dos
+     * restricciones, ningún par que pueda haber cambiado se queda sin revisar.
+     */
+    private static void propagar(FronteraTablero frontera, byte[] decididas) {
+        int total = frontera.restricciones.length;
+        Propagacion propagacion = new Propagacion(frontera, decididas);
+        for (int r = 0; r < total; r++) {
+            propagacion.encolar(r);
+        }
+        // marcaPar[b] == paso: b ya se comparó con la restricción del paso actual
+        int[] marcaPar = new int[total];
+        int paso = 0;
+
+        while (!propagacion.pendientes.estaVacia()) {
+            int a = propagacion.pendientes.extraer();
+            propagacion.enCola[a] = false;
+            paso++;
+
+            aplicarReglaCeldaUnica(propagacion, a);
+            for (int v : frontera.restricciones[a]) {
+                if (decididas[v] != EnumeradorComponente.DESCONOCIDA) {
+                    continue;
+                }
+                for (int b : frontera.restriccionesDeVariable[v]) {
+                    if (b != a && marcaPar[b] != paso) {
+                        marcaPar[b] = paso;
+                        compararPar(propagacion, a, b);
+                    }
+                }
+            }
+        }
+    }
+
+
+    // Si a un número le faltan 0 minas, sus vecinas ocultas son seguras; si le faltan tantas como vecinas, son minas
+    private static void aplicarReglaCeldaUnica(Propagacion propagacion, int r) {
+        FronteraTablero frontera = propagacion.frontera;
+        byte[] decididas = propagacion.decididas;
+        int[] variables = frontera.restricciones[r];
+        int desconocidas = 0;
+        int faltan = frontera.valores[r];
+        for (int v : variables) {
+            if (decididas[v] == EnumeradorComponente.DESCONOCIDA) {
+                desconocidas++;
+            } else if (decididas[v] == EnumeradorComponente.MINA) {
+                faltan--;
+            }
+        }
+
+        byte valor;
+        if (desconocidas == 0 || faltan < 0 || faltan > desconocidas) {
+            return;
+        } else if (faltan == 0) {
+            valor = EnumeradorComponente.SEGURA;
+        } else if (faltan == desconocidas) {
+            valor = EnumeradorComponente.MINA;
+        } else {
+            return;
+        }
+
+        for (int v : variables) {
+            if (decididas[v] == EnumeradorComponente.DESCONOCIDA) {
+                propagacion.decidir(v, valor);
+            }
+        }
+    }
+
+
+    // Para dos números A y B que comparten vecinas: si lo que le falta a A menos lo que le falta a B
+    // iguala las vecinas exclusivas de A, esas son minas y las exclusivas de B son seguras.
+    // Cubre el caso clásico de subconjunto (A ⊆ B) y el de superconjunto.
+    private static void compararPar(Propagacion propagacion, int a, int b) {
+        FronteraTablero frontera = propagacion.frontera;
+        byte[] decididas = propagacion.decididas;
+        int faltanA = frontera.valores[a];
+        int faltanB = frontera.valores[b];
+        int soloA = 0;
+        int soloB = 0;
+
+        for (int v : frontera.restricciones[a]) {
+            if (decididas[v] == EnumeradorComponente.MINA) {
+                faltanA--;
+            } else if (decididas[v] == EnumeradorComponente.DESCONOCIDA && !contiene(frontera.restricciones[b], v)) {
+                soloA++;
+            }
+        }
+        for (int v : frontera.restricciones[b]) {
+            if (decididas[v] == EnumeradorComponente.MINA) {
+                faltanB--;
+            } else if (decididas[v] == EnumeradorComponente.DESCONOCIDA && !contiene(frontera.restricciones[a], v)) {
+                soloB++;
+            }
+        }
+
+        if (faltanA - faltanB != soloA || (soloA == 0 && soloB == 0)) {
+            return;
+        }
+
+        // Las exclusivas de A son minas y las exclusivas de B seguras
+        for (int v : frontera.restricciones[a]) {
+            if (decididas[v] == EnumeradorComponente.DESCONOCIDA && !contiene(frontera.restricciones[b], v)) {
+                propagacion.decidir(v, EnumeradorComponente.MINA);
+            }
+        }
+        for (int v : frontera.restricciones[b]) {
+            if (decididas[v] == EnumeradorComponente.DESCONOCIDA && !contiene(frontera.restricciones[a], v)) {
+                propagacion.decidir(v, EnumeradorComponente.SEGURA);
+            }
+        }
+    }
+
+
+    private static boolean contiene(int[] variables, int variable) {
+        for (int v : variables) {
+            if (v == variable) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ========== ENUMERACIÓN POR COMPONENTES ==========
+
+    static List<int[]> componentesPendientes(FronteraTablero frontera, byte[] decididas) {
+        int total = frontera.getTotalVariables();
+        boolean[] visitada = new boolean[total];
+        List<int[]> componentes = new ArrayList<>();
+        ColaEnteros pendientes = new ColaEnteros(64);
+
+        for (int inicio = 0; inicio < total; inicio++) {
+            if (visitada[inicio] || decididas[inicio] != EnumeradorComponente.DESCONOCIDA) {
+                continue;
+            }
+            ListaEnteros componente = new ListaEnteros(16);
+            visitada[inicio] = true;
+            pendientes.agregar(inicio);
+
+            while (!pendientes.estaVacia()) {
+                int actual = pendientes.extraer();
+                componente.agregar(actual);
+                for (int r : frontera.restriccionesDeVariable[actual]) {
+                    for (int vecina : frontera.restricciones[r]) {
+                        if (!visitada[vecina] && decididas[vecina] == EnumeradorComponente.DESCONOCIDA) {
+                            visitada[vecina] = true;
+                            pendientes.agregar(vecina);
+                        }
+                    }
+                }
+            }
+            componentes.add(componente.aArreglo());
+        }
+        return componentes;
+    }
+
+
+    private static void deducirDeEnumeracion(EnumeradorComponente enumerador, byte[] decididas) {
+        double totalSoluciones = 0;
+        for (double soluciones : enumerador.getSoluciones()) {
+            totalSoluciones += soluciones;
+        }
+        if (totalSoluciones == 0) {
+            return;
+        }
+
+        int[] variables = enumerador.getVariables();
+        double[] vecesMina = new double[variables.length];
+        for (double[] fila : enumerador.getMinasPorCantidad()) {
+            if (fila == null) {
+                continue;
+            }
+            for (int local = 0; local < variables.length; local++) {
+                vecesMina[local] += fila[local];
+            }
+        }
+        for (int local = 0; local < variables.length; local++) {
+            if (vecesMina[local] == 0) {
+                decididas[variables[local]] = EnumeradorComponente.SEGURA;
+            } else if (vecesMina[local] == totalSoluciones) {
+                decididas[variables[local]] = EnumeradorComponente.MINA;
+            }
+        }
+    }
+
+
+    private static Resultado construirResultado(TableroBuscaminas tablero, FronteraTablero frontera, byte[] decididas) {
+        ListaEnteros seguras = new ListaEnteros(16);
+        ListaEnteros minas = new ListaEnteros(16);
+        for (int v = 0; v < decididas.length; v++) {
+            if (decididas[v] == EnumeradorComponente.SEGURA) {
+                seguras.agregar(frontera.celdas[v]);
+            } else if (decididas[v] == EnumeradorComponente.MINA) {
+                minas.agregar(frontera.celdas[v]);
+            }
+        }
+
+        // Regla global: si ya no quedan minas sin marcar, o todas las ocultas lo son
+        int desconocidas = frontera.celdasInteriores + decididas.length - seguras.getTamano() - minas.getTamano();
+        int minasSinUbicar = frontera.minasRestantes - minas.getTamano();
+        if (desconocidas > 0 && (minasSinUbicar == 0 || minasSinUbicar == desconocidas)) {
+            boolean sonMinas = minasSinUbicar != 0;
+            byte[] estados = tablero.getEstadosCeldas();
+            for (int indice = 0; indice < estados.length; indice++) {
+                if ((estados[indice] & (Celda.BIT_REVELADA | Celda.BIT_MARCADA)) != 0) {
+                    continue;
+                }
+                int variable = frontera.getVariable(indice);
+                if (variable < 0 || decididas[variable] == EnumeradorComponente.DESCONOCIDA) {
+                    (sonMinas ? minas : seguras).agregar(indice);
+                }
+            }
+        }
+
+        return new Resultado(tablero.getColumnas(), seguras.aArreglo(), minas.aArreglo());
+    }
+
+    // ========== CLASES INTERNAS ==========
+
+    // Cola de restricciones por revisar; decidir una variable devuelve a la cola sus restricciones
+    private static final class Propagacion {
+        final FronteraTablero frontera;
+        final byte[] decididas;
+        final ColaEnteros pendientes;
+        final boolean[] enCola;
+
+
+        Propagacion(FronteraTablero frontera, byte[] decididas) {
+            this.frontera = frontera;
+            this.decididas = decididas;
+            this.pendientes = new ColaEnteros(Math.max(1, frontera.restricciones.length));
+            this.enCola = new boolean[frontera.restricciones.length];
+        }
+
+
+        void encolar(int r) {
+            if (!enCola[r]) {
+                enCola[r] = true;
+                pendientes.agregar(r);
+            }
+        }
+
+
+        void decidir(int variable, byte valor) {
+            decididas[variable] = valor;
+            for (int r : frontera.restriccionesDeVariable[variable]) {
+                encolar(r);
+            }
+        }
+    }
+
+    // ========== RESULTADO ==========
+
+    public static final class Resultado {
+        private final int columnas;
+        private final int[] celdasSeguras;
+        private final int[] minasSeguras;
+
+
+        Resultado(int columnas, int[] celdasSeguras, int[] minasSeguras) {
+            this.columnas = columnas;
+            this.celdasSeguras = celdasSeguras;
+            this.minasSeguras = minasSeguras;
+        }
+
+
+        public boolean hayJugadaSegura() {
+            return celdasSeguras.length > 0 || minasSeguras.length > 0;
+        }
+
+
+        public int getCantidadSeguras() { return celdasSeguras.length; }
+        public int getFilaSegura(int posicion) { return celdasSeguras[posicion] / columnas; }
+        public int getColumnaSegura(int posicion) { return celdasSeguras[posicion] % columnas; }
+
+        public int getCantidadMinas() { return minasSeguras.length; }
+        public int getFilaMina(int posicion) { return minasSeguras[posicion] / columnas; }
+        public int getColumnaMina(int posicion) { return minasSeguras[posicion] % columnas; }
+        public int getIndiceMina(int posicion) { return minasSeguras[posicion]; }
+
+        // Índices de celda (fila * columnas + columna)
+        public int[] getCeldasSeguras() { return celdasSeguras.clone(); }
+        public int[] getMinasSeguras() { return minasSeguras.clone(); }
+    }
+}
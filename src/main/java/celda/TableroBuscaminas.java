@@ -1,19 +1,36 @@
 package celda;
 
-import java.util.Random;
-import java.util.Stack;
+import java.util.Arrays;
 
 
 public class TableroBuscaminas {
     private static final int TAMANO_TABLERO = 20;
     private static final int CANTIDAD_MINAS_DEFAULT = 60; // 15% del tablero
+    static final int UMBRAL_CELDAS_PARALELO = 1 << 20;
     
-    private Celda[][] tablero;
+    private final int filas;
+    private final int columnas;
+    // Un byte por celda: bits 0-3 minas adyacentes, bit 4 mina, bit 5 revelada, bit 6 marcada
+    private final byte[] celdas;
     private boolean juegoTerminado;
     private boolean juegoGanado;
     private int celdasReveladas;
     private int minasMarcadas;
     private int cantidadMinas;
+    private ColocadorMinas colocadorMinas;
+    private final CambiosTablero cambios;
+    private final RellenoInundacion rellenoInundacion = new RellenoInundacion();
+    private RellenoParalelo rellenoParalelo;
+    private boolean revelacionParalela;
+    private int celdasUltimaCascada;
+    private int celdasVisitadasUltimaCascada;
+    private long nanosUltimaCascada;
+    // Celdas modificadas desde el último guardado, para el guardado incremental
+    private final ListaEnteros celdasPendientes = new ListaEnteros(16);
+    private long[] marcasPendientes;
+    private boolean guardadoCompletoPendiente = true;
+    // Se reemplaza al suscribir o quitar, para poder avisar sin copiar aunque un observador se quite durante el aviso
+    private ObservadorTablero[] observadores = new ObservadorTablero[0];
     
     // ========== CONSTRUCTORES ==========
 
@@ -23,146 +40,136 @@ public class TableroBuscaminas {
     
 
     public TableroBuscaminas(int cantidadMinas) {
-        this.cantidadMinas = cantidadMinas;
-        this.tablero = new Celda[TAMANO_TABLERO][TAMANO_TABLERO];
-        inicializarTablero();
+        this(TAMANO_TABLERO, TAMANO_TABLERO, cantidadMinas);
     }
     
-    // ========== MÉTODOS PRIVADOS ==========
 
-    private void inicializarTablero() {
-        for (int fila = 0; fila < TAMANO_TABLERO; fila++) {
-            for (int columna = 0; columna < TAMANO_TABLERO; columna++) {
-                tablero[fila][columna] = new Celda();
-            }
+    public TableroBuscaminas(int filas, int columnas, int cantidadMinas) {
+        if (filas <= 0 || columnas <= 0) {
+            throw new IllegalArgumentException("Dimensiones de tablero inválidas: " + filas + "x" + columnas);
+        }
+        long totalCeldas = (long) filas * columnas;
+        if (totalCeldas > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Tablero demasiado grande: " + filas + "x" + columnas);
+        }
+        if (cantidadMinas < 0 || cantidadMinas >= totalCeldas) {
+            throw new IllegalArgumentException("Cantidad de minas inválida para el tablero: " + cantidadMinas);
         }
+        
+        this.filas = filas;
+        this.columnas = columnas;
+        this.cantidadMinas = cantidadMinas;
+        this.celdas = new byte[(int) totalCeldas];
+        this.colocadorMinas = new ColocadorMinas();
+        this.cambios = new CambiosTablero(columnas);
     }
     
+    // ========== MINAS ==========
 
     public void colocarMinas(int filaPrimerClic, int columnaPrimerClic) {
-        Random random = new Random();
-        int minasColocadas = 0;
-        
-        while (minasColocadas < cantidadMinas) {
-            int fila = random.nextInt(TAMANO_TABLERO);
-            int columna = random.nextInt(TAMANO_TABLERO);
-            
-            // Evitar colocar mina en la primera celda clickeada
-            if (!tablero[fila][columna].esMina() && 
-                (fila != filaPrimerClic || columna != columnaPrimerClic)) {
-                tablero[fila][columna].establecerComoMina();
-                minasColocadas++;
-            }
-        }
-        
-        calcularMinasAdyacentes();
+        int[] indicesMinas = colocadorMinas.colocar(celdas, filas, columnas, cantidadMinas,
+                                                    filaPrimerClic, columnaPrimerClic);
+        CalculadorAdyacencias.sumarMinas(celdas, filas, columnas, indicesMinas);
+        descartarCeldasPendientes();
     }
     
 
-    private void calcularMinasAdyacentes() {
-        for (int fila = 0; fila < TAMANO_TABLERO; fila++) {
-            for (int columna = 0; columna < TAMANO_TABLERO; columna++) {
-                if (!tablero[fila][columna].esMina()) {
-                    int minasAdyacentes = contarMinasAdyacentes(fila, columna);
-                    for (int i = 0; i < minasAdyacentes; i++) {
-                        tablero[fila][columna].incrementarMinasAdyacentes();
-                    }
-                }
-            }
-        }
+    public void recalcularMinasAdyacentes() {
+        CalculadorAdyacencias.recalcular(celdas, filas, columnas);
     }
     
+    // ========== MÉTODOS PRIVADOS ==========
 
-    private int contarMinasAdyacentes(int fila, int columna) {
-        int contador = 0;
-        
-        for (int df = -1; df <= 1; df++) {
-            for (int dc = -1; dc <= 1; dc++) {
-                int nuevaFila = fila + df;
-                int nuevaColumna = columna + dc;
-                
-                if (esPosicionValida(nuevaFila, nuevaColumna) && 
-                    tablero[nuevaFila][nuevaColumna].esMina()) {
-                    contador++;
-                }
-            }
-        }
-        
-        return contador;
+    private boolean esPosicionValida(int fila, int columna) {
+        return fila >= 0 && fila < filas &&
+               columna >= 0 && columna < columnas;
     }
     
 
-    private boolean esPosicionValida(int fila, int columna) {
-        return fila >= 0 && fila < TAMANO_TABLERO && 
-               columna >= 0 && columna < TAMANO_TABLERO;
+    private int indice(int fila, int columna) {
+        return fila * columnas + columna;
     }
     
+    // ========== JUGADAS ==========
 
     public boolean revelarCelda(int fila, int columna) {
-        if (!esPosicionValida(fila, columna) || 
-            tablero[fila][columna].estaRevelada() || 
-            tablero[fila][columna].estaMarcada()) {
+        cambios.limpiar();
+        registrarCascada(0, 0, 0);
+        if (!esPosicionValida(fila, columna)) {
             return false;
         }
+        boolean estabaTerminado = juegoTerminado;
         
-        Celda celda = tablero[fila][columna];
-        celda.revelar();
+        int indice = indice(fila, columna);
+        int estado = celdas[indice];
+        if ((estado & (Celda.BIT_REVELADA | Celda.BIT_MARCADA)) != 0) {
+            return false;
+        }
+        
+        celdas[indice] = (byte) (estado | Celda.BIT_REVELADA);
+        cambios.registrar(indice, estado | Celda.BIT_REVELADA);
         celdasReveladas++;
         
-        if (celda.esMina()) {
+        if ((estado & Celda.BIT_MINA) != 0) {
             juegoTerminado = true;
+            acumularCeldasPendientes();
+            notificarCambios(estabaTerminado);
             return false;
         }
         
-        if (celda.esVacia()) {
+        if (Celda.esVacia(estado)) {
             revelarCeldasAdyacentes(fila, columna);
         }
         
+        acumularCeldasPendientes();
         verificarVictoria();
+        notificarCambios(estabaTerminado);
         return true;
     }
     
 
     private void revelarCeldasAdyacentes(int fila, int columna) {
-        Stack<int[]> pila = new Stack<>();
-        pila.push(new int[]{fila, columna});
-        
-        while (!pila.isEmpty()) {
-            int[] posicion = pila.pop();
-            int f = posicion[0];
-            int c = posicion[1];
-            
-            for (int df = -1; df <= 1; df++) {
-                for (int dc = -1; dc <= 1; dc++) {
-                    int nuevaFila = f + df;
-                    int nuevaColumna = c + dc;
-                    
-                    if (esPosicionValida(nuevaFila, nuevaColumna)) {
-                        Celda celdaAdyacente = tablero[nuevaFila][nuevaColumna];
-                        
-                        if (!celdaAdyacente.estaRevelada() && !celdaAdyacente.estaMarcada()) {
-                            celdaAdyacente.revelar();
-                            celdasReveladas++;
-                            
-                            if (celdaAdyacente.esVacia()) {
-                                pila.push(new int[]{nuevaFila, nuevaColumna});
-                            }
-                        }
-                    }
-                }
+        int indiceInicial = indice(fila, columna);
+        
+        if (revelacionParalela && celdas.length >= UMBRAL_CELDAS_PARALELO) {
+            if (rellenoParalelo == null) {
+                rellenoParalelo = new RellenoParalelo();
             }
+            celdasReveladas += rellenoParalelo.rellenar(celdas, filas, columnas, indiceInicial, cambios);
+            registrarCascada(rellenoParalelo.getCeldasReveladas(), rellenoParalelo.getCeldasVisitadas(),
+                             rellenoParalelo.getNanosUltimaEjecucion());
+        } else {
+            celdasReveladas += rellenoInundacion.rellenar(celdas, filas, columnas, indiceInicial, cambios);
+            registrarCascada(rellenoInundacion.getCeldasReveladas(), rellenoInundacion.getCeldasVisitadas(),
+                             rellenoInundacion.getNanosUltimaEjecucion());
         }
     }
     
 
+    private void registrarCascada(int reveladas, int visitadas, long nanos) {
+        this.celdasUltimaCascada = reveladas;
+        this.celdasVisitadasUltimaCascada = visitadas;
+        this.nanosUltimaCascada = nanos;
+    }
+    
+
     public boolean marcarCelda(int fila, int columna) {
-        if (!esPosicionValida(fila, columna) || tablero[fila][columna].estaRevelada()) {
+        cambios.limpiar();
+        if (!esPosicionValida(fila, columna)) {
+            return false;
+        }
+        
+        int indice = indice(fila, columna);
+        int estado = celdas[indice];
+        if ((estado & Celda.BIT_REVELADA) != 0) {
             return false;
         }
         
-        Celda celda = tablero[fila][columna];
-        boolean estabaMarcada = celda.estaMarcada();
-        celda.alternarMarcado();
+        boolean estabaTerminado = juegoTerminado;
+        boolean estabaMarcada = (estado & Celda.BIT_MARCADA) != 0;
+        celdas[indice] = (byte) (estado ^ Celda.BIT_MARCADA);
+        cambios.registrar(indice, estado ^ Celda.BIT_MARCADA);
+        acumularCeldasPendientes();
         
         if (estabaMarcada) {
             minasMarcadas--;
@@ -171,12 +178,13 @@ public class TableroBuscaminas {
         }
         
         verificarVictoria();
+        notificarCambios(estabaTerminado);
         return true;
     }
     
 
     private void verificarVictoria() {
-        int celdasSeguras = TAMANO_TABLERO * TAMANO_TABLERO - cantidadMinas;
+        int celdasSeguras = celdas.length - cantidadMinas;
         if (celdasReveladas == celdasSeguras) {
             juegoGanado = true;
             juegoTerminado = true;
@@ -184,28 +192,222 @@ public class TableroBuscaminas {
     }
     
 
-    public void reiniciar() {
-        for (int fila = 0; fila < TAMANO_TABLERO; fila++) {
-            for (int columna = 0; columna < TAMANO_TABLERO; columna++) {
-                tablero[fila][columna].reiniciar();
+    // Recalcula los contadores de partida a partir de las celdas, tras cargar un tablero guardado
+    void restaurarContadores() {
+        int reveladas = 0;
+        int marcadas = 0;
+        boolean minaRevelada = false;
+        for (byte estado : celdas) {
+            if ((estado & Celda.BIT_REVELADA) != 0) {
+                reveladas++;
+                minaRevelada |= (estado & Celda.BIT_MINA) != 0;
+            } else if ((estado & Celda.BIT_MARCADA) != 0) {
+                marcadas++;
             }
         }
         
+        this.celdasReveladas = reveladas;
+        this.minasMarcadas = marcadas;
+        this.juegoGanado = !minaRevelada && reveladas == celdas.length - cantidadMinas;
+        this.juegoTerminado = minaRevelada || juegoGanado;
+        cambios.limpiar();
+        descartarCeldasPendientes();
+    }
+    
+
+    public void reiniciar() {
+        Arrays.fill(celdas, (byte) 0);
+        cambios.limpiar();
+        descartarCeldasPendientes();
+        
         juegoTerminado = false;
         juegoGanado = false;
         celdasReveladas = 0;
         minasMarcadas = 0;
+        
+        for (ObservadorTablero observador : observadores) {
+            observador.tableroReiniciado(this);
+        }
+    }
+    
+    // ========== OBSERVADORES ==========
+
+    public void agregarObservador(ObservadorTablero observador) {
+        observadores = Arrays.copyOf(observadores, observadores.length + 1);
+        observadores[observadores.length - 1] = observador;
+    }
+    
+
+    public void quitarObservador(ObservadorTablero observador) {
+        for (int i = 0; i < observadores.length; i++) {
+            if (observadores[i] == observador) {
+                ObservadorTablero[] restantes = new ObservadorTablero[observadores.length - 1];
+                System.arraycopy(observadores, 0, restantes, 0, i);
+                System.arraycopy(observadores, i + 1, restantes, i, restantes.length - i);
+                observadores = restantes;
+                return;
+            }
+        }
+    }
+    
+
+    // Un aviso por operación con todas sus celdas y, si la ha terminado, el final de la partida
+    private void notificarCambios(boolean estabaTerminado) {
+        ObservadorTablero[] actuales = observadores;
+        if (actuales.length == 0 || cambios.estaVacio()) {
+            return;
+        }
+        for (ObservadorTablero observador : actuales) {
+            observador.celdasCambiadas(this, cambios);
+        }
+        if (juegoTerminado && !estabaTerminado) {
+            for (ObservadorTablero observador : actuales) {
+                observador.partidaTerminada(this, juegoGanado);
+            }
+        }
+    }
+    
+    // ========== GUARDADO INCREMENTAL ==========
+
+    /*
+     * Mientras no haga falta un guardado completo, cada celda cambiada se anota
+     * una sola vez (el mapa de bits evita duplicados). Si las pendientes pasan
+     * de la mitad del tablero sale más barato volver a escribirlo entero.
+     */
+    private void acumularCeldasPendientes() {
+        if (guardadoCompletoPendiente) {
+            return;
+        }
+        if (marcasPendientes == null) {
+            marcasPendientes = new long[(celdas.length + 63) >>> 6];
+        }
+        
+        for (int i = 0; i < cambios.getCantidad(); i++) {
+            int indice = cambios.getIndice(i);
+            long bit = 1L << indice;
+            if ((marcasPendientes[indice >>> 6] & bit) == 0) {
+                marcasPendientes[indice >>> 6] |= bit;
+                celdasPendientes.agregar(indice);
+            }
+        }
+        
+        if (celdasPendientes.getTamano() > celdas.length / 2) {
+            descartarCeldasPendientes();
+        }
+    }
+    
+
+    // Tras colocar minas, reiniciar o cargar, el tablero entero difiere de lo guardado
+    private void descartarCeldasPendientes() {
+        limpiarMarcasPendientes();
+        guardadoCompletoPendiente = true;
+    }
+    
+
+    private void limpiarMarcasPendientes() {
+        if (marcasPendientes != null) {
+            for (int i = 0; i < celdasPendientes.getTamano(); i++) {
+                int indice = celdasPendientes.obtener(i);
+                marcasPendientes[indice >>> 6] &= ~(1L << indice);
+            }
+        }
+        celdasPendientes.limpiar();
+    }
+    
+
+    // Indica que el estado actual ya está persistido: a partir de aquí solo se anotan las diferencias
+    public void marcarGuardado() {
+        limpiarMarcasPendientes();
+        guardadoCompletoPendiente = false;
+    }
+    
+
+    public boolean requiereGuardadoCompleto() {
+        return guardadoCompletoPendiente;
+    }
+    
+
+    public int getCantidadCeldasPendientes() {
+        return celdasPendientes.getTamano();
+    }
+    
+
+    // Índices (fila * columnas + columna) de las celdas cambiadas desde el último marcarGuardado
+    public int[] getCeldasPendientes() {
+        return celdasPendientes.aArreglo();
+    }
+    
+
+    // Estado empaquetado de cada celda pendiente, en el mismo orden que getCeldasPendientes
+    public byte[] getEstadosPendientes() {
+        byte[] estados = new byte[celdasPendientes.getTamano()];
+        for (int i = 0; i < estados.length; i++) {
+            estados[i] = celdas[celdasPendientes.obtener(i)];
+        }
+        return estados;
     }
     
     // ========== GETTERS ==========
 
+    /**
+     * Vista sobre el byte de la celda; cada llamada crea una. Los recorridos
+     * de muchas celdas usan mejor las consultas por índice de más abajo.
+     */
     public Celda getCelda(int fila, int columna) {
-        return esPosicionValida(fila, columna) ? tablero[fila][columna] : null;
+        if (!esPosicionValida(fila, columna)) {
+            throw new IndexOutOfBoundsException("Posición fuera del tablero: (" + fila + ", " + columna + ")");
+        }
+        return new CeldaVista(celdas, indice(fila, columna));
+    }
+    
+
+    // Consultas sobre el byte empaquetado, sin crear una vista; indice = fila * columnas + columna
+    public boolean esMina(int indice) {
+        return (celdas[indice] & Celda.BIT_MINA) != 0;
     }
     
 
+    public boolean estaRevelada(int indice) {
+        return (celdas[indice] & Celda.BIT_REVELADA) != 0;
+    }
+    
+
+    public boolean estaMarcada(int indice) {
+        return (celdas[indice] & Celda.BIT_MARCADA) != 0;
+    }
+    
+
+    public int getMinasAdyacentes(int indice) {
+        return celdas[indice] & Celda.MASCARA_ADYACENTES;
+    }
+    
+
+    /**
+     * Lado de un tablero cuadrado.
+     * @deprecated los tableros pueden ser rectangulares; usar getFilas y getColumnas
+     * @throws IllegalStateException si el tablero no es cuadrado
+     */
+    @Deprecated
     public int getTamano() {
-        return TAMANO_TABLERO;
+        if (filas != columnas) {
+            throw new IllegalStateException("El tablero de " + filas + "x" + columnas + " no es cuadrado");
+        }
+        return filas;
+    }
+    
+
+    public int getFilas() {
+        return filas;
+    }
+    
+
+    public int getColumnas() {
+        return columnas;
+    }
+    
+
+    public int getTotalCeldas() {
+        return celdas.length;
     }
     
 
@@ -232,4 +434,67 @@ public class TableroBuscaminas {
     public int getMinasMarcadas() {
         return minasMarcadas;
     }
-} 
\ No newline at end of file
+    
+
+    // Celdas modificadas por la última llamada a revelarCelda o marcarCelda
+    public CambiosTablero getUltimosCambios() {
+        return cambios;
+    }
+    
+
+    public int getCeldasUltimaCascada() {
+        return celdasUltimaCascada;
+    }
+    
+
+    public int getCeldasVisitadasUltimaCascada() {
+        return celdasVisitadasUltimaCascada;
+    }
+    
+
+    public long getNanosUltimaCascada() {
+        return nanosUltimaCascada;
+    }
+    
+
+    public boolean isRevelacionParalela() {
+        return revelacionParalela;
+    }
+    
+
+    // Las cascadas en tableros de al menos UMBRAL_CELDAS_PARALELO celdas se reparten entre núcleos
+    public void setRevelacionParalela(boolean revelacionParalela) {
+        this.revelacionParalela = revelacionParalela;
+    }
+    
+
+    public ColocadorMinas getColocadorMinas() {
+        return colocadorMinas;
+    }
+    
+
+    public void setColocadorMinas(ColocadorMinas colocadorMinas) {
+        if (colocadorMinas == null) {
+            throw new IllegalArgumentException("El colocador de minas no puede ser nulo");
+        }
+        this.colocadorMinas = colocadorMinas;
+    }
+    
+
+    public boolean isModoSinAdivinanzas() {
+        return colocadorMinas instanceof GeneradorSinAdivinanzas;
+    }
+    
+
+    // En modo sin adivinanzas las minas se colocan de forma que el tablero se pueda resolver solo con lógica
+    public void setModoSinAdivinanzas(boolean activo) {
+        if (activo != isModoSinAdivinanzas()) {
+            this.colocadorMinas = activo ? new GeneradorSinAdivinanzas() : new ColocadorMinas();
+        }
+    }
+    
+
+    byte[] getEstadosCeldas() {
+        return celdas;
+    }
+}
@@ -6,11 +6,13 @@ import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.Node;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
-import javafx.scene.layout.GridPane;
-import javafx.scene.text.Font;
+import javafx.scene.layout.StackPane;
 import javafx.scene.control.DialogPane;
 import javafx.event.ActionEvent;
 import javafx.scene.Scene;
@@ -19,26 +21,49 @@ import javafx.stage.Modality;
 import javafx.scene.layout.VBox;
 import javafx.scene.layout.HBox;
 import javafx.geometry.Insets;
-import celda.Celda;
+import celda.CambiosTablero;
+import celda.CalculadoraProbabilidades;
+import celda.ObservadorTablero;
+import celda.SolucionadorBuscaminas;
 import celda.TableroBuscaminas;
+import persistence.CursorPagina;
+import persistence.FiltroGuardados;
 import persistence.SlotGuardadoService;
 import persistence.SlotGuardadoDAO;
+import persistence.TipoAlmacenamiento;
+import persistence.TipoJugada;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 public class BuscaminasController {
 
-    private static final int TAMANO_TABLERO = 20;
-    private static final int TAMANO_BOTON = 25;
-    private static final int TAMANO_FUENTE = 12;
-    private static final int ESPACIADO_GRID = 1;
+    // Listado de slots: filas por página y posición del scroll que dispara la siguiente
+    private static final int TAMANO_PAGINA_SLOTS = 20;
+    private static final double UMBRAL_CARGA_SCROLL = 0.9;
+    private static final String FILTRO_TODAS = "Todas";
+    private static final String FILTRO_EN_CURSO = "En curso";
+    private static final String FILTRO_TERMINADAS = "Terminadas";
     
     private TableroBuscaminas tableroLogico;
-    private Button[][] botones;
+    private final SolucionadorBuscaminas solucionador = new SolucionadorBuscaminas();
+    private final CalculadoraProbabilidades calculadoraProbabilidades = new CalculadoraProbabilidades();
+    private VistaTablero vistaTablero;
+    // El contador de minas sigue al tablero igual que la vista
+    private final ObservadorTablero observadorInterfaz = new ObservadorTablero() {
+        @Override
+        public void celdasCambiadas(TableroBuscaminas tablero, CambiosTablero cambios) {
+            actualizarInterfaz();
+        }
+    };
+    private final CacheRecursos recursos = new CacheRecursos();
     private boolean primerClic;
     private boolean juegoIniciado;
     
-    @FXML private GridPane gridTablero;
+    @FXML private StackPane contenedorTablero;
     @FXML private Label lblCierre;
     @FXML private Label lblMinasRestantes;
     @FXML private Label lblTiempo;
@@ -80,16 +105,6 @@ public class BuscaminasController {
         cerrarAplicacion();
     }
     
-    @FXML
-    void enter(MouseEvent event) {
-        aplicarEstiloHoverCierre();
-    }
-    
-    @FXML
-    void exited(MouseEvent event) {
-        aplicarEstiloNormalCierre();
-    }
-    
     @FXML
     void nuevoJuego(ActionEvent event) {
         reiniciarJuego();
@@ -121,9 +136,7 @@ public class BuscaminasController {
     void initialize() {
         inicializarModelos();
         inicializarServiciosBaseDatos();
-        configurarGrid();
-        configurarBotonNuevoJuego();
-        crearBotonesTablero();
+        crearVistaTablero();
         iniciarCronometro();
         
         btnModoFacil.setText("🎯 Dificultad");
@@ -132,7 +145,7 @@ public class BuscaminasController {
 
     private void inicializarModelos() {
         tableroLogico = new TableroBuscaminas();
-        botones = new Button[TAMANO_TABLERO][TAMANO_TABLERO];
+        tableroLogico.setModoSinAdivinanzas(true);
         primerClic = true;
         juegoIniciado = false;
     }
@@ -141,11 +154,14 @@ public class BuscaminasController {
     private void inicializarServiciosBaseDatos() {
         try {
             slotService = new SlotGuardadoService();
-            if (!slotService.isDatabaseAvailable()) {
-                mostrarAlerta("Advertencia", "La base de datos no está disponible. Las funcionalidades de guardado estarán deshabilitadas.");
-                btnGuardarPartida.setDisable(true);
-                btnCargarPartidas.setDisable(true);
-            }
+            // La base de datos se abre en el hilo de persistencia; el juego arranca sin esperarla
+            alCompletar(slotService.isDatabaseAvailableAsync(), disponible -> {
+                if (!disponible) {
+                    mostrarAlerta("Advertencia", "La base de datos no está disponible. Las funcionalidades de guardado estarán deshabilitadas.");
+                    btnGuardarPartida.setDisable(true);
+                    btnCargarPartidas.setDisable(true);
+                }
+            }, "No se pudo inicializar la base de datos");
         } catch (Exception e) {
             mostrarAlerta("Error", "No se pudo inicializar la base de datos: " + e.getMessage());
             btnGuardarPartida.setDisable(true);
@@ -154,85 +170,33 @@ public class BuscaminasController {
     }
     
 
-    private void configurarGrid() {
-        gridTablero.setHgap(ESPACIADO_GRID);
-        gridTablero.setVgap(ESPACIADO_GRID);
-        gridTablero.setAlignment(Pos.CENTER);
-    }
-    
-
-    private void configurarBotonNuevoJuego() {
-        btnNuevoJuego.setStyle(EstilosUI.ESTILO_BOTON_NUEVO_JUEGO);
-        
-        btnNuevoJuego.setOnMouseEntered(e -> 
-            btnNuevoJuego.setStyle(EstilosUI.ESTILO_BOTON_NUEVO_JUEGO_HOVER));
-        
-        btnNuevoJuego.setOnMouseExited(e -> 
-            btnNuevoJuego.setStyle(EstilosUI.ESTILO_BOTON_NUEVO_JUEGO));
-    }
-    
-
-    private void crearBotonesTablero() {
-        for (int fila = 0; fila < TAMANO_TABLERO; fila++) {
-            for (int columna = 0; columna < TAMANO_TABLERO; columna++) {
-                Button boton = crearBotonTablero(fila, columna);
-                botones[fila][columna] = boton;
-                gridTablero.add(boton, columna, fila);
-            }
-        }
-    }
-    
-
-    private Button crearBotonTablero(int fila, int columna) {
-        Button boton = new Button();
-        configurarPropiedadesBoton(boton);
-        configurarEstilosBoton(boton);
-        configurarEventosBoton(boton, fila, columna);
-        return boton;
-    }
-    
-
-    private void configurarPropiedadesBoton(Button boton) {
-        boton.setFont(Font.font("Arial", TAMANO_FUENTE));
-        boton.setPrefSize(TAMANO_BOTON, TAMANO_BOTON);
-        boton.setMinSize(TAMANO_BOTON, TAMANO_BOTON);
-        boton.setMaxSize(TAMANO_BOTON, TAMANO_BOTON);
-    }
-    
-
-    private void configurarEstilosBoton(Button boton) {
-        boton.setStyle(EstilosUI.obtenerEstiloBotonBuscaminas());
-        
-        boton.setOnMouseEntered(e -> {
-            if (!tableroLogico.isJuegoTerminado() || !boton.getText().equals("💣")) {
-                boton.setStyle(EstilosUI.obtenerEstiloBotonBuscaminasHover());
-            }
-        });
-        
-        boton.setOnMouseExited(e -> {
-            if (!boton.getText().equals("🚩") && !boton.getText().equals("💣")) {
-                boton.setStyle(EstilosUI.obtenerEstiloBotonBuscaminas());
-            } else if (boton.getText().equals("🚩")) {
-                boton.setStyle(EstilosUI.obtenerEstiloBotonMarcado());
-            }
-        });
-    }
-    
-
-    private void configurarEventosBoton(Button boton, int fila, int columna) {
-        boton.setOnMouseClicked(e -> {
-            if (e.getButton() == MouseButton.PRIMARY) {
+    private void crearVistaTablero() {
+        vistaTablero = VistaTablero.desdePropiedades(recursos);
+        vistaTablero.setManejadorClic((fila, columna, boton) -> {
+            if (boton == MouseButton.PRIMARY) {
                 manejarClicIzquierdo(fila, columna);
-            } else if (e.getButton() == MouseButton.SECONDARY) {
+            } else if (boton == MouseButton.SECONDARY) {
                 manejarClicDerecho(fila, columna);
             }
         });
+        tableroLogico.agregarObservador(vistaTablero);
+        tableroLogico.agregarObservador(observadorInterfaz);
+        vistaTablero.mostrarTablero(tableroLogico);
+        contenedorTablero.getChildren().setAll(vistaTablero.getNodo());
     }
     
 
+    // La vista y el contador dejan de escuchar al tablero anterior y pasan al nuevo
+    private void cambiarTablero(TableroBuscaminas nuevo) {
+        tableroLogico.quitarObservador(vistaTablero);
+        tableroLogico.quitarObservador(observadorInterfaz);
+        tableroLogico = nuevo;
+        tableroLogico.agregarObservador(vistaTablero);
+        tableroLogico.agregarObservador(observadorInterfaz);
+        vistaTablero.mostrarTablero(tableroLogico);
+    }
     
 
-
     private void manejarClicIzquierdo(int fila, int columna) {
         if (tableroLogico.isJuegoTerminado()) {
             return;
@@ -243,17 +207,12 @@ public class BuscaminasController {
         }
         
         if (tableroLogico.revelarCelda(fila, columna)) {
-            actualizarTodasLasCeldasReveladas();
-            actualizarInterfaz();
-            
-            guardarAutomaticamente();
+            guardarAutomaticamente(TipoJugada.REVELAR, fila, columna);
             
             if (tableroLogico.isJuegoTerminado()) {
                 manejarFinJuego();
             }
-        } else if (tableroLogico.getCelda(fila, columna) != null && 
-                   tableroLogico.getCelda(fila, columna).esMina()) {
-            revelarTodasLasMinas();
+        } else if (tableroLogico.isJuegoTerminado()) {
             manejarFinJuego();
         }
     }
@@ -266,10 +225,7 @@ public class BuscaminasController {
         }
         
         if (tableroLogico.marcarCelda(fila, columna)) {
-            actualizarBotonMarcado(fila, columna);
-            actualizarInterfaz();
-            
-            guardarAutomaticamente();
+            guardarAutomaticamente(TipoJugada.MARCAR, fila, columna);
         }
     }
     
@@ -288,99 +244,6 @@ public class BuscaminasController {
     }
     
 
-    private void actualizarBotonRevelado(int fila, int columna) {
-        Button boton = botones[fila][columna];
-        Celda celda = tableroLogico.getCelda(fila, columna);
-        
-        if (celda.esMina()) {
-            mostrarImagenMina(boton);
-        } else if (celda.tieneMinasAdyacentes()) {
-            boton.setText(String.valueOf(celda.getMinasAdyacentes()));
-            boton.setStyle(EstilosUI.obtenerEstiloBotonNumero(celda.getMinasAdyacentes()));
-        } else {
-            boton.setText("");
-            boton.setStyle(EstilosUI.obtenerEstiloBotonRevelado());
-        }
-        
-        boton.setDisable(true);
-    }
-    
-
-    private void actualizarBotonMarcado(int fila, int columna) {
-        Button boton = botones[fila][columna];
-        Celda celda = tableroLogico.getCelda(fila, columna);
-        
-        if (celda.estaMarcada()) {
-            boton.setText("");
-            boton.setStyle(EstilosUI.obtenerEstiloBotonMarcado());
-            try {
-                javafx.scene.image.Image imagenBanderita = new javafx.scene.image.Image(
-                    getClass().getResourceAsStream("/images/Banderita.png")
-                );
-                javafx.scene.image.ImageView imageView = new javafx.scene.image.ImageView(imagenBanderita);
-                imageView.setFitWidth(16);
-                imageView.setFitHeight(16);
-                boton.setGraphic(imageView);
-            } catch (Exception e) {
-                boton.setText("🚩");
-                boton.setGraphic(null);
-            }
-        } else {
-            boton.setText("");
-            boton.setGraphic(null);
-            boton.setStyle(EstilosUI.obtenerEstiloBotonBuscaminas());
-        }
-    }
-
-
-    private void actualizarTodasLasCeldasReveladas() {
-        for (int fila = 0; fila < TAMANO_TABLERO; fila++) {
-            for (int columna = 0; columna < TAMANO_TABLERO; columna++) {
-                Celda celda = tableroLogico.getCelda(fila, columna);
-                Button boton = botones[fila][columna];
-                
-                if (celda.estaRevelada() && !boton.isDisabled()) {
-                    if (celda.esMina()) {
-                        mostrarImagenMina(boton);
-                    } else if (celda.tieneMinasAdyacentes()) {
-                        boton.setText(String.valueOf(celda.getMinasAdyacentes()));
-                        boton.setStyle(EstilosUI.obtenerEstiloBotonNumero(celda.getMinasAdyacentes()));
-                    } else {
-                        boton.setText("");
-                        boton.setStyle(EstilosUI.obtenerEstiloBotonRevelado());
-                    }
-                    boton.setDisable(true);
-                }
-            }
-        }
-    }
-    
-
-    private void revelarTodasLasMinas() {
-        for (int fila = 0; fila < TAMANO_TABLERO; fila++) {
-            for (int columna = 0; columna < TAMANO_TABLERO; columna++) {
-                Celda celda = tableroLogico.getCelda(fila, columna);
-                Button boton = botones[fila][columna];
-                
-                if (celda.esMina() && !celda.estaMarcada()) {
-                    mostrarImagenMina(boton);
-                    boton.setOnMouseEntered(null);
-                    boton.setOnMouseExited(null);
-                } else if (celda.estaRevelada() && !celda.esMina()) {
-                    if (celda.tieneMinasAdyacentes()) {
-                        boton.setText(String.valueOf(celda.getMinasAdyacentes()));
-                        boton.setStyle(EstilosUI.obtenerEstiloBotonNumero(celda.getMinasAdyacentes()));
-                    } else {
-                        boton.setText("");
-                        boton.setStyle(EstilosUI.obtenerEstiloBotonRevelado());
-                    }
-                }
-                boton.setDisable(true);
-            }
-        }
-    }
-    
-
     private void manejarFinJuego() {
         cronometroActivo = false;
         
@@ -462,24 +325,20 @@ public class BuscaminasController {
             
             // Configurar para que aparezca en el centro y por encima de todo
             alert.initModality(Modality.APPLICATION_MODAL);
-            alert.initOwner(gridTablero.getScene().getWindow());
+            alert.initOwner(contenedorTablero.getScene().getWindow());
             
             alert.showAndWait();
         });
     }
     
 
-    private void aplicarEstiloHoverCierre() {
-        lblCierre.setStyle("-fx-text-fill:red;");
-    }
-    
-
-    private void aplicarEstiloNormalCierre() {
-        lblCierre.setStyle("-fx-text-fill:Black;");
-    }
-    
-
     private void cerrarAplicacion() {
+        if (slotService != null) {
+            if (!slotService.cerrar()) {
+                System.err.println("Algunos guardados pendientes no se pudieron escribir antes de cerrar");
+            }
+            TipoAlmacenamiento.cerrarAbiertos();
+        }
         Platform.exit();
         System.exit(0);
     }
@@ -490,7 +349,6 @@ public class BuscaminasController {
     private void reiniciarJuego() {
         reiniciarModelos();
         reiniciarInterfaz();
-        reiniciarBotones();
         iniciarCronometro();
         
         habilitarBotonesDespuesDelJuego();
@@ -518,42 +376,46 @@ public class BuscaminasController {
     }
     
 
-    private void reiniciarBotones() {
-        for (int fila = 0; fila < TAMANO_TABLERO; fila++) {
-            for (int columna = 0; columna < TAMANO_TABLERO; columna++) {
-                Button boton = botones[fila][columna];
-                boton.setText("");
-                boton.setGraphic(null);
-                boton.setStyle(EstilosUI.obtenerEstiloBotonBuscaminas());
-                boton.setDisable(false);
-                configurarEstilosBoton(boton);
-            }
-        }
-    }
-    
-
-    
-
     private void mostrarPista() {
         if (!juegoIniciado || tableroLogico.isJuegoTerminado()) {
             mostrarAlerta("Pista", "Debes iniciar el juego primero.");
             return;
         }
         
-        for (int fila = 0; fila < TAMANO_TABLERO; fila++) {
-            for (int columna = 0; columna < TAMANO_TABLERO; columna++) {
-                Celda celda = tableroLogico.getCelda(fila, columna);
-                if (!celda.estaRevelada() && !celda.estaMarcada() && !celda.esMina()) {
-                    tableroLogico.revelarCelda(fila, columna);
-                    actualizarTodasLasCeldasReveladas();
-                    actualizarInterfaz();
-                    mostrarAlerta("Pista", "¡He revelado una celda segura para ti!");
-                    return;
-                }
+        // Solo se usa lo que ve el jugador: números revelados y banderas
+        SolucionadorBuscaminas.Resultado resultado = solucionador.resolver(tableroLogico);
+        
+        if (resultado.getCantidadSeguras() > 0) {
+            tableroLogico.revelarCelda(resultado.getFilaSegura(0), resultado.getColumnaSegura(0));
+            guardarAutomaticamente(TipoJugada.REVELAR, resultado.getFilaSegura(0), resultado.getColumnaSegura(0));
+            mostrarAlerta("Pista", "¡He revelado una celda segura para ti!");
+            if (tableroLogico.isJuegoTerminado()) {
+                manejarFinJuego();
             }
+            return;
+        }
+        
+        if (resultado.getCantidadMinas() > 0) {
+            tableroLogico.marcarCelda(resultado.getFilaMina(0), resultado.getColumnaMina(0));
+            guardarAutomaticamente(TipoJugada.MARCAR, resultado.getFilaMina(0), resultado.getColumnaMina(0));
+            mostrarAlerta("Pista", "He marcado una celda que con seguridad es mina.");
+            return;
+        }
+        
+        // Sin jugada segura: indicar la celda con menor probabilidad de mina
+        CalculadoraProbabilidades.Resultado probabilidades = calculadoraProbabilidades.calcular(tableroLogico);
+        int celdaMasSegura = probabilidades.getCeldaMasSegura();
+        if (celdaMasSegura < 0) {
+            mostrarAlerta("Pista", "No hay celdas seguras obvias. ¡Sigue intentando!");
+            return;
         }
         
-        mostrarAlerta("Pista", "No hay celdas seguras obvias. ¡Sigue intentando!");
+        int fila = probabilidades.getFila(celdaMasSegura);
+        int columna = probabilidades.getColumna(celdaMasSegura);
+        String mensaje = String.format("No hay celdas seguras obvias.%nLa celda (%d, %d) tiene un %.1f%% de probabilidad de mina%s.",
+            fila + 1, columna + 1, probabilidades.getProbabilidad(fila, columna) * 100,
+            probabilidades.isAproximado() ? " (estimación)" : "");
+        mostrarAlerta("Pista", mensaje);
     }
     
 
@@ -571,7 +433,7 @@ public class BuscaminasController {
     private void mostrarMenuDificultad() {
         Stage modalStage = new Stage();
         modalStage.initModality(Modality.APPLICATION_MODAL);
-        modalStage.initOwner(gridTablero.getScene().getWindow());
+        modalStage.initOwner(contenedorTablero.getScene().getWindow());
         modalStage.setTitle("Seleccionar Dificultad");
         modalStage.setResizable(false);
         modalStage.setMinWidth(300);
@@ -620,7 +482,9 @@ public class BuscaminasController {
 
     private void seleccionarDificultad(Dificultad dificultad) {
         dificultadActual = dificultad;
-        tableroLogico = new TableroBuscaminas(dificultad.getMinas());
+        TableroBuscaminas nuevo = new TableroBuscaminas(dificultad.getMinas());
+        nuevo.setModoSinAdivinanzas(true);
+        cambiarTablero(nuevo);
         
         btnModoFacil.setText("🎯 Dificultad");
         
@@ -641,23 +505,6 @@ public class BuscaminasController {
     }
     
 
-    private void mostrarImagenMina(Button boton) {
-        boton.setText("");
-        boton.setStyle(EstilosUI.obtenerEstiloBotonMina());
-        try {
-            javafx.scene.image.Image imagenMina = new javafx.scene.image.Image(
-                getClass().getResourceAsStream("/images/Mina.png")
-            );
-            javafx.scene.image.ImageView imageView = new javafx.scene.image.ImageView(imagenMina);
-            imageView.setFitWidth(16);
-            imageView.setFitHeight(16);
-            boton.setGraphic(imageView);
-        } catch (Exception e) {
-            boton.setText("💣");
-            boton.setGraphic(null);
-        }
-    }
-    
     // ========== MÉTODOS DE BASE DE DATOS ==========
     
 
@@ -671,25 +518,48 @@ public class BuscaminasController {
     }
     
 
-    private void guardarAutomaticamente() {
+    // La jugada va al diario del slot; el tablero solo se reescribe al compactarlo
+    private void guardarAutomaticamente(TipoJugada tipo, int fila, int columna) {
         if (guardadoAutomatico && juegoIniciado && slotActual != null) {
-            try {
-                String nombrePartida = "Partida Automática";
-                slotService.guardarEnSlot(slotActual, nombrePartida, nombreJugador, tableroLogico);
-            } catch (Exception e) {
-                System.err.println("Error en guardado automático: " + e.getMessage());
-            }
+            String nombrePartida = "Partida Automática";
+            slotService.guardarJugadaAsync(slotActual, nombrePartida, nombreJugador, tableroLogico, tipo, fila, columna)
+                .whenComplete((ignorado, error) -> {
+                    if (error != null) {
+                        System.err.println("Error en guardado automático: " + causa(error).getMessage());
+                    }
+                });
         }
     }
     
 
+    // Ejecuta la acción en el hilo de la interfaz cuando termina la operación de persistencia
+    private <T> void alCompletar(CompletableFuture<T> operacion, Consumer<T> accion, String mensajeError) {
+        alCompletar(operacion, accion, mensajeError, () -> { });
+    }
+    
+
+    private <T> void alCompletar(CompletableFuture<T> operacion, Consumer<T> accion, String mensajeError, Runnable alFallar) {
+        operacion.whenComplete((valor, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                alFallar.run();
+                mostrarAlerta("Error", mensajeError + ": " + causa(error).getMessage());
+            } else {
+                accion.accept(valor);
+            }
+        }));
+    }
+    
+
+    private static Throwable causa(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+    
+
     private void mostrarVentanaSeleccionSlot() {
         try {
-            List<SlotGuardadoDAO.SlotInfo> slots = slotService.obtenerInfoSlots();
-            
             Stage modalStage = new Stage();
             modalStage.initModality(Modality.APPLICATION_MODAL);
-            modalStage.initOwner(gridTablero.getScene().getWindow());
+            modalStage.initOwner(contenedorTablero.getScene().getWindow());
             modalStage.setTitle("Seleccionar Slot de Guardado");
             modalStage.setResizable(false);
             modalStage.setMinWidth(400);
@@ -704,15 +574,20 @@ public class BuscaminasController {
             titleLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #333;");
             titleLabel.setAlignment(Pos.CENTER);
             
-            Label subtitleLabel = new Label("Elige un slot y asigna un nombre a tu partida");
+            Label subtitleLabel = new Label("Elige un slot o crea uno nuevo y asigna un nombre a tu partida");
             subtitleLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #666; -fx-font-style: italic;");
             subtitleLabel.setAlignment(Pos.CENTER);
             subtitleLabel.setWrapText(true);
             
+            Button nuevoSlotBtn = new Button("➕ Nuevo slot");
+            nuevoSlotBtn.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 8 15;");
+            nuevoSlotBtn.setOnAction(e -> seleccionarSlotParaGuardar(null, modalStage));
+            
             VBox slotsList = new VBox(10);
             slotsList.setStyle("-fx-background-color: #f9f9f9; -fx-padding: 10; -fx-border-color: #ddd; -fx-border-width: 1;");
+            ScrollPane scrollPane = crearScrollListado(slotsList, 200);
             
-            for (SlotGuardadoDAO.SlotInfo slot : slots) {
+            ListadoSlots listado = new ListadoSlots(scrollPane, slotsList, slot -> {
                 HBox slotItem = new HBox(15);
                 slotItem.setAlignment(Pos.CENTER_LEFT);
                 slotItem.setPadding(new Insets(12));
@@ -737,16 +612,17 @@ public class BuscaminasController {
                 });
                 
                 slotItem.getChildren().addAll(slotInfo, seleccionarBtn);
-                slotsList.getChildren().add(slotItem);
-            }
+                return slotItem;
+            });
+            listado.cargar(FiltroGuardados.todos());
             
             Button cancelarBtn = new Button("Cancelar");
             cancelarBtn.setStyle("-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 25; -fx-min-width: 100;");
             cancelarBtn.setOnAction(e -> modalStage.close());
             
-            content.getChildren().addAll(titleLabel, subtitleLabel, slotsList, cancelarBtn);
+            content.getChildren().addAll(titleLabel, subtitleLabel, nuevoSlotBtn, scrollPane, cancelarBtn);
             
-            Scene scene = new Scene(content, 400, 350);
+            Scene scene = new Scene(content, 400, 450);
             modalStage.setScene(scene);
             modalStage.showAndWait();
             
@@ -755,7 +631,8 @@ public class BuscaminasController {
         }
     }
     
-    private void seleccionarSlotParaGuardar(int slotId, Stage modalStage) {
+    // slotId null: la partida se guarda en un slot nuevo
+    private void seleccionarSlotParaGuardar(Integer slotId, Stage modalStage) {
         Stage nombreStage = new Stage();
         nombreStage.initModality(Modality.APPLICATION_MODAL);
         nombreStage.initOwner(modalStage);
@@ -791,15 +668,23 @@ public class BuscaminasController {
                 nombrePartida = "Partida " + System.currentTimeMillis();
             }
             
-            try {
-                slotService.guardarEnSlot(slotId, nombrePartida, nombreJugador, tableroLogico);
+            // La instantánea se toma ya; el aviso llega cuando el guardado queda escrito
+            String nombreGuardado = nombrePartida;
+            if (slotId == null) {
+                // Sin ID todavía no hay guardado automático; se activa al crearse el slot
+                slotActual = null;
+                alCompletar(slotService.crearSlotAsync(nombreGuardado, nombreJugador, tableroLogico), nuevoSlot -> {
+                    slotActual = nuevoSlot;
+                    mostrarAlerta("Partida Guardada", "Se ha guardado la partida en el nuevo slot " + nuevoSlot + " con el nombre: " + nombreGuardado);
+                }, "No se pudo guardar la partida");
+            } else {
+                alCompletar(slotService.guardarEnSlotAsync(slotId, nombreGuardado, nombreJugador, tableroLogico), ignorado -> {
+                    mostrarAlerta("Partida Guardada", "Se ha guardado la partida en el slot " + slotId + " con el nombre: " + nombreGuardado);
+                }, "No se pudo guardar la partida");
                 slotActual = slotId;
-                modalStage.close();
-                nombreStage.close();
-                mostrarAlerta("Partida Guardada", "Se ha guardado la partida en el slot " + slotId + " con el nombre: " + nombrePartida);
-            } catch (Exception ex) {
-                mostrarAlerta("Error", "No se pudo guardar la partida: " + ex.getMessage());
             }
+            modalStage.close();
+            nombreStage.close();
         });
         
         cancelarBtn.setOnAction(e -> nombreStage.close());
@@ -812,14 +697,13 @@ public class BuscaminasController {
         nombreStage.showAndWait();
     }
     
+
     private void mostrarVentanaPartidasGuardadas() {
         try {
-            List<SlotGuardadoDAO.SlotInfo> slots = slotService.obtenerInfoSlots();
-            
             // Crear ventana modal personalizada
             Stage modalStage = new Stage();
             modalStage.initModality(Modality.APPLICATION_MODAL);
-            modalStage.initOwner(gridTablero.getScene().getWindow());
+            modalStage.initOwner(contenedorTablero.getScene().getWindow());
             modalStage.setTitle("Slots de Guardado");
             modalStage.setResizable(false);
             modalStage.setMinWidth(500);
@@ -839,19 +723,15 @@ public class BuscaminasController {
             subtitleLabel.setAlignment(Pos.CENTER);
             subtitleLabel.setWrapText(true);
             
+            ComboBox<String> filtroCombo = new ComboBox<>();
+            filtroCombo.getItems().addAll(FILTRO_TODAS, FILTRO_EN_CURSO, FILTRO_TERMINADAS);
+            filtroCombo.setValue(FILTRO_TODAS);
+            
             VBox slotsList = new VBox(5);
             slotsList.setStyle("-fx-background-color: #f9f9f9; -fx-padding: 10; -fx-border-color: #ddd; -fx-border-width: 1;");
-            slotsList.setPrefHeight(250);
-            slotsList.setMaxHeight(250);
+            ScrollPane scrollPane = crearScrollListado(slotsList, 250);
             
-            javafx.scene.control.ScrollPane scrollPane = new javafx.scene.control.ScrollPane(slotsList);
-            scrollPane.setFitToWidth(true);
-            scrollPane.setFitToHeight(true);
-            scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
-            scrollPane.setVbarPolicy(javafx.scene.control.ScrollPane.ScrollBarPolicy.AS_NEEDED);
-            scrollPane.setHbarPolicy(javafx.scene.control.ScrollPane.ScrollBarPolicy.NEVER);
-            
-            for (SlotGuardadoDAO.SlotInfo slot : slots) {
+            ListadoSlots listado = new ListadoSlots(scrollPane, slotsList, slot -> {
                 HBox slotItem = new HBox(15);
                 slotItem.setAlignment(Pos.CENTER_LEFT);
                 slotItem.setPadding(new Insets(12));
@@ -869,7 +749,7 @@ public class BuscaminasController {
                 Label estadoLabel = new Label("Estado: " + slot.getEstadoPartida());
                 estadoLabel.setStyle("-fx-text-fill: #666; -fx-font-size: 12px;");
                 
-                Label progresoLabel = new Label("Progreso: " + slot.getCeldasReveladas() + "/400 celdas");
+                Label progresoLabel = new Label("Progreso: " + slot.getCeldasReveladas() + "/" + slot.getTotalCeldas() + " celdas");
                 progresoLabel.setStyle("-fx-text-fill: #666; -fx-font-size: 12px;");
                 
                 slotInfo.getChildren().addAll(nombreLabel, estadoLabel, progresoLabel);
@@ -897,16 +777,18 @@ public class BuscaminasController {
                 
                 botonesContainer.getChildren().addAll(cargarBtn, limpiarBtn);
                 slotItem.getChildren().addAll(slotInfo, botonesContainer);
-                slotsList.getChildren().add(slotItem);
-            }
+                return slotItem;
+            });
+            filtroCombo.setOnAction(e -> listado.cargar(filtroSeleccionado(filtroCombo.getValue())));
+            listado.cargar(FiltroGuardados.todos());
             
             Button cerrarBtn = new Button("Cerrar");
             cerrarBtn.setStyle("-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 25; -fx-min-width: 100;");
             cerrarBtn.setOnAction(e -> modalStage.close());
             
-            content.getChildren().addAll(titleLabel, subtitleLabel, scrollPane, cerrarBtn);
+            content.getChildren().addAll(titleLabel, subtitleLabel, filtroCombo, scrollPane, cerrarBtn);
             
-            Scene scene = new Scene(content, 500, 450);
+            Scene scene = new Scene(content, 500, 500);
             modalStage.setScene(scene);
             modalStage.showAndWait();
             
@@ -916,6 +798,28 @@ public class BuscaminasController {
     }
     
 
+    private static FiltroGuardados filtroSeleccionado(String opcion) {
+        if (FILTRO_EN_CURSO.equals(opcion)) {
+            return FiltroGuardados.porEstado("en_curso");
+        }
+        if (FILTRO_TERMINADAS.equals(opcion)) {
+            return FiltroGuardados.porEstado("terminada");
+        }
+        return FiltroGuardados.todos();
+    }
+    
+
+    private static ScrollPane crearScrollListado(VBox lista, double altura) {
+        ScrollPane scrollPane = new ScrollPane(lista);
+        scrollPane.setFitToWidth(true);
+        scrollPane.setPrefViewportHeight(altura);
+        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
+        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
+        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        return scrollPane;
+    }
+    
+
     private String solicitarNombreJugador() {
         return "Jugador_" + System.currentTimeMillis();
     }
@@ -929,12 +833,16 @@ public class BuscaminasController {
     
 
     private void cargarSlot(int slotId) {
+        alCompletar(slotService.cargarDesdeSlotAsync(slotId), tableroCargado -> mostrarSlotCargado(slotId, tableroCargado),
+                    "No se pudo cargar la partida");
+    }
+    
+
+    private void mostrarSlotCargado(int slotId, TableroBuscaminas tableroCargado) {
         try {
-            TableroBuscaminas tableroCargado = slotService.cargarDesdeSlot(slotId);
-            tableroLogico = tableroCargado;
+            cambiarTablero(tableroCargado);
             slotActual = slotId;
             
-            actualizarTodasLasCeldasReveladas();
             actualizarInterfaz();
             
             primerClic = false;
@@ -964,7 +872,7 @@ public class BuscaminasController {
             confirmacion.setContentText(mensajeConfirmacion);
             
             confirmacion.initModality(Modality.APPLICATION_MODAL);
-            confirmacion.initOwner(gridTablero.getScene().getWindow());
+            confirmacion.initOwner(contenedorTablero.getScene().getWindow());
             
             DialogPane dialogPane = confirmacion.getDialogPane();
             dialogPane.setStyle(EstilosUI.ESTILO_ALERTA);
@@ -972,21 +880,101 @@ public class BuscaminasController {
             Optional<ButtonType> resultado = confirmacion.showAndWait();
             
             if (resultado.isPresent() && resultado.get() == ButtonType.OK) {
-                slotService.limpiarSlot(slotId);
-                
-                slotsList.getChildren().remove(slotItem);
-                
-                if (this.slotActual != null && this.slotActual == slotId) {
-                    this.slotActual = null;
-                    reiniciarJuego();
-                }
-                
-                mostrarAlerta("Slot Limpiado", "El slot ha sido limpiado exitosamente.");
+                alCompletar(slotService.limpiarSlotAsync(slotId), ignorado -> {
+                    slotsList.getChildren().remove(slotItem);
+                    
+                    if (this.slotActual != null && this.slotActual == slotId) {
+                        this.slotActual = null;
+                        reiniciarJuego();
+                    }
+                    
+                    mostrarAlerta("Slot Limpiado", "El slot ha sido limpiado exitosamente.");
+                }, "No se pudo limpiar el slot");
             }
         } catch (Exception e) {
             mostrarAlerta("Error", "No se pudo limpiar el slot: " + e.getMessage());
         }
     }
     
-
-} 
\ No newline at end of file
+    // ========== CLASES INTERNAS ==========
+    
+    /**
+     * Lista de slots que se rellena por páginas: pide la siguiente cuando el
+     * scroll se acerca al final, de modo que solo se leen de la base de datos
+     * los slots que el usuario llega a ver.
+     */
+    private final class ListadoSlots {
+        private final ScrollPane scrollPane;
+        private final VBox lista;
+        private final Function<SlotGuardadoDAO.SlotInfo, Node> crearFila;
+        private FiltroGuardados filtro = FiltroGuardados.todos();
+        private CursorPagina siguiente;
+        private boolean agotado;
+        private boolean cargando;
+        // Cambia con cada recarga para descartar las páginas pedidas con el filtro anterior
+        private int generacion;
+        
+        ListadoSlots(ScrollPane scrollPane, VBox lista, Function<SlotGuardadoDAO.SlotInfo, Node> crearFila) {
+            this.scrollPane = scrollPane;
+            this.lista = lista;
+            this.crearFila = crearFila;
+            scrollPane.vvalueProperty().addListener((observable, anterior, actual) -> {
+                if (actual.doubleValue() >= UMBRAL_CARGA_SCROLL) {
+                    cargarSiguiente();
+                }
+            });
+        }
+        
+        void cargar(FiltroGuardados filtro) {
+            this.filtro = filtro;
+            generacion++;
+            siguiente = null;
+            agotado = false;
+            cargando = false;
+            lista.getChildren().clear();
+            scrollPane.setVvalue(0);
+            cargarSiguiente();
+        }
+        
+        private void cargarSiguiente() {
+            if (cargando || agotado) {
+                return;
+            }
+            cargando = true;
+            int pedida = generacion;
+            alCompletar(slotService.obtenerPaginaSlotsAsync(filtro, siguiente, TAMANO_PAGINA_SLOTS), pagina -> {
+                if (pedida != generacion) {
+                    return;
+                }
+                cargando = false;
+                siguiente = pagina.getSiguiente();
+                agotado = !pagina.hayMas();
+                anadir(pagina.getElementos());
+            }, "No se pudieron cargar los slots", () -> {
+                // La página fallida se vuelve a pedir al desplazar la lista
+                if (pedida == generacion) {
+                    cargando = false;
+                }
+            });
+        }
+        
+        private void anadir(List<SlotGuardadoDAO.SlotInfo> slots) {
+            // vvalue es relativo a la altura: se conserva la posición en píxeles al crecer la lista
+            double visible = scrollPane.getViewportBounds().getHeight();
+            double desplazamiento = scrollPane.getVvalue() * Math.max(0, lista.getHeight() - visible);
+            
+            for (SlotGuardadoDAO.SlotInfo slot : slots) {
+                lista.getChildren().add(crearFila.apply(slot));
+            }
+            scrollPane.layout();
+            
+            double sobrante = lista.getHeight() - visible;
+            if (sobrante > 0) {
+                scrollPane.setVvalue(Math.min(1, desplazamiento / sobrante));
+            } else if (visible > 0) {
+                // Sin barra de scroll el usuario no podría pedir la siguiente página
+                cargarSiguiente();
+            }
+        }
+    }
+}
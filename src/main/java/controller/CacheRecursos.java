@@ -0,0 +1,128 @@
+package controller;
+
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Iconos y números de las celdas, compartidos por todo el tablero. Cada PNG
+ * se lee del classpath una vez y se decodifica una vez por tamaño pedido;
+ * los números se dibujan una vez por tamaño de celda. Así, descubrir todas
+ * las minas al perder no lee ni decodifica nada.
+ *
+ * Los tamaños posibles están acotados por el zoom de VistaTableroCanvas, así
+ * que no hace falta desalojar entradas. Solo se usa desde el hilo de JavaFX.
+ */
+final class CacheRecursos {
+    private static final int TAMANO_CELDA = 25;
+    private static final int TAMANO_FUENTE = 12;
+    private static final byte[] SIN_IMAGEN = new byte[0];
+
+
+    enum Icono {
+        MINA("/images/Mina.png", "💣"),
+        BANDERA("/images/Banderita.png", "🚩");
+
+        private final String ruta;
+        private final String alternativa;
+
+        Icono(String ruta, String alternativa) {
+            this.ruta = ruta;
+            this.alternativa = alternativa;
+        }
+
+        // Texto para cuando la imagen no se pudo cargar
+        String getAlternativa() {
+            return alternativa;
+        }
+    }
+
+
+    // Bytes del PNG de cada icono; SIN_IMAGEN si no se encontró o no se pudo leer
+    private final Map<Icono, byte[]> originales = new EnumMap<>(Icono.class);
+    private final Map<Long, Image> iconos = new HashMap<>();
+    private final Map<Long, Image> numeros = new HashMap<>();
+    private final Canvas lienzoNumeros = new Canvas();
+    private final SnapshotParameters parametrosNumeros = new SnapshotParameters();
+
+
+    CacheRecursos() {
+        parametrosNumeros.setFill(Color.TRANSPARENT);
+    }
+
+
+    /**
+     * Icono decodificado a tamano x tamano píxeles
+     * @return La imagen, o null si el recurso no está o no se pudo decodificar
+     */
+    Image icono(Icono icono, int tamano) {
+        long clave = clave(icono.ordinal(), tamano);
+        if (iconos.containsKey(clave)) {
+            return iconos.get(clave);
+        }
+        byte[] original = originales.computeIfAbsent(icono, CacheRecursos::leer);
+        Image imagen = null;
+        if (original != SIN_IMAGEN) {
+            imagen = new Image(new ByteArrayInputStream(original), tamano, tamano, true, true);
+            if (imagen.isError()) {
+                imagen = null;
+            }
+        }
+        iconos.put(clave, imagen);
+        return imagen;
+    }
+
+
+    // Número de minas adyacentes centrado en un cuadrado de lado píxeles, con fondo transparente
+    Image numero(int numero, int lado) {
+        long clave = clave(numero, lado);
+        Image glifo = numeros.get(clave);
+        if (glifo == null) {
+            glifo = dibujarNumero(numero, lado);
+            numeros.put(clave, glifo);
+        }
+        return glifo;
+    }
+
+
+    private Image dibujarNumero(int numero, int lado) {
+        lienzoNumeros.setWidth(lado);
+        lienzoNumeros.setHeight(lado);
+        GraphicsContext contexto = lienzoNumeros.getGraphicsContext2D();
+        contexto.clearRect(0, 0, lado, lado);
+        contexto.setFont(Font.font("Arial", FontWeight.BOLD, (double) TAMANO_FUENTE * lado / TAMANO_CELDA));
+        contexto.setFill(Color.web(EstilosUI.obtenerColorNumero(numero)));
+        contexto.setTextAlign(TextAlignment.CENTER);
+        contexto.setTextBaseline(VPos.CENTER);
+        contexto.fillText(String.valueOf(numero), lado / 2.0, lado / 2.0);
+        return lienzoNumeros.snapshot(parametrosNumeros, null);
+    }
+
+
+    private static long clave(int recurso, int tamano) {
+        return (long) recurso << 32 | tamano;
+    }
+
+
+    private static byte[] leer(Icono icono) {
+        try (InputStream entrada = CacheRecursos.class.getResourceAsStream(icono.ruta)) {
+            return entrada != null ? entrada.readAllBytes() : SIN_IMAGEN;
+        } catch (IOException e) {
+            return SIN_IMAGEN;
+        }
+    }
+}
@@ -54,26 +54,6 @@ public class EstilosUI {
         "-fx-font-weight: bold; " +
         "-fx-font-size: 40px;";
     
-    // Estilos para botón Nuevo Juego
-    public static final String ESTILO_BOTON_NUEVO_JUEGO = 
-        "-fx-background-color: #42A5F5; " +
-        "-fx-text-fill: white; " +
-        "-fx-font-size: 14px; " +
-        "-fx-font-weight: bold; " +
-        "-fx-border-radius: 5; " +
-        "-fx-background-radius: 5; " +
-        "-fx-padding: 8;";
-    
-    public static final String ESTILO_BOTON_NUEVO_JUEGO_HOVER = 
-        "-fx-background-color: #1E88E5; " +
-        "-fx-text-fill: white; " +
-        "-fx-font-size: 14px; " +
-        "-fx-font-weight: bold; " +
-        "-fx-border-radius: 5; " +
-        "-fx-background-radius: 5; " +
-        "-fx-padding: 8; " +
-        "-fx-cursor: hand;";
-    
     // Estilos para alertas
     public static final String ESTILO_ALERTA = 
         "-fx-background-color: #FFFFFF; " +
@@ -83,6 +63,19 @@ public class EstilosUI {
         "-fx-background-radius: 8; " +
         "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.3), 10, 0, 0, 0);";
     
+    // Colores de las celdas del tablero dibujado; los botones usan los mismos desde estilos.css
+    public static final String COLOR_CELDA_OCULTA = "#E8E8E8";
+    public static final String COLOR_CELDA_HOVER = "#D0D0D0";
+    public static final String COLOR_CELDA_REVELADA = "#F5F5F5";
+    public static final String COLOR_BORDE_CELDA = "#BDBDBD";
+    public static final String COLOR_CELDA_MINA = "#FF5722";
+    public static final String COLOR_BORDE_MINA = "#D84315";
+    public static final String COLOR_CELDA_MARCADA = "#FFC107";
+    public static final String COLOR_BORDE_MARCADA = "#FF8F00";
+    // Marco del minimapa y rectángulo de la parte visible del tablero
+    public static final String COLOR_FONDO_MINIMAPA = "#FFFFFF";
+    public static final String COLOR_VISTA_MINIMAPA = "#42A5F5";
+    
     // Métodos para obtener estilos dinámicamente
     public static String obtenerEstiloBotonNormal() {
         return ESTILO_BASE_BOTON;
@@ -101,83 +94,18 @@ public class EstilosUI {
         return ESTILO_BASE_BOTON;
     }
     
-    // Métodos para estilos del buscaminas
-    public static String obtenerEstiloBotonBuscaminas() {
-        return "-fx-background-color: #E8E8E8; " +
-               "-fx-border-color: #BDBDBD; " +
-               "-fx-border-width: 1; " +
-               "-fx-border-radius: 2; " +
-               "-fx-background-radius: 2; " +
-               "-fx-text-fill: #212121; " +
-               "-fx-font-weight: bold; " +
-               "-fx-font-size: 12px;";
-    }
-    
-    public static String obtenerEstiloBotonBuscaminasHover() {
-        return "-fx-background-color: #D0D0D0; " +
-               "-fx-border-color: #9E9E9E; " +
-               "-fx-border-width: 1; " +
-               "-fx-border-radius: 2; " +
-               "-fx-background-radius: 2; " +
-               "-fx-text-fill: #212121; " +
-               "-fx-font-weight: bold; " +
-               "-fx-font-size: 12px;";
-    }
-    
-    public static String obtenerEstiloBotonMina() {
-        return "-fx-background-color: #FF5722; " +
-               "-fx-border-color: #D84315; " +
-               "-fx-border-width: 1; " +
-               "-fx-border-radius: 2; " +
-               "-fx-background-radius: 2; " +
-               "-fx-text-fill: white; " +
-               "-fx-font-weight: bold; " +
-               "-fx-font-size: 12px;";
-    }
-    
-    public static String obtenerEstiloBotonNumero(int numero) {
-        String colorTexto;
+    // Color del número de minas adyacentes, igual que .celda-tablero:numero-N en estilos.css
+    public static String obtenerColorNumero(int numero) {
         switch (numero) {
-            case 1: colorTexto = "#1976D2"; break; // Azul
-            case 2: colorTexto = "#388E3C"; break; // Verde
-            case 3: colorTexto = "#D32F2F"; break; // Rojo
-            case 4: colorTexto = "#7B1FA2"; break; // Púrpura
-            case 5: colorTexto = "#F57C00"; break; // Naranja
-            case 6: colorTexto = "#0097A7"; break; // Cyan
-            case 7: colorTexto = "#424242"; break; // Gris
-            case 8: colorTexto = "#616161"; break; // Gris claro
-            default: colorTexto = "#212121"; break;
+            case 1: return "#1976D2"; // Azul
+            case 2: return "#388E3C"; // Verde
+            case 3: return "#D32F2F"; // Rojo
+            case 4: return "#7B1FA2"; // Púrpura
+            case 5: return "#F57C00"; // Naranja
+            case 6: return "#0097A7"; // Cyan
+            case 7: return "#424242"; // Gris
+            case 8: return "#616161"; // Gris claro
+            default: return "#212121";
         }
-        
-        return "-fx-background-color: #F5F5F5; " +
-               "-fx-border-color: #BDBDBD; " +
-               "-fx-border-width: 1; " +
-               "-fx-border-radius: 2; " +
-               "-fx-background-radius: 2; " +
-               "-fx-text-fill: " + colorTexto + "; " +
-               "-fx-font-weight: bold; " +
-               "-fx-font-size: 12px;";
-    }
-    
-    public static String obtenerEstiloBotonRevelado() {
-        return "-fx-background-color: #F5F5F5; " +
-               "-fx-border-color: #BDBDBD; " +
-               "-fx-border-width: 1; " +
-               "-fx-border-radius: 2; " +
-               "-fx-background-radius: 2; " +
-               "-fx-text-fill: #212121; " +
-               "-fx-font-weight: bold; " +
-               "-fx-font-size: 12px;";
-    }
-    
-    public static String obtenerEstiloBotonMarcado() {
-        return "-fx-background-color: #FFC107; " +
-               "-fx-border-color: #FF8F00; " +
-               "-fx-border-width: 1; " +
-               "-fx-border-radius: 2; " +
-               "-fx-background-radius: 2; " +
-               "-fx-text-fill: #212121; " +
-               "-fx-font-weight: bold; " +
-               "-fx-font-size: 12px;";
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
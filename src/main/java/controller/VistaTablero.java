@@ -0,0 +1,52 @@
+package controller;
+
+import celda.ObservadorTablero;
+import celda.TableroBuscaminas;
+import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
+
+import java.util.Locale;
+
+
+/**
+ * Dibujo del tablero en la ventana. El controlador aplica las jugadas al
+ * TableroBuscaminas y la vista, suscrita como observador, repinta solo las
+ * celdas de cada aviso; además lee las celdas y traduce los clics a
+ * (fila, columna).
+ *
+ * Por defecto se usa VistaTableroCanvas; con -Dbuscaminas.vista=BOTONES se
+ * vuelve al GridPane con un Button por celda.
+ */
+interface VistaTablero extends ObservadorTablero {
+    String PROPIEDAD = "buscaminas.vista";
+
+
+    @FunctionalInterface
+    interface ManejadorClic {
+        void clic(int fila, int columna, MouseButton boton);
+    }
+
+
+    Node getNodo();
+
+
+    void setManejadorClic(ManejadorClic manejador);
+
+
+    // Dibuja el tablero entero; al empezar, cambiar de dificultad o cargar una partida
+    void mostrarTablero(TableroBuscaminas tablero);
+
+
+    // Las dos vistas toman los iconos y números de la misma caché
+    static VistaTablero desdePropiedades(CacheRecursos recursos) {
+        String valor = System.getProperty(PROPIEDAD, "CANVAS").trim().toUpperCase(Locale.ROOT);
+        switch (valor) {
+            case "CANVAS":
+                return new VistaTableroCanvas(recursos);
+            case "BOTONES":
+                return new VistaTableroBotones(recursos);
+            default:
+                throw new IllegalArgumentException("Vista de tablero desconocida: " + valor);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package controller;
+
+import celda.CambiosTablero;
+import celda.TableroBuscaminas;
+import javafx.css.PseudoClass;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.GridPane;
+
+import java.util.BitSet;
+
+
+/**
+ * Un Button por celda en un GridPane. Cada botón es un nodo del grafo de
+ * escena, así que el layout crece con el tablero; se conserva como
+ * alternativa a VistaTableroCanvas para tableros pequeños.
+ *
+ * El aspecto está en estilos.css (clase celda-tablero): al cambiar una
+ * celda solo se activan sus pseudoclases, sin generar ni analizar CSS, y
+ * el hover lo resuelve :hover. Los avisos del tablero solo tocan los
+ * botones de sus celdas; al reiniciar se restauran los que se tocaron desde
+ * el último repintado completo.
+ */
+final class VistaTableroBotones implements VistaTablero {
+    private static final int TAMANO_BOTON = 25;
+    private static final int ESPACIADO_GRID = 1;
+    private static final int TAMANO_IMAGEN = 16;
+    private static final String CLASE_CELDA = "celda-tablero";
+    private static final PseudoClass REVELADA = PseudoClass.getPseudoClass("revelada");
+    private static final PseudoClass MARCADA = PseudoClass.getPseudoClass("marcada");
+    private static final PseudoClass MINA = PseudoClass.getPseudoClass("mina");
+    private static final PseudoClass[] NUMEROS = new PseudoClass[9];
+    private static final String[] TEXTOS = {"", "1", "2", "3", "4", "5", "6", "7", "8"};
+
+    static {
+        for (int numero = 1; numero < NUMEROS.length; numero++) {
+            NUMEROS[numero] = PseudoClass.getPseudoClass("numero-" + numero);
+        }
+    }
+
+    private final CacheRecursos recursos;
+    private final GridPane grid = new GridPane();
+    private Button[][] botones = new Button[0][0];
+    // Índices (fila * columnas + columna) de los botones que ya no están en su estado inicial
+    private final BitSet tocados = new BitSet();
+    private TableroBuscaminas tablero;
+    private ManejadorClic manejadorClic;
+
+
+    VistaTableroBotones(CacheRecursos recursos) {
+        this.recursos = recursos;
+        grid.setHgap(ESPACIADO_GRID);
+        grid.setVgap(ESPACIADO_GRID);
+        grid.setAlignment(Pos.CENTER);
+    }
+
+
+    @Override
+    public Node getNodo() {
+        return grid;
+    }
+
+
+    @Override
+    public void setManejadorClic(ManejadorClic manejador) {
+        this.manejadorClic = manejador;
+    }
+
+
+    @Override
+    public void mostrarTablero(TableroBuscaminas tablero) {
+        if (botones.length != tablero.getFilas() || botones[0].length != tablero.getColumnas()) {
+            crearBotones(tablero.getFilas(), tablero.getColumnas());
+        }
+        this.tablero = tablero;
+        tocados.clear();
+        grid.setDisable(false);
+        for (int fila = 0; fila < botones.length; fila++) {
+            for (int columna = 0; columna < botones[fila].length; columna++) {
+                actualizarBoton(fila, columna, false);
+            }
+        }
+    }
+
+    // ========== AVISOS DEL TABLERO ==========
+
+    @Override
+    public void celdasCambiadas(TableroBuscaminas origen, CambiosTablero cambios) {
+        if (origen != tablero) {
+            return;
+        }
+        for (int i = 0; i < cambios.getCantidad(); i++) {
+            actualizarBoton(cambios.getFila(i), cambios.getColumna(i), false);
+        }
+    }
+
+
+    // Al perder: desactiva el tablero de una vez y descubre solo las minas sin bandera
+    @Override
+    public void partidaTerminada(TableroBuscaminas origen, boolean ganada) {
+        if (origen != tablero) {
+            return;
+        }
+        grid.setDisable(true);
+        if (ganada) {
+            return;
+        }
+        for (int fila = 0; fila < botones.length; fila++) {
+            for (int columna = 0; columna < botones[fila].length; columna++) {
+                int indice = fila * botones[fila].length + columna;
+                if (tablero.esMina(indice) && !tablero.estaRevelada(indice) && !tablero.estaMarcada(indice)) {
+                    actualizarBoton(fila, columna, true);
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public void tableroReiniciado(TableroBuscaminas origen) {
+        if (origen != tablero) {
+            return;
+        }
+        grid.setDisable(false);
+        int columnas = tablero.getColumnas();
+        for (int indice = tocados.nextSetBit(0); indice >= 0; indice = tocados.nextSetBit(indice + 1)) {
+            actualizarBoton(indice / columnas, indice % columnas, false);
+        }
+        tocados.clear();
+    }
+
+    // ========== BOTONES ==========
+
+    private void crearBotones(int filas, int columnas) {
+        grid.getChildren().clear();
+        botones = new Button[filas][columnas];
+        for (int fila = 0; fila < filas; fila++) {
+            for (int columna = 0; columna < columnas; columna++) {
+                Button boton = crearBoton(fila, columna);
+                botones[fila][columna] = boton;
+                grid.add(boton, columna, fila);
+            }
+        }
+    }
+
+
+    private Button crearBoton(int fila, int columna) {
+        Button boton = new Button();
+        boton.getStyleClass().add(CLASE_CELDA);
+        boton.setPrefSize(TAMANO_BOTON, TAMANO_BOTON);
+        boton.setMinSize(TAMANO_BOTON, TAMANO_BOTON);
+        boton.setMaxSize(TAMANO_BOTON, TAMANO_BOTON);
+        boton.setOnMouseClicked(e -> {
+            if (manejadorClic != null) {
+                manejadorClic.clic(fila, columna, e.getButton());
+            }
+        });
+        return boton;
+    }
+
+
+    // Lleva el botón al estado de su celda; con mostrarMina descubre también las minas sin bandera
+    private void actualizarBoton(int fila, int columna, boolean mostrarMina) {
+        Button boton = botones[fila][columna];
+        int indice = fila * botones[fila].length + columna;
+        boolean mina = tablero.esMina(indice) && (tablero.estaRevelada(indice) || (mostrarMina && !tablero.estaMarcada(indice)));
+        boolean revelada = tablero.estaRevelada(indice) && !tablero.esMina(indice);
+        boolean marcada = tablero.estaMarcada(indice) && !revelada && !mina;
+        int numero = revelada ? tablero.getMinasAdyacentes(indice) : 0;
+
+        boton.pseudoClassStateChanged(MINA, mina);
+        boton.pseudoClassStateChanged(REVELADA, revelada);
+        boton.pseudoClassStateChanged(MARCADA, marcada);
+        for (int n = 1; n < NUMEROS.length; n++) {
+            boton.pseudoClassStateChanged(NUMEROS[n], n == numero);
+        }
+
+        if (mina) {
+            mostrarIcono(boton, CacheRecursos.Icono.MINA);
+        } else if (marcada) {
+            mostrarIcono(boton, CacheRecursos.Icono.BANDERA);
+        } else {
+            boton.setGraphic(null);
+            boton.setText(TEXTOS[numero]);
+        }
+        boton.setDisable(revelada || mina);
+        if (revelada || mina || marcada) {
+            tocados.set(indice);
+        }
+    }
+
+
+    // La imagen ya viene decodificada a su tamaño; solo el ImageView es de cada botón
+    private void mostrarIcono(Button boton, CacheRecursos.Icono icono) {
+        Image imagen = recursos.icono(icono, TAMANO_IMAGEN);
+        if (imagen == null) {
+            boton.setGraphic(null);
+            boton.setText(icono.getAlternativa());
+            return;
+        }
+        boton.setText("");
+        if (boton.getGraphic() instanceof ImageView) {
+            ((ImageView) boton.getGraphic()).setImage(imagen);
+        } else {
+            boton.setGraphic(new ImageView(imagen));
+        }
+    }
+}
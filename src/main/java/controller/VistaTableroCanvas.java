@@ -0,0 +1,643 @@
+package controller;
+
+import celda.CambiosTablero;
+import celda.TableroBuscaminas;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+
+
+/**
+ * Tablero pintado en un solo Canvas: un nodo para todo el tablero en lugar
+ * de un Button por celda, así que el CSS y el layout no dependen del número
+ * de celdas. Las celdas que cambian se apuntan como sucias y se repintan una
+ * vez en el siguiente pulso de JavaFX, por muchas jugadas que lleguen entre
+ * medias.
+ *
+ * El lienzo es una ventana de tamaño fijo sobre el tablero: la rueda acerca
+ * o aleja alrededor del puntero y arrastrar lo desplaza. Solo se dibujan las
+ * celdas visibles; cuando cada celda ocupa menos de ESCALA_MINIMA_CELDAS
+ * píxeles se pinta una celda de muestra por píxel en una imagen del tamaño
+ * del lienzo. Si el tablero no cabe entero, un minimapa en la esquina lo
+ * muestra completo con la parte visible recuadrada; pulsar en él centra la
+ * vista. Así la memoria y el tiempo de cada fotograma dependen del tamaño
+ * del lienzo y no del tablero.
+ */
+final class VistaTableroCanvas implements VistaTablero {
+    private static final int TAMANO_CELDA = 25;
+    private static final int ESPACIADO = 1;
+    private static final int PASO_NATURAL = TAMANO_CELDA + ESPACIADO;
+    private static final int TAMANO_FUENTE = 12;
+    private static final int TAMANO_IMAGEN = 16;
+    // El lienzo no pasa de este lado; lo que no cabe se ve desplazando la vista
+    private static final int LADO_MAXIMO = 520;
+    private static final double ESCALA_MAXIMA = 64;
+    private static final double FACTOR_ZOOM = 1.15;
+    // Píxeles por celda por debajo de los cuales no se pintan bordes, ni números e imágenes, ni celdas sueltas
+    private static final double ESCALA_MINIMA_BORDE = 4;
+    private static final double ESCALA_MINIMA_DETALLE = 8;
+    private static final double ESCALA_MINIMA_CELDAS = 3;
+    private static final int LADO_MINIMAPA = 120;
+    private static final int MARGEN_MINIMAPA = 8;
+    // Distancia que hay que mover el ratón pulsado para que cuente como arrastre y no como clic
+    private static final double UMBRAL_ARRASTRE = 4;
+
+    private static final Color OCULTA = Color.web(EstilosUI.COLOR_CELDA_OCULTA);
+    private static final Color HOVER = Color.web(EstilosUI.COLOR_CELDA_HOVER);
+    private static final Color REVELADA = Color.web(EstilosUI.COLOR_CELDA_REVELADA);
+    private static final Color BORDE = Color.web(EstilosUI.COLOR_BORDE_CELDA);
+    private static final Color MINA = Color.web(EstilosUI.COLOR_CELDA_MINA);
+    private static final Color BORDE_MINA = Color.web(EstilosUI.COLOR_BORDE_MINA);
+    private static final Color MARCADA = Color.web(EstilosUI.COLOR_CELDA_MARCADA);
+    private static final Color BORDE_MARCADA = Color.web(EstilosUI.COLOR_BORDE_MARCADA);
+    private static final Color FONDO_MINIMAPA = Color.web(EstilosUI.COLOR_FONDO_MINIMAPA);
+    private static final Color VISTA_MINIMAPA = Color.web(EstilosUI.COLOR_VISTA_MINIMAPA);
+    private static final int NUMEROS = 9;
+
+    private final Canvas lienzo = new Canvas();
+    private final GraphicsContext contexto = lienzo.getGraphicsContext2D();
+    private final CacheRecursos recursos;
+    // Colores ARGB de las celdas de muestra; los números, mezclados con el fondo revelado
+    private final int[] argbNumero = new int[NUMEROS];
+    private final AnimationTimer repintado = new AnimationTimer() {
+        @Override
+        public void handle(long ahora) {
+            stop();
+            repintarPendientes();
+        }
+    };
+
+    private TableroBuscaminas tablero;
+    private ManejadorClic manejadorClic;
+    private boolean minasVisibles;
+    private int celdaBajoRaton = -1;
+
+    // Vista: píxeles por celda y esquina superior izquierda en píxeles del tablero a esa escala
+    private int ancho;
+    private int alto;
+    private double escala = PASO_NATURAL;
+    private double escalaMinima = PASO_NATURAL;
+    private double origenX;
+    private double origenY;
+
+    // Celdas visibles pendientes de repintar
+    private int[] sucias = new int[64];
+    private int cantidadSucias;
+    private boolean repintarTodo;
+    private boolean repintadoProgramado;
+
+    // Imágenes de muestra del tamaño del lienzo y del minimapa
+    private WritableImage imagenMuestreo;
+    private int[] pixelesMuestreo;
+    private int[] columnasMuestreo;
+    private WritableImage imagenMinimapa;
+    private int[] pixelesMinimapa;
+    private double escalaMinimapa;
+    private boolean minimapaDesactualizado;
+
+    // Ratón pulsado
+    private double xPulsado;
+    private double yPulsado;
+    private double xAnterior;
+    private double yAnterior;
+    private boolean arrastrando;
+    private boolean arrastrandoMinimapa;
+
+
+    VistaTableroCanvas(CacheRecursos recursos) {
+        this.recursos = recursos;
+        for (int numero = 0; numero < NUMEROS; numero++) {
+            argbNumero[numero] = argb(numero == 0 ? REVELADA : Color.web(EstilosUI.obtenerColorNumero(numero)).interpolate(REVELADA, 0.5));
+        }
+        contexto.setTextAlign(TextAlignment.CENTER);
+        contexto.setTextBaseline(VPos.CENTER);
+        lienzo.setOnMousePressed(this::alPulsar);
+        lienzo.setOnMouseDragged(this::alArrastrar);
+        lienzo.setOnMouseClicked(this::alHacerClic);
+        lienzo.setOnMouseMoved(e -> cambiarCeldaBajoRaton(celdaEn(e.getX(), e.getY())));
+        lienzo.setOnMouseExited(e -> cambiarCeldaBajoRaton(-1));
+        lienzo.setOnScroll(this::alGirarRueda);
+        lienzo.setOnZoom(e -> acercar(e.getZoomFactor(), e.getX(), e.getY()));
+    }
+
+
+    @Override
+    public Node getNodo() {
+        return lienzo;
+    }
+
+
+    @Override
+    public void setManejadorClic(ManejadorClic manejador) {
+        this.manejadorClic = manejador;
+    }
+
+
+    @Override
+    public void mostrarTablero(TableroBuscaminas tablero) {
+        this.tablero = tablero;
+        minasVisibles = false;
+        celdaBajoRaton = -1;
+
+        // Los tableros que caben a tamaño natural se ven como siempre; los demás empiezan enteros
+        double anchoNatural = (double) tablero.getColumnas() * PASO_NATURAL;
+        double altoNatural = (double) tablero.getFilas() * PASO_NATURAL;
+        redimensionar((int) Math.min(anchoNatural, LADO_MAXIMO), (int) Math.min(altoNatural, LADO_MAXIMO));
+        escalaMinima = Math.min(PASO_NATURAL, Math.min((double) ancho / tablero.getColumnas(),
+                                                       (double) alto / tablero.getFilas()));
+        escala = anchoNatural <= ancho && altoNatural <= alto ? PASO_NATURAL : escalaMinima;
+        origenX = 0;
+        origenY = 0;
+        ajustarOrigen();
+        actualizarFuente();
+        prepararMinimapa();
+
+        repintarTodo = true;
+        programarRepintado();
+    }
+
+    // ========== AVISOS DEL TABLERO ==========
+
+    @Override
+    public void celdasCambiadas(TableroBuscaminas origen, CambiosTablero cambios) {
+        if (origen != tablero) {
+            return;
+        }
+        minimapaDesactualizado = true;
+        for (int i = 0; i < cambios.getCantidad() && !repintarTodo; i++) {
+            marcarSucia(cambios.getIndice(i));
+        }
+        programarRepintado();
+    }
+
+
+    // Al perder se descubren las minas sin bandera; al ganar ya está todo pintado
+    @Override
+    public void partidaTerminada(TableroBuscaminas origen, boolean ganada) {
+        if (origen != tablero || ganada) {
+            return;
+        }
+        minasVisibles = true;
+        celdaBajoRaton = -1;
+        minimapaDesactualizado = true;
+        repintarTodo = true;
+        programarRepintado();
+    }
+
+
+    // Mismo tablero y mismo zoom: basta repintar la parte visible
+    @Override
+    public void tableroReiniciado(TableroBuscaminas origen) {
+        if (origen != tablero) {
+            return;
+        }
+        minasVisibles = false;
+        minimapaDesactualizado = true;
+        repintarTodo = true;
+        programarRepintado();
+    }
+
+    // ========== VISTA ==========
+
+    private void redimensionar(int nuevoAncho, int nuevoAlto) {
+        if (nuevoAncho == ancho && nuevoAlto == alto) {
+            return;
+        }
+        ancho = nuevoAncho;
+        alto = nuevoAlto;
+        lienzo.setWidth(ancho);
+        lienzo.setHeight(alto);
+        imagenMuestreo = new WritableImage(ancho, alto);
+        pixelesMuestreo = new int[ancho * alto];
+        columnasMuestreo = new int[ancho];
+    }
+
+
+    // Acerca (factor > 1) o aleja manteniendo bajo el punto la misma celda
+    private void acercar(double factor, double x, double y) {
+        double nuevaEscala = Math.max(escalaMinima, Math.min(ESCALA_MAXIMA, escala * factor));
+        if (tablero == null || nuevaEscala == escala) {
+            return;
+        }
+        double celdaX = (x + origenX) / escala;
+        double celdaY = (y + origenY) / escala;
+        escala = nuevaEscala;
+        origenX = celdaX * escala - x;
+        origenY = celdaY * escala - y;
+        ajustarOrigen();
+        actualizarFuente();
+        celdaBajoRaton = -1;
+        repintarTodo = true;
+        programarRepintado();
+    }
+
+
+    private void desplazar(double dx, double dy) {
+        double anteriorX = origenX;
+        double anteriorY = origenY;
+        origenX -= dx;
+        origenY -= dy;
+        ajustarOrigen();
+        if (origenX != anteriorX || origenY != anteriorY) {
+            repintarTodo = true;
+            programarRepintado();
+        }
+    }
+
+
+    private void centrarEn(double celdaX, double celdaY) {
+        origenX = celdaX * escala - ancho / 2.0;
+        origenY = celdaY * escala - alto / 2.0;
+        ajustarOrigen();
+        repintarTodo = true;
+        programarRepintado();
+    }
+
+
+    // Sin salirse del tablero; si es más pequeño que el lienzo queda centrado
+    private void ajustarOrigen() {
+        origenX = ajustar(origenX, tablero.getColumnas() * escala, ancho);
+        origenY = ajustar(origenY, tablero.getFilas() * escala, alto);
+    }
+
+
+    private static double ajustar(double origen, double tamanoTablero, int tamanoVista) {
+        if (tamanoTablero <= tamanoVista) {
+            return (tamanoTablero - tamanoVista) / 2;
+        }
+        return Math.max(0, Math.min(tamanoTablero - tamanoVista, origen));
+    }
+
+
+    private void actualizarFuente() {
+        contexto.setFont(Font.font("Arial", FontWeight.BOLD, TAMANO_FUENTE * escala / PASO_NATURAL));
+    }
+
+
+    private boolean esMuestreo() {
+        return escala < ESCALA_MINIMA_CELDAS;
+    }
+
+
+    private int primeraFila() {
+        return Math.max(0, (int) Math.floor(origenY / escala));
+    }
+
+
+    private int ultimaFila() {
+        return Math.min(tablero.getFilas() - 1, (int) Math.floor((origenY + alto - 1) / escala));
+    }
+
+
+    private int primeraColumna() {
+        return Math.max(0, (int) Math.floor(origenX / escala));
+    }
+
+
+    private int ultimaColumna() {
+        return Math.min(tablero.getColumnas() - 1, (int) Math.floor((origenX + ancho - 1) / escala));
+    }
+
+    // ========== REPINTADO ==========
+
+    // Las celdas fuera de la vista se ignoran: se pintarán cuando entren al desplazarla
+    private void marcarSucia(int indice) {
+        if (repintarTodo) {
+            return;
+        }
+        int fila = indice / tablero.getColumnas();
+        int columna = indice % tablero.getColumnas();
+        if (fila < primeraFila() || fila > ultimaFila() || columna < primeraColumna() || columna > ultimaColumna()) {
+            return;
+        }
+        // La imagen de muestra se rehace entera, igual que si cambia más de media vista
+        int visibles = (ultimaFila() - primeraFila() + 1) * (ultimaColumna() - primeraColumna() + 1);
+        if (esMuestreo() || cantidadSucias >= visibles / 2) {
+            repintarTodo = true;
+            return;
+        }
+        if (cantidadSucias == sucias.length) {
+            sucias = Arrays.copyOf(sucias, sucias.length * 2);
+        }
+        sucias[cantidadSucias++] = indice;
+    }
+
+
+    private void programarRepintado() {
+        if (!repintadoProgramado) {
+            repintadoProgramado = true;
+            repintado.start();
+        }
+    }
+
+
+    private void repintarPendientes() {
+        repintadoProgramado = false;
+        if (tablero == null) {
+            return;
+        }
+        if (repintarTodo && esMuestreo()) {
+            dibujarMuestreo();
+        } else if (repintarTodo) {
+            contexto.clearRect(0, 0, ancho, alto);
+            for (int fila = primeraFila(); fila <= ultimaFila(); fila++) {
+                for (int columna = primeraColumna(); columna <= ultimaColumna(); columna++) {
+                    dibujarCelda(fila * tablero.getColumnas() + columna);
+                }
+            }
+        } else {
+            for (int i = 0; i < cantidadSucias; i++) {
+                dibujarCelda(sucias[i]);
+            }
+        }
+        if (tieneMinimapa()) {
+            dibujarMinimapa();
+        }
+        cantidadSucias = 0;
+        repintarTodo = false;
+    }
+
+
+    private void dibujarCelda(int indice) {
+        int fila = indice / tablero.getColumnas();
+        int columna = indice % tablero.getColumnas();
+        // Bordes redondeados a píxeles enteros para que no queden costuras entre celdas
+        double x = Math.floor(columna * escala - origenX);
+        double y = Math.floor(fila * escala - origenY);
+        double anchoCelda = Math.floor((columna + 1) * escala - origenX) - x;
+        double altoCelda = Math.floor((fila + 1) * escala - origenY) - y;
+        contexto.clearRect(x, y, anchoCelda, altoCelda);
+        if (escala >= ESCALA_MINIMA_BORDE) {
+            anchoCelda -= ESPACIADO;
+            altoCelda -= ESPACIADO;
+        }
+        int minasAdyacentes = tablero.getMinasAdyacentes(indice);
+
+        if (tablero.estaRevelada(indice) || (minasVisibles && tablero.esMina(indice) && !tablero.estaMarcada(indice))) {
+            if (tablero.esMina(indice)) {
+                pintarFondo(x, y, anchoCelda, altoCelda, MINA, BORDE_MINA);
+                pintarIcono(CacheRecursos.Icono.MINA, x, y, anchoCelda, altoCelda);
+            } else {
+                pintarFondo(x, y, anchoCelda, altoCelda, REVELADA, BORDE);
+                if (minasAdyacentes > 0 && escala >= ESCALA_MINIMA_DETALLE) {
+                    int lado = (int) Math.min(anchoCelda, altoCelda);
+                    contexto.drawImage(recursos.numero(minasAdyacentes, lado),
+                                       x + (anchoCelda - lado) / 2, y + (altoCelda - lado) / 2);
+                }
+            }
+        } else if (tablero.estaMarcada(indice)) {
+            pintarFondo(x, y, anchoCelda, altoCelda, MARCADA, BORDE_MARCADA);
+            pintarIcono(CacheRecursos.Icono.BANDERA, x, y, anchoCelda, altoCelda);
+        } else {
+            pintarFondo(x, y, anchoCelda, altoCelda, indice == celdaBajoRaton ? HOVER : OCULTA, BORDE);
+        }
+    }
+
+
+    private void pintarFondo(double x, double y, double anchoCelda, double altoCelda, Color relleno, Color borde) {
+        contexto.setFill(relleno);
+        contexto.fillRect(x, y, anchoCelda, altoCelda);
+        if (escala >= ESCALA_MINIMA_BORDE) {
+            contexto.setStroke(borde);
+            contexto.strokeRect(x + 0.5, y + 0.5, anchoCelda - 1, altoCelda - 1);
+        }
+    }
+
+
+    private void pintarIcono(CacheRecursos.Icono icono, double x, double y, double anchoCelda, double altoCelda) {
+        if (escala < ESCALA_MINIMA_DETALLE) {
+            return;
+        }
+        int tamano = (int) Math.round(Math.min(anchoCelda, altoCelda) * TAMANO_IMAGEN / TAMANO_CELDA);
+        Image imagen = recursos.icono(icono, tamano);
+        if (imagen != null) {
+            contexto.drawImage(imagen, Math.floor(x + (anchoCelda - tamano) / 2), Math.floor(y + (altoCelda - tamano) / 2));
+        } else {
+            contexto.setFill(Color.BLACK);
+            contexto.fillText(icono.getAlternativa(), x + anchoCelda / 2, y + altoCelda / 2);
+        }
+    }
+
+
+    // Una celda por píxel del lienzo: la que cae en su centro
+    private void dibujarMuestreo() {
+        for (int x = 0; x < ancho; x++) {
+            columnasMuestreo[x] = celdaDePixel(x + origenX, tablero.getColumnas());
+        }
+        for (int y = 0; y < alto; y++) {
+            int fila = celdaDePixel(y + origenY, tablero.getFilas());
+            int inicio = y * ancho;
+            for (int x = 0; x < ancho; x++) {
+                int columna = columnasMuestreo[x];
+                pixelesMuestreo[inicio + x] = fila < 0 || columna < 0 ? 0 : argbCelda(fila, columna);
+            }
+        }
+        imagenMuestreo.getPixelWriter().setPixels(0, 0, ancho, alto, PixelFormat.getIntArgbInstance(),
+                                                 pixelesMuestreo, 0, ancho);
+        contexto.clearRect(0, 0, ancho, alto);
+        contexto.drawImage(imagenMuestreo, 0, 0);
+    }
+
+
+    private int celdaDePixel(double posicion, int limite) {
+        int celda = (int) Math.floor((posicion + 0.5) / escala);
+        return celda >= 0 && celda < limite ? celda : -1;
+    }
+
+
+    private int argbCelda(int fila, int columna) {
+        int indice = fila * tablero.getColumnas() + columna;
+        if (tablero.estaRevelada(indice) || (minasVisibles && tablero.esMina(indice) && !tablero.estaMarcada(indice))) {
+            return tablero.esMina(indice) ? argb(MINA) : argbNumero[tablero.getMinasAdyacentes(indice)];
+        }
+        return argb(tablero.estaMarcada(indice) ? MARCADA : OCULTA);
+    }
+
+
+    private static int argb(Color color) {
+        return (int) Math.round(color.getOpacity() * 255) << 24
+               | (int) Math.round(color.getRed() * 255) << 16
+               | (int) Math.round(color.getGreen() * 255) << 8
+               | (int) Math.round(color.getBlue() * 255);
+    }
+
+    // ========== MINIMAPA ==========
+
+    private void prepararMinimapa() {
+        escalaMinimapa = (double) LADO_MINIMAPA / Math.max(tablero.getFilas(), tablero.getColumnas());
+        int anchoMinimapa = Math.max(1, (int) Math.round(tablero.getColumnas() * escalaMinimapa));
+        int altoMinimapa = Math.max(1, (int) Math.round(tablero.getFilas() * escalaMinimapa));
+        if (imagenMinimapa == null || imagenMinimapa.getWidth() != anchoMinimapa || imagenMinimapa.getHeight() != altoMinimapa) {
+            imagenMinimapa = new WritableImage(anchoMinimapa, altoMinimapa);
+            pixelesMinimapa = new int[anchoMinimapa * altoMinimapa];
+        }
+        minimapaDesactualizado = true;
+    }
+
+
+    // Solo cuando el tablero no cabe entero en el lienzo
+    private boolean tieneMinimapa() {
+        return tablero.getColumnas() * escala > ancho || tablero.getFilas() * escala > alto;
+    }
+
+
+    private void dibujarMinimapa() {
+        int anchoMinimapa = (int) imagenMinimapa.getWidth();
+        int altoMinimapa = (int) imagenMinimapa.getHeight();
+        if (minimapaDesactualizado) {
+            for (int y = 0; y < altoMinimapa; y++) {
+                int fila = Math.min(tablero.getFilas() - 1, (int) ((y + 0.5) / escalaMinimapa));
+                for (int x = 0; x < anchoMinimapa; x++) {
+                    int columna = Math.min(tablero.getColumnas() - 1, (int) ((x + 0.5) / escalaMinimapa));
+                    pixelesMinimapa[y * anchoMinimapa + x] = argbCelda(fila, columna);
+                }
+            }
+            imagenMinimapa.getPixelWriter().setPixels(0, 0, anchoMinimapa, altoMinimapa, PixelFormat.getIntArgbInstance(),
+                                                     pixelesMinimapa, 0, anchoMinimapa);
+            minimapaDesactualizado = false;
+        }
+
+        double x = minimapaX();
+        double y = minimapaY();
+        contexto.setFill(FONDO_MINIMAPA);
+        contexto.fillRect(x - 2, y - 2, anchoMinimapa + 4, altoMinimapa + 4);
+        contexto.setStroke(BORDE);
+        contexto.strokeRect(x - 1.5, y - 1.5, anchoMinimapa + 3, altoMinimapa + 3);
+        contexto.drawImage(imagenMinimapa, x, y);
+
+        double proporcion = escalaMinimapa / escala;
+        contexto.setStroke(VISTA_MINIMAPA);
+        contexto.strokeRect(x + Math.max(0, origenX) * proporcion, y + Math.max(0, origenY) * proporcion,
+                            Math.min(ancho, tablero.getColumnas() * escala) * proporcion,
+                            Math.min(alto, tablero.getFilas() * escala) * proporcion);
+    }
+
+
+    private double minimapaX() {
+        return ancho - imagenMinimapa.getWidth() - MARGEN_MINIMAPA;
+    }
+
+
+    private double minimapaY() {
+        return alto - imagenMinimapa.getHeight() - MARGEN_MINIMAPA;
+    }
+
+
+    private boolean enMinimapa(double x, double y) {
+        return tieneMinimapa() && x >= minimapaX() && y >= minimapaY()
+               && x < minimapaX() + imagenMinimapa.getWidth() && y < minimapaY() + imagenMinimapa.getHeight();
+    }
+
+
+    private void centrarDesdeMinimapa(double x, double y) {
+        centrarEn((x - minimapaX()) / escalaMinimapa, (y - minimapaY()) / escalaMinimapa);
+    }
+
+    // ========== RATÓN ==========
+
+    private void alPulsar(MouseEvent evento) {
+        xPulsado = evento.getX();
+        yPulsado = evento.getY();
+        xAnterior = xPulsado;
+        yAnterior = yPulsado;
+        arrastrando = false;
+        arrastrandoMinimapa = tablero != null && enMinimapa(xPulsado, yPulsado);
+        if (arrastrandoMinimapa) {
+            centrarDesdeMinimapa(xPulsado, yPulsado);
+        }
+    }
+
+
+    private void alArrastrar(MouseEvent evento) {
+        if (tablero == null) {
+            return;
+        }
+        if (arrastrandoMinimapa) {
+            centrarDesdeMinimapa(evento.getX(), evento.getY());
+            return;
+        }
+        if (!arrastrando && Math.hypot(evento.getX() - xPulsado, evento.getY() - yPulsado) >= UMBRAL_ARRASTRE) {
+            arrastrando = true;
+        }
+        if (arrastrando) {
+            desplazar(evento.getX() - xAnterior, evento.getY() - yAnterior);
+            xAnterior = evento.getX();
+            yAnterior = evento.getY();
+        }
+    }
+
+
+    private void alHacerClic(MouseEvent evento) {
+        if (arrastrando || arrastrandoMinimapa) {
+            return;
+        }
+        int indice = celdaEn(evento.getX(), evento.getY());
+        if (indice >= 0 && manejadorClic != null) {
+            manejadorClic.clic(indice / tablero.getColumnas(), indice % tablero.getColumnas(), evento.getButton());
+        }
+    }
+
+
+    // La rueda acerca o aleja; el desplazamiento con dos dedos del panel táctil mueve la vista
+    private void alGirarRueda(ScrollEvent evento) {
+        if (tablero == null) {
+            return;
+        }
+        if (evento.getTouchCount() > 0) {
+            desplazar(evento.getDeltaX(), evento.getDeltaY());
+        } else if (evento.getDeltaY() != 0) {
+            acercar(evento.getDeltaY() > 0 ? FACTOR_ZOOM : 1 / FACTOR_ZOOM, evento.getX(), evento.getY());
+        }
+        evento.consume();
+    }
+
+
+    private void cambiarCeldaBajoRaton(int indice) {
+        if (tablero == null || tablero.isJuegoTerminado() || esMuestreo()) {
+            indice = -1;
+        }
+        if (indice == celdaBajoRaton) {
+            return;
+        }
+        if (celdaBajoRaton >= 0) {
+            marcarSucia(celdaBajoRaton);
+        }
+        if (indice >= 0) {
+            marcarSucia(indice);
+        }
+        celdaBajoRaton = indice;
+        programarRepintado();
+    }
+
+
+    // Índice de la celda bajo el punto, o -1 si cae fuera del tablero o sobre el minimapa
+    private int celdaEn(double x, double y) {
+        if (tablero == null || enMinimapa(x, y)) {
+            return -1;
+        }
+        double tableroX = x + origenX;
+        double tableroY = y + origenY;
+        if (tableroX < 0 || tableroY < 0) {
+            return -1;
+        }
+        int fila = (int) (tableroY / escala);
+        int columna = (int) (tableroX / escala);
+        if (fila >= tablero.getFilas() || columna >= tablero.getColumnas()) {
+            return -1;
+        }
+        return fila * tablero.getColumnas() + columna;
+    }
+}
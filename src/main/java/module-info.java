@@ -24,4 +24,6 @@ module com.example.gato {
     exports celda;
     
     exports persistence;
+
+    exports simulacion;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package persistence;
+
+
+/**
+ * Error de un almacenamiento de partidas, sea cual sea el que esté en uso
+ */
+public class AlmacenamientoException extends Exception {
+
+    public AlmacenamientoException(String mensaje) {
+        super(mensaje);
+    }
+
+
+    public AlmacenamientoException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
@@ -0,0 +1,59 @@
+package persistence;
+
+import java.nio.file.Path;
+
+
+/**
+ * Almacenamiento en dos archivos mapeados en memoria, uno para los slots y
+ * otro para las partidas, con un registro de tamaño fijo por guardado (ver
+ * ArchivoRegistros). Guardar no pasa por SQL ni por un motor de base de
+ * datos: es copiar el registro en su posición del mapa.
+ */
+final class AlmacenamientoMapeado extends AlmacenamientoRegistros {
+    static final String ARCHIVO_SLOTS = "buscaminas-slots.dat";
+    static final String ARCHIVO_PARTIDAS = "buscaminas-partidas.dat";
+
+    private final ArchivoRegistros archivoSlots;
+    private final ArchivoRegistros archivoPartidas;
+
+
+    AlmacenamientoMapeado(Path directorio) throws AlmacenamientoException {
+        this(new ArchivoRegistros(directorio.resolve(ARCHIVO_SLOTS)), directorio.resolve(ARCHIVO_PARTIDAS));
+    }
+
+
+    private AlmacenamientoMapeado(ArchivoRegistros archivoSlots, Path rutaPartidas) throws AlmacenamientoException {
+        this(archivoSlots, abrir(archivoSlots, rutaPartidas));
+    }
+
+
+    private AlmacenamientoMapeado(ArchivoRegistros archivoSlots, ArchivoRegistros archivoPartidas) throws AlmacenamientoException {
+        super(archivoSlots, archivoPartidas);
+        this.archivoSlots = archivoSlots;
+        this.archivoPartidas = archivoPartidas;
+    }
+
+
+    @Override
+    public synchronized boolean estaDisponible() {
+        return archivoSlots.estaAbierto() && archivoPartidas.estaAbierto();
+    }
+
+
+    @Override
+    public synchronized void cerrar() {
+        archivoSlots.cerrar();
+        archivoPartidas.cerrar();
+    }
+
+
+    // Si el segundo archivo no se abre, el primero no debe quedar mapeado
+    private static ArchivoRegistros abrir(ArchivoRegistros abierto, Path ruta) throws AlmacenamientoException {
+        try {
+            return new ArchivoRegistros(ruta);
+        } catch (AlmacenamientoException e) {
+            abierto.cerrar();
+            throw e;
+        }
+    }
+}
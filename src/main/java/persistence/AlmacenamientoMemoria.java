@@ -0,0 +1,74 @@
+package persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Almacenamiento que solo vive en memoria y se pierde al cerrar la
+ * aplicación. Sirve para pruebas y benchmarks sin archivo de base de datos.
+ */
+final class AlmacenamientoMemoria extends AlmacenamientoRegistros {
+
+    AlmacenamientoMemoria() throws AlmacenamientoException {
+        super(new TablaMemoria(), new TablaMemoria());
+    }
+
+
+    @Override
+    public boolean estaDisponible() {
+        return true;
+    }
+
+
+    @Override
+    public void cerrar() {
+        // Nada que volcar
+    }
+
+    // ========== CLASES INTERNAS ==========
+
+    // Los métodos de AlmacenamientoRegistros ya están sincronizados
+    private static final class TablaMemoria implements TablaRegistros {
+        private final Map<Integer, RegistroGuardado> registros = new TreeMap<>();
+        private int ultimoId;
+
+
+        @Override
+        public RegistroGuardado leer(int id) {
+            RegistroGuardado registro = registros.get(id);
+            return registro == null ? null : registro.copiar();
+        }
+
+
+        @Override
+        public void escribir(RegistroGuardado registro) {
+            registros.put(registro.id, registro.copiar());
+            ultimoId = Math.max(ultimoId, registro.id);
+        }
+
+
+        @Override
+        public boolean eliminar(int id) {
+            return registros.remove(id) != null;
+        }
+
+
+        @Override
+        public List<RegistroGuardado> leerTodos() {
+            List<RegistroGuardado> todos = new ArrayList<>(registros.size());
+            for (RegistroGuardado registro : registros.values()) {
+                todos.add(registro.copiar());
+            }
+            return todos;
+        }
+
+
+        @Override
+        public int reservarId() {
+            return ++ultimoId;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package persistence;
+
+import celda.TableroBuscaminas;
+
+import java.util.List;
+
+
+/**
+ * Lo que SlotGuardadoService y PartidaService necesitan de un almacenamiento.
+ * Hay tres implementaciones, que se eligen con TipoAlmacenamiento: SQLite, un
+ * archivo mapeado en memoria con un registro de tamaño fijo por guardado, y
+ * otra solo en memoria para pruebas y benchmarks.
+ *
+ * Los métodos de slots reciben instantáneas ya tomadas del tablero porque se
+ * llaman desde el escritor en segundo plano. Las implementaciones deben
+ * admitir llamadas desde varios hilos.
+ */
+interface AlmacenamientoPartidas {
+
+    // ========== SLOTS ==========
+
+    void guardarEnSlot(int slotId, String nombrePartida, String nombreJugador,
+                       InstantaneaTablero tablero) throws AlmacenamientoException;
+
+
+    // Solo las celdas cambiadas y los contadores; el slot debe tener un tablero de las mismas dimensiones
+    void guardarCambiosEnSlot(int slotId, InstantaneaTablero tablero) throws AlmacenamientoException;
+
+
+    // Pliega los cambios incrementales pendientes, si el almacenamiento los guarda aparte
+    void compactarSlot(int slotId) throws AlmacenamientoException;
+
+
+    int crearSlot(String nombrePartida, String nombreJugador, InstantaneaTablero tablero) throws AlmacenamientoException;
+
+
+    TableroBuscaminas cargarDesdeSlot(int slotId) throws AlmacenamientoException;
+
+
+    List<SlotGuardadoDAO.SlotInfo> obtenerInfoSlots() throws AlmacenamientoException;
+
+
+    // null si el slot no existe
+    SlotGuardadoDAO.SlotInfo obtenerInfoSlot(int slotId) throws AlmacenamientoException;
+
+
+    PaginaGuardados<SlotGuardadoDAO.SlotInfo> obtenerPaginaSlots(FiltroGuardados filtro, CursorPagina desde,
+                                                                 int tamano) throws AlmacenamientoException;
+
+
+    void limpiarSlot(int slotId) throws AlmacenamientoException;
+
+    // ========== PARTIDAS ==========
+
+    int guardarPartida(String nombreJugador, TableroBuscaminas tablero) throws AlmacenamientoException;
+
+
+    void actualizarPartida(int partidaId, TableroBuscaminas tablero) throws AlmacenamientoException;
+
+
+    TableroBuscaminas cargarPartida(int partidaId) throws AlmacenamientoException;
+
+
+    List<PartidaDAO.PartidaInfo> obtenerPartidasGuardadas() throws AlmacenamientoException;
+
+
+    PaginaGuardados<PartidaDAO.PartidaInfo> obtenerPaginaPartidas(FiltroGuardados filtro, CursorPagina desde,
+                                                                  int tamano) throws AlmacenamientoException;
+
+
+    void eliminarPartida(int partidaId) throws AlmacenamientoException;
+
+    // ========== CICLO DE VIDA ==========
+
+    boolean estaDisponible();
+
+
+    // Vuelca lo pendiente y libera los recursos; después no se puede seguir usando
+    void cerrar();
+}
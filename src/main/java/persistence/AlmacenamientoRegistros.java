@@ -0,0 +1,263 @@
+package persistence;
+
+import celda.CodificadorTablero;
+import celda.TableroBuscaminas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Slots y partidas sobre dos TablaRegistros, para los almacenamientos que no
+ * usan SQL. Cada guardado es un único registro con la cabecera y el tablero
+ * codificado; los cambios incrementales se aplican directamente sobre él, así
+ * que no hay nada pendiente de compactar.
+ *
+ * Reproduce lo que hacen SlotGuardadoDAO y PartidaDAO: los mismos tres slots
+ * vacíos al empezar, los mismos valores al limpiar y los mismos errores.
+ */
+abstract class AlmacenamientoRegistros implements AlmacenamientoPartidas {
+    static final int SLOTS_INICIALES = 3;
+
+    private final TablaRegistros slots;
+    private final TablaRegistros partidas;
+
+
+    AlmacenamientoRegistros(TablaRegistros slots, TablaRegistros partidas) throws AlmacenamientoException {
+        this.slots = slots;
+        this.partidas = partidas;
+        if (slots.leerTodos().isEmpty()) {
+            for (int i = 0; i < SLOTS_INICIALES; i++) {
+                RegistroGuardado registro = new RegistroGuardado();
+                registro.id = slots.reservarId();
+                registro.fechaCreacion = System.currentTimeMillis();
+                vaciar(registro);
+                slots.escribir(registro);
+            }
+        }
+    }
+
+    // ========== SLOTS ==========
+
+    @Override
+    public synchronized void guardarEnSlot(int slotId, String nombrePartida, String nombreJugador,
+                                           InstantaneaTablero tablero) throws AlmacenamientoException {
+        RegistroGuardado registro = leerSlot(slotId);
+        registro.nombrePartida = nombrePartida;
+        registro.nombreJugador = nombreJugador;
+        copiarContadores(tablero, registro);
+        registro.datos = tablero.getDatos();
+        slots.escribir(registro);
+    }
+
+
+    @Override
+    public synchronized void guardarCambiosEnSlot(int slotId, InstantaneaTablero tablero) throws AlmacenamientoException {
+        RegistroGuardado registro = leerSlot(slotId);
+        if (registro.datos == null || registro.filas != tablero.getFilas() || registro.columnas != tablero.getColumnas()) {
+            throw new AlmacenamientoException("El slot " + slotId + " no tiene un tablero compatible guardado");
+        }
+        try {
+            CodificadorTablero.aplicarCambios(registro.datos, registro.filas * registro.columnas,
+                                              tablero.getIndices(), tablero.getEstados());
+        } catch (IllegalArgumentException e) {
+            throw new AlmacenamientoException("Error al guardar cambios en slot " + slotId + ": " + e.getMessage(), e);
+        }
+        copiarContadores(tablero, registro);
+        slots.escribir(registro);
+    }
+
+
+    @Override
+    public void compactarSlot(int slotId) {
+        // Los cambios ya están aplicados sobre el registro
+    }
+
+
+    @Override
+    public synchronized int crearSlot(String nombrePartida, String nombreJugador,
+                                      InstantaneaTablero tablero) throws AlmacenamientoException {
+        RegistroGuardado registro = new RegistroGuardado();
+        registro.id = slots.reservarId();
+        registro.nombrePartida = nombrePartida;
+        registro.nombreJugador = nombreJugador;
+        registro.fechaCreacion = System.currentTimeMillis();
+        copiarContadores(tablero, registro);
+        registro.datos = tablero.getDatos();
+        slots.escribir(registro);
+        return registro.id;
+    }
+
+
+    @Override
+    public synchronized TableroBuscaminas cargarDesdeSlot(int slotId) throws AlmacenamientoException {
+        RegistroGuardado registro = leerSlot(slotId);
+        if ("Vacío".equals(registro.nombreJugador) || registro.datos == null) {
+            throw new AlmacenamientoException("El slot " + slotId + " está vacío");
+        }
+        return decodificar(registro, "Error al cargar desde slot " + slotId);
+    }
+
+
+    @Override
+    public synchronized List<SlotGuardadoDAO.SlotInfo> obtenerInfoSlots() throws AlmacenamientoException {
+        List<RegistroGuardado> registros = slots.leerTodos();
+        List<SlotGuardadoDAO.SlotInfo> infos = new ArrayList<>(registros.size());
+        for (RegistroGuardado registro : registros) {
+            infos.add(registro.aSlotInfo());
+        }
+        return infos;
+    }
+
+
+    @Override
+    public synchronized SlotGuardadoDAO.SlotInfo obtenerInfoSlot(int slotId) throws AlmacenamientoException {
+        RegistroGuardado registro = slots.leer(slotId);
+        return registro == null ? null : registro.aSlotInfo();
+    }
+
+
+    @Override
+    public synchronized PaginaGuardados<SlotGuardadoDAO.SlotInfo> obtenerPaginaSlots(
+            FiltroGuardados filtro, CursorPagina desde, int tamano) throws AlmacenamientoException {
+        return ConsultaPaginada.paginarEnMemoria(slots.leerTodos(), filtro, desde, tamano, RegistroGuardado::aSlotInfo);
+    }
+
+
+    @Override
+    public synchronized void limpiarSlot(int slotId) throws AlmacenamientoException {
+        RegistroGuardado registro = leerSlot(slotId);
+        vaciar(registro);
+        slots.escribir(registro);
+    }
+
+    // ========== PARTIDAS ==========
+
+    @Override
+    public synchronized int guardarPartida(String nombreJugador, TableroBuscaminas tablero) throws AlmacenamientoException {
+        RegistroGuardado registro = new RegistroGuardado();
+        registro.id = partidas.reservarId();
+        registro.nombreJugador = nombreJugador;
+        registro.fechaCreacion = System.currentTimeMillis();
+        registro.cantidadMinas = tablero.getCantidadMinas();
+        registro.filas = tablero.getFilas();
+        registro.columnas = tablero.getColumnas();
+        copiarPartida(tablero, registro);
+        partidas.escribir(registro);
+        return registro.id;
+    }
+
+
+    @Override
+    public synchronized void actualizarPartida(int partidaId, TableroBuscaminas tablero) throws AlmacenamientoException {
+        // Igual que el UPDATE de PartidaDAO, un id que no existe no es un error
+        RegistroGuardado registro = partidas.leer(partidaId);
+        if (registro != null) {
+            copiarPartida(tablero, registro);
+            partidas.escribir(registro);
+        }
+    }
+
+
+    @Override
+    public synchronized TableroBuscaminas cargarPartida(int partidaId) throws AlmacenamientoException {
+        RegistroGuardado registro = partidas.leer(partidaId);
+        if (registro == null) {
+            throw new AlmacenamientoException("Partida no encontrada con ID: " + partidaId);
+        }
+        if (registro.datos == null) {
+            throw new AlmacenamientoException("La partida " + partidaId + " no tiene tablero guardado");
+        }
+        return decodificar(registro, "Error al cargar la partida");
+    }
+
+
+    @Override
+    public synchronized List<PartidaDAO.PartidaInfo> obtenerPartidasGuardadas() throws AlmacenamientoException {
+        List<RegistroGuardado> registros = partidas.leerTodos();
+        // Mismo orden que el ORDER BY fecha_ultima_modificacion DESC de PartidaDAO
+        registros.sort((a, b) -> b.getCursor().compararCon(a.getCursor()));
+        List<PartidaDAO.PartidaInfo> infos = new ArrayList<>(registros.size());
+        for (RegistroGuardado registro : registros) {
+            infos.add(registro.aPartidaInfo());
+        }
+        return infos;
+    }
+
+
+    @Override
+    public synchronized PaginaGuardados<PartidaDAO.PartidaInfo> obtenerPaginaPartidas(
+            FiltroGuardados filtro, CursorPagina desde, int tamano) throws AlmacenamientoException {
+        return ConsultaPaginada.paginarEnMemoria(partidas.leerTodos(), filtro, desde, tamano,
+                                                 RegistroGuardado::aPartidaInfo);
+    }
+
+
+    @Override
+    public synchronized void eliminarPartida(int partidaId) throws AlmacenamientoException {
+        if (!partidas.eliminar(partidaId)) {
+            throw new AlmacenamientoException("No se encontró la partida con ID: " + partidaId);
+        }
+    }
+
+
+    private RegistroGuardado leerSlot(int slotId) throws AlmacenamientoException {
+        RegistroGuardado registro = slots.leer(slotId);
+        if (registro == null) {
+            throw new AlmacenamientoException("Slot " + slotId + " no encontrado");
+        }
+        return registro;
+    }
+
+
+    // Los valores que deja SlotGuardadoDAO.limpiarSlot; las dimensiones se conservan
+    static void vaciar(RegistroGuardado registro) {
+        registro.nombrePartida = "Slot " + registro.id;
+        registro.nombreJugador = "Vacío";
+        registro.fechaUltimaModificacion = System.currentTimeMillis();
+        registro.cantidadMinas = 60;
+        registro.celdasReveladas = 0;
+        registro.minasMarcadas = 0;
+        registro.juegoTerminado = false;
+        registro.juegoGanado = false;
+        registro.estadoPartida = "en_curso";
+        if (registro.filas == 0) {
+            registro.filas = 20;
+            registro.columnas = 20;
+        }
+        registro.datos = null;
+    }
+
+
+    private static void copiarContadores(InstantaneaTablero tablero, RegistroGuardado registro) {
+        registro.fechaUltimaModificacion = System.currentTimeMillis();
+        registro.cantidadMinas = tablero.getCantidadMinas();
+        registro.celdasReveladas = tablero.getCeldasReveladas();
+        registro.minasMarcadas = tablero.getMinasMarcadas();
+        registro.juegoTerminado = tablero.isJuegoTerminado();
+        registro.juegoGanado = tablero.isJuegoGanado();
+        registro.estadoPartida = tablero.getEstadoPartida();
+        registro.filas = tablero.getFilas();
+        registro.columnas = tablero.getColumnas();
+    }
+
+
+    private static void copiarPartida(TableroBuscaminas tablero, RegistroGuardado registro) {
+        registro.fechaUltimaModificacion = System.currentTimeMillis();
+        registro.celdasReveladas = tablero.getCeldasReveladas();
+        registro.minasMarcadas = tablero.getMinasMarcadas();
+        registro.juegoTerminado = tablero.isJuegoTerminado();
+        registro.juegoGanado = tablero.isJuegoGanado();
+        registro.estadoPartida = tablero.isJuegoTerminado() ? "terminada" : "en_curso";
+        registro.datos = CodificadorTablero.codificar(tablero);
+    }
+
+
+    private static TableroBuscaminas decodificar(RegistroGuardado registro, String mensaje) throws AlmacenamientoException {
+        try {
+            return CodificadorTablero.decodificar(registro.datos, registro.filas, registro.columnas, registro.cantidadMinas);
+        } catch (IllegalArgumentException e) {
+            throw new AlmacenamientoException(mensaje + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package persistence;
+
+import celda.TableroBuscaminas;
+
+import java.sql.SQLException;
+import java.util.List;
+
+
+/**
+ * Almacenamiento en la base de datos SQLite de DatabaseManager, a través de
+ * SlotGuardadoDAO y PartidaDAO. Es el que usa la aplicación por defecto.
+ */
+final class AlmacenamientoSQLite implements AlmacenamientoPartidas {
+    private final SlotGuardadoDAO slotDAO = new SlotGuardadoDAO();
+    private final PartidaDAO partidaDAO = new PartidaDAO();
+
+    // ========== SLOTS ==========
+
+    @Override
+    public void guardarEnSlot(int slotId, String nombrePartida, String nombreJugador,
+                              InstantaneaTablero tablero) throws AlmacenamientoException {
+        try {
+            slotDAO.guardarEnSlot(slotId, nombrePartida, nombreJugador, tablero);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public void guardarCambiosEnSlot(int slotId, InstantaneaTablero tablero) throws AlmacenamientoException {
+        try {
+            slotDAO.guardarCambiosEnSlot(slotId, tablero);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public void compactarSlot(int slotId) throws AlmacenamientoException {
+        try {
+            slotDAO.compactarSlot(slotId);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public int crearSlot(String nombrePartida, String nombreJugador,
+                         InstantaneaTablero tablero) throws AlmacenamientoException {
+        try {
+            return slotDAO.crearSlot(nombrePartida, nombreJugador, tablero);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public TableroBuscaminas cargarDesdeSlot(int slotId) throws AlmacenamientoException {
+        try {
+            return slotDAO.cargarDesdeSlot(slotId);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public List<SlotGuardadoDAO.SlotInfo> obtenerInfoSlots() throws AlmacenamientoException {
+        try {
+            return slotDAO.obtenerInfoSlots();
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public SlotGuardadoDAO.SlotInfo obtenerInfoSlot(int slotId) throws AlmacenamientoException {
+        try {
+            return slotDAO.obtenerInfoSlot(slotId);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public PaginaGuardados<SlotGuardadoDAO.SlotInfo> obtenerPaginaSlots(FiltroGuardados filtro, CursorPagina desde,
+                                                                        int tamano) throws AlmacenamientoException {
+        try {
+            return slotDAO.obtenerPaginaSlots(filtro, desde, tamano);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public void limpiarSlot(int slotId) throws AlmacenamientoException {
+        try {
+            slotDAO.limpiarSlot(slotId);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+    // ========== PARTIDAS ==========
+
+    @Override
+    public int guardarPartida(String nombreJugador, TableroBuscaminas tablero) throws AlmacenamientoException {
+        try {
+            return partidaDAO.guardarPartida(nombreJugador, tablero);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public void actualizarPartida(int partidaId, TableroBuscaminas tablero) throws AlmacenamientoException {
+        try {
+            partidaDAO.actualizarPartida(partidaId, tablero);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public TableroBuscaminas cargarPartida(int partidaId) throws AlmacenamientoException {
+        try {
+            return partidaDAO.cargarPartida(partidaId);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public List<PartidaDAO.PartidaInfo> obtenerPartidasGuardadas() throws AlmacenamientoException {
+        try {
+            return partidaDAO.obtenerPartidasGuardadas();
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public PaginaGuardados<PartidaDAO.PartidaInfo> obtenerPaginaPartidas(FiltroGuardados filtro, CursorPagina desde,
+                                                                         int tamano) throws AlmacenamientoException {
+        try {
+            return partidaDAO.obtenerPaginaPartidas(filtro, desde, tamano);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+
+    @Override
+    public void eliminarPartida(int partidaId) throws AlmacenamientoException {
+        try {
+            partidaDAO.eliminarPartida(partidaId);
+        } catch (SQLException e) {
+            throw envolver(e);
+        }
+    }
+
+    // ========== CICLO DE VIDA ==========
+
+    @Override
+    public boolean estaDisponible() {
+        return DatabaseManager.getInstance().isDatabaseAvailable();
+    }
+
+
+    @Override
+    public void cerrar() {
+        DatabaseManager.getInstance().cerrar();
+    }
+
+
+    // Los DAO ya ponen contexto en el mensaje
+    private static AlmacenamientoException envolver(SQLException e) {
+        return new AlmacenamientoException(e.getMessage(), e);
+    }
+}
@@ -0,0 +1,351 @@
+package persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+
+/**
+ * TablaRegistros sobre un archivo mapeado en memoria con registros de tamaño
+ * fijo: el registro con id N empieza en CABECERA + (N - 1) * TAMANO_REGISTRO,
+ * así que leer o escribir un guardado es copiar bytes en su posición, sin
+ * llamadas al sistema. Un registro ocupa una página, cabe un tablero de
+ * 100x100 y termina con un CRC32 que delata las escrituras a medias.
+ *
+ * Las escrituras quedan en la caché de páginas del sistema, que las vuelca
+ * por su cuenta; cerrar() las fuerza al disco. Si el archivo se queda sin
+ * hueco se amplía al doble y se vuelve a mapear.
+ */
+final class ArchivoRegistros implements TablaRegistros {
+    private static final Logger logger = LoggerFactory.getLogger(ArchivoRegistros.class);
+
+    static final int TAMANO_REGISTRO = 4096;
+    static final int TAMANO_CABECERA = 64;
+    private static final int MAGIA = 0x42555343;  // "BUSC"
+    private static final int VERSION = 1;
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    // Cabecera del archivo
+    private static final int CABECERA_MAGIA = 0;
+    private static final int CABECERA_VERSION = 4;
+    private static final int CABECERA_TAMANO_REGISTRO = 8;
+    private static final int CABECERA_CAPACIDAD = 12;
+    private static final int CABECERA_ULTIMO_ID = 16;
+
+    // Campos de un registro, relativos a su inicio
+    private static final int OCUPADO = 0;
+    private static final int INDICADORES = 1;
+    private static final int FILAS = 4;
+    private static final int COLUMNAS = 8;
+    private static final int MINAS = 12;
+    private static final int REVELADAS = 16;
+    private static final int MARCADAS = 20;
+    private static final int FECHA_CREACION = 24;
+    private static final int FECHA_MODIFICACION = 32;
+    // Textos: longitud en un short (-1 si es null) y los bytes en UTF-8
+    static final int MAXIMO_NOMBRE = 94;
+    static final int MAXIMO_ESTADO = 30;
+    private static final int NOMBRE_PARTIDA = 40;
+    private static final int NOMBRE_JUGADOR = NOMBRE_PARTIDA + 2 + MAXIMO_NOMBRE;
+    private static final int ESTADO = NOMBRE_JUGADOR + 2 + MAXIMO_NOMBRE;
+    private static final int LONGITUD_DATOS = ESTADO + 2 + MAXIMO_ESTADO;
+    private static final int DATOS = LONGITUD_DATOS + 4;
+    private static final int CRC = TAMANO_REGISTRO - 4;
+    static final int MAXIMO_DATOS = CRC - DATOS;
+
+    private static final byte TERMINADO = 1;
+    private static final byte GANADO = 2;
+
+    private final Path archivo;
+    private final FileChannel canal;
+    private MappedByteBuffer mapa;
+    private int capacidad;
+    private int ultimoId;
+
+
+    ArchivoRegistros(Path archivo) throws AlmacenamientoException {
+        this.archivo = archivo;
+        FileChannel abierto = null;
+        try {
+            abierto = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE);
+            if (abierto.size() == 0) {
+                capacidad = CAPACIDAD_INICIAL;
+                mapa = mapear(abierto, capacidad);
+                mapa.putInt(CABECERA_MAGIA, MAGIA);
+                mapa.putInt(CABECERA_VERSION, VERSION);
+                mapa.putInt(CABECERA_TAMANO_REGISTRO, TAMANO_REGISTRO);
+                mapa.putInt(CABECERA_CAPACIDAD, capacidad);
+                mapa.putInt(CABECERA_ULTIMO_ID, 0);
+            } else {
+                leerCabecera(abierto);
+                mapa = mapear(abierto, capacidad);
+            }
+        } catch (IOException e) {
+            if (abierto != null) {
+                try {
+                    abierto.close();
+                } catch (IOException ignorada) {
+                    // Ya se informa del error original
+                }
+            }
+            throw new AlmacenamientoException("No se pudo abrir " + archivo + ": " + e.getMessage(), e);
+        }
+        this.canal = abierto;
+    }
+
+    // ========== TABLA ==========
+
+    @Override
+    public RegistroGuardado leer(int id) throws AlmacenamientoException {
+        verificarAbierto();
+        if (id < 1 || id > capacidad) {
+            return null;
+        }
+        ByteBuffer registro = registro(id);
+        if (registro.get(OCUPADO) == 0) {
+            return null;
+        }
+
+        int longitudDatos = registro.getInt(LONGITUD_DATOS);
+        if (longitudDatos < -1 || longitudDatos > MAXIMO_DATOS
+            || registro.getInt(CRC) != calcularCrc(registro, longitudDatos)) {
+            throw new AlmacenamientoException("El registro " + id + " de " + archivo + " está dañado");
+        }
+
+        RegistroGuardado leido = new RegistroGuardado();
+        leido.id = id;
+        byte indicadores = registro.get(INDICADORES);
+        leido.juegoTerminado = (indicadores & TERMINADO) != 0;
+        leido.juegoGanado = (indicadores & GANADO) != 0;
+        leido.filas = registro.getInt(FILAS);
+        leido.columnas = registro.getInt(COLUMNAS);
+        leido.cantidadMinas = registro.getInt(MINAS);
+        leido.celdasReveladas = registro.getInt(REVELADAS);
+        leido.minasMarcadas = registro.getInt(MARCADAS);
+        leido.fechaCreacion = registro.getLong(FECHA_CREACION);
+        leido.fechaUltimaModificacion = registro.getLong(FECHA_MODIFICACION);
+        leido.nombrePartida = leerTexto(registro, NOMBRE_PARTIDA);
+        leido.nombreJugador = leerTexto(registro, NOMBRE_JUGADOR);
+        leido.estadoPartida = leerTexto(registro, ESTADO);
+        if (longitudDatos >= 0) {
+            leido.datos = new byte[longitudDatos];
+            registro.get(DATOS, leido.datos);
+        }
+        return leido;
+    }
+
+
+    @Override
+    public void escribir(RegistroGuardado guardado) throws AlmacenamientoException {
+        verificarAbierto();
+        if (guardado.id < 1) {
+            throw new IllegalArgumentException("Id de registro no válido: " + guardado.id);
+        }
+        int longitudDatos = guardado.datos == null ? -1 : guardado.datos.length;
+        if (longitudDatos > MAXIMO_DATOS) {
+            throw new AlmacenamientoException("El tablero de " + guardado.filas + "x" + guardado.columnas +
+                                              " no cabe en un registro de " + TAMANO_REGISTRO + " bytes");
+        }
+        // Se validan antes de tocar el registro, para no dejarlo a medias
+        byte[] nombrePartida = codificarTexto(guardado.nombrePartida, MAXIMO_NOMBRE);
+        byte[] nombreJugador = codificarTexto(guardado.nombreJugador, MAXIMO_NOMBRE);
+        byte[] estado = codificarTexto(guardado.estadoPartida, MAXIMO_ESTADO);
+
+        asegurarCapacidad(guardado.id);
+        ByteBuffer registro = registro(guardado.id);
+        registro.put(OCUPADO, (byte) 1);
+        registro.put(INDICADORES, (byte) ((guardado.juegoTerminado ? TERMINADO : 0) | (guardado.juegoGanado ? GANADO : 0)));
+        registro.putInt(FILAS, guardado.filas);
+        registro.putInt(COLUMNAS, guardado.columnas);
+        registro.putInt(MINAS, guardado.cantidadMinas);
+        registro.putInt(REVELADAS, guardado.celdasReveladas);
+        registro.putInt(MARCADAS, guardado.minasMarcadas);
+        registro.putLong(FECHA_CREACION, guardado.fechaCreacion);
+        registro.putLong(FECHA_MODIFICACION, guardado.fechaUltimaModificacion);
+        escribirTexto(registro, NOMBRE_PARTIDA, nombrePartida);
+        escribirTexto(registro, NOMBRE_JUGADOR, nombreJugador);
+        escribirTexto(registro, ESTADO, estado);
+        registro.putInt(LONGITUD_DATOS, longitudDatos);
+        if (longitudDatos > 0) {
+            registro.put(DATOS, guardado.datos);
+        }
+        registro.putInt(CRC, calcularCrc(registro, longitudDatos));
+
+        if (guardado.id > ultimoId) {
+            ultimoId = guardado.id;
+            mapa.putInt(CABECERA_ULTIMO_ID, ultimoId);
+        }
+    }
+
+
+    @Override
+    public boolean eliminar(int id) throws AlmacenamientoException {
+        verificarAbierto();
+        if (id < 1 || id > capacidad) {
+            return false;
+        }
+        // Basta con el indicador; un registro dañado también se puede borrar
+        ByteBuffer registro = registro(id);
+        if (registro.get(OCUPADO) == 0) {
+            return false;
+        }
+        registro.put(OCUPADO, (byte) 0);
+        return true;
+    }
+
+
+    @Override
+    public List<RegistroGuardado> leerTodos() throws AlmacenamientoException {
+        verificarAbierto();
+        List<RegistroGuardado> todos = new ArrayList<>();
+        for (int id = 1; id <= ultimoId; id++) {
+            try {
+                RegistroGuardado registro = leer(id);
+                if (registro != null) {
+                    todos.add(registro);
+                }
+            } catch (AlmacenamientoException e) {
+                // Un registro dañado no debe ocultar el resto de guardados
+                logger.warn("Se omite un registro: {}", e.getMessage());
+            }
+        }
+        return todos;
+    }
+
+
+    @Override
+    public int reservarId() throws AlmacenamientoException {
+        verificarAbierto();
+        ultimoId++;
+        mapa.putInt(CABECERA_ULTIMO_ID, ultimoId);
+        return ultimoId;
+    }
+
+    // ========== CICLO DE VIDA ==========
+
+    boolean estaAbierto() {
+        return canal.isOpen();
+    }
+
+
+    void cerrar() {
+        if (!canal.isOpen()) {
+            return;
+        }
+        try {
+            mapa.force();
+            canal.close();
+        } catch (IOException e) {
+            logger.warn("Error al cerrar {}: {}", archivo, e.getMessage());
+        }
+    }
+
+
+    private void verificarAbierto() throws AlmacenamientoException {
+        if (!canal.isOpen()) {
+            throw new AlmacenamientoException("El archivo " + archivo + " está cerrado");
+        }
+    }
+
+
+    private void leerCabecera(FileChannel abierto) throws IOException {
+        if (abierto.size() < TAMANO_CABECERA) {
+            throw new IOException("archivo demasiado corto");
+        }
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+        abierto.read(cabecera, 0);
+        if (cabecera.getInt(CABECERA_MAGIA) != MAGIA) {
+            throw new IOException("no es un archivo de guardados");
+        }
+        if (cabecera.getInt(CABECERA_VERSION) != VERSION
+            || cabecera.getInt(CABECERA_TAMANO_REGISTRO) != TAMANO_REGISTRO) {
+            throw new IOException("versión de formato no soportada: " + cabecera.getInt(CABECERA_VERSION));
+        }
+        capacidad = cabecera.getInt(CABECERA_CAPACIDAD);
+        ultimoId = cabecera.getInt(CABECERA_ULTIMO_ID);
+        if (capacidad < 1 || ultimoId < 0 || ultimoId > capacidad
+            || abierto.size() < TAMANO_CABECERA + (long) capacidad * TAMANO_REGISTRO) {
+            throw new IOException("cabecera incoherente con el tamaño del archivo");
+        }
+    }
+
+
+    private void asegurarCapacidad(int id) throws AlmacenamientoException {
+        if (id <= capacidad) {
+            return;
+        }
+        int nueva = capacidad;
+        while (nueva < id) {
+            nueva *= 2;
+        }
+        try {
+            mapa = mapear(canal, nueva);
+        } catch (IOException e) {
+            throw new AlmacenamientoException("No se pudo ampliar " + archivo + ": " + e.getMessage(), e);
+        }
+        capacidad = nueva;
+        mapa.putInt(CABECERA_CAPACIDAD, capacidad);
+    }
+
+
+    // Mapear más allá del final amplía el archivo, con ceros: registros libres
+    private static MappedByteBuffer mapear(FileChannel canal, int capacidad) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_WRITE, 0, TAMANO_CABECERA + (long) capacidad * TAMANO_REGISTRO);
+    }
+
+
+    private ByteBuffer registro(int id) {
+        return mapa.slice(TAMANO_CABECERA + (id - 1) * TAMANO_REGISTRO, TAMANO_REGISTRO);
+    }
+
+
+    private static int calcularCrc(ByteBuffer registro, int longitudDatos) {
+        CRC32 crc = new CRC32();
+        crc.update(registro.slice(0, DATOS + Math.max(longitudDatos, 0)));
+        return (int) crc.getValue();
+    }
+
+
+    private static byte[] codificarTexto(String texto, int maximo) throws AlmacenamientoException {
+        if (texto == null) {
+            return null;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maximo) {
+            throw new AlmacenamientoException("El texto \"" + texto + "\" supera los " + maximo + " bytes que admite el registro");
+        }
+        return bytes;
+    }
+
+
+    private static void escribirTexto(ByteBuffer registro, int posicion, byte[] bytes) {
+        if (bytes == null) {
+            registro.putShort(posicion, (short) -1);
+            return;
+        }
+        registro.putShort(posicion, (short) bytes.length);
+        registro.put(posicion + 2, bytes);
+    }
+
+
+    private static String leerTexto(ByteBuffer registro, int posicion) {
+        short longitud = registro.getShort(posicion);
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        registro.get(posicion + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,315 @@
+package persistence;
+
+import persistence.SlotGuardadoDAO.SlotInfo;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+
+/**
+ * Caché de lectura de la cabecera de los slots (SlotInfo, nunca los tableros).
+ *
+ * Una lectura que no está en la caché va a SQLite por el escritor y deja aquí
+ * su resultado. Los guardados del servicio actualizan la caché al encolarse,
+ * así que una lectura posterior ya ve lo que se va a escribir, igual que si
+ * esperase su turno en la cola. Cada actualización cambia la generación: una
+ * lectura que empezó antes y termina después descarta su resultado en vez de
+ * guardar datos viejos.
+ *
+ * De los listados se mantienen al día las primeras páginas, que son las que
+ * se ven al abrir los diálogos: el slot recién escrito pasa a ser el más
+ * reciente, así que basta con quitarlo de donde estaba y ponerlo delante. Las
+ * páginas posteriores se descartan con cualquier escritura. Las jugadas que
+ * solo van al diario no cambian la fecha en disco hasta la compactación, así
+ * que el slot conserva su sitio y solo se actualiza su cabecera.
+ */
+final class CacheMetadatosSlots {
+    static final int PAGINAS_MAXIMAS = 64;
+    // Mismo formato que CURRENT_TIMESTAMP de SQLite
+    private static final DateTimeFormatter FORMATO_FECHA =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    private final Map<Integer, SlotInfo> slots = new TreeMap<>();
+    // true si slots contiene todas las filas de la tabla
+    private boolean completa;
+    private final Map<ClavePagina, PaginaGuardados<SlotInfo>> paginas = new HashMap<>();
+    private long generacion;
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+
+    // ========== LECTURAS ==========
+
+    // Todas las copias en orden de slot_id, o null si la caché no tiene la tabla entera
+    synchronized List<SlotInfo> obtenerTodos() {
+        if (!completa) {
+            fallos.incrementAndGet();
+            return null;
+        }
+        aciertos.incrementAndGet();
+        List<SlotInfo> todos = new ArrayList<>(slots.size());
+        for (SlotInfo info : slots.values()) {
+            todos.add(info.copiar());
+        }
+        return todos;
+    }
+
+
+    synchronized SlotInfo obtener(int slotId) {
+        SlotInfo info = slots.get(slotId);
+        if (info == null) {
+            fallos.incrementAndGet();
+            return null;
+        }
+        aciertos.incrementAndGet();
+        return info.copiar();
+    }
+
+
+    synchronized PaginaGuardados<SlotInfo> obtenerPagina(FiltroGuardados filtro, CursorPagina desde, int tamano) {
+        PaginaGuardados<SlotInfo> pagina = paginas.get(new ClavePagina(filtro, desde, tamano));
+        if (pagina == null) {
+            fallos.incrementAndGet();
+            return null;
+        }
+        aciertos.incrementAndGet();
+        return copiar(pagina);
+    }
+
+
+    // Se toma antes de encolar una lectura y se devuelve al guardar su resultado
+    synchronized long getGeneracion() {
+        return generacion;
+    }
+
+    // ========== RESULTADOS DE LECTURAS ==========
+
+    synchronized void guardarTodos(long generacionLectura, List<SlotInfo> todos) {
+        if (generacionLectura != generacion) {
+            return;
+        }
+        slots.clear();
+        for (SlotInfo info : todos) {
+            slots.put(info.getSlotId(), info.copiar());
+        }
+        completa = true;
+    }
+
+
+    synchronized void guardarSlot(long generacionLectura, SlotInfo info) {
+        if (generacionLectura == generacion && info != null) {
+            slots.put(info.getSlotId(), info.copiar());
+        }
+    }
+
+
+    synchronized void guardarPagina(long generacionLectura, FiltroGuardados filtro, CursorPagina desde, int tamano,
+                                    PaginaGuardados<SlotInfo> pagina) {
+        if (generacionLectura != generacion) {
+            return;
+        }
+        if (paginas.size() >= PAGINAS_MAXIMAS) {
+            paginas.clear();
+        }
+        PaginaGuardados<SlotInfo> copia = copiar(pagina);
+        paginas.put(new ClavePagina(filtro, desde, tamano), copia);
+        for (SlotInfo info : copia.getElementos()) {
+            slots.put(info.getSlotId(), info);
+        }
+    }
+
+    // ========== ESCRITURAS ==========
+
+    /**
+     * Aplica a la cabecera en caché de un slot lo que acaba de encolarse para
+     * escribir en él. Si la caché no tenía ese slot no hay con qué completar
+     * sus datos, y solo se descartan los listados.
+     */
+    synchronized void actualizar(int slotId, Consumer<SlotInfo> cambios) {
+        generacion++;
+        SlotInfo actual = slots.get(slotId);
+        if (actual == null) {
+            paginas.clear();
+            return;
+        }
+        SlotInfo nueva = actual.copiar();
+        cambios.accept(nueva);
+        colocarPrimero(nueva);
+    }
+
+
+    /**
+     * Como actualizar, para escrituras que no cambian fecha_ultima_modificacion
+     * en disco: el slot conserva su fecha y su posición en los listados. Solo
+     * se descartan las páginas de las que entra o sale por el filtro.
+     */
+    synchronized void actualizarEnSuSitio(int slotId, Consumer<SlotInfo> cambios) {
+        generacion++;
+        SlotInfo actual = slots.get(slotId);
+        if (actual == null) {
+            paginas.clear();
+            return;
+        }
+        SlotInfo nueva = actual.copiar();
+        cambios.accept(nueva);
+        slots.put(slotId, nueva);
+
+        Iterator<Map.Entry<ClavePagina, PaginaGuardados<SlotInfo>>> iterador = paginas.entrySet().iterator();
+        while (iterador.hasNext()) {
+            Map.Entry<ClavePagina, PaginaGuardados<SlotInfo>> entrada = iterador.next();
+            FiltroGuardados filtro = entrada.getKey().filtro;
+            boolean admitida = filtro.admite(nueva.getNombreJugador(), nueva.getEstadoPartida());
+            PaginaGuardados<SlotInfo> pagina = entrada.getValue();
+            List<SlotInfo> elementos = new ArrayList<>(pagina.getElementos());
+            int posicion = buscar(elementos, slotId);
+            if (posicion >= 0 && admitida) {
+                elementos.set(posicion, nueva);
+                entrada.setValue(new PaginaGuardados<>(elementos, pagina.getCursores(), pagina.getSiguiente()));
+            } else if (posicion >= 0
+                    || admitida != filtro.admite(actual.getNombreJugador(), actual.getEstadoPartida())) {
+                iterador.remove();
+            }
+        }
+    }
+
+
+    // Slot recién creado, con todos sus datos ya conocidos
+    synchronized void agregar(SlotInfo nueva) {
+        generacion++;
+        colocarPrimero(nueva.copiar());
+    }
+
+
+    // Tras un error de escritura la caché puede adelantarse a lo que hay en disco
+    synchronized void invalidar() {
+        generacion++;
+        slots.clear();
+        completa = false;
+        paginas.clear();
+    }
+
+
+    long getAciertos() {
+        return aciertos.get();
+    }
+
+
+    long getFallos() {
+        return fallos.get();
+    }
+
+
+    private void colocarPrimero(SlotInfo nueva) {
+        Instant ahora = Instant.now();
+        nueva.setFechaUltimaModificacion(Timestamp.from(ahora));
+        slots.put(nueva.getSlotId(), nueva);
+
+        CursorPagina cursor = new CursorPagina(FORMATO_FECHA.format(ahora), nueva.getSlotId());
+        Iterator<Map.Entry<ClavePagina, PaginaGuardados<SlotInfo>>> iterador = paginas.entrySet().iterator();
+        while (iterador.hasNext()) {
+            Map.Entry<ClavePagina, PaginaGuardados<SlotInfo>> entrada = iterador.next();
+            PaginaGuardados<SlotInfo> reordenada = entrada.getKey().desde == null
+                ? adelantar(entrada.getKey(), entrada.getValue(), nueva, cursor)
+                : null;
+            if (reordenada == null) {
+                iterador.remove();
+            } else {
+                entrada.setValue(reordenada);
+            }
+        }
+    }
+
+
+    // Primera página con el slot escrito al principio, o null si hace falta releerla
+    private static PaginaGuardados<SlotInfo> adelantar(ClavePagina clave, PaginaGuardados<SlotInfo> pagina,
+                                                       SlotInfo nueva, CursorPagina cursor) {
+        List<SlotInfo> elementos = new ArrayList<>(pagina.getElementos());
+        List<CursorPagina> cursores = new ArrayList<>(pagina.getCursores());
+        int posicion = buscar(elementos, nueva.getSlotId());
+        if (posicion >= 0) {
+            elementos.remove(posicion);
+            cursores.remove(posicion);
+        }
+        if (clave.filtro.admite(nueva.getNombreJugador(), nueva.getEstadoPartida())) {
+            elementos.add(0, nueva);
+            cursores.add(0, cursor);
+        }
+
+        CursorPagina siguiente = pagina.getSiguiente();
+        if (elementos.size() > clave.tamano) {
+            elementos.remove(elementos.size() - 1);
+            cursores.remove(cursores.size() - 1);
+            siguiente = cursores.get(cursores.size() - 1);
+            // El cursor del slot escrito es aproximado: no puede delimitar la página siguiente
+            if (siguiente == cursor) {
+                return null;
+            }
+        } else if (elementos.size() < clave.tamano && siguiente != null) {
+            // Falta el primer elemento de la página siguiente, que solo está en disco
+            return null;
+        }
+        return new PaginaGuardados<>(elementos, cursores, siguiente);
+    }
+
+
+    private static int buscar(List<SlotInfo> elementos, int slotId) {
+        for (int i = 0; i < elementos.size(); i++) {
+            if (elementos.get(i).getSlotId() == slotId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    private static PaginaGuardados<SlotInfo> copiar(PaginaGuardados<SlotInfo> pagina) {
+        List<SlotInfo> copias = new ArrayList<>(pagina.getElementos().size());
+        for (SlotInfo info : pagina.getElementos()) {
+            copias.add(info.copiar());
+        }
+        return new PaginaGuardados<>(copias, pagina.getCursores(), pagina.getSiguiente());
+    }
+
+    // ========== CLASES INTERNAS ==========
+
+    private static final class ClavePagina {
+        private final FiltroGuardados filtro;
+        private final CursorPagina desde;
+        private final int tamano;
+
+
+        ClavePagina(FiltroGuardados filtro, CursorPagina desde, int tamano) {
+            this.filtro = filtro;
+            this.desde = desde;
+            this.tamano = tamano;
+        }
+
+
+        @Override
+        public boolean equals(Object otro) {
+            if (this == otro) {
+                return true;
+            }
+            if (!(otro instanceof ClavePagina clave)) {
+                return false;
+            }
+            return tamano == clave.tamano && filtro.equals(clave.filtro) && Objects.equals(desde, clave.desde);
+        }
+
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filtro, desde, tamano);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * Listado por conjunto de claves (keyset) compartido por slots y partidas.
+ *
+ * Las filas se ordenan por (fecha_ultima_modificacion DESC, id DESC) y cada
+ * página continúa con (fecha, id) < (la del cursor). Con un índice que empiece
+ * por la columna del filtro seguida de esas dos, SQLite salta directamente al
+ * punto de la página y lee solo tamano + 1 entradas, por profunda que sea.
+ * paginarEnMemoria aplica el mismo orden y el mismo cursor a los
+ * almacenamientos que no usan SQL.
+ */
+final class ConsultaPaginada {
+    static final int TAMANO_MAXIMO_PAGINA = 500;
+
+    private ConsultaPaginada() {
+    }
+
+
+    static <T> PaginaGuardados<T> consultar(Connection conn, String columnas, String tabla, String columnaId,
+                                            FiltroGuardados filtro, CursorPagina desde, int tamano,
+                                            LectorFila<T> lector) throws SQLException {
+        validarTamano(tamano);
+
+        String sql = construirSql(columnas, tabla, columnaId, filtro, desde);
+        List<T> elementos = new ArrayList<>(tamano);
+        List<CursorPagina> cursores = new ArrayList<>(tamano);
+        CursorPagina siguiente = null;
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int parametro = 1;
+            if (filtro.getColumna() != null) {
+                ps.setString(parametro++, filtro.getValor());
+            }
+            if (desde != null) {
+                ps.setString(parametro++, desde.getFechaUltimaModificacion());
+                ps.setInt(parametro++, desde.getId());
+            }
+            // Una fila de más indica si hay otra página sin tener que contarlas
+            ps.setInt(parametro, tamano + 1);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (elementos.size() == tamano) {
+                        siguiente = cursores.get(tamano - 1);
+                        break;
+                    }
+                    elementos.add(lector.leer(rs));
+                    cursores.add(new CursorPagina(rs.getString("fecha_ultima_modificacion"), rs.getInt(columnaId)));
+                }
+            }
+        }
+        return new PaginaGuardados<>(elementos, cursores, siguiente);
+    }
+
+
+    static <T> PaginaGuardados<T> paginarEnMemoria(List<RegistroGuardado> registros, FiltroGuardados filtro,
+                                                   CursorPagina desde, int tamano,
+                                                   Function<RegistroGuardado, T> conversor) {
+        validarTamano(tamano);
+
+        List<RegistroGuardado> candidatos = new ArrayList<>();
+        List<CursorPagina> posiciones = new ArrayList<>();
+        for (RegistroGuardado registro : registros) {
+            CursorPagina posicion = registro.getCursor();
+            if (filtro.admite(registro.nombreJugador, registro.estadoPartida)
+                && (desde == null || posicion.compararCon(desde) < 0)) {
+                candidatos.add(registro);
+                posiciones.add(posicion);
+            }
+        }
+
+        Integer[] orden = new Integer[candidatos.size()];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> posiciones.get(b).compararCon(posiciones.get(a)));
+
+        int cantidad = Math.min(tamano, orden.length);
+        List<T> elementos = new ArrayList<>(cantidad);
+        List<CursorPagina> cursores = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            elementos.add(conversor.apply(candidatos.get(orden[i])));
+            cursores.add(posiciones.get(orden[i]));
+        }
+        CursorPagina siguiente = orden.length > tamano ? cursores.get(cantidad - 1) : null;
+        return new PaginaGuardados<>(elementos, cursores, siguiente);
+    }
+
+
+    private static void validarTamano(int tamano) {
+        if (tamano <= 0 || tamano > TAMANO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("Tamaño de página fuera de rango: " + tamano);
+        }
+    }
+
+
+    static String construirSql(String columnas, String tabla, String columnaId,
+                               FiltroGuardados filtro, CursorPagina desde) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(columnas).append(" FROM ").append(tabla);
+        String union = " WHERE ";
+        if (filtro.getColumna() != null) {
+            sql.append(union).append(filtro.getColumna()).append(" = ?");
+            union = " AND ";
+        }
+        if (filtro.excluyeVacios()) {
+            sql.append(union).append("nombre_jugador <> '").append(FiltroGuardados.JUGADOR_VACIO).append("'");
+            union = " AND ";
+        }
+        if (desde != null) {
+            sql.append(union).append("(fecha_ultima_modificacion, ").append(columnaId).append(") < (?, ?)");
+        }
+        sql.append(" ORDER BY fecha_ultima_modificacion DESC, ").append(columnaId).append(" DESC LIMIT ?");
+        return sql.toString();
+    }
+
+    // ========== CLASES INTERNAS ==========
+
+    @FunctionalInterface
+    interface LectorFila<T> {
+        T leer(ResultSet rs) throws SQLException;
+    }
+}
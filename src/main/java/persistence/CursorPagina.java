@@ -0,0 +1,61 @@
+package persistence;
+
+import java.util.Objects;
+
+
+/**
+ * Posición opaca tras el último elemento de una página: la fecha de
+ * modificación tal como está guardada y el id que desempata las filas con la
+ * misma fecha. La siguiente página empieza justo después, sin OFFSET.
+ */
+public final class CursorPagina {
+    private final String fechaUltimaModificacion;
+    private final int id;
+
+
+    CursorPagina(String fechaUltimaModificacion, int id) {
+        this.fechaUltimaModificacion = fechaUltimaModificacion;
+        this.id = id;
+    }
+
+
+    String getFechaUltimaModificacion() {
+        return fechaUltimaModificacion;
+    }
+
+
+    int getId() {
+        return id;
+    }
+
+
+    // Mismo orden que (fecha_ultima_modificacion, id) en SQL
+    int compararCon(CursorPagina otro) {
+        int porFecha = fechaUltimaModificacion.compareTo(otro.fechaUltimaModificacion);
+        return porFecha != 0 ? porFecha : Integer.compare(id, otro.id);
+    }
+
+
+    @Override
+    public boolean equals(Object otro) {
+        if (this == otro) {
+            return true;
+        }
+        if (!(otro instanceof CursorPagina cursor)) {
+            return false;
+        }
+        return id == cursor.id && Objects.equals(fechaUltimaModificacion, cursor.fechaUltimaModificacion);
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fechaUltimaModificacion, id);
+    }
+
+
+    @Override
+    public String toString() {
+        return "CursorPagina[" + fechaUltimaModificacion + ", " + id + "]";
+    }
+}
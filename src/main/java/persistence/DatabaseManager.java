@@ -4,17 +4,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 
 public class DatabaseManager {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseManager.class);
     private static DatabaseManager instance;
-    private static final String DB_URL = "jdbc:sqlite:buscaminas.db";
+    // Ruta del archivo de la base de datos; las pruebas la apuntan a target/ para no tocar la del usuario
+    static final String PROPIEDAD_RUTA = "buscaminas.db.ruta";
+    private static final String DB_URL = "jdbc:sqlite:" + System.getProperty(PROPIEDAD_RUTA, "buscaminas.db");
     private static final String DB_DRIVER = "org.sqlite.JDBC";
     
+    // Conexiones reutilizables con los PRAGMA del perfil elegido (buscaminas.pragmas)
+    private final GestorConexiones gestorConexiones = new GestorConexiones(DB_URL, PerfilPragmas.desdePropiedades());
+    
 
     private DatabaseManager() {
         initializeDatabase();
@@ -34,64 +37,13 @@ public class DatabaseManager {
             // Cargar el driver de SQLite
             Class.forName(DB_DRIVER);
             
-            // Crear la base de datos y las tablas
-            try (Connection connection = DriverManager.getConnection(DB_URL);
-                 Statement statement = connection.createStatement()) {
-                
-                // Crear tabla de slots de guardado
-                String createSlotsTable = """
-                    CREATE TABLE IF NOT EXISTS slots_guardado (
-                        slot_id INTEGER PRIMARY KEY CHECK (slot_id IN (1, 2, 3)),
-                        nombre_partida TEXT,
-                        nombre_jugador TEXT,
-                        fecha_creacion DATETIME DEFAULT CURRENT_TIMESTAMP,
-                        fecha_ultima_modificacion DATETIME DEFAULT CURRENT_TIMESTAMP,
-                        cantidad_minas INTEGER NOT NULL DEFAULT 60,
-                        celdas_reveladas INTEGER NOT NULL DEFAULT 0,
-                        minas_marcadas INTEGER NOT NULL DEFAULT 0,
-                        juego_terminado BOOLEAN NOT NULL DEFAULT 0,
-                        juego_ganado BOOLEAN NOT NULL DEFAULT 0,
-                        tiempo_juego INTEGER DEFAULT 0,
-                        estado_partida TEXT DEFAULT 'en_curso'
-                    )
-                    """;
-                
-                // Crear tabla de celdas para los slots
-                String createCeldasSlotsTable = """
-                    CREATE TABLE IF NOT EXISTS celdas_slots (
-                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        slot_id INTEGER NOT NULL,
-                        fila INTEGER NOT NULL,
-                        columna INTEGER NOT NULL,
-                        es_mina BOOLEAN NOT NULL DEFAULT 0,
-                        esta_revelada BOOLEAN NOT NULL DEFAULT 0,
-                        esta_marcada BOOLEAN NOT NULL DEFAULT 0,
-                        minas_adyacentes INTEGER NOT NULL DEFAULT 0,
-                        FOREIGN KEY (slot_id) REFERENCES slots_guardado(slot_id) ON DELETE CASCADE,
-                        UNIQUE(slot_id, fila, columna)
-                    )
-                    """;
-                
-                // Crear índices para mejorar el rendimiento
-                String createIndexes = """
-                    CREATE INDEX IF NOT EXISTS idx_slots_fecha ON slots_guardado(fecha_ultima_modificacion);
-                    CREATE INDEX IF NOT EXISTS idx_slots_estado ON slots_guardado(estado_partida);
-                    CREATE INDEX IF NOT EXISTS idx_celdas_slots ON celdas_slots(slot_id);
-                    """;
+            // Crear o actualizar el esquema; si ya está al día solo se consulta su versión
+            try (Connection connection = gestorConexiones.obtener()) {
+                int aplicadas = MigracionesEsquema.aplicarPendientes(connection);
                 
-                // Ejecutar las sentencias SQL
-                statement.execute(createSlotsTable);
-                statement.execute(createCeldasSlotsTable);
-                statement.execute(createIndexes);
-                
-                // Inicializar los 3 slots si no existen
-                String insertSlots = """
-                    INSERT OR IGNORE INTO slots_guardado (slot_id, nombre_partida, nombre_jugador) 
-                    VALUES (1, 'Slot 1', 'Vacío'), (2, 'Slot 2', 'Vacío'), (3, 'Slot 3', 'Vacío')
-                    """;
-                statement.execute(insertSlots);
-                
-                logger.info("Base de datos SQLite inicializada correctamente con sistema de slots");
+                logger.info("Base de datos SQLite inicializada correctamente con sistema de slots " +
+                            "(esquema v{}, {} migraciones aplicadas, PRAGMA {})",
+                            MigracionesEsquema.getVersionActual(), aplicadas, gestorConexiones.getPerfil());
                 
             } catch (SQLException e) {
                 logger.error("Error al crear las tablas: {}", e.getMessage());
@@ -105,8 +57,29 @@ public class DatabaseManager {
     }
     
 
+    /**
+     * Conexión de la reserva. Hay que cerrarla siempre (try-with-resources):
+     * al cerrarla vuelve a la reserva y se deshace cualquier transacción sin
+     * commit.
+     */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+        return gestorConexiones.obtener();
+    }
+    
+
+    public PerfilPragmas getPerfilPragmas() {
+        return gestorConexiones.getPerfil();
+    }
+    
+
+    // Cierra las conexiones de la reserva; se llama al salir de la aplicación
+    public void cerrar() {
+        gestorConexiones.cerrar();
+    }
+    
+
+    GestorConexiones getGestorConexiones() {
+        return gestorConexiones;
     }
     
 
@@ -0,0 +1,368 @@
+package persistence;
+
+import celda.CodificadorTablero;
+import celda.TableroBuscaminas;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+
+
+/**
+ * Diario de solo añadir con las jugadas hechas en un slot desde su última
+ * instantánea. Cada jugada ocupa TAMANO_JUGADA bytes: su tipo, la fila, la
+ * columna y un byte de control que delata un final escrito a medias.
+ *
+ * Las jugadas se acumulan en un búfer y se escriben al archivo al
+ * sincronizar, que se encola en el escritor: todas las que lleguen mientras
+ * esa tarea espera turno comparten un único force(). Así, hacer duradera una
+ * jugada cuesta unos bytes al final del archivo en lugar de reescribir el
+ * tablero.
+ *
+ * Las jugadas guardan el resultado (revelar, poner o quitar la bandera), no
+ * la acción de alternar, de modo que repetirlas sobre una instantánea que ya
+ * incluye parte de ellas deja el mismo tablero. Por eso, tras un fallo basta
+ * con aplicar el diario entero a lo último que haya en el slot. La cabecera
+ * identifica la partida por sus dimensiones y sus minas, para no aplicar
+ * nunca jugadas de otra partida guardada después en el mismo slot.
+ */
+final class DiarioJugadas {
+    static final int TAMANO_CABECERA = 16;
+    static final int TAMANO_JUGADA = 6;
+    private static final int MAGIA = 0x42444A47;  // "BDJG"
+    private static final int TAMANO_BUFER = 4096;
+
+    private static final byte REVELAR = 1;
+    private static final byte PONER_BANDERA = 2;
+    private static final byte QUITAR_BANDERA = 3;
+
+    private final Path archivo;
+    private FileChannel canal;
+    private final ByteBuffer bufer = ByteBuffer.allocateDirect(TAMANO_BUFER);
+    private long tamanoArchivo;
+
+    private int filas;
+    private int columnas;
+    private int huella;
+    // Jugadas anotadas desde que se abrió y, de ellas, las que ya no están en el archivo
+    private long anotadas;
+    private long descartadas;
+    // Cambia al reiniciar, para que un descarte a medias no pise el diario nuevo
+    private long generacion;
+    private CompletableFuture<Void> sincronizacion;
+
+
+    private DiarioJugadas(Path archivo) {
+        this.archivo = archivo;
+    }
+
+
+    /**
+     * Abre el diario del slot para la partida del tablero. Si el archivo ya
+     * era de esa partida se sigue añadiendo al final; si no, se empieza vacío.
+     */
+    static DiarioJugadas abrir(Path archivo, TableroBuscaminas tablero) throws IOException {
+        Files.createDirectories(archivo.toAbsolutePath().getParent());
+        DiarioJugadas diario = new DiarioJugadas(archivo);
+        diario.filas = tablero.getFilas();
+        diario.columnas = tablero.getColumnas();
+        diario.huella = huella(tablero);
+        diario.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                        StandardOpenOption.WRITE);
+
+        long validas = diario.contarJugadasValidas();
+        if (validas < 0) {
+            diario.canal.truncate(0);
+            diario.canal.write(diario.cabecera(), 0);
+            validas = 0;
+        }
+        // Un final escrito a medias se corta para seguir añadiendo detrás de la última jugada buena
+        diario.tamanoArchivo = TAMANO_CABECERA + validas * TAMANO_JUGADA;
+        diario.canal.truncate(diario.tamanoArchivo);
+        diario.anotadas = validas;
+        return diario;
+    }
+
+    // ========== ESCRITURA ==========
+
+    // La jugada ya está aplicada al tablero; de él se toma si la bandera quedó puesta o quitada
+    synchronized void anotar(TableroBuscaminas tablero, TipoJugada tipo, int fila, int columna) throws IOException {
+        verificarAbierto();
+        byte codigo = tipo == TipoJugada.REVELAR ? REVELAR
+                    : tablero.estaMarcada(fila * tablero.getColumnas() + columna) ? PONER_BANDERA : QUITAR_BANDERA;
+        if (bufer.remaining() < TAMANO_JUGADA) {
+            volcar();
+        }
+        bufer.put(codigo);
+        bufer.putShort((short) fila);
+        bufer.putShort((short) columna);
+        bufer.put(control(codigo, fila, columna));
+        anotadas++;
+    }
+
+
+    // Agrupa en un solo force() todas las jugadas anotadas hasta que el escritor llega a la tarea
+    synchronized CompletableFuture<Void> sincronizarEn(EscritorDiferido escritor) {
+        if (sincronizacion == null) {
+            sincronizacion = escritor.ejecutar(() -> {
+                sincronizar();
+                return null;
+            });
+        }
+        return sincronizacion;
+    }
+
+
+    void sincronizar() throws IOException {
+        FileChannel destino;
+        synchronized (this) {
+            sincronizacion = null;
+            if (!canal.isOpen()) {
+                return;
+            }
+            volcar();
+            destino = canal;
+        }
+        // Fuera del monitor: el hilo de la interfaz puede seguir anotando mientras el disco confirma
+        destino.force(false);
+    }
+
+
+    /**
+     * Quita del archivo las jugadas que ya recoge la instantánea del slot. Las
+     * que quedan se copian a un archivo nuevo que sustituye al actual de una
+     * vez, así que un fallo a mitad deja uno de los dos completo.
+     */
+    void descartarHasta(long cubiertas) throws IOException {
+        long generacionInicial;
+        long desde;
+        long hasta;
+        synchronized (this) {
+            if (!canal.isOpen() || cubiertas <= descartadas) {
+                return;
+            }
+            volcar();
+            generacionInicial = generacion;
+            desde = posicion(cubiertas);
+            hasta = tamanoArchivo;
+        }
+
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel nuevo = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            synchronized (this) {
+                nuevo.write(cabecera());
+            }
+            copiar(desde, hasta, nuevo);
+            nuevo.force(true);
+        }
+
+        synchronized (this) {
+            if (!canal.isOpen() || generacion != generacionInicial) {
+                Files.deleteIfExists(temporal);
+                return;
+            }
+            // Lo anotado mientras se copiaba va detrás; lo sincronizará la siguiente tarea
+            volcar();
+            try (FileChannel nuevo = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                nuevo.position(nuevo.size());
+                copiar(hasta, tamanoArchivo, nuevo);
+            }
+            canal.close();
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            tamanoArchivo = canal.size();
+            descartadas = cubiertas;
+        }
+    }
+
+
+    // El slot pasa a tener otra partida: lo anotado hasta ahora ya no sirve
+    synchronized void reiniciar(TableroBuscaminas tablero) throws IOException {
+        verificarAbierto();
+        bufer.clear();
+        filas = tablero.getFilas();
+        columnas = tablero.getColumnas();
+        huella = huella(tablero);
+        canal.truncate(0);
+        canal.write(cabecera(), 0);
+        tamanoArchivo = TAMANO_CABECERA;
+        descartadas = anotadas;
+        generacion++;
+    }
+
+    // ========== ESTADO ==========
+
+    synchronized long getAnotadas() {
+        return anotadas;
+    }
+
+
+    // Jugadas que siguen en el diario sin estar aún en la instantánea del slot
+    synchronized long getPendientes() {
+        return anotadas - descartadas;
+    }
+
+
+    synchronized boolean esDe(TableroBuscaminas tablero) {
+        return filas == tablero.getFilas() && columnas == tablero.getColumnas() && huella == huella(tablero);
+    }
+
+
+    Path getArchivo() {
+        return archivo;
+    }
+
+    // ========== CIERRE ==========
+
+    // Vuelca lo anotado; si ya no queda ninguna jugada pendiente el archivo se borra
+    synchronized void cerrar() throws IOException {
+        if (!canal.isOpen()) {
+            return;
+        }
+        volcar();
+        canal.force(false);
+        canal.close();
+        if (anotadas == descartadas) {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+
+    // El slot se ha vaciado: sus jugadas no deben recuperarse nunca
+    synchronized void eliminar() throws IOException {
+        bufer.clear();
+        canal.close();
+        Files.deleteIfExists(archivo);
+    }
+
+    // ========== RECUPERACIÓN ==========
+
+    /**
+     * Aplica al tablero las jugadas del diario, hasta la última escrita
+     * entera. Devuelve cuántas se aplicaron, o -1 si el diario es de otra
+     * partida y no se tocó el tablero.
+     */
+    static int reproducir(Path archivo, TableroBuscaminas tablero) throws IOException {
+        ByteBuffer contenido = ByteBuffer.wrap(Files.readAllBytes(archivo));
+        if (contenido.remaining() < TAMANO_CABECERA || contenido.getInt() != MAGIA
+            || contenido.getInt() != tablero.getFilas() || contenido.getInt() != tablero.getColumnas()
+            || contenido.getInt() != huella(tablero)) {
+            return -1;
+        }
+
+        int aplicadas = 0;
+        while (contenido.remaining() >= TAMANO_JUGADA) {
+            byte codigo = contenido.get();
+            int fila = contenido.getShort() & 0xFFFF;
+            int columna = contenido.getShort() & 0xFFFF;
+            if (!esValida(codigo, fila, columna, contenido.get())
+                || fila >= tablero.getFilas() || columna >= tablero.getColumnas()) {
+                break;
+            }
+            int indice = fila * tablero.getColumnas() + columna;
+            if (codigo == REVELAR) {
+                tablero.revelarCelda(fila, columna);
+            } else if (codigo == PONER_BANDERA ? !tablero.estaMarcada(indice) && !tablero.estaRevelada(indice)
+                                               : tablero.estaMarcada(indice)) {
+                tablero.marcarCelda(fila, columna);
+            }
+            aplicadas++;
+        }
+        return aplicadas;
+    }
+
+
+    // Identifica la partida: las dimensiones y la posición de las minas no cambian mientras se juega
+    static int huella(TableroBuscaminas tablero) {
+        byte[] datos = CodificadorTablero.codificar(tablero);
+        CRC32 crc = new CRC32();
+        crc.update(datos, 0, (tablero.getTotalCeldas() + 7) / 8);
+        return (int) crc.getValue();
+    }
+
+
+    private long contarJugadasValidas() throws IOException {
+        long tamano = canal.size();
+        if (tamano < TAMANO_CABECERA) {
+            return -1;
+        }
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+        canal.read(cabecera, 0);
+        cabecera.flip();
+        if (!cabecera.equals(cabecera())) {
+            return -1;
+        }
+
+        ByteBuffer jugada = ByteBuffer.allocate(TAMANO_JUGADA);
+        long validas = 0;
+        for (long posicion = TAMANO_CABECERA; posicion + TAMANO_JUGADA <= tamano; posicion += TAMANO_JUGADA) {
+            jugada.clear();
+            canal.read(jugada, posicion);
+            if (!esValida(jugada.get(0), jugada.getShort(1) & 0xFFFF, jugada.getShort(3) & 0xFFFF, jugada.get(5))) {
+                break;
+            }
+            validas++;
+        }
+        return validas;
+    }
+
+    // ========== AUXILIARES ==========
+
+    private void verificarAbierto() throws IOException {
+        if (!canal.isOpen()) {
+            throw new IOException("El diario " + archivo + " está cerrado");
+        }
+    }
+
+
+    // Con el monitor tomado
+    private void volcar() throws IOException {
+        bufer.flip();
+        while (bufer.hasRemaining()) {
+            tamanoArchivo += canal.write(bufer, tamanoArchivo);
+        }
+        bufer.clear();
+    }
+
+
+    private long posicion(long jugada) {
+        return TAMANO_CABECERA + (jugada - descartadas) * TAMANO_JUGADA;
+    }
+
+
+    private void copiar(long desde, long hasta, FileChannel destino) throws IOException {
+        long posicion = desde;
+        while (posicion < hasta) {
+            long copiados = canal.transferTo(posicion, hasta - posicion, destino);
+            if (copiados == 0) {
+                // El archivo se ha reiniciado mientras tanto; el descarte se abandona
+                break;
+            }
+            posicion += copiados;
+        }
+    }
+
+
+    private ByteBuffer cabecera() {
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+        cabecera.putInt(MAGIA).putInt(filas).putInt(columnas).putInt(huella);
+        return cabecera.flip();
+    }
+
+
+    private static boolean esValida(byte codigo, int fila, int columna, byte control) {
+        return codigo >= REVELAR && codigo <= QUITAR_BANDERA && control == control(codigo, fila, columna);
+    }
+
+
+    private static byte control(byte codigo, int fila, int columna) {
+        return (byte) (0x5A ^ codigo ^ fila ^ (fila >>> 8) ^ columna ^ (columna >>> 8));
+    }
+}
@@ -0,0 +1,223 @@
+package persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Hilo único en segundo plano por el que pasa todo el acceso al almacenamiento
+ * de los slots, para que el hilo de la interfaz no espere nunca al disco.
+ *
+ * Las tareas se ejecutan en el orden en que se encolan, así que una carga o un
+ * listado ve siempre los guardados pedidos antes. Un guardado de un slot que
+ * ya tiene otro en cola sin empezar se combina con él: ambos se escriben en
+ * una sola escritura y comparten el mismo resultado. Solo se combinan si no
+ * hay otra tarea encolada entre los dos, para que ninguno adelante a una
+ * carga o un vaciado pedidos en medio.
+ *
+ * Tras cerrar, las tareas nuevas y las que el cierre descarta terminan con
+ * error en lugar de quedar sin completar.
+ */
+final class EscritorDiferido {
+    private static final Logger logger = LoggerFactory.getLogger(EscritorDiferido.class);
+
+    private final AlmacenamientoPartidas almacenamiento;
+    private final ExecutorService ejecutor;
+    // Guardados encolados que aún no han empezado, por slot
+    private final Map<Integer, SolicitudGuardado> pendientes = new HashMap<>();
+    private final AtomicLong guardadosRecibidos = new AtomicLong();
+    private final AtomicLong guardadosEscritos = new AtomicLong();
+
+
+    EscritorDiferido(AlmacenamientoPartidas almacenamiento) {
+        this.almacenamiento = almacenamiento;
+        this.ejecutor = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "buscaminas-persistencia");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    // ========== ENCOLADO ==========
+
+    /**
+     * Encola el guardado de una instantánea. Los nombres pueden ser null para
+     * los guardados incrementales, que no tocan la cabecera descriptiva.
+     */
+    CompletableFuture<Void> guardar(int slotId, String nombrePartida, String nombreJugador,
+                                    InstantaneaTablero instantanea, boolean compactar) {
+        guardadosRecibidos.incrementAndGet();
+        synchronized (pendientes) {
+            SolicitudGuardado encolada = pendientes.get(slotId);
+            if (encolada != null) {
+                encolada.combinar(nombrePartida, nombreJugador, instantanea, compactar);
+                return encolada.resultado;
+            }
+
+            SolicitudGuardado solicitud = new SolicitudGuardado(slotId, nombrePartida, nombreJugador,
+                                                                instantanea, compactar);
+            if (encolar(new TareaEncolada(solicitud.resultado, () -> escribir(solicitud)))) {
+                pendientes.put(slotId, solicitud);
+            }
+            return solicitud.resultado;
+        }
+    }
+
+
+    // Lecturas y operaciones que deben respetar el orden respecto a los guardados
+    <T> CompletableFuture<T> ejecutar(Callable<T> tarea) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        synchronized (pendientes) {
+            // Los guardados posteriores no pueden combinarse con uno encolado antes de esta tarea
+            pendientes.clear();
+            encolar(new TareaEncolada(resultado, () -> {
+                try {
+                    resultado.complete(tarea.call());
+                } catch (Exception e) {
+                    resultado.completeExceptionally(e);
+                }
+            }));
+        }
+        return resultado;
+    }
+
+
+    // false si el escritor ya está cerrado; el resultado de la tarea queda entonces con error
+    private boolean encolar(TareaEncolada tarea) {
+        try {
+            ejecutor.execute(tarea);
+            return true;
+        } catch (RejectedExecutionException e) {
+            tarea.descartar();
+            return false;
+        }
+    }
+
+
+    private void escribir(SolicitudGuardado solicitud) {
+        synchronized (pendientes) {
+            pendientes.remove(solicitud.slotId);
+        }
+
+        try {
+            InstantaneaTablero instantanea = solicitud.instantanea;
+            if (instantanea.esCompleta()) {
+                almacenamiento.guardarEnSlot(solicitud.slotId, solicitud.nombrePartida, solicitud.nombreJugador, instantanea);
+            } else {
+                almacenamiento.guardarCambiosEnSlot(solicitud.slotId, instantanea);
+            }
+            if (solicitud.compactar) {
+                almacenamiento.compactarSlot(solicitud.slotId);
+            }
+            guardadosEscritos.incrementAndGet();
+            solicitud.resultado.complete(null);
+        } catch (Exception e) {
+            logger.warn("Error al guardar en segundo plano el slot {}: {}", solicitud.slotId, e.getMessage());
+            solicitud.resultado.completeExceptionally(e);
+        }
+    }
+
+    // ========== CIERRE ==========
+
+    /**
+     * Deja de aceptar tareas y espera a que se escriba lo encolado. Devuelve
+     * false si se agotó el tiempo con escrituras pendientes.
+     */
+    boolean cerrar(long tiempoMaximoMs) {
+        ejecutor.shutdown();
+        try {
+            if (ejecutor.awaitTermination(tiempoMaximoMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            List<Runnable> descartadas = ejecutor.shutdownNow();
+            logger.warn("Cierre con {} tareas de persistencia sin completar", descartadas.size());
+            for (Runnable descartada : descartadas) {
+                ((TareaEncolada) descartada).descartar();
+            }
+            synchronized (pendientes) {
+                pendientes.clear();
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+
+    long getGuardadosRecibidos() {
+        return guardadosRecibidos.get();
+    }
+
+
+    long getGuardadosEscritos() {
+        return guardadosEscritos.get();
+    }
+
+    // ========== CLASES INTERNAS ==========
+
+    // Tarea de la cola con su resultado, para completarlo si no llega a ejecutarse
+    private static final class TareaEncolada implements Runnable {
+        private final CompletableFuture<?> resultado;
+        private final Runnable accion;
+
+
+        TareaEncolada(CompletableFuture<?> resultado, Runnable accion) {
+            this.resultado = resultado;
+            this.accion = accion;
+        }
+
+
+        @Override
+        public void run() {
+            accion.run();
+        }
+
+
+        void descartar() {
+            resultado.completeExceptionally(new IllegalStateException("El escritor de persistencia está cerrado"));
+        }
+    }
+
+
+    // Estado mutable solo bajo el candado de pendientes y hasta que escribir() la retira
+    private static final class SolicitudGuardado {
+        private final int slotId;
+        private final CompletableFuture<Void> resultado = new CompletableFuture<>();
+        private String nombrePartida;
+        private String nombreJugador;
+        private InstantaneaTablero instantanea;
+        private boolean compactar;
+
+
+        SolicitudGuardado(int slotId, String nombrePartida, String nombreJugador,
+                          InstantaneaTablero instantanea, boolean compactar) {
+            this.slotId = slotId;
+            this.nombrePartida = nombrePartida;
+            this.nombreJugador = nombreJugador;
+            this.instantanea = instantanea;
+            this.compactar = compactar;
+        }
+
+
+        void combinar(String nombrePartida, String nombreJugador, InstantaneaTablero posterior, boolean compactar) {
+            if (nombrePartida != null) {
+                this.nombrePartida = nombrePartida;
+                this.nombreJugador = nombreJugador;
+            }
+            this.instantanea = instantanea.combinar(posterior);
+            this.compactar |= compactar;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package persistence;
+
+import java.util.Objects;
+
+
+/**
+ * Criterio de los listados paginados de guardados. Los resultados van siempre
+ * del más reciente al más antiguo; el filtro solo restringe por jugador o por
+ * estado de la partida, y cada combinación tiene su propio índice.
+ *
+ * Un slot vaciado conserva estado_partida = 'en_curso', así que el filtro por
+ * estado deja fuera los que tienen el jugador "Vacío".
+ */
+public final class FiltroGuardados {
+    static final String JUGADOR_VACIO = "Vacío";
+
+    private static final FiltroGuardados TODOS = new FiltroGuardados(null, null);
+
+    // Columna fija (nunca viene del usuario) y valor que se enlaza como parámetro
+    private final String columna;
+    private final String valor;
+    private final boolean excluirVacios;
+
+
+    private FiltroGuardados(String columna, String valor) {
+        this.columna = columna;
+        this.valor = valor;
+        this.excluirVacios = "estado_partida".equals(columna);
+    }
+
+
+    public static FiltroGuardados todos() {
+        return TODOS;
+    }
+
+
+    public static FiltroGuardados porJugador(String nombreJugador) {
+        if (nombreJugador == null) {
+            throw new IllegalArgumentException("El nombre del jugador no puede ser null");
+        }
+        return new FiltroGuardados("nombre_jugador", nombreJugador);
+    }
+
+
+    public static FiltroGuardados porEstado(String estadoPartida) {
+        if (estadoPartida == null) {
+            throw new IllegalArgumentException("El estado de la partida no puede ser null");
+        }
+        return new FiltroGuardados("estado_partida", estadoPartida);
+    }
+
+
+    String getColumna() {
+        return columna;
+    }
+
+
+    String getValor() {
+        return valor;
+    }
+
+
+    boolean excluyeVacios() {
+        return excluirVacios;
+    }
+
+
+    // Evalúa en memoria el mismo criterio que la consulta
+    boolean admite(String nombreJugador, String estadoPartida) {
+        if (columna == null) {
+            return true;
+        }
+        if (excluirVacios && JUGADOR_VACIO.equals(nombreJugador)) {
+            return false;
+        }
+        return valor.equals("nombre_jugador".equals(columna) ? nombreJugador : estadoPartida);
+    }
+
+
+    @Override
+    public boolean equals(Object otro) {
+        if (this == otro) {
+            return true;
+        }
+        if (!(otro instanceof FiltroGuardados filtro)) {
+            return false;
+        }
+        return Objects.equals(columna, filtro.columna) && Objects.equals(valor, filtro.valor);
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(columna, valor);
+    }
+
+
+    @Override
+    public String toString() {
+        return columna == null ? "todos" : columna + " = " + valor;
+    }
+}
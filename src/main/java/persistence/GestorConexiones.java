@@ -0,0 +1,364 @@
+package persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Reserva de conexiones SQLite de larga duración con una caché de sentencias
+ * preparadas por conexión.
+ *
+ * getConnection() devuelve un envoltorio de un solo uso sobre una conexión
+ * física reutilizable. Cerrar el envoltorio deshace la transacción si quedó
+ * abierta, cierra las sentencias que se crearon con él y devuelve la conexión
+ * física a la reserva; a partir de ahí el envoltorio se comporta como una
+ * conexión cerrada. prepareStatement(sql) reutiliza la sentencia ya
+ * compilada para ese mismo SQL, y al "cerrarla" solo se limpian sus
+ * parámetros y su ResultSet.
+ */
+final class GestorConexiones {
+    private static final Logger logger = LoggerFactory.getLogger(GestorConexiones.class);
+    static final int CONEXIONES_INACTIVAS_MAXIMAS = 4;
+    static final int SENTENCIAS_POR_CONEXION = 32;
+
+    private final String url;
+    private final PerfilPragmas perfil;
+    private final Deque<ConexionFisica> inactivas = new ArrayDeque<>();
+    private boolean cerrado;
+    private final AtomicLong conexionesCreadas = new AtomicLong();
+    private final AtomicLong aciertosSentencias = new AtomicLong();
+    private final AtomicLong fallosSentencias = new AtomicLong();
+
+
+    GestorConexiones(String url, PerfilPragmas perfil) {
+        this.url = url;
+        this.perfil = perfil;
+    }
+
+
+    Connection obtener() throws SQLException {
+        ConexionFisica fisica;
+        synchronized (inactivas) {
+            if (cerrado) {
+                throw new SQLException("El gestor de conexiones está cerrado");
+            }
+            fisica = inactivas.pollFirst();
+        }
+        if (fisica == null) {
+            fisica = abrir();
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                   new Class<?>[]{Connection.class},
+                                                   new ManejadorConexion(fisica));
+    }
+
+
+    private ConexionFisica abrir() throws SQLException {
+        Connection conexion = DriverManager.getConnection(url);
+        try (Statement statement = conexion.createStatement()) {
+            perfil.aplicar(statement);
+        } catch (SQLException e) {
+            conexion.close();
+            throw e;
+        }
+        conexionesCreadas.incrementAndGet();
+        return new ConexionFisica(conexion);
+    }
+
+
+    private void devolver(ConexionFisica fisica) {
+        synchronized (inactivas) {
+            if (!cerrado && inactivas.size() < CONEXIONES_INACTIVAS_MAXIMAS) {
+                inactivas.addFirst(fisica);
+                return;
+            }
+        }
+        fisica.cerrar();
+    }
+
+
+    // Cierra las conexiones inactivas; las que estén en uso se cierran al devolverse
+    void cerrar() {
+        List<ConexionFisica> aCerrar;
+        synchronized (inactivas) {
+            cerrado = true;
+            aCerrar = new ArrayList<>(inactivas);
+            inactivas.clear();
+        }
+        for (ConexionFisica fisica : aCerrar) {
+            fisica.cerrar();
+        }
+    }
+
+
+    PerfilPragmas getPerfil() {
+        return perfil;
+    }
+
+
+    long getConexionesCreadas() {
+        return conexionesCreadas.get();
+    }
+
+
+    long getAciertosSentencias() {
+        return aciertosSentencias.get();
+    }
+
+
+    long getFallosSentencias() {
+        return fallosSentencias.get();
+    }
+
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // ========== CLASES INTERNAS ==========
+
+    // Conexión real y sus sentencias compiladas, usada por un solo hilo a la vez
+    private final class ConexionFisica {
+        private final Connection conexion;
+        // Orden de acceso: la primera entrada es la menos usada recientemente
+        private final LinkedHashMap<String, SentenciaCacheada> sentencias = new LinkedHashMap<>(16, 0.75f, true);
+
+
+        ConexionFisica(Connection conexion) {
+            this.conexion = conexion;
+        }
+
+
+        PreparedStatement preparar(String sql) throws SQLException {
+            SentenciaCacheada cacheada = sentencias.get(sql);
+            if (cacheada != null && !cacheada.enUso) {
+                aciertosSentencias.incrementAndGet();
+                return cacheada.prestar();
+            }
+            fallosSentencias.incrementAndGet();
+            PreparedStatement nueva = conexion.prepareStatement(sql);
+            if (cacheada != null) {
+                // El mismo SQL ya está abierto en esta conexión: la segunda copia no se cachea
+                return nueva;
+            }
+
+            cacheada = new SentenciaCacheada(nueva);
+            sentencias.put(sql, cacheada);
+            descartarSobrantes();
+            return cacheada.prestar();
+        }
+
+
+        private void descartarSobrantes() {
+            Iterator<SentenciaCacheada> iterador = sentencias.values().iterator();
+            while (sentencias.size() > SENTENCIAS_POR_CONEXION && iterador.hasNext()) {
+                SentenciaCacheada antigua = iterador.next();
+                if (!antigua.enUso) {
+                    iterador.remove();
+                    antigua.cerrar();
+                }
+            }
+        }
+
+
+        void cerrar() {
+            for (SentenciaCacheada cacheada : sentencias.values()) {
+                cacheada.cerrar();
+            }
+            sentencias.clear();
+            try {
+                conexion.close();
+            } catch (SQLException e) {
+                logger.warn("Error al cerrar una conexión SQLite: {}", e.getMessage());
+            }
+        }
+    }
+
+
+    private static final class SentenciaCacheada {
+        private final PreparedStatement sentencia;
+        private boolean enUso;
+        private ResultSet ultimoResultado;
+
+
+        SentenciaCacheada(PreparedStatement sentencia) {
+            this.sentencia = sentencia;
+        }
+
+
+        PreparedStatement prestar() {
+            enUso = true;
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                                                              new Class<?>[]{PreparedStatement.class},
+                                                              new ManejadorSentencia(this));
+        }
+
+
+        // Deja la sentencia como recién preparada para el siguiente uso
+        void devolver() throws SQLException {
+            enUso = false;
+            if (ultimoResultado != null) {
+                ultimoResultado.close();
+                ultimoResultado = null;
+            }
+            sentencia.clearParameters();
+            sentencia.clearBatch();
+        }
+
+
+        void cerrar() {
+            try {
+                sentencia.close();
+            } catch (SQLException e) {
+                logger.warn("Error al cerrar una sentencia cacheada: {}", e.getMessage());
+            }
+        }
+    }
+
+
+    private static final class ManejadorSentencia implements InvocationHandler {
+        private final SentenciaCacheada cacheada;
+        private boolean cerrada;
+
+
+        ManejadorSentencia(SentenciaCacheada cacheada) {
+            this.cacheada = cacheada;
+        }
+
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    if (!cerrada) {
+                        cerrada = true;
+                        cacheada.devolver();
+                    }
+                    return null;
+                case "isClosed":
+                    return cerrada;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SentenciaCacheada[" + cacheada.sentencia + "]";
+                default:
+                    break;
+            }
+            if (cerrada) {
+                throw new SQLException("La sentencia está cerrada");
+            }
+
+            Object resultado = invocar(cacheada.sentencia, metodo, args);
+            if (resultado instanceof ResultSet rs) {
+                cacheada.ultimoResultado = rs;
+            }
+            return resultado;
+        }
+    }
+
+
+    private final class ManejadorConexion implements InvocationHandler {
+        private ConexionFisica fisica;
+        // Sentencias obtenidas con este envoltorio: las cacheadas vuelven a la caché y el resto se cierra
+        private final List<Statement> abiertas = new ArrayList<>();
+
+
+        ManejadorConexion(ConexionFisica fisica) {
+            this.fisica = fisica;
+        }
+
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    liberar();
+                    return null;
+                case "isClosed":
+                    return fisica == null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionReutilizable[" + (fisica == null ? "cerrada" : fisica.conexion) + "]";
+                default:
+                    break;
+            }
+            if (fisica == null) {
+                throw new SQLException("La conexión está cerrada");
+            }
+
+            if (metodo.getName().equals("prepareStatement") && args != null && args.length == 1) {
+                PreparedStatement sentencia = fisica.preparar((String) args[0]);
+                abiertas.add(sentencia);
+                return sentencia;
+            }
+
+            Object resultado = invocar(fisica.conexion, metodo, args);
+            if (resultado instanceof Statement statement) {
+                abiertas.add(statement);
+            }
+            return resultado;
+        }
+
+
+        private void liberar() throws SQLException {
+            if (fisica == null) {
+                return;
+            }
+            ConexionFisica devuelta = fisica;
+            fisica = null;
+
+            SQLException error = null;
+            for (Statement statement : abiertas) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    error = e;
+                }
+            }
+            abiertas.clear();
+
+            try {
+                // Una transacción sin commit no debe filtrarse al siguiente usuario de la conexión
+                if (!devuelta.conexion.getAutoCommit()) {
+                    devuelta.conexion.rollback();
+                    devuelta.conexion.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                devuelta.cerrar();
+                throw e;
+            }
+            devolver(devuelta);
+
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package persistence;
+
+import celda.CodificadorTablero;
+import celda.TableroBuscaminas;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+
+/**
+ * Copia inmutable de lo que hay que escribir de un tablero: sus contadores y,
+ * o bien el BLOB completo, o bien solo las celdas cambiadas desde el último
+ * guardado. Se toma en el hilo de la interfaz para que el escritor en segundo
+ * plano no lea nunca el tablero mientras se sigue jugando.
+ */
+final class InstantaneaTablero {
+    private final int filas;
+    private final int columnas;
+    private final int cantidadMinas;
+    private final int celdasReveladas;
+    private final int minasMarcadas;
+    private final boolean juegoTerminado;
+    private final boolean juegoGanado;
+    // BLOB completo, o null si la instantánea solo lleva cambios
+    private final byte[] datos;
+    private final int[] indices;
+    private final byte[] estados;
+
+
+    private InstantaneaTablero(int filas, int columnas, int cantidadMinas, int celdasReveladas, int minasMarcadas,
+                               boolean juegoTerminado, boolean juegoGanado,
+                               byte[] datos, int[] indices, byte[] estados) {
+        this.filas = filas;
+        this.columnas = columnas;
+        this.cantidadMinas = cantidadMinas;
+        this.celdasReveladas = celdasReveladas;
+        this.minasMarcadas = minasMarcadas;
+        this.juegoTerminado = juegoTerminado;
+        this.juegoGanado = juegoGanado;
+        this.datos = datos;
+        this.indices = indices;
+        this.estados = estados;
+    }
+
+
+    static InstantaneaTablero completa(TableroBuscaminas tablero) {
+        return new InstantaneaTablero(tablero.getFilas(), tablero.getColumnas(), tablero.getCantidadMinas(),
+                                      tablero.getCeldasReveladas(), tablero.getMinasMarcadas(),
+                                      tablero.isJuegoTerminado(), tablero.isJuegoGanado(),
+                                      CodificadorTablero.codificar(tablero), new int[0], new byte[0]);
+    }
+
+
+    static InstantaneaTablero cambios(TableroBuscaminas tablero) {
+        return new InstantaneaTablero(tablero.getFilas(), tablero.getColumnas(), tablero.getCantidadMinas(),
+                                      tablero.getCeldasReveladas(), tablero.getMinasMarcadas(),
+                                      tablero.isJuegoTerminado(), tablero.isJuegoGanado(),
+                                      null, tablero.getCeldasPendientes(), tablero.getEstadosPendientes());
+    }
+
+
+    /**
+     * Une esta instantánea con otra posterior del mismo slot en una sola
+     * escritura: los contadores son siempre los de la posterior y, para cada
+     * celda, gana el estado más reciente.
+     */
+    InstantaneaTablero combinar(InstantaneaTablero posterior) {
+        if (posterior.esCompleta()) {
+            return posterior;
+        }
+
+        if (esCompleta()) {
+            byte[] combinados = datos.clone();
+            CodificadorTablero.aplicarCambios(combinados, filas * columnas, posterior.indices, posterior.estados);
+            return posterior.conCeldas(combinados, new int[0], new byte[0]);
+        }
+
+        Set<Integer> recientes = new HashSet<>();
+        for (int indice : posterior.indices) {
+            recientes.add(indice);
+        }
+        int[] nuevosIndices = Arrays.copyOf(posterior.indices, indices.length + posterior.indices.length);
+        byte[] nuevosEstados = Arrays.copyOf(posterior.estados, nuevosIndices.length);
+        int cantidad = posterior.indices.length;
+        for (int i = 0; i < indices.length; i++) {
+            if (!recientes.contains(indices[i])) {
+                nuevosIndices[cantidad] = indices[i];
+                nuevosEstados[cantidad] = estados[i];
+                cantidad++;
+            }
+        }
+        return posterior.conCeldas(null, Arrays.copyOf(nuevosIndices, cantidad), Arrays.copyOf(nuevosEstados, cantidad));
+    }
+
+
+    private InstantaneaTablero conCeldas(byte[] nuevosDatos, int[] nuevosIndices, byte[] nuevosEstados) {
+        return new InstantaneaTablero(filas, columnas, cantidadMinas, celdasReveladas, minasMarcadas,
+                                      juegoTerminado, juegoGanado, nuevosDatos, nuevosIndices, nuevosEstados);
+    }
+
+    // ========== GETTERS ==========
+
+    boolean esCompleta() {
+        return datos != null;
+    }
+
+
+    int getFilas() {
+        return filas;
+    }
+
+
+    int getColumnas() {
+        return columnas;
+    }
+
+
+    int getCantidadMinas() {
+        return cantidadMinas;
+    }
+
+
+    int getCeldasReveladas() {
+        return celdasReveladas;
+    }
+
+
+    int getMinasMarcadas() {
+        return minasMarcadas;
+    }
+
+
+    boolean isJuegoTerminado() {
+        return juegoTerminado;
+    }
+
+
+    boolean isJuegoGanado() {
+        return juegoGanado;
+    }
+
+
+    String getEstadoPartida() {
+        return juegoTerminado ? "terminada" : "en_curso";
+    }
+
+
+    // Los arreglos no se copian: quien los recibe no debe modificarlos
+    byte[] getDatos() {
+        return datos;
+    }
+
+
+    int getCantidadCambios() {
+        return indices.length;
+    }
+
+
+    int[] getIndices() {
+        return indices;
+    }
+
+
+    byte[] getEstados() {
+        return estados;
+    }
+}
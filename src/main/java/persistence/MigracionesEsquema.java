@@ -0,0 +1,328 @@
+package persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+
+/**
+ * Versiones del esquema de la base de datos. Cada migración se aplica una sola
+ * vez, en orden y en su propia transacción junto con la fila que la registra
+ * en schema_version, así que una migración a medias no deja rastro.
+ *
+ * Las bases de datos anteriores a schema_version parten de la versión 0: las
+ * migraciones usan IF NOT EXISTS y añaden columnas solo si faltan, de modo
+ * que aplicarlas sobre un esquema que ya las tenía no cambia nada. La 5
+ * reconstruye slots_guardado copiando sus filas, así que repetirla tampoco
+ * pierde nada.
+ */
+final class MigracionesEsquema {
+    private static final Logger logger = LoggerFactory.getLogger(MigracionesEsquema.class);
+
+    private static final List<Migracion> MIGRACIONES = List.of(
+        new Migracion(1, "Slots de guardado con una fila por celda", MigracionesEsquema::crearSlots),
+        new Migracion(2, "Tableros en un único BLOB y tabla de partidas", MigracionesEsquema::migrarFormatoBlob),
+        new Migracion(3, "Cambios incrementales de los slots", MigracionesEsquema::crearCambiosSlots),
+        new Migracion(4, "Índice de cobertura del listado de partidas", MigracionesEsquema::indexarPartidas),
+        new Migracion(5, "Slots ilimitados e índices de paginación", MigracionesEsquema::paginarGuardados)
+    );
+
+    private MigracionesEsquema() {
+    }
+
+
+    static int getVersionActual() {
+        return MIGRACIONES.get(MIGRACIONES.size() - 1).version;
+    }
+
+
+    /**
+     * Lleva el esquema a la última versión. Si ya lo está solo cuesta una
+     * consulta. Devuelve el número de migraciones aplicadas.
+     */
+    static int aplicarPendientes(Connection conn) throws SQLException {
+        int version = leerVersion(conn);
+        if (version == getVersionActual()) {
+            return 0;
+        }
+        if (version > getVersionActual()) {
+            logger.warn("La base de datos está en la versión {} del esquema, más nueva que la {} de la aplicación",
+                        version, getVersionActual());
+            return 0;
+        }
+
+        try (Statement statement = conn.createStatement()) {
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    descripcion TEXT NOT NULL,
+                    fecha_aplicacion DATETIME DEFAULT CURRENT_TIMESTAMP
+                )
+                """);
+        }
+
+        int aplicadas = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            for (Migracion migracion : MIGRACIONES) {
+                if (migracion.version <= version) {
+                    continue;
+                }
+                conn.setAutoCommit(false);
+                try (Statement statement = conn.createStatement()) {
+                    migracion.paso.aplicar(conn, statement);
+                    registrar(conn, migracion);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Error en la migración " + migracion.version + " (" +
+                                           migracion.descripcion + "): " + e.getMessage(), e);
+                }
+                logger.info("Esquema migrado a la versión {}: {}", migracion.version, migracion.descripcion);
+                aplicadas++;
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return aplicadas;
+    }
+
+
+    static int leerVersion(Connection conn) throws SQLException {
+        try (Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'schema_version'")) {
+            if (!rs.next()) {
+                return 0;
+            }
+        }
+        try (Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+
+    private static void registrar(Connection conn, Migracion migracion) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO schema_version (version, descripcion) VALUES (?, ?)")) {
+            ps.setInt(1, migracion.version);
+            ps.setString(2, migracion.descripcion);
+            ps.executeUpdate();
+        }
+    }
+
+    // ========== MIGRACIONES ==========
+
+    private static void crearSlots(Connection conn, Statement statement) throws SQLException {
+        statement.execute("""
+            CREATE TABLE IF NOT EXISTS slots_guardado (
+                slot_id INTEGER PRIMARY KEY CHECK (slot_id IN (1, 2, 3)),
+                nombre_partida TEXT,
+                nombre_jugador TEXT,
+                fecha_creacion DATETIME DEFAULT CURRENT_TIMESTAMP,
+                fecha_ultima_modificacion DATETIME DEFAULT CURRENT_TIMESTAMP,
+                cantidad_minas INTEGER NOT NULL DEFAULT 60,
+                celdas_reveladas INTEGER NOT NULL DEFAULT 0,
+                minas_marcadas INTEGER NOT NULL DEFAULT 0,
+                juego_terminado BOOLEAN NOT NULL DEFAULT 0,
+                juego_ganado BOOLEAN NOT NULL DEFAULT 0,
+                tiempo_juego INTEGER DEFAULT 0,
+                estado_partida TEXT DEFAULT 'en_curso'
+            )
+            """);
+
+        statement.execute("""
+            CREATE TABLE IF NOT EXISTS celdas_slots (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                slot_id INTEGER NOT NULL,
+                fila INTEGER NOT NULL,
+                columna INTEGER NOT NULL,
+                es_mina BOOLEAN NOT NULL DEFAULT 0,
+                esta_revelada BOOLEAN NOT NULL DEFAULT 0,
+                esta_marcada BOOLEAN NOT NULL DEFAULT 0,
+                minas_adyacentes INTEGER NOT NULL DEFAULT 0,
+                FOREIGN KEY (slot_id) REFERENCES slots_guardado(slot_id) ON DELETE CASCADE,
+                UNIQUE(slot_id, fila, columna)
+            )
+            """);
+
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_slots_fecha ON slots_guardado(fecha_ultima_modificacion)");
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_slots_estado ON slots_guardado(estado_partida)");
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_celdas_slots ON celdas_slots(slot_id)");
+
+        statement.execute("""
+            INSERT OR IGNORE INTO slots_guardado (slot_id, nombre_partida, nombre_jugador)
+            VALUES (1, 'Slot 1', 'Vacío'), (2, 'Slot 2', 'Vacío'), (3, 'Slot 3', 'Vacío')
+            """);
+    }
+
+
+    private static void migrarFormatoBlob(Connection conn, Statement statement) throws SQLException {
+        statement.execute("""
+            CREATE TABLE IF NOT EXISTS partidas (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                nombre_jugador TEXT,
+                fecha_creacion DATETIME DEFAULT CURRENT_TIMESTAMP,
+                fecha_ultima_modificacion DATETIME DEFAULT CURRENT_TIMESTAMP,
+                cantidad_minas INTEGER NOT NULL DEFAULT 60,
+                celdas_reveladas INTEGER NOT NULL DEFAULT 0,
+                minas_marcadas INTEGER NOT NULL DEFAULT 0,
+                juego_terminado BOOLEAN NOT NULL DEFAULT 0,
+                juego_ganado BOOLEAN NOT NULL DEFAULT 0,
+                estado_partida TEXT DEFAULT 'en_curso'
+            )
+            """);
+
+        for (String tabla : new String[]{"slots_guardado", "partidas"}) {
+            agregarColumnaSiFalta(statement, tabla, "filas", "INTEGER NOT NULL DEFAULT 20");
+            agregarColumnaSiFalta(statement, tabla, "columnas", "INTEGER NOT NULL DEFAULT 20");
+            agregarColumnaSiFalta(statement, tabla, "version_formato", "INTEGER NOT NULL DEFAULT 0");
+            agregarColumnaSiFalta(statement, tabla, "tablero_blob", "BLOB");
+        }
+        MigradorFormatoTablero.migrarGuardadosPorFilas(conn);
+    }
+
+
+    // Celdas cambiadas desde el último BLOB de cada slot (guardado incremental)
+    private static void crearCambiosSlots(Connection conn, Statement statement) throws SQLException {
+        statement.execute("""
+            CREATE TABLE IF NOT EXISTS cambios_slots (
+                slot_id INTEGER NOT NULL,
+                indice INTEGER NOT NULL,
+                estado INTEGER NOT NULL,
+                PRIMARY KEY (slot_id, indice)
+            ) WITHOUT ROWID
+            """);
+    }
+
+
+    /*
+     * El listado de obtenerPartidasGuardadas lee todas las columnas salvo el
+     * BLOB, ordenado por fecha. Con todas ellas en el índice, SQLite recorre
+     * el índice ya ordenado y no toca las páginas de la tabla, que son las que
+     * llevan los tableros.
+     */
+    private static void indexarPartidas(Connection conn, Statement statement) throws SQLException {
+        statement.execute("""
+            CREATE INDEX IF NOT EXISTS idx_partidas_listado ON partidas (
+                fecha_ultima_modificacion DESC, id, nombre_jugador, fecha_creacion, cantidad_minas,
+                celdas_reveladas, minas_marcadas, juego_terminado, juego_ganado, estado_partida
+            )
+            """);
+    }
+
+
+    /*
+     * SQLite no permite quitar un CHECK con ALTER TABLE, así que slots_guardado
+     * se reconstruye: tabla nueva, copia de las filas, borrado y cambio de
+     * nombre. Los índices de la tabla antigua desaparecen con ella y se crean
+     * los del listado paginado, uno por criterio, todos terminados en
+     * (fecha_ultima_modificacion DESC, id DESC) como el ORDER BY de
+     * ConsultaPaginada.
+     */
+    private static void paginarGuardados(Connection conn, Statement statement) throws SQLException {
+        String columnas = "slot_id, nombre_partida, nombre_jugador, fecha_creacion, fecha_ultima_modificacion, " +
+                          "cantidad_minas, celdas_reveladas, minas_marcadas, juego_terminado, juego_ganado, " +
+                          "tiempo_juego, estado_partida, filas, columnas, version_formato, tablero_blob";
+        statement.execute("DROP TABLE IF EXISTS slots_guardado_nueva");
+        statement.execute("""
+            CREATE TABLE slots_guardado_nueva (
+                slot_id INTEGER PRIMARY KEY CHECK (slot_id > 0),
+                nombre_partida TEXT,
+                nombre_jugador TEXT,
+                fecha_creacion DATETIME DEFAULT CURRENT_TIMESTAMP,
+                fecha_ultima_modificacion DATETIME DEFAULT CURRENT_TIMESTAMP,
+                cantidad_minas INTEGER NOT NULL DEFAULT 60,
+                celdas_reveladas INTEGER NOT NULL DEFAULT 0,
+                minas_marcadas INTEGER NOT NULL DEFAULT 0,
+                juego_terminado BOOLEAN NOT NULL DEFAULT 0,
+                juego_ganado BOOLEAN NOT NULL DEFAULT 0,
+                tiempo_juego INTEGER DEFAULT 0,
+                estado_partida TEXT DEFAULT 'en_curso',
+                filas INTEGER NOT NULL DEFAULT 20,
+                columnas INTEGER NOT NULL DEFAULT 20,
+                version_formato INTEGER NOT NULL DEFAULT 0,
+                tablero_blob BLOB
+            )
+            """);
+        statement.execute("INSERT INTO slots_guardado_nueva (" + columnas + ") SELECT " + columnas +
+                          " FROM slots_guardado");
+        statement.execute("DROP TABLE slots_guardado");
+        statement.execute("ALTER TABLE slots_guardado_nueva RENAME TO slots_guardado");
+
+        statement.execute("""
+            CREATE INDEX IF NOT EXISTS idx_slots_fecha ON slots_guardado (fecha_ultima_modificacion DESC, slot_id DESC)
+            """);
+        statement.execute("""
+            CREATE INDEX IF NOT EXISTS idx_slots_jugador ON slots_guardado (
+                nombre_jugador, fecha_ultima_modificacion DESC, slot_id DESC
+            )
+            """);
+        statement.execute("""
+            CREATE INDEX IF NOT EXISTS idx_slots_estado ON slots_guardado (
+                estado_partida, fecha_ultima_modificacion DESC, slot_id DESC
+            )
+            """);
+
+        // El índice de cobertura pasa a desempatar por id descendente, como la paginación
+        statement.execute("DROP INDEX IF EXISTS idx_partidas_listado");
+        statement.execute("""
+            CREATE INDEX IF NOT EXISTS idx_partidas_listado ON partidas (
+                fecha_ultima_modificacion DESC, id DESC, nombre_jugador, fecha_creacion, cantidad_minas,
+                celdas_reveladas, minas_marcadas, juego_terminado, juego_ganado, estado_partida
+            )
+            """);
+        statement.execute("""
+            CREATE INDEX IF NOT EXISTS idx_partidas_jugador ON partidas (
+                nombre_jugador, fecha_ultima_modificacion DESC, id DESC
+            )
+            """);
+        statement.execute("""
+            CREATE INDEX IF NOT EXISTS idx_partidas_estado ON partidas (
+                estado_partida, fecha_ultima_modificacion DESC, id DESC
+            )
+            """);
+    }
+
+
+    private static void agregarColumnaSiFalta(Statement statement, String tabla, String columna,
+                                              String definicion) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("PRAGMA table_info(" + tabla + ")")) {
+            while (rs.next()) {
+                if (columna.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        statement.execute("ALTER TABLE " + tabla + " ADD COLUMN " + columna + " " + definicion);
+        logger.info("Columna {} añadida a la tabla {}", columna, tabla);
+    }
+
+    // ========== CLASES INTERNAS ==========
+
+    @FunctionalInterface
+    private interface PasoMigracion {
+        void aplicar(Connection conn, Statement statement) throws SQLException;
+    }
+
+
+    private static final class Migracion {
+        private final int version;
+        private final String descripcion;
+        private final PasoMigracion paso;
+
+
+        Migracion(int version, String descripcion, PasoMigracion paso) {
+            this.version = version;
+            this.descripcion = descripcion;
+            this.paso = paso;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package persistence;
+
+import celda.Celda;
+import celda.CodificadorTablero;
+import celda.TableroBuscaminas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Convierte los guardados antiguos (una fila por celda en celdas_slots o
+ * celdas_partida) al formato de un único BLOB por tablero. Al terminar cada
+ * guardado se borran sus filas de celdas. Si la conexión ya está dentro de
+ * una transacción todo va en ella; si no, cada guardado va en la suya.
+ */
+final class MigradorFormatoTablero {
+    private static final Logger logger = LoggerFactory.getLogger(MigradorFormatoTablero.class);
+
+    private MigradorFormatoTablero() {
+    }
+
+
+    static void migrarGuardadosPorFilas(Connection conn) throws SQLException {
+        migrarTabla(conn, "slots_guardado", "slot_id", "celdas_slots", "slot_id");
+        migrarTabla(conn, "partidas", "id", "celdas_partida", "partida_id");
+    }
+
+
+    private static void migrarTabla(Connection conn, String tabla, String columnaId,
+                                    String tablaCeldas, String columnaIdCeldas) throws SQLException {
+        List<int[]> pendientes = new ArrayList<>();
+        try (Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT " + columnaId + ", cantidad_minas FROM " + tabla +
+                                                   " WHERE version_formato < " + CodificadorTablero.VERSION_FORMATO)) {
+            while (rs.next()) {
+                pendientes.add(new int[]{rs.getInt(1), rs.getInt(2)});
+            }
+        }
+        if (pendientes.isEmpty()) {
+            return;
+        }
+
+        boolean hayTablaCeldas = existeTabla(conn, tablaCeldas);
+        boolean transaccionPropia = conn.getAutoCommit();
+        if (!transaccionPropia) {
+            for (int[] pendiente : pendientes) {
+                migrarGuardado(conn, tabla, columnaId, hayTablaCeldas ? tablaCeldas : null, columnaIdCeldas,
+                               pendiente[0], pendiente[1]);
+            }
+            logger.info("Migrados {} guardados de {} al formato BLOB", pendientes.size(), tabla);
+            return;
+        }
+
+        conn.setAutoCommit(false);
+        try {
+            for (int[] pendiente : pendientes) {
+                migrarGuardado(conn, tabla, columnaId, hayTablaCeldas ? tablaCeldas : null, columnaIdCeldas,
+                               pendiente[0], pendiente[1]);
+                conn.commit();
+            }
+            logger.info("Migrados {} guardados de {} al formato BLOB", pendientes.size(), tabla);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+
+    private static void migrarGuardado(Connection conn, String tabla, String columnaId, String tablaCeldas,
+                                       String columnaIdCeldas, int id, int cantidadMinas) throws SQLException {
+        byte[] datos = null;
+        int filas = 0;
+        int columnas = 0;
+
+        if (tablaCeldas != null) {
+            List<int[]> celdas = new ArrayList<>();
+            String sqlCeldas = "SELECT fila, columna, es_mina, esta_revelada, esta_marcada FROM " + tablaCeldas +
+                               " WHERE " + columnaIdCeldas + " = ?";
+            try (PreparedStatement ps = conn.prepareStatement(sqlCeldas)) {
+                ps.setInt(1, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int[] celda = {rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5)};
+                        filas = Math.max(filas, celda[0] + 1);
+                        columnas = Math.max(columnas, celda[1] + 1);
+                        celdas.add(celda);
+                    }
+                }
+            }
+
+            if (!celdas.isEmpty()) {
+                try {
+                    TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, cantidadMinas);
+                    for (int[] celda : celdas) {
+                        Celda destino = tablero.getCelda(celda[0], celda[1]);
+                        if (celda[2] != 0) {
+                            destino.establecerComoMina();
+                        }
+                        if (celda[3] != 0) {
+                            destino.revelar();
+                        }
+                        if (celda[4] != 0) {
+                            destino.alternarMarcado();
+                        }
+                    }
+                    datos = CodificadorTablero.codificar(tablero);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Guardado {} de {} no convertible, se descarta su tablero: {}", id, tabla, e.getMessage());
+                }
+            }
+        }
+
+        String sqlActualizar = "UPDATE " + tabla + " SET version_formato = ?, tablero_blob = ?" +
+                               (datos != null ? ", filas = ?, columnas = ?" : "") +
+                               " WHERE " + columnaId + " = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sqlActualizar)) {
+            int parametro = 1;
+            ps.setInt(parametro++, CodificadorTablero.VERSION_FORMATO);
+            ps.setBytes(parametro++, datos);
+            if (datos != null) {
+                ps.setInt(parametro++, filas);
+                ps.setInt(parametro++, columnas);
+            }
+            ps.setInt(parametro, id);
+            ps.executeUpdate();
+        }
+
+        if (tablaCeldas != null) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "DELETE FROM " + tablaCeldas + " WHERE " + columnaIdCeldas + " = ?")) {
+                ps.setInt(1, id);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+
+    private static boolean existeTabla(Connection conn, String tabla) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            ps.setString(1, tabla);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
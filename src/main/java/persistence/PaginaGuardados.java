@@ -0,0 +1,45 @@
+package persistence;
+
+import java.util.List;
+
+
+/**
+ * Una página de un listado de guardados y el cursor para pedir la siguiente,
+ * que es null cuando ya no quedan más.
+ */
+public final class PaginaGuardados<T> {
+    private final List<T> elementos;
+    // Posición tras cada elemento, para recortar la página sin volver a consultarla
+    private final List<CursorPagina> cursores;
+    private final CursorPagina siguiente;
+
+
+    PaginaGuardados(List<T> elementos, List<CursorPagina> cursores, CursorPagina siguiente) {
+        if (elementos.size() != cursores.size()) {
+            throw new IllegalArgumentException("Se necesita un cursor por elemento");
+        }
+        this.elementos = List.copyOf(elementos);
+        this.cursores = List.copyOf(cursores);
+        this.siguiente = siguiente;
+    }
+
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+
+    List<CursorPagina> getCursores() {
+        return cursores;
+    }
+
+
+    public CursorPagina getSiguiente() {
+        return siguiente;
+    }
+
+
+    public boolean hayMas() {
+        return siguiente != null;
+    }
+}
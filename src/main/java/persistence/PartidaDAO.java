@@ -1,6 +1,6 @@
 package persistence;
 
-import celda.Celda;
+import celda.CodificadorTablero;
 import celda.TableroBuscaminas;
 
 import java.sql.*;
@@ -10,22 +10,21 @@ import java.util.List;
 
 public class PartidaDAO {
     
+    // Columnas del listado, todas dentro del índice de cobertura idx_partidas_listado
+    private static final String COLUMNAS_INFO = "id, nombre_jugador, fecha_creacion, fecha_ultima_modificacion, " +
+                                                "cantidad_minas, celdas_reveladas, minas_marcadas, juego_terminado, " +
+                                                "juego_ganado, estado_partida";
+    
 
     public int guardarPartida(String nombreJugador, TableroBuscaminas tablero) throws SQLException {
         String sqlPartida = "INSERT INTO partidas (nombre_jugador, cantidad_minas, celdas_reveladas, " +
-                           "minas_marcadas, juego_terminado, juego_ganado, estado_partida) " +
-                           "VALUES (?, ?, ?, ?, ?, ?, ?)";
-        
-        String sqlCelda = "INSERT INTO celdas_partida (partida_id, fila, columna, es_mina, " +
-                         "esta_revelada, esta_marcada, minas_adyacentes) VALUES (?, ?, ?, ?, ?, ?, ?)";
+                           "minas_marcadas, juego_terminado, juego_ganado, estado_partida, " +
+                           "filas, columnas, version_formato, tablero_blob) " +
+                           "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
         try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement psPartida = conn.prepareStatement(sqlPartida, Statement.RETURN_GENERATED_KEYS);
-             PreparedStatement psCelda = conn.prepareStatement(sqlCelda)) {
-            
-            conn.setAutoCommit(false);
+             PreparedStatement psPartida = conn.prepareStatement(sqlPartida)) {
             
-            // Insertar partida
             psPartida.setString(1, nombreJugador);
             psPartida.setInt(2, tablero.getCantidadMinas());
             psPartida.setInt(3, tablero.getCeldasReveladas());
@@ -33,39 +32,22 @@ public class PartidaDAO {
             psPartida.setBoolean(5, tablero.isJuegoTerminado());
             psPartida.setBoolean(6, tablero.isJuegoGanado());
             psPartida.setString(7, tablero.isJuegoTerminado() ? "terminada" : "en_curso");
+            psPartida.setInt(8, tablero.getFilas());
+            psPartida.setInt(9, tablero.getColumnas());
+            psPartida.setInt(10, CodificadorTablero.VERSION_FORMATO);
+            psPartida.setBytes(11, CodificadorTablero.codificar(tablero));
             
             psPartida.executeUpdate();
             
-            // Obtener ID de la partida
-            int partidaId;
-            try (ResultSet rs = psPartida.getGeneratedKeys()) {
+            // El driver de SQLite no implementa getGeneratedKeys()
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
                 if (rs.next()) {
-                    partidaId = rs.getInt(1);
-                } else {
-                    throw new SQLException("No se pudo obtener el ID de la partida");
-                }
-            }
-            
-            // Insertar celdas
-            for (int fila = 0; fila < tablero.getTamano(); fila++) {
-                for (int columna = 0; columna < tablero.getTamano(); columna++) {
-                    Celda celda = tablero.getCelda(fila, columna);
-                    
-                    psCelda.setInt(1, partidaId);
-                    psCelda.setInt(2, fila);
-                    psCelda.setInt(3, columna);
-                    psCelda.setBoolean(4, celda.esMina());
-                    psCelda.setBoolean(5, celda.estaRevelada());
-                    psCelda.setBoolean(6, celda.estaMarcada());
-                    psCelda.setInt(7, celda.getMinasAdyacentes());
-                    
-                    psCelda.executeUpdate();
+                    return rs.getInt(1);
                 }
+                throw new SQLException("No se pudo obtener el ID de la partida");
             }
             
-            conn.commit();
-            return partidaId;
-            
         } catch (SQLException e) {
             throw new SQLException("Error al guardar la partida: " + e.getMessage(), e);
         }
@@ -74,44 +56,24 @@ public class PartidaDAO {
 
     public void actualizarPartida(int partidaId, TableroBuscaminas tablero) throws SQLException {
         String sqlPartida = "UPDATE partidas SET celdas_reveladas = ?, minas_marcadas = ?, " +
-                           "juego_terminado = ?, juego_ganado = ?, estado_partida = ? WHERE id = ?";
-        
-        String sqlCelda = "UPDATE celdas_partida SET esta_revelada = ?, esta_marcada = ? " +
-                         "WHERE partida_id = ? AND fila = ? AND columna = ?";
+                           "juego_terminado = ?, juego_ganado = ?, estado_partida = ?, " +
+                           "version_formato = ?, tablero_blob = ?, " +
+                           "fecha_ultima_modificacion = CURRENT_TIMESTAMP WHERE id = ?";
         
         try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement psPartida = conn.prepareStatement(sqlPartida);
-             PreparedStatement psCelda = conn.prepareStatement(sqlCelda)) {
-            
-            conn.setAutoCommit(false);
+             PreparedStatement psPartida = conn.prepareStatement(sqlPartida)) {
             
-            // Actualizar partida
             psPartida.setInt(1, tablero.getCeldasReveladas());
             psPartida.setInt(2, tablero.getMinasMarcadas());
             psPartida.setBoolean(3, tablero.isJuegoTerminado());
             psPartida.setBoolean(4, tablero.isJuegoGanado());
             psPartida.setString(5, tablero.isJuegoTerminado() ? "terminada" : "en_curso");
-            psPartida.setInt(6, partidaId);
+            psPartida.setInt(6, CodificadorTablero.VERSION_FORMATO);
+            psPartida.setBytes(7, CodificadorTablero.codificar(tablero));
+            psPartida.setInt(8, partidaId);
             
             psPartida.executeUpdate();
             
-            // Actualizar celdas
-            for (int fila = 0; fila < tablero.getTamano(); fila++) {
-                for (int columna = 0; columna < tablero.getTamano(); columna++) {
-                    Celda celda = tablero.getCelda(fila, columna);
-                    
-                    psCelda.setBoolean(1, celda.estaRevelada());
-                    psCelda.setBoolean(2, celda.estaMarcada());
-                    psCelda.setInt(3, partidaId);
-                    psCelda.setInt(4, fila);
-                    psCelda.setInt(5, columna);
-                    
-                    psCelda.executeUpdate();
-                }
-            }
-            
-            conn.commit();
-            
         } catch (SQLException e) {
             throw new SQLException("Error al actualizar la partida: " + e.getMessage(), e);
         }
@@ -119,68 +81,35 @@ public class PartidaDAO {
     
 
     public TableroBuscaminas cargarPartida(int partidaId) throws SQLException {
-        String sqlPartida = "SELECT * FROM partidas WHERE id = ?";
-        String sqlCeldas = "SELECT * FROM celdas_partida WHERE partida_id = ? ORDER BY fila, columna";
+        String sqlPartida = "SELECT cantidad_minas, filas, columnas, tablero_blob FROM partidas WHERE id = ?";
         
         try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement psPartida = conn.prepareStatement(sqlPartida);
-             PreparedStatement psCeldas = conn.prepareStatement(sqlCeldas)) {
+             PreparedStatement psPartida = conn.prepareStatement(sqlPartida)) {
             
             psPartida.setInt(1, partidaId);
-            psCeldas.setInt(1, partidaId);
             
-            try (ResultSet rsPartida = psPartida.executeQuery();
-                 ResultSet rsCeldas = psCeldas.executeQuery()) {
+            try (ResultSet rsPartida = psPartida.executeQuery()) {
                 
                 if (!rsPartida.next()) {
                     throw new SQLException("Partida no encontrada con ID: " + partidaId);
                 }
                 
-                // Crear tablero con la cantidad de minas guardada
-                int cantidadMinas = rsPartida.getInt("cantidad_minas");
-                TableroBuscaminas tablero = new TableroBuscaminas(cantidadMinas);
-                
-                // Cargar estado de las celdas
-                while (rsCeldas.next()) {
-                    int fila = rsCeldas.getInt("fila");
-                    int columna = rsCeldas.getInt("columna");
-                    boolean esMina = rsCeldas.getBoolean("es_mina");
-                    boolean estaRevelada = rsCeldas.getBoolean("esta_revelada");
-                    boolean estaMarcada = rsCeldas.getBoolean("esta_marcada");
-                    int minasAdyacentes = rsCeldas.getInt("minas_adyacentes");
-                    
-                    Celda celda = tablero.getCelda(fila, columna);
-                    
-                    if (esMina) {
-                        celda.establecerComoMina();
-                    }
-                    
-                    if (estaRevelada) {
-                        celda.revelar();
-                    }
-                    
-                    if (estaMarcada) {
-                        celda.alternarMarcado();
-                    }
-                    
-                    // Establecer minas adyacentes
-                    for (int i = 0; i < minasAdyacentes; i++) {
-                        celda.incrementarMinasAdyacentes();
-                    }
+                byte[] datos = rsPartida.getBytes("tablero_blob");
+                if (datos == null) {
+                    throw new SQLException("La partida " + partidaId + " no tiene tablero guardado");
                 }
                 
-                return tablero;
+                return CodificadorTablero.decodificar(datos, rsPartida.getInt("filas"), rsPartida.getInt("columnas"),
+                                                      rsPartida.getInt("cantidad_minas"));
             }
-        } catch (SQLException e) {
+        } catch (SQLException | IllegalArgumentException e) {
             throw new SQLException("Error al cargar la partida: " + e.getMessage(), e);
         }
     }
     
 
     public List<PartidaInfo> obtenerPartidasGuardadas() throws SQLException {
-        String sql = "SELECT id, nombre_jugador, fecha_creacion, fecha_ultima_modificacion, " +
-                    "cantidad_minas, celdas_reveladas, minas_marcadas, juego_terminado, " +
-                    "juego_ganado, estado_partida FROM partidas ORDER BY fecha_ultima_modificacion DESC";
+        String sql = "SELECT " + COLUMNAS_INFO + " FROM partidas ORDER BY fecha_ultima_modificacion DESC";
         
         List<PartidaInfo> partidas = new ArrayList<>();
         
@@ -189,19 +118,7 @@ public class PartidaDAO {
              ResultSet rs = ps.executeQuery()) {
             
             while (rs.next()) {
-                PartidaInfo info = new PartidaInfo();
-                info.setId(rs.getInt("id"));
-                info.setNombreJugador(rs.getString("nombre_jugador"));
-                info.setFechaCreacion(rs.getTimestamp("fecha_creacion"));
-                info.setFechaUltimaModificacion(rs.getTimestamp("fecha_ultima_modificacion"));
-                info.setCantidadMinas(rs.getInt("cantidad_minas"));
-                info.setCeldasReveladas(rs.getInt("celdas_reveladas"));
-                info.setMinasMarcadas(rs.getInt("minas_marcadas"));
-                info.setJuegoTerminado(rs.getBoolean("juego_terminado"));
-                info.setJuegoGanado(rs.getBoolean("juego_ganado"));
-                info.setEstadoPartida(rs.getString("estado_partida"));
-                
-                partidas.add(info);
+                partidas.add(leerPartidaInfo(rs));
             }
         } catch (SQLException e) {
             throw new SQLException("Error al obtener las partidas guardadas: " + e.getMessage(), e);
@@ -211,6 +128,36 @@ public class PartidaDAO {
     }
     
 
+    /**
+     * Página del listado de partidas, de la modificada más recientemente a la
+     * más antigua. Con desde == null se obtiene la primera página.
+     */
+    public PaginaGuardados<PartidaInfo> obtenerPaginaPartidas(FiltroGuardados filtro, CursorPagina desde, int tamano) throws SQLException {
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            return ConsultaPaginada.consultar(conn, COLUMNAS_INFO, "partidas", "id",
+                                              filtro, desde, tamano, PartidaDAO::leerPartidaInfo);
+        } catch (SQLException e) {
+            throw new SQLException("Error al obtener la página de partidas (" + filtro + "): " + e.getMessage(), e);
+        }
+    }
+    
+
+    private static PartidaInfo leerPartidaInfo(ResultSet rs) throws SQLException {
+        PartidaInfo info = new PartidaInfo();
+        info.setId(rs.getInt("id"));
+        info.setNombreJugador(rs.getString("nombre_jugador"));
+        info.setFechaCreacion(rs.getTimestamp("fecha_creacion"));
+        info.setFechaUltimaModificacion(rs.getTimestamp("fecha_ultima_modificacion"));
+        info.setCantidadMinas(rs.getInt("cantidad_minas"));
+        info.setCeldasReveladas(rs.getInt("celdas_reveladas"));
+        info.setMinasMarcadas(rs.getInt("minas_marcadas"));
+        info.setJuegoTerminado(rs.getBoolean("juego_terminado"));
+        info.setJuegoGanado(rs.getBoolean("juego_ganado"));
+        info.setEstadoPartida(rs.getString("estado_partida"));
+        return info;
+    }
+    
+
     public void eliminarPartida(int partidaId) throws SQLException {
         String sql = "DELETE FROM partidas WHERE id = ?";
         
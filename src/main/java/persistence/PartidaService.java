@@ -2,23 +2,27 @@ package persistence;
 
 import celda.TableroBuscaminas;
 
-import java.sql.SQLException;
 import java.util.List;
 
 
 public class PartidaService {
-    private final PartidaDAO partidaDAO;
+    private final AlmacenamientoPartidas almacenamiento;
     
 
     public PartidaService() {
-        this.partidaDAO = new PartidaDAO();
+        this(TipoAlmacenamiento.desdePropiedades());
+    }
+    
+
+    public PartidaService(TipoAlmacenamiento tipo) {
+        this.almacenamiento = tipo.obtener();
     }
     
 
     public int guardarPartida(String nombreJugador, TableroBuscaminas tablero) {
         try {
-            return partidaDAO.guardarPartida(nombreJugador, tablero);
-        } catch (SQLException e) {
+            return almacenamiento.guardarPartida(nombreJugador, tablero);
+        } catch (AlmacenamientoException e) {
             throw new RuntimeException("Error al guardar la partida: " + e.getMessage(), e);
         }
     }
@@ -26,8 +30,8 @@ public class PartidaService {
 
     public void actualizarPartida(int partidaId, TableroBuscaminas tablero) {
         try {
-            partidaDAO.actualizarPartida(partidaId, tablero);
-        } catch (SQLException e) {
+            almacenamiento.actualizarPartida(partidaId, tablero);
+        } catch (AlmacenamientoException e) {
             throw new RuntimeException("Error al actualizar la partida: " + e.getMessage(), e);
         }
     }
@@ -35,8 +39,8 @@ public class PartidaService {
 
     public TableroBuscaminas cargarPartida(int partidaId) {
         try {
-            return partidaDAO.cargarPartida(partidaId);
-        } catch (SQLException e) {
+            return almacenamiento.cargarPartida(partidaId);
+        } catch (AlmacenamientoException e) {
             throw new RuntimeException("Error al cargar la partida: " + e.getMessage(), e);
         }
     }
@@ -44,23 +48,32 @@ public class PartidaService {
 
     public List<PartidaDAO.PartidaInfo> obtenerPartidasGuardadas() {
         try {
-            return partidaDAO.obtenerPartidasGuardadas();
-        } catch (SQLException e) {
+            return almacenamiento.obtenerPartidasGuardadas();
+        } catch (AlmacenamientoException e) {
             throw new RuntimeException("Error al obtener las partidas guardadas: " + e.getMessage(), e);
         }
     }
     
 
+    public PaginaGuardados<PartidaDAO.PartidaInfo> obtenerPaginaPartidas(FiltroGuardados filtro, CursorPagina desde, int tamano) {
+        try {
+            return almacenamiento.obtenerPaginaPartidas(filtro, desde, tamano);
+        } catch (AlmacenamientoException e) {
+            throw new RuntimeException("Error al obtener la página de partidas: " + e.getMessage(), e);
+        }
+    }
+    
+
     public void eliminarPartida(int partidaId) {
         try {
-            partidaDAO.eliminarPartida(partidaId);
-        } catch (SQLException e) {
+            almacenamiento.eliminarPartida(partidaId);
+        } catch (AlmacenamientoException e) {
             throw new RuntimeException("Error al eliminar la partida: " + e.getMessage(), e);
         }
     }
     
 
     public boolean isDatabaseAvailable() {
-        return DatabaseManager.getInstance().isDatabaseAvailable();
+        return almacenamiento.estaDisponible();
     }
 } 
\ No newline at end of file
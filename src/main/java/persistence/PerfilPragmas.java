@@ -0,0 +1,83 @@
+package persistence;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+
+/**
+ * Ajustes de SQLite que se aplican a cada conexión nueva. El perfil se elige
+ * con la propiedad del sistema buscaminas.pragmas (por defecto RAPIDO).
+ *
+ * Con WAL cada commit solo añade páginas al final del registro, y con
+ * synchronous NORMAL ese registro se sincroniza con el disco en los
+ * checkpoints en lugar de en cada commit: es lo que abarata las muchas
+ * transacciones pequeñas del guardado automático. Un corte de luz puede
+ * perder los últimos commits, pero nunca corrompe la base de datos.
+ */
+public enum PerfilPragmas {
+    // Comportamiento por defecto de SQLite: diario de reversión y sincronización en cada commit
+    CLASICO("DELETE", "FULL", 0, -2_000),
+    RAPIDO("WAL", "NORMAL", 64L << 20, -8_000),
+    // WAL pero sincronizando cada commit: más lento, sin pérdida ante cortes de luz
+    DURADERO("WAL", "FULL", 64L << 20, -8_000);
+
+    static final String PROPIEDAD = "buscaminas.pragmas";
+    private static final int ESPERA_BLOQUEO_MS = 5_000;
+
+    private final String journalMode;
+    private final String synchronous;
+    private final long mmapSize;
+    // Negativo: tamaño en KiB en lugar de en páginas
+    private final int cacheSize;
+
+
+    PerfilPragmas(String journalMode, String synchronous, long mmapSize, int cacheSize) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.mmapSize = mmapSize;
+        this.cacheSize = cacheSize;
+    }
+
+
+    public static PerfilPragmas desdePropiedades() {
+        String valor = System.getProperty(PROPIEDAD);
+        if (valor == null || valor.isBlank()) {
+            return RAPIDO;
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Perfil de PRAGMA desconocido: " + valor, e);
+        }
+    }
+
+
+    void aplicar(Statement statement) throws SQLException {
+        statement.execute("PRAGMA journal_mode = " + journalMode);
+        statement.execute("PRAGMA synchronous = " + synchronous);
+        statement.execute("PRAGMA mmap_size = " + mmapSize);
+        statement.execute("PRAGMA cache_size = " + cacheSize);
+        statement.execute("PRAGMA busy_timeout = " + ESPERA_BLOQUEO_MS);
+    }
+
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+}
@@ -0,0 +1,99 @@
+package persistence;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+
+/**
+ * Un guardado (slot o partida) tal como lo guardan los almacenamientos que no
+ * usan SQLite: la cabecera y el tablero codificado con CodificadorTablero.
+ * Los slots usan nombrePartida; las partidas lo dejan en null.
+ */
+final class RegistroGuardado {
+    // Con milisegundos: el orden alfabético de la fecha es el cronológico, y los cursores la comparan así
+    private static final DateTimeFormatter FORMATO_FECHA =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneOffset.UTC);
+
+    int id;
+    String nombrePartida;
+    String nombreJugador;
+    long fechaCreacion;
+    long fechaUltimaModificacion;
+    int cantidadMinas;
+    int celdasReveladas;
+    int minasMarcadas;
+    boolean juegoTerminado;
+    boolean juegoGanado;
+    String estadoPartida;
+    int filas;
+    int columnas;
+    // null si el slot está vacío
+    byte[] datos;
+
+
+    RegistroGuardado copiar() {
+        RegistroGuardado copia = new RegistroGuardado();
+        copia.id = id;
+        copia.nombrePartida = nombrePartida;
+        copia.nombreJugador = nombreJugador;
+        copia.fechaCreacion = fechaCreacion;
+        copia.fechaUltimaModificacion = fechaUltimaModificacion;
+        copia.cantidadMinas = cantidadMinas;
+        copia.celdasReveladas = celdasReveladas;
+        copia.minasMarcadas = minasMarcadas;
+        copia.juegoTerminado = juegoTerminado;
+        copia.juegoGanado = juegoGanado;
+        copia.estadoPartida = estadoPartida;
+        copia.filas = filas;
+        copia.columnas = columnas;
+        copia.datos = datos == null ? null : datos.clone();
+        return copia;
+    }
+
+
+    String getFechaUltimaModificacionTexto() {
+        return FORMATO_FECHA.format(Instant.ofEpochMilli(fechaUltimaModificacion));
+    }
+
+
+    CursorPagina getCursor() {
+        return new CursorPagina(getFechaUltimaModificacionTexto(), id);
+    }
+
+
+    SlotGuardadoDAO.SlotInfo aSlotInfo() {
+        SlotGuardadoDAO.SlotInfo info = new SlotGuardadoDAO.SlotInfo();
+        info.setSlotId(id);
+        info.setNombrePartida(nombrePartida);
+        info.setNombreJugador(nombreJugador);
+        info.setFechaCreacion(new Timestamp(fechaCreacion));
+        info.setFechaUltimaModificacion(new Timestamp(fechaUltimaModificacion));
+        info.setCantidadMinas(cantidadMinas);
+        info.setCeldasReveladas(celdasReveladas);
+        info.setMinasMarcadas(minasMarcadas);
+        info.setJuegoTerminado(juegoTerminado);
+        info.setJuegoGanado(juegoGanado);
+        info.setEstadoPartida(estadoPartida);
+        info.setFilas(filas);
+        info.setColumnas(columnas);
+        return info;
+    }
+
+
+    PartidaDAO.PartidaInfo aPartidaInfo() {
+        PartidaDAO.PartidaInfo info = new PartidaDAO.PartidaInfo();
+        info.setId(id);
+        info.setNombreJugador(nombreJugador);
+        info.setFechaCreacion(new Timestamp(fechaCreacion));
+        info.setFechaUltimaModificacion(new Timestamp(fechaUltimaModificacion));
+        info.setCantidadMinas(cantidadMinas);
+        info.setCeldasReveladas(celdasReveladas);
+        info.setMinasMarcadas(minasMarcadas);
+        info.setJuegoTerminado(juegoTerminado);
+        info.setJuegoGanado(juegoGanado);
+        info.setEstadoPartida(estadoPartida);
+        return info;
+    }
+}
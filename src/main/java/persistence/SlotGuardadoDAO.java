@@ -1,6 +1,6 @@
 package persistence;
 
-import celda.Celda;
+import celda.CodificadorTablero;
 import celda.TableroBuscaminas;
 
 import java.sql.*;
@@ -9,23 +9,77 @@ import java.util.List;
 
 public class SlotGuardadoDAO {
     
+    // Todo lo que muestra SlotInfo; el BLOB del tablero no se lee en los listados
+    private static final String COLUMNAS_INFO = "slot_id, nombre_partida, nombre_jugador, fecha_creacion, " +
+                                                "fecha_ultima_modificacion, cantidad_minas, celdas_reveladas, " +
+                                                "minas_marcadas, juego_terminado, juego_ganado, estado_partida, filas, columnas";
+    
+
+    /**
+     * Crea un slot nuevo con la partida ya guardada y devuelve su ID. No hay
+     * límite de slots: los tres iniciales son solo los que existen de partida.
+     */
+    public int crearSlot(String nombrePartida, String nombreJugador, TableroBuscaminas tablero) throws SQLException {
+        return crearSlot(nombrePartida, nombreJugador, InstantaneaTablero.completa(tablero));
+    }
+    
+
+    int crearSlot(String nombrePartida, String nombreJugador, InstantaneaTablero tablero) throws SQLException {
+        String sqlSlot = "INSERT INTO slots_guardado (nombre_partida, nombre_jugador, cantidad_minas, " +
+                        "celdas_reveladas, minas_marcadas, juego_terminado, juego_ganado, estado_partida, " +
+                        "filas, columnas, version_formato, tablero_blob) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement psSlot = conn.prepareStatement(sqlSlot)) {
+            
+            psSlot.setString(1, nombrePartida);
+            psSlot.setString(2, nombreJugador);
+            psSlot.setInt(3, tablero.getCantidadMinas());
+            psSlot.setInt(4, tablero.getCeldasReveladas());
+            psSlot.setInt(5, tablero.getMinasMarcadas());
+            psSlot.setBoolean(6, tablero.isJuegoTerminado());
+            psSlot.setBoolean(7, tablero.isJuegoGanado());
+            psSlot.setString(8, tablero.getEstadoPartida());
+            psSlot.setInt(9, tablero.getFilas());
+            psSlot.setInt(10, tablero.getColumnas());
+            psSlot.setInt(11, CodificadorTablero.VERSION_FORMATO);
+            psSlot.setBytes(12, tablero.getDatos());
+            
+            psSlot.executeUpdate();
+            
+            // El driver de SQLite no implementa getGeneratedKeys()
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+                throw new SQLException("No se pudo obtener el ID del slot");
+            }
+            
+        } catch (SQLException e) {
+            throw new SQLException("Error al crear un slot nuevo: " + e.getMessage(), e);
+        }
+    }
+    
 
     public void guardarEnSlot(int slotId, String nombrePartida, String nombreJugador, TableroBuscaminas tablero) throws SQLException {
+        guardarEnSlot(slotId, nombrePartida, nombreJugador, InstantaneaTablero.completa(tablero));
+    }
+    
+
+    void guardarEnSlot(int slotId, String nombrePartida, String nombreJugador, InstantaneaTablero tablero) throws SQLException {
+        // El tablero completo va en un único BLOB: una sola fila escrita sea cual sea su tamaño
         String sqlSlot = "UPDATE slots_guardado SET nombre_partida = ?, nombre_jugador = ?, " +
                         "cantidad_minas = ?, celdas_reveladas = ?, minas_marcadas = ?, " +
                         "juego_terminado = ?, juego_ganado = ?, estado_partida = ?, " +
+                        "filas = ?, columnas = ?, version_formato = ?, tablero_blob = ?, " +
                         "fecha_ultima_modificacion = CURRENT_TIMESTAMP WHERE slot_id = ?";
         
-        String sqlCelda = "INSERT OR REPLACE INTO celdas_slots (slot_id, fila, columna, es_mina, " +
-                         "esta_revelada, esta_marcada, minas_adyacentes) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        
         try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement psSlot = conn.prepareStatement(sqlSlot);
-             PreparedStatement psCelda = conn.prepareStatement(sqlCelda)) {
+             PreparedStatement psSlot = conn.prepareStatement(sqlSlot)) {
             
             conn.setAutoCommit(false);
             
-            // Actualizar información del slot
             psSlot.setString(1, nombrePartida);
             psSlot.setString(2, nombreJugador);
             psSlot.setInt(3, tablero.getCantidadMinas());
@@ -33,59 +87,168 @@ public class SlotGuardadoDAO {
             psSlot.setInt(5, tablero.getMinasMarcadas());
             psSlot.setBoolean(6, tablero.isJuegoTerminado());
             psSlot.setBoolean(7, tablero.isJuegoGanado());
-            psSlot.setString(8, tablero.isJuegoTerminado() ? "terminada" : "en_curso");
-            psSlot.setInt(9, slotId);
+            psSlot.setString(8, tablero.getEstadoPartida());
+            psSlot.setInt(9, tablero.getFilas());
+            psSlot.setInt(10, tablero.getColumnas());
+            psSlot.setInt(11, CodificadorTablero.VERSION_FORMATO);
+            psSlot.setBytes(12, tablero.getDatos());
+            psSlot.setInt(13, slotId);
             
             int filasActualizadas = psSlot.executeUpdate();
             if (filasActualizadas == 0) {
                 throw new SQLException("Slot " + slotId + " no encontrado");
             }
             
-            // Limpiar celdas existentes del slot
-            String deleteCeldas = "DELETE FROM celdas_slots WHERE slot_id = ?";
-            try (PreparedStatement psDelete = conn.prepareStatement(deleteCeldas)) {
-                psDelete.setInt(1, slotId);
-                psDelete.executeUpdate();
+            // El BLOB nuevo ya incluye los cambios incrementales anteriores
+            eliminarCambios(conn, slotId);
+            
+            conn.commit();
+            
+        } catch (SQLException e) {
+            throw new SQLException("Error al guardar en slot " + slotId + ": " + e.getMessage(), e);
+        }
+    }
+    
+
+    /**
+     * Guardado incremental: escribe solo las celdas pendientes del tablero en
+     * cambios_slots y los contadores de la cabecera del slot. Requiere que el
+     * slot ya tenga un BLOB de las mismas dimensiones.
+     */
+    public void guardarCambiosEnSlot(int slotId, TableroBuscaminas tablero) throws SQLException {
+        guardarCambiosEnSlot(slotId, InstantaneaTablero.cambios(tablero));
+    }
+    
+
+    void guardarCambiosEnSlot(int slotId, InstantaneaTablero tablero) throws SQLException {
+        String sqlSlot = "UPDATE slots_guardado SET celdas_reveladas = ?, minas_marcadas = ?, " +
+                        "juego_terminado = ?, juego_ganado = ?, estado_partida = ?, " +
+                        "fecha_ultima_modificacion = CURRENT_TIMESTAMP " +
+                        "WHERE slot_id = ? AND tablero_blob IS NOT NULL AND filas = ? AND columnas = ?";
+        String sqlCambio = "INSERT OR REPLACE INTO cambios_slots (slot_id, indice, estado) VALUES (?, ?, ?)";
+        
+        int[] indices = tablero.getIndices();
+        byte[] estados = tablero.getEstados();
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement psSlot = conn.prepareStatement(sqlSlot);
+             PreparedStatement psCambio = conn.prepareStatement(sqlCambio)) {
+            
+            conn.setAutoCommit(false);
+            
+            psSlot.setInt(1, tablero.getCeldasReveladas());
+            psSlot.setInt(2, tablero.getMinasMarcadas());
+            psSlot.setBoolean(3, tablero.isJuegoTerminado());
+            psSlot.setBoolean(4, tablero.isJuegoGanado());
+            psSlot.setString(5, tablero.getEstadoPartida());
+            psSlot.setInt(6, slotId);
+            psSlot.setInt(7, tablero.getFilas());
+            psSlot.setInt(8, tablero.getColumnas());
+            
+            if (psSlot.executeUpdate() == 0) {
+                throw new SQLException("El slot " + slotId + " no tiene un tablero compatible guardado");
             }
             
-            // Insertar celdas del tablero
-            for (int fila = 0; fila < tablero.getTamano(); fila++) {
-                for (int columna = 0; columna < tablero.getTamano(); columna++) {
-                    Celda celda = tablero.getCelda(fila, columna);
-                    
-                    psCelda.setInt(1, slotId);
-                    psCelda.setInt(2, fila);
-                    psCelda.setInt(3, columna);
-                    psCelda.setBoolean(4, celda.esMina());
-                    psCelda.setBoolean(5, celda.estaRevelada());
-                    psCelda.setBoolean(6, celda.estaMarcada());
-                    psCelda.setInt(7, celda.getMinasAdyacentes());
-                    
-                    psCelda.executeUpdate();
-                }
+            for (int i = 0; i < indices.length; i++) {
+                psCambio.setInt(1, slotId);
+                psCambio.setInt(2, indices[i]);
+                psCambio.setInt(3, estados[i]);
+                psCambio.addBatch();
             }
+            psCambio.executeBatch();
             
             conn.commit();
             
         } catch (SQLException e) {
-            throw new SQLException("Error al guardar en slot " + slotId + ": " + e.getMessage(), e);
+            throw new SQLException("Error al guardar cambios en slot " + slotId + ": " + e.getMessage(), e);
+        }
+    }
+    
+
+    // Pliega los cambios incrementales del slot en su BLOB y los elimina
+    public void compactarSlot(int slotId) throws SQLException {
+        String sqlSlot = "SELECT filas, columnas, tablero_blob FROM slots_guardado WHERE slot_id = ?";
+        String sqlActualizar = "UPDATE slots_guardado SET tablero_blob = ? WHERE slot_id = ?";
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            
+            byte[] datos;
+            int totalCeldas;
+            try (PreparedStatement ps = conn.prepareStatement(sqlSlot)) {
+                ps.setInt(1, slotId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next() || rs.getBytes("tablero_blob") == null) {
+                        return;
+                    }
+                    datos = rs.getBytes("tablero_blob");
+                    totalCeldas = rs.getInt("filas") * rs.getInt("columnas");
+                }
+            }
+            
+            if (!aplicarCambios(conn, slotId, datos, totalCeldas)) {
+                return;
+            }
+            
+            try (PreparedStatement ps = conn.prepareStatement(sqlActualizar)) {
+                ps.setBytes(1, datos);
+                ps.setInt(2, slotId);
+                ps.executeUpdate();
+            }
+            eliminarCambios(conn, slotId);
+            
+            conn.commit();
+            
+        } catch (SQLException | IllegalArgumentException e) {
+            throw new SQLException("Error al compactar slot " + slotId + ": " + e.getMessage(), e);
+        }
+    }
+    
+
+    // Aplica sobre el BLOB los cambios pendientes del slot; devuelve false si no había ninguno
+    private static boolean aplicarCambios(Connection conn, int slotId, byte[] datos, int totalCeldas) throws SQLException {
+        List<int[]> cambios = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT indice, estado FROM cambios_slots WHERE slot_id = ?")) {
+            ps.setInt(1, slotId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    cambios.add(new int[]{rs.getInt(1), rs.getInt(2)});
+                }
+            }
+        }
+        if (cambios.isEmpty()) {
+            return false;
+        }
+        
+        int[] indices = new int[cambios.size()];
+        byte[] estados = new byte[cambios.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = cambios.get(i)[0];
+            estados[i] = (byte) cambios.get(i)[1];
+        }
+        CodificadorTablero.aplicarCambios(datos, totalCeldas, indices, estados);
+        return true;
+    }
+    
+
+    private static void eliminarCambios(Connection conn, int slotId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM cambios_slots WHERE slot_id = ?")) {
+            ps.setInt(1, slotId);
+            ps.executeUpdate();
         }
     }
     
 
     public TableroBuscaminas cargarDesdeSlot(int slotId) throws SQLException {
-        String sqlSlot = "SELECT * FROM slots_guardado WHERE slot_id = ?";
-        String sqlCeldas = "SELECT * FROM celdas_slots WHERE slot_id = ? ORDER BY fila, columna";
+        String sqlSlot = "SELECT nombre_jugador, cantidad_minas, filas, columnas, tablero_blob " +
+                        "FROM slots_guardado WHERE slot_id = ?";
         
         try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement psSlot = conn.prepareStatement(sqlSlot);
-             PreparedStatement psCeldas = conn.prepareStatement(sqlCeldas)) {
+             PreparedStatement psSlot = conn.prepareStatement(sqlSlot)) {
             
             psSlot.setInt(1, slotId);
-            psCeldas.setInt(1, slotId);
             
-            try (ResultSet rsSlot = psSlot.executeQuery();
-                 ResultSet rsCeldas = psCeldas.executeQuery()) {
+            try (ResultSet rsSlot = psSlot.executeQuery()) {
                 
                 if (!rsSlot.next()) {
                     throw new SQLException("Slot " + slotId + " no encontrado");
@@ -93,53 +256,25 @@ public class SlotGuardadoDAO {
                 
                 // Verificar si el slot está vacío
                 String nombreJugador = rsSlot.getString("nombre_jugador");
-                if ("Vacío".equals(nombreJugador)) {
+                byte[] datos = rsSlot.getBytes("tablero_blob");
+                if ("Vacío".equals(nombreJugador) || datos == null) {
                     throw new SQLException("El slot " + slotId + " está vacío");
                 }
                 
-                // Crear tablero con la cantidad de minas guardada
-                int cantidadMinas = rsSlot.getInt("cantidad_minas");
-                TableroBuscaminas tablero = new TableroBuscaminas(cantidadMinas);
-                
-                // Cargar estado de las celdas
-                while (rsCeldas.next()) {
-                    int fila = rsCeldas.getInt("fila");
-                    int columna = rsCeldas.getInt("columna");
-                    boolean esMina = rsCeldas.getBoolean("es_mina");
-                    boolean estaRevelada = rsCeldas.getBoolean("esta_revelada");
-                    boolean estaMarcada = rsCeldas.getBoolean("esta_marcada");
-                    int minasAdyacentes = rsCeldas.getInt("minas_adyacentes");
-                    
-                    Celda celda = tablero.getCelda(fila, columna);
-                    
-                    if (esMina) {
-                        celda.establecerComoMina();
-                    }
-                    
-                    if (estaRevelada) {
-                        celda.revelar();
-                    }
-                    
-                    if (estaMarcada) {
-                        celda.alternarMarcado();
-                    }
-                    
-                    // Establecer minas adyacentes
-                    for (int i = 0; i < minasAdyacentes; i++) {
-                        celda.incrementarMinasAdyacentes();
-                    }
-                }
-                
-                return tablero;
+                // Las adyacencias y los contadores de partida se reconstruyen a partir de los mapas de bits
+                int filas = rsSlot.getInt("filas");
+                int columnas = rsSlot.getInt("columnas");
+                aplicarCambios(conn, slotId, datos, filas * columnas);
+                return CodificadorTablero.decodificar(datos, filas, columnas, rsSlot.getInt("cantidad_minas"));
             }
-        } catch (SQLException e) {
+        } catch (SQLException | IllegalArgumentException e) {
             throw new SQLException("Error al cargar desde slot " + slotId + ": " + e.getMessage(), e);
         }
     }
     
 
     public List<SlotInfo> obtenerInfoSlots() throws SQLException {
-        String sql = "SELECT * FROM slots_guardado ORDER BY slot_id";
+        String sql = "SELECT " + COLUMNAS_INFO + " FROM slots_guardado ORDER BY slot_id";
         
         List<SlotInfo> slots = new ArrayList<>();
         
@@ -148,20 +283,7 @@ public class SlotGuardadoDAO {
              ResultSet rs = ps.executeQuery()) {
             
             while (rs.next()) {
-                SlotInfo info = new SlotInfo();
-                info.setSlotId(rs.getInt("slot_id"));
-                info.setNombrePartida(rs.getString("nombre_partida"));
-                info.setNombreJugador(rs.getString("nombre_jugador"));
-                info.setFechaCreacion(rs.getTimestamp("fecha_creacion"));
-                info.setFechaUltimaModificacion(rs.getTimestamp("fecha_ultima_modificacion"));
-                info.setCantidadMinas(rs.getInt("cantidad_minas"));
-                info.setCeldasReveladas(rs.getInt("celdas_reveladas"));
-                info.setMinasMarcadas(rs.getInt("minas_marcadas"));
-                info.setJuegoTerminado(rs.getBoolean("juego_terminado"));
-                info.setJuegoGanado(rs.getBoolean("juego_ganado"));
-                info.setEstadoPartida(rs.getString("estado_partida"));
-                
-                slots.add(info);
+                slots.add(leerSlotInfo(rs));
             }
         } catch (SQLException e) {
             throw new SQLException("Error al obtener información de slots: " + e.getMessage(), e);
@@ -171,6 +293,58 @@ public class SlotGuardadoDAO {
     }
     
 
+    /**
+     * Página del listado de slots, del modificado más recientemente al más
+     * antiguo. Con desde == null se obtiene la primera página; para las
+     * siguientes se pasa el cursor devuelto por la anterior.
+     */
+    public PaginaGuardados<SlotInfo> obtenerPaginaSlots(FiltroGuardados filtro, CursorPagina desde, int tamano) throws SQLException {
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            return ConsultaPaginada.consultar(conn, COLUMNAS_INFO, "slots_guardado", "slot_id",
+                                              filtro, desde, tamano, SlotGuardadoDAO::leerSlotInfo);
+        } catch (SQLException e) {
+            throw new SQLException("Error al obtener la página de slots (" + filtro + "): " + e.getMessage(), e);
+        }
+    }
+    
+
+    private static SlotInfo leerSlotInfo(ResultSet rs) throws SQLException {
+        SlotInfo info = new SlotInfo();
+        info.setSlotId(rs.getInt("slot_id"));
+        info.setNombrePartida(rs.getString("nombre_partida"));
+        info.setNombreJugador(rs.getString("nombre_jugador"));
+        info.setFechaCreacion(rs.getTimestamp("fecha_creacion"));
+        info.setFechaUltimaModificacion(rs.getTimestamp("fecha_ultima_modificacion"));
+        info.setCantidadMinas(rs.getInt("cantidad_minas"));
+        info.setCeldasReveladas(rs.getInt("celdas_reveladas"));
+        info.setMinasMarcadas(rs.getInt("minas_marcadas"));
+        info.setJuegoTerminado(rs.getBoolean("juego_terminado"));
+        info.setJuegoGanado(rs.getBoolean("juego_ganado"));
+        info.setEstadoPartida(rs.getString("estado_partida"));
+        info.setFilas(rs.getInt("filas"));
+        info.setColumnas(rs.getInt("columnas"));
+        return info;
+    }
+    
+
+    // Devuelve null si el slot no existe
+    public SlotInfo obtenerInfoSlot(int slotId) throws SQLException {
+        String sql = "SELECT " + COLUMNAS_INFO + " FROM slots_guardado WHERE slot_id = ?";
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            
+            ps.setInt(1, slotId);
+            
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? leerSlotInfo(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Error al obtener información del slot " + slotId + ": " + e.getMessage(), e);
+        }
+    }
+    
+
     public boolean slotEstaOcupado(int slotId) throws SQLException {
         String sql = "SELECT nombre_jugador FROM slots_guardado WHERE slot_id = ?";
         
@@ -196,7 +370,7 @@ public class SlotGuardadoDAO {
         String sqlSlot = "UPDATE slots_guardado SET nombre_partida = ?, nombre_jugador = ?, " +
                         "cantidad_minas = 60, celdas_reveladas = 0, minas_marcadas = 0, " +
                         "juego_terminado = 0, juego_ganado = 0, estado_partida = 'en_curso', " +
-                        "fecha_ultima_modificacion = CURRENT_TIMESTAMP WHERE slot_id = ?";
+                        "tablero_blob = NULL, fecha_ultima_modificacion = CURRENT_TIMESTAMP WHERE slot_id = ?";
         
         try (Connection conn = DatabaseManager.getInstance().getConnection();
              PreparedStatement psSlot = conn.prepareStatement(sqlSlot)) {
@@ -219,6 +393,7 @@ public class SlotGuardadoDAO {
                 psDelete.setInt(1, slotId);
                 psDelete.executeUpdate();
             }
+            eliminarCambios(conn, slotId);
             
             conn.commit();
             
@@ -240,6 +415,8 @@ public class SlotGuardadoDAO {
         private boolean juegoTerminado;
         private boolean juegoGanado;
         private String estadoPartida;
+        private int filas;
+        private int columnas;
         
         // Getters y Setters
         public int getSlotId() { return slotId; }
@@ -275,10 +452,39 @@ public class SlotGuardadoDAO {
         public String getEstadoPartida() { return estadoPartida; }
         public void setEstadoPartida(String estadoPartida) { this.estadoPartida = estadoPartida; }
         
+        public int getFilas() { return filas; }
+        public void setFilas(int filas) { this.filas = filas; }
+        
+        public int getColumnas() { return columnas; }
+        public void setColumnas(int columnas) { this.columnas = columnas; }
+        
+        public int getTotalCeldas() {
+            return filas * columnas;
+        }
+        
         public boolean estaOcupado() {
             return !"Vacío".equals(nombreJugador);
         }
         
+        // Copia independiente, para que quien la reciba no altere la caché de metadatos
+        SlotInfo copiar() {
+            SlotInfo copia = new SlotInfo();
+            copia.slotId = slotId;
+            copia.nombrePartida = nombrePartida;
+            copia.nombreJugador = nombreJugador;
+            copia.fechaCreacion = fechaCreacion;
+            copia.fechaUltimaModificacion = fechaUltimaModificacion;
+            copia.cantidadMinas = cantidadMinas;
+            copia.celdasReveladas = celdasReveladas;
+            copia.minasMarcadas = minasMarcadas;
+            copia.juegoTerminado = juegoTerminado;
+            copia.juegoGanado = juegoGanado;
+            copia.estadoPartida = estadoPartida;
+            copia.filas = filas;
+            copia.columnas = columnas;
+            return copia;
+        }
+        
         @Override
         public String toString() {
             if (estaOcupado()) {
@@ -1,46 +1,279 @@
 package persistence;
 
 import celda.TableroBuscaminas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.sql.SQLException;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * Acceso a los slots de guardado. Todo pasa por un escritor en segundo plano:
+ * los métodos *Async vuelven enseguida con un CompletableFuture y los métodos
+ * síncronos esperan a ese mismo resultado.
+ *
+ * El tablero solo se lee en el hilo que llama (normalmente el de la interfaz),
+ * que toma una instantánea antes de encolar el guardado.
+ *
+ * Los metadatos de los slots se sirven desde una caché que los guardados
+ * mantienen al día: con ella, abrir los diálogos no lee del disco. La caché
+ * es de cada instancia, así que lo que se escriba por otra vía no se ve en
+ * ella; la aplicación usa un único servicio.
+ *
+ * El almacenamiento se elige con TipoAlmacenamiento; el constructor sin
+ * argumentos usa el de la propiedad buscaminas.almacenamiento.
+ *
+ * Las jugadas que llegan por guardarJugadaAsync no reescriben el slot: se
+ * añaden a su diario (ver DiarioJugadas) y cada JUGADAS_POR_COMPACTACION se
+ * pliegan en la instantánea del slot. Al crear el servicio se recuperan los
+ * diarios que un cierre inesperado dejó sin plegar.
+ */
 public class SlotGuardadoService {
+    private static final Logger logger = LoggerFactory.getLogger(SlotGuardadoService.class);
     
-    private SlotGuardadoDAO slotDAO;
+    // Cambios incrementales acumulados a partir de los cuales se pliegan en el BLOB
+    static final int MINIMO_CELDAS_COMPACTACION = 64;
+    // Espera máxima al cerrar para que se escriba lo encolado
+    static final long TIEMPO_MAXIMO_CIERRE_MS = 5_000;
+    // Jugadas del diario a partir de las cuales se pliegan en la instantánea del slot
+    static final int JUGADAS_POR_COMPACTACION = 128;
+    
+    private final AlmacenamientoPartidas almacenamiento;
+    private final EscritorDiferido escritor;
+    private final CacheMetadatosSlots cache = new CacheMetadatosSlots();
+    // null si este almacenamiento no lleva diario
+    private final Path directorioDiarios;
+    private final Map<Integer, DiarioJugadas> diarios = new HashMap<>();
+    
+    // Slot cuyo contenido coincide con tableroSincronizado salvo sus celdas pendientes
+    private Integer slotSincronizado;
+    private TableroBuscaminas tableroSincronizado;
+    private int celdasSinCompactar;
+    // Jugadas del slot sincronizado que solo están en su diario
+    private int jugadasSinCompactar;
     
     public SlotGuardadoService() {
-        this.slotDAO = new SlotGuardadoDAO();
+        this(TipoAlmacenamiento.desdePropiedades());
+    }
+    
+    public SlotGuardadoService(TipoAlmacenamiento tipo) {
+        this(tipo, tipo.getDirectorioDiarios());
+    }
+    
+    SlotGuardadoService(TipoAlmacenamiento tipo, Path directorioDiarios) {
+        this.almacenamiento = tipo.obtener();
+        this.escritor = new EscritorDiferido(almacenamiento);
+        this.directorioDiarios = directorioDiarios;
+        if (directorioDiarios != null) {
+            // Primera tarea del escritor: cualquier lectura posterior ya ve lo recuperado
+            escritor.ejecutar(() -> {
+                recuperarDiarios();
+                return null;
+            });
+        }
     }
     
     /**
      * Guarda una partida en un slot específico
-     * @param slotId ID del slot (1, 2, o 3)
+     * @param slotId ID del slot
      * @param nombrePartida Nombre personalizado de la partida
      * @param nombreJugador Nombre del jugador
      * @param tablero Tablero del juego
      * @throws Exception si hay error al guardar
      */
     public void guardarEnSlot(int slotId, String nombrePartida, String nombreJugador, TableroBuscaminas tablero) throws Exception {
-        try {
-            slotDAO.guardarEnSlot(slotId, nombrePartida, nombreJugador, tablero);
-        } catch (SQLException e) {
-            throw new Exception("Error al guardar en slot " + slotId + ": " + e.getMessage(), e);
+        esperar(guardarEnSlotAsync(slotId, nombrePartida, nombreJugador, tablero));
+    }
+    
+    /**
+     * Encola el guardado completo de una partida en un slot
+     * @param slotId ID del slot
+     * @param nombrePartida Nombre personalizado de la partida
+     * @param nombreJugador Nombre del jugador
+     * @param tablero Tablero del juego, que se copia antes de volver
+     * @return Resultado que se completa al quedar escrito
+     */
+    public CompletableFuture<Void> guardarEnSlotAsync(int slotId, String nombrePartida, String nombreJugador, TableroBuscaminas tablero) {
+        InstantaneaTablero instantanea = InstantaneaTablero.completa(tablero);
+        long jugadasCubiertas;
+        synchronized (this) {
+            jugadasCubiertas = prepararDiario(slotId, tablero);
+            sincronizar(slotId, tablero);
+        }
+        cache.actualizar(slotId, info -> {
+            info.setNombrePartida(nombrePartida);
+            info.setNombreJugador(nombreJugador);
+            copiarContadores(instantanea, info);
+        });
+        CompletableFuture<Void> guardado = escritor.guardar(slotId, nombrePartida, nombreJugador, instantanea, false);
+        descartarTrasGuardar(slotId, guardado, jugadasCubiertas);
+        return vigilar(slotId, guardado, "Error al guardar en slot " + slotId);
+    }
+    
+    /**
+     * Guarda la partida en un slot nuevo
+     * @param nombrePartida Nombre personalizado de la partida
+     * @param nombreJugador Nombre del jugador
+     * @param tablero Tablero del juego
+     * @return ID del slot creado
+     * @throws Exception si hay error al guardar
+     */
+    public int crearSlot(String nombrePartida, String nombreJugador, TableroBuscaminas tablero) throws Exception {
+        return esperar(crearSlotAsync(nombrePartida, nombreJugador, tablero));
+    }
+    
+    /**
+     * Encola la creación de un slot nuevo con la partida. El tablero queda
+     * sincronizado con ese slot cuando se conoce su ID, así que el guardado
+     * automático puede seguir con cambios incrementales.
+     * @return ID del slot creado
+     */
+    public CompletableFuture<Integer> crearSlotAsync(String nombrePartida, String nombreJugador, TableroBuscaminas tablero) {
+        InstantaneaTablero instantanea = InstantaneaTablero.completa(tablero);
+        desincronizar(tablero);
+        return escritor.ejecutar(() -> {
+            try {
+                int slotId = almacenamiento.crearSlot(nombrePartida, nombreJugador, instantanea);
+                adoptar(slotId, tablero);
+                
+                SlotGuardadoDAO.SlotInfo info = new SlotGuardadoDAO.SlotInfo();
+                info.setSlotId(slotId);
+                info.setNombrePartida(nombrePartida);
+                info.setNombreJugador(nombreJugador);
+                info.setFechaCreacion(new Timestamp(System.currentTimeMillis()));
+                copiarContadores(instantanea, info);
+                cache.agregar(info);
+                return slotId;
+            } catch (AlmacenamientoException e) {
+                throw new Exception("Error al crear un slot nuevo: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    /**
+     * Guardado automático tras cada jugada. Si el slot ya contiene este mismo
+     * tablero solo se escriben las celdas cambiadas desde el último guardado y
+     * los contadores de la cabecera; si no, se guarda completo.
+     * @param slotId ID del slot
+     * @param nombrePartida Nombre usado si hace falta un guardado completo
+     * @param nombreJugador Nombre del jugador
+     * @param tablero Tablero del juego
+     * @throws Exception si hay error al guardar
+     */
+    public void guardarAutomaticamente(int slotId, String nombrePartida, String nombreJugador, TableroBuscaminas tablero) throws Exception {
+        esperar(guardarAutomaticamenteAsync(slotId, nombrePartida, nombreJugador, tablero));
+    }
+    
+    /**
+     * Versión encolada de guardarAutomaticamente. Los guardados seguidos del
+     * mismo slot que aún no se han escrito se combinan en uno solo.
+     * @return Resultado que se completa al quedar escrito
+     */
+    public CompletableFuture<Void> guardarAutomaticamenteAsync(int slotId, String nombrePartida, String nombreJugador, TableroBuscaminas tablero) {
+        InstantaneaTablero instantanea;
+        boolean compactar;
+        synchronized (this) {
+            if (!estaSincronizado(slotId, tablero)) {
+                return guardarEnSlotAsync(slotId, nombrePartida, nombreJugador, tablero);
+            }
+            if (tablero.getCantidadCeldasPendientes() == 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+    
+            instantanea = InstantaneaTablero.cambios(tablero);
+            tablero.marcarGuardado();
+    
+            celdasSinCompactar += instantanea.getCantidadCambios();
+            compactar = celdasSinCompactar >= umbralCompactacion(tablero);
+            if (compactar) {
+                celdasSinCompactar = 0;
+            }
         }
+        cache.actualizar(slotId, info -> copiarContadores(instantanea, info));
+        return vigilar(slotId, escritor.guardar(slotId, null, null, instantanea, compactar),
+                       "Error al guardar cambios en slot " + slotId);
+    }
+    
+    /**
+     * Guardado automático de una jugada ya aplicada al tablero. Si el slot
+     * contiene este mismo tablero la jugada solo se añade a su diario, y el
+     * resultado se completa cuando está en disco; varias jugadas seguidas
+     * comparten la misma sincronización. Si no, se guarda completo. Sin
+     * diario equivale a guardarAutomaticamenteAsync.
+     * @param tipo Revelar o marcar
+     * @param fila Fila de la celda jugada
+     * @param columna Columna de la celda jugada
+     * @return Resultado que se completa al quedar la jugada en disco
+     */
+    public CompletableFuture<Void> guardarJugadaAsync(int slotId, String nombrePartida, String nombreJugador,
+                                                     TableroBuscaminas tablero, TipoJugada tipo, int fila, int columna) {
+        if (directorioDiarios == null) {
+            return guardarAutomaticamenteAsync(slotId, nombrePartida, nombreJugador, tablero);
+        }
+        CompletableFuture<Void> sincronizacion;
+        synchronized (this) {
+            if (!estaSincronizado(slotId, tablero)) {
+                return guardarEnSlotAsync(slotId, nombrePartida, nombreJugador, tablero);
+            }
+            try {
+                DiarioJugadas diario = diarios.get(slotId);
+                if (diario == null) {
+                    diario = DiarioJugadas.abrir(archivoDiario(slotId), tablero);
+                    diarios.put(slotId, diario);
+                }
+                diario.anotar(tablero, tipo, fila, columna);
+                sincronizacion = diario.sincronizarEn(escritor);
+            } catch (IOException e) {
+                logger.warn("No se pudo anotar la jugada en el diario del slot {}: {}", slotId, e.getMessage());
+                return guardarAutomaticamenteAsync(slotId, nombrePartida, nombreJugador, tablero);
+            }
+            if (++jugadasSinCompactar >= JUGADAS_POR_COMPACTACION) {
+                compactarDiario();
+            }
+        }
+        // La jugada no cambia la fecha del slot en disco hasta que se compacta el diario
+        cache.actualizarEnSuSitio(slotId, info -> copiarContadores(tablero, info));
+        return sincronizacion;
     }
     
     /**
      * Carga una partida desde un slot específico
-     * @param slotId ID del slot (1, 2, o 3)
+     * @param slotId ID del slot
      * @return Tablero cargado
      * @throws Exception si hay error al cargar
      */
     public TableroBuscaminas cargarDesdeSlot(int slotId) throws Exception {
-        try {
-            return slotDAO.cargarDesdeSlot(slotId);
-        } catch (SQLException e) {
-            throw new Exception("Error al cargar desde slot " + slotId + ": " + e.getMessage(), e);
+        return esperar(cargarDesdeSlotAsync(slotId));
+    }
+    
+    /**
+     * Encola la carga de un slot; se ejecuta después de los guardados ya pedidos
+     * @param slotId ID del slot
+     * @return Tablero cargado
+     */
+    public CompletableFuture<TableroBuscaminas> cargarDesdeSlotAsync(int slotId) {
+        synchronized (this) {
+            // Encolado antes que la carga, para que esta lo vea
+            compactarDiario();
         }
+        return escritor.ejecutar(() -> {
+            try {
+                TableroBuscaminas tablero = almacenamiento.cargarDesdeSlot(slotId);
+                sincronizar(slotId, tablero);
+                return tablero;
+            } catch (AlmacenamientoException e) {
+                throw new Exception("Error al cargar desde slot " + slotId + ": " + e.getMessage(), e);
+            }
+        });
     }
     
     /**
@@ -49,11 +282,53 @@ public class SlotGuardadoService {
      * @throws Exception si hay error al obtener la información
      */
     public List<SlotGuardadoDAO.SlotInfo> obtenerInfoSlots() throws Exception {
-        try {
-            return slotDAO.obtenerInfoSlots();
-        } catch (SQLException e) {
-            throw new Exception("Error al obtener información de slots: " + e.getMessage(), e);
+        return esperar(obtenerInfoSlotsAsync());
+    }
+    
+    public CompletableFuture<List<SlotGuardadoDAO.SlotInfo>> obtenerInfoSlotsAsync() {
+        List<SlotGuardadoDAO.SlotInfo> enCache = cache.obtenerTodos();
+        if (enCache != null) {
+            return CompletableFuture.completedFuture(enCache);
         }
+        long generacion = cache.getGeneracion();
+        return escritor.ejecutar(() -> {
+            try {
+                List<SlotGuardadoDAO.SlotInfo> slots = almacenamiento.obtenerInfoSlots();
+                cache.guardarTodos(generacion, slots);
+                return slots;
+            } catch (AlmacenamientoException e) {
+                throw new Exception("Error al obtener información de slots: " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    /**
+     * Obtiene una página del listado de slots, del más reciente al más antiguo
+     * @param filtro Criterio del listado
+     * @param desde Cursor devuelto por la página anterior, o null para la primera
+     * @param tamano Número máximo de slots de la página
+     * @return Slots de la página y cursor de la siguiente
+     * @throws Exception si hay error al obtener la página
+     */
+    public PaginaGuardados<SlotGuardadoDAO.SlotInfo> obtenerPaginaSlots(FiltroGuardados filtro, CursorPagina desde, int tamano) throws Exception {
+        return esperar(obtenerPaginaSlotsAsync(filtro, desde, tamano));
+    }
+    
+    public CompletableFuture<PaginaGuardados<SlotGuardadoDAO.SlotInfo>> obtenerPaginaSlotsAsync(FiltroGuardados filtro, CursorPagina desde, int tamano) {
+        PaginaGuardados<SlotGuardadoDAO.SlotInfo> enCache = cache.obtenerPagina(filtro, desde, tamano);
+        if (enCache != null) {
+            return CompletableFuture.completedFuture(enCache);
+        }
+        long generacion = cache.getGeneracion();
+        return escritor.ejecutar(() -> {
+            try {
+                PaginaGuardados<SlotGuardadoDAO.SlotInfo> pagina = almacenamiento.obtenerPaginaSlots(filtro, desde, tamano);
+                cache.guardarPagina(generacion, filtro, desde, tamano, pagina);
+                return pagina;
+            } catch (AlmacenamientoException e) {
+                throw new Exception("Error al obtener la página de slots: " + e.getMessage(), e);
+            }
+        });
     }
     
     /**
@@ -63,11 +338,20 @@ public class SlotGuardadoService {
      * @throws Exception si hay error al verificar
      */
     public boolean slotEstaOcupado(int slotId) throws Exception {
-        try {
-            return slotDAO.slotEstaOcupado(slotId);
-        } catch (SQLException e) {
-            throw new Exception("Error al verificar slot " + slotId + ": " + e.getMessage(), e);
+        SlotGuardadoDAO.SlotInfo enCache = cache.obtener(slotId);
+        if (enCache != null) {
+            return enCache.estaOcupado();
         }
+        long generacion = cache.getGeneracion();
+        return esperar(escritor.ejecutar(() -> {
+            try {
+                SlotGuardadoDAO.SlotInfo info = almacenamiento.obtenerInfoSlot(slotId);
+                cache.guardarSlot(generacion, info);
+                return info != null && info.estaOcupado();
+            } catch (AlmacenamientoException e) {
+                throw new Exception("Error al verificar slot " + slotId + ": " + e.getMessage(), e);
+            }
+        }));
     }
     
     /**
@@ -76,19 +360,328 @@ public class SlotGuardadoService {
      * @throws Exception si hay error al limpiar
      */
     public void limpiarSlot(int slotId) throws Exception {
-        try {
-            slotDAO.limpiarSlot(slotId);
-        } catch (SQLException e) {
-            throw new Exception("Error al limpiar slot " + slotId + ": " + e.getMessage(), e);
-        }
+        esperar(limpiarSlotAsync(slotId));
+    }
+    
+    public CompletableFuture<Void> limpiarSlotAsync(int slotId) {
+        olvidarSincronizacion(slotId);
+        eliminarDiario(slotId);
+        cache.actualizar(slotId, info -> {
+            // Los mismos valores que deja limpiarSlot en cualquier almacenamiento
+            info.setNombrePartida("Slot " + slotId);
+            info.setNombreJugador("Vacío");
+            info.setCantidadMinas(60);
+            info.setCeldasReveladas(0);
+            info.setMinasMarcadas(0);
+            info.setJuegoTerminado(false);
+            info.setJuegoGanado(false);
+            info.setEstadoPartida("en_curso");
+        });
+        return escritor.ejecutar(() -> {
+            try {
+                almacenamiento.limpiarSlot(slotId);
+                return null;
+            } catch (AlmacenamientoException e) {
+                cache.invalidar();
+                throw new Exception("Error al limpiar slot " + slotId + ": " + e.getMessage(), e);
+            }
+        });
     }
     
     /**
-     * Verifica si la base de datos está disponible
+     * Verifica si el almacenamiento está disponible
      * @return true si está disponible, false en caso contrario
      */
     public boolean isDatabaseAvailable() {
-        return DatabaseManager.getInstance().isDatabaseAvailable();
+        return almacenamiento.estaDisponible();
+    }
+    
+    public CompletableFuture<Boolean> isDatabaseAvailableAsync() {
+        return escritor.ejecutar(this::isDatabaseAvailable);
+    }
+    
+    /**
+     * Espera a que se escriban los guardados encolados y detiene el escritor.
+     * Después de cerrar el servicio ya no acepta más operaciones.
+     * @return false si quedaron escrituras sin completar
+     */
+    public boolean cerrar() {
+        synchronized (this) {
+            compactarDiario();
+        }
+        boolean completo = escritor.cerrar(TIEMPO_MAXIMO_CIERRE_MS);
+        synchronized (this) {
+            for (DiarioJugadas diario : diarios.values()) {
+                try {
+                    diario.cerrar();
+                } catch (IOException e) {
+                    logger.warn("Error al cerrar el diario {}: {}", diario.getArchivo(), e.getMessage());
+                }
+            }
+            diarios.clear();
+        }
+        return completo;
+    }
+    
+    /**
+     * Consultas de metadatos de slots resueltas desde la caché, sin tocar el disco
+     */
+    public long getAciertosCache() {
+        return cache.getAciertos();
+    }
+    
+    /**
+     * Consultas de metadatos de slots que tuvieron que ir al almacenamiento
+     */
+    public long getFallosCache() {
+        return cache.getFallos();
+    }
+    
+    
+    private synchronized boolean estaSincronizado(int slotId, TableroBuscaminas tablero) {
+        return tablero == tableroSincronizado && slotSincronizado != null && slotSincronizado == slotId
+               && !tablero.requiereGuardadoCompleto();
+    }
+    
+    
+    private synchronized void sincronizar(int slotId, TableroBuscaminas tablero) {
+        if (slotSincronizado == null || slotSincronizado != slotId) {
+            compactarDiario();
+        }
+        jugadasSinCompactar = 0;
+        tablero.marcarGuardado();
+        slotSincronizado = slotId;
+        tableroSincronizado = tablero;
+        celdasSinCompactar = 0;
+    }
+    
+    
+    // El tablero va a un slot aún sin ID: hasta conocerlo no hay slot sincronizado
+    private synchronized void desincronizar(TableroBuscaminas tablero) {
+        compactarDiario();
+        jugadasSinCompactar = 0;
+        tablero.marcarGuardado();
+        slotSincronizado = null;
+        tableroSincronizado = null;
+    }
+    
+    
+    // Llamado desde el escritor: el tablero no se toca, solo se anota a qué slot corresponde
+    private synchronized void adoptar(int slotId, TableroBuscaminas tablero) {
+        if (tableroSincronizado == null) {
+            slotSincronizado = slotId;
+            tableroSincronizado = tablero;
+            celdasSinCompactar = 0;
+        }
+    }
+    
+    
+    // Lo que quede en el diario se recupera en el próximo arranque o lo cubre el siguiente guardado completo
+    private synchronized void olvidarSincronizacion(int slotId) {
+        if (slotSincronizado != null && slotSincronizado == slotId) {
+            slotSincronizado = null;
+            tableroSincronizado = null;
+            jugadasSinCompactar = 0;
+        }
+    }
+    
+    
+    // ========== DIARIOS DE JUGADAS ==========
+    
+    private Path archivoDiario(int slotId) {
+        return directorioDiarios.resolve("slot-" + slotId + ".diario");
+    }
+    
+    
+    /**
+     * Con el monitor tomado, antes de un guardado completo en el slot.
+     * Devuelve cuántas jugadas de su diario cubrirá ese guardado, que se
+     * descartan cuando esté escrito. Si el tablero es otra partida el diario
+     * se reinicia ya: sus jugadas no se podrán aplicar a lo que se va a guardar.
+     */
+    private long prepararDiario(int slotId, TableroBuscaminas tablero) {
+        DiarioJugadas diario = diarios.get(slotId);
+        if (diario == null) {
+            return 0;
+        }
+        if (diario.esDe(tablero)) {
+            return diario.getAnotadas();
+        }
+        try {
+            diario.reiniciar(tablero);
+        } catch (IOException e) {
+            logger.warn("No se pudo reiniciar el diario del slot {}: {}", slotId, e.getMessage());
+        }
+        return 0;
+    }
+    
+    
+    // Con el monitor tomado: pliega en el slot sincronizado lo que solo estaba en su diario
+    private void compactarDiario() {
+        if (jugadasSinCompactar == 0 || tableroSincronizado.requiereGuardadoCompleto()) {
+            return;
+        }
+        int slotId = slotSincronizado;
+        long cubiertas = diarios.get(slotId).getAnotadas();
+        InstantaneaTablero instantanea = InstantaneaTablero.cambios(tableroSincronizado);
+        tableroSincronizado.marcarGuardado();
+        jugadasSinCompactar = 0;
+        celdasSinCompactar = 0;
+    
+        cache.actualizar(slotId, info -> copiarContadores(instantanea, info));
+        CompletableFuture<Void> guardado = escritor.guardar(slotId, null, null, instantanea, true);
+        descartarTrasGuardar(slotId, guardado, cubiertas);
+        vigilar(slotId, guardado, "Error al compactar el diario del slot " + slotId);
+    }
+    
+    
+    // Tarea propia del escritor, encolada después del guardado: cuando se ejecuta, este ya ha terminado
+    private void descartarTrasGuardar(int slotId, CompletableFuture<Void> guardado, long cubiertas) {
+        if (cubiertas == 0) {
+            return;
+        }
+        escritor.ejecutar(() -> {
+            DiarioJugadas diario;
+            synchronized (this) {
+                diario = diarios.get(slotId);
+            }
+            if (diario != null && guardado.isDone() && !guardado.isCompletedExceptionally()) {
+                diario.descartarHasta(cubiertas);
+            }
+            return null;
+        }).exceptionally(error -> {
+            logger.warn("No se pudo recortar el diario del slot {}: {}", slotId, error.getMessage());
+            return null;
+        });
+    }
+    
+    
+    private synchronized void eliminarDiario(int slotId) {
+        DiarioJugadas diario = diarios.remove(slotId);
+        try {
+            if (diario != null) {
+                diario.eliminar();
+            } else if (directorioDiarios != null) {
+                Files.deleteIfExists(archivoDiario(slotId));
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo borrar el diario del slot {}: {}", slotId, e.getMessage());
+        }
+    }
+    
+    
+    /**
+     * En el escritor, al crear el servicio: cada diario que quedó en disco se
+     * aplica a la instantánea de su slot, el resultado se guarda y el diario
+     * se borra. Un diario que no se puede aplicar se aparta con la extensión
+     * .fallido en lugar de perderlo.
+     */
+    private void recuperarDiarios() {
+        if (!Files.isDirectory(directorioDiarios)) {
+            return;
+        }
+        int recuperados = 0;
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorioDiarios, "slot-*.diario")) {
+            for (Path archivo : archivos) {
+                if (recuperarDiario(archivo)) {
+                    recuperados++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudieron recorrer los diarios de {}: {}", directorioDiarios, e.getMessage());
+        }
+        if (recuperados > 0) {
+            cache.invalidar();
+        }
+    }
+    
+    
+    private boolean recuperarDiario(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        try {
+            int slotId = Integer.parseInt(nombre.substring("slot-".length(), nombre.length() - ".diario".length()));
+            TableroBuscaminas tablero = almacenamiento.cargarDesdeSlot(slotId);
+            tablero.marcarGuardado();
+            int jugadas = DiarioJugadas.reproducir(archivo, tablero);
+            if (jugadas < 0) {
+                logger.warn("El diario {} es de otra partida; se descarta", archivo);
+            } else if (tablero.requiereGuardadoCompleto()) {
+                SlotGuardadoDAO.SlotInfo info = almacenamiento.obtenerInfoSlot(slotId);
+                almacenamiento.guardarEnSlot(slotId, info.getNombrePartida(), info.getNombreJugador(),
+                                             InstantaneaTablero.completa(tablero));
+            } else if (tablero.getCantidadCeldasPendientes() > 0) {
+                almacenamiento.guardarCambiosEnSlot(slotId, InstantaneaTablero.cambios(tablero));
+                almacenamiento.compactarSlot(slotId);
+            }
+            Files.delete(archivo);
+            if (jugadas > 0) {
+                logger.info("Recuperadas {} jugadas del diario del slot {}", jugadas, slotId);
+            }
+            return jugadas > 0;
+        } catch (NumberFormatException | AlmacenamientoException | IOException e) {
+            logger.warn("No se pudo recuperar el diario {}: {}", archivo, e.getMessage());
+            try {
+                Files.move(archivo, archivo.resolveSibling(nombre + ".fallido"), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ignorada) {
+                // Se queda donde está y se reintenta en el próximo arranque
+            }
+            return false;
+        }
+    }
+    
+    
+    // Si un guardado falla, lo escrito ya no coincide con el tablero: el siguiente será completo
+    private CompletableFuture<Void> vigilar(int slotId, CompletableFuture<Void> guardado, String mensaje) {
+        return guardado.handle((ignorado, error) -> {
+            if (error == null) {
+                return null;
+            }
+            olvidarSincronizacion(slotId);
+            cache.invalidar();
+            Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            throw new CompletionException(new Exception(mensaje + ": " + causa.getMessage(), causa));
+        });
+    }
+    
+    
+    private static <T> T esperar(CompletableFuture<T> resultado) throws Exception {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+    
+    
+    private static void copiarContadores(InstantaneaTablero instantanea, SlotGuardadoDAO.SlotInfo info) {
+        info.setCantidadMinas(instantanea.getCantidadMinas());
+        info.setCeldasReveladas(instantanea.getCeldasReveladas());
+        info.setMinasMarcadas(instantanea.getMinasMarcadas());
+        info.setJuegoTerminado(instantanea.isJuegoTerminado());
+        info.setJuegoGanado(instantanea.isJuegoGanado());
+        info.setEstadoPartida(instantanea.getEstadoPartida());
+        info.setFilas(instantanea.getFilas());
+        info.setColumnas(instantanea.getColumnas());
+    }
+    
+    
+    private static void copiarContadores(TableroBuscaminas tablero, SlotGuardadoDAO.SlotInfo info) {
+        info.setCantidadMinas(tablero.getCantidadMinas());
+        info.setCeldasReveladas(tablero.getCeldasReveladas());
+        info.setMinasMarcadas(tablero.getMinasMarcadas());
+        info.setJuegoTerminado(tablero.isJuegoTerminado());
+        info.setJuegoGanado(tablero.isJuegoGanado());
+        info.setEstadoPartida(tablero.isJuegoTerminado() ? "terminada" : "en_curso");
+        info.setFilas(tablero.getFilas());
+        info.setColumnas(tablero.getColumnas());
+    }
+    
+    
+    // Plegar cuesta reescribir el BLOB entero, así que se espera a acumular una fracción del tablero
+    static int umbralCompactacion(TableroBuscaminas tablero) {
+        return Math.max(MINIMO_CELDAS_COMPACTACION, tablero.getTotalCeldas() / 4);
     }
 }
-
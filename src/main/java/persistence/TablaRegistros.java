@@ -0,0 +1,29 @@
+package persistence;
+
+import java.util.List;
+
+
+/**
+ * Colección de registros por id sobre la que AlmacenamientoRegistros
+ * implementa slots y partidas. Los registros que entran y salen son copias.
+ */
+interface TablaRegistros {
+
+    // null si no existe
+    RegistroGuardado leer(int id) throws AlmacenamientoException;
+
+
+    // Crea o sobrescribe el registro con su id
+    void escribir(RegistroGuardado registro) throws AlmacenamientoException;
+
+
+    boolean eliminar(int id) throws AlmacenamientoException;
+
+
+    // En orden de id
+    List<RegistroGuardado> leerTodos() throws AlmacenamientoException;
+
+
+    // Id para un registro nuevo; los ids no se reutilizan aunque se eliminen
+    int reservarId() throws AlmacenamientoException;
+}
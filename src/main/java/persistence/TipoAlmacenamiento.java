@@ -0,0 +1,95 @@
+package persistence;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Dónde se guardan los slots y las partidas. Se elige al arrancar con la
+ * propiedad del sistema buscaminas.almacenamiento (por defecto SQLITE); los
+ * archivos de MAPEADO van al directorio de buscaminas.almacenamiento.directorio
+ * (por defecto el de trabajo).
+ *
+ * SQLITE y MAPEADO llevan además un diario de jugadas por slot en el
+ * directorio de buscaminas.diarios.directorio (por defecto "diarios").
+ *
+ * Cada tipo se abre una sola vez y lo comparten todos los servicios que lo
+ * usan, de modo que SlotGuardadoService y PartidaService ven los mismos datos.
+ */
+public enum TipoAlmacenamiento {
+    SQLITE,
+    // Un archivo mapeado en memoria por tabla, con registros de tamaño fijo
+    MAPEADO,
+    // Sin disco: se pierde al cerrar, para pruebas y benchmarks
+    MEMORIA;
+
+    static final String PROPIEDAD = "buscaminas.almacenamiento";
+    static final String PROPIEDAD_DIRECTORIO = "buscaminas.almacenamiento.directorio";
+    static final String PROPIEDAD_DIARIOS = "buscaminas.diarios.directorio";
+
+    private static final Map<TipoAlmacenamiento, AlmacenamientoPartidas> abiertos = new EnumMap<>(TipoAlmacenamiento.class);
+
+
+    public static TipoAlmacenamiento desdePropiedades() {
+        String valor = System.getProperty(PROPIEDAD);
+        if (valor == null || valor.isBlank()) {
+            return SQLITE;
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tipo de almacenamiento desconocido: " + valor, e);
+        }
+    }
+
+
+    // Instancia compartida; se abre la primera vez que se pide
+    AlmacenamientoPartidas obtener() {
+        synchronized (abiertos) {
+            AlmacenamientoPartidas almacenamiento = abiertos.get(this);
+            if (almacenamiento == null) {
+                almacenamiento = abrir();
+                abiertos.put(this, almacenamiento);
+            }
+            return almacenamiento;
+        }
+    }
+
+
+    // null para MEMORIA: lo que guarda no sobrevive a un cierre inesperado, así que no hay nada que recuperar
+    Path getDirectorioDiarios() {
+        return this == MEMORIA ? null : Path.of(System.getProperty(PROPIEDAD_DIARIOS, "diarios"));
+    }
+
+
+    /**
+     * Vuelca y cierra los almacenamientos abiertos; se llama al salir de la
+     * aplicación. Si después se vuelve a pedir uno, se abre de nuevo.
+     */
+    public static void cerrarAbiertos() {
+        synchronized (abiertos) {
+            for (AlmacenamientoPartidas almacenamiento : abiertos.values()) {
+                almacenamiento.cerrar();
+            }
+            abiertos.clear();
+        }
+    }
+
+
+    private AlmacenamientoPartidas abrir() {
+        try {
+            switch (this) {
+                case MAPEADO:
+                    return new AlmacenamientoMapeado(Path.of(System.getProperty(PROPIEDAD_DIRECTORIO, ".")));
+                case MEMORIA:
+                    return new AlmacenamientoMemoria();
+                default:
+                    return new AlmacenamientoSQLite();
+            }
+        } catch (AlmacenamientoException e) {
+            throw new IllegalStateException("No se pudo abrir el almacenamiento " + this + ": " + e.getMessage(), e);
+        }
+    }
+}
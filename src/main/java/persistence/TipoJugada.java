@@ -0,0 +1,11 @@
+package persistence;
+
+
+/**
+ * Jugada que se anota en el diario del slot tras aplicarla al tablero.
+ */
+public enum TipoJugada {
+    REVELAR,
+    // Poner o quitar la bandera: el diario guarda cuál de las dos quedó
+    MARCAR
+}
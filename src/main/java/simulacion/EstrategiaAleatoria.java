@@ -0,0 +1,37 @@
+package simulacion;
+
+import celda.TableroBuscaminas;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+
+/**
+ * Revela en cada turno una celda oculta cualquiera. Sirve como referencia
+ * mínima y para medir el rendimiento puro del motor.
+ */
+public class EstrategiaAleatoria implements EstrategiaJuego {
+
+    @Override
+    public List<Jugada> siguientesJugadas(TableroBuscaminas tablero, RandomGenerator aleatorio) {
+        int ocultas = tablero.getTotalCeldas() - tablero.getCeldasReveladas() - tablero.getMinasMarcadas();
+        if (ocultas <= 0) {
+            return List.of();
+        }
+
+        // Elegir la k-ésima celda oculta sin construir una lista intermedia
+        int objetivo = aleatorio.nextInt(ocultas);
+        for (int indice = 0; indice < tablero.getTotalCeldas(); indice++) {
+            if (!tablero.estaRevelada(indice) && !tablero.estaMarcada(indice) && objetivo-- == 0) {
+                return List.of(Jugada.revelar(indice / tablero.getColumnas(), indice % tablero.getColumnas()));
+            }
+        }
+        return List.of();
+    }
+
+
+    @Override
+    public String getNombre() {
+        return "aleatoria";
+    }
+}
@@ -0,0 +1,25 @@
+package simulacion;
+
+import celda.TableroBuscaminas;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+
+/**
+ * Forma de jugar que usa el simulador. Las implementaciones no deben guardar
+ * estado por partida: la misma instancia se comparte entre hilos y cada
+ * partida recibe su propio generador aleatorio.
+ */
+public interface EstrategiaJuego {
+
+    /**
+     * Devuelve las próximas jugadas a aplicar en orden. Con el tablero aún sin
+     * minas, la primera jugada de revelar es el primer clic. Una lista vacía
+     * significa que la estrategia se rinde.
+     */
+    List<Jugada> siguientesJugadas(TableroBuscaminas tablero, RandomGenerator aleatorio);
+
+
+    String getNombre();
+}
@@ -0,0 +1,59 @@
+package simulacion;
+
+import celda.SolucionadorBuscaminas;
+import celda.TableroBuscaminas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+
+/**
+ * Juega con {@link SolucionadorBuscaminas}: aplica todas las jugadas
+ * demostradas y solo cuando no queda ninguna revela una celda al azar. El
+ * primer clic va al centro del tablero.
+ */
+public class EstrategiaSolucionador implements EstrategiaJuego {
+    private final SolucionadorBuscaminas solucionador;
+    private final EstrategiaAleatoria alAzar = new EstrategiaAleatoria();
+
+
+    public EstrategiaSolucionador() {
+        this(new SolucionadorBuscaminas());
+    }
+
+
+    public EstrategiaSolucionador(SolucionadorBuscaminas solucionador) {
+        this.solucionador = solucionador;
+    }
+
+
+    @Override
+    public List<Jugada> siguientesJugadas(TableroBuscaminas tablero, RandomGenerator aleatorio) {
+        if (tablero.getCeldasReveladas() == 0) {
+            return List.of(Jugada.revelar(tablero.getFilas() / 2, tablero.getColumnas() / 2));
+        }
+
+        SolucionadorBuscaminas.Resultado resultado = solucionador.resolver(tablero);
+        if (!resultado.hayJugadaSegura()) {
+            return alAzar.siguientesJugadas(tablero, aleatorio);
+        }
+
+        List<Jugada> jugadas = new ArrayList<>(resultado.getCantidadSeguras() + resultado.getCantidadMinas());
+        for (int i = 0; i < resultado.getCantidadSeguras(); i++) {
+            jugadas.add(Jugada.revelar(resultado.getFilaSegura(i), resultado.getColumnaSegura(i)));
+        }
+        for (int i = 0; i < resultado.getCantidadMinas(); i++) {
+            if (!tablero.estaMarcada(resultado.getIndiceMina(i))) {
+                jugadas.add(Jugada.marcar(resultado.getFilaMina(i), resultado.getColumnaMina(i)));
+            }
+        }
+        return jugadas;
+    }
+
+
+    @Override
+    public String getNombre() {
+        return "solucionador";
+    }
+}
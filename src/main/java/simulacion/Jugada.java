@@ -0,0 +1,33 @@
+package simulacion;
+
+
+/**
+ * Una acción del jugador sobre una celda: revelarla o alternar su bandera.
+ */
+public final class Jugada {
+    private final int fila;
+    private final int columna;
+    private final boolean marcar;
+
+
+    private Jugada(int fila, int columna, boolean marcar) {
+        this.fila = fila;
+        this.columna = columna;
+        this.marcar = marcar;
+    }
+
+
+    public static Jugada revelar(int fila, int columna) {
+        return new Jugada(fila, columna, false);
+    }
+
+
+    public static Jugada marcar(int fila, int columna) {
+        return new Jugada(fila, columna, true);
+    }
+
+
+    public int getFila() { return fila; }
+    public int getColumna() { return columna; }
+    public boolean esMarcar() { return marcar; }
+}
@@ -0,0 +1,105 @@
+package simulacion;
+
+
+/**
+ * Estadísticas acumuladas de un lote de partidas simuladas. Los contadores son
+ * enteros para que el resultado no dependa del orden en que los hilos los
+ * combinan.
+ */
+public final class ResultadoSimulacion {
+    private long partidas;
+    private long victorias;
+    private long clics;
+    private long cascadas;
+    private long celdasEnCascadas;
+    private int cascadaMaxima;
+    private long nanos;
+
+
+    ResultadoSimulacion() {
+    }
+
+
+    void registrarPartida(boolean ganada) {
+        partidas++;
+        if (ganada) {
+            victorias++;
+        }
+    }
+
+
+    void registrarClic() {
+        clics++;
+    }
+
+
+    void registrarCascada(int celdas) {
+        cascadas++;
+        celdasEnCascadas += celdas;
+        cascadaMaxima = Math.max(cascadaMaxima, celdas);
+    }
+
+
+    void combinar(ResultadoSimulacion otro) {
+        partidas += otro.partidas;
+        victorias += otro.victorias;
+        clics += otro.clics;
+        cascadas += otro.cascadas;
+        celdasEnCascadas += otro.celdasEnCascadas;
+        cascadaMaxima = Math.max(cascadaMaxima, otro.cascadaMaxima);
+    }
+
+
+    void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+
+    // ========== GETTERS ==========
+
+    public long getPartidas() { return partidas; }
+    public long getVictorias() { return victorias; }
+    public long getClics() { return clics; }
+    public long getCascadas() { return cascadas; }
+    public long getCeldasEnCascadas() { return celdasEnCascadas; }
+    public int getCascadaMaxima() { return cascadaMaxima; }
+    public long getNanos() { return nanos; }
+
+
+    public double getTasaVictoria() {
+        return partidas == 0 ? 0 : (double) victorias / partidas;
+    }
+
+
+    public double getClicsPromedio() {
+        return partidas == 0 ? 0 : (double) clics / partidas;
+    }
+
+
+    public double getCascadaPromedio() {
+        return cascadas == 0 ? 0 : (double) celdasEnCascadas / cascadas;
+    }
+
+
+    public double getPartidasPorSegundo() {
+        return nanos == 0 ? 0 : partidas * 1_000_000_000.0 / nanos;
+    }
+
+
+    /**
+     * Mismo resultado con independencia del tiempo: sirve para comparar
+     * ejecuciones como prueba de regresión.
+     */
+    public boolean mismasEstadisticas(ResultadoSimulacion otro) {
+        return partidas == otro.partidas && victorias == otro.victorias && clics == otro.clics
+            && cascadas == otro.cascadas && celdasEnCascadas == otro.celdasEnCascadas
+            && cascadaMaxima == otro.cascadaMaxima;
+    }
+
+
+    @Override
+    public String toString() {
+        return String.format("%d partidas | victorias %.2f%% | clics %.1f | cascada media %.1f (máx %d) | %.0f partidas/s",
+            partidas, getTasaVictoria() * 100, getClicsPromedio(), getCascadaPromedio(), cascadaMaxima,
+            getPartidasPorSegundo());
+    }
+}
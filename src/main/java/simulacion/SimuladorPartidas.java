@@ -0,0 +1,158 @@
+package simulacion;
+
+import celda.ColocadorMinas;
+import celda.TableroBuscaminas;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+
+/**
+ * Juega partidas completas sin interfaz gráfica para medir el motor.
+ *
+ * La partida i usa la semilla semilla + i tanto para las minas como para la
+ * estrategia, así que el resultado de un lote es reproducible aunque cambie
+ * el número de hilos. Las partidas se reparten sobre un ForkJoinPool
+ * dividiendo el rango a la mitad hasta bloques de PARTIDAS_POR_BLOQUE.
+ *
+ * Uso: java -cp ... simulacion.SimuladorPartidas [partidas] [aleatoria|solucionador] [semilla]
+ */
+public class SimuladorPartidas {
+    static final int PARTIDAS_POR_BLOQUE = 64;
+    private static final int TAMANO_TABLERO = 20;
+    private static final int[] MINAS_POR_DIFICULTAD = {30, 60, 90};
+    private static final String[] NOMBRES_DIFICULTAD = {"Fácil", "Intermedio", "Difícil"};
+
+    private final EstrategiaJuego estrategia;
+    private final ForkJoinPool pool;
+    private final int filas;
+    private final int columnas;
+
+
+    public SimuladorPartidas(EstrategiaJuego estrategia) {
+        this(estrategia, ForkJoinPool.commonPool(), TAMANO_TABLERO, TAMANO_TABLERO);
+    }
+
+
+    public SimuladorPartidas(EstrategiaJuego estrategia, ForkJoinPool pool, int filas, int columnas) {
+        if (estrategia == null) {
+            throw new IllegalArgumentException("La estrategia no puede ser nula");
+        }
+        this.estrategia = estrategia;
+        this.pool = pool;
+        this.filas = filas;
+        this.columnas = columnas;
+    }
+
+
+    public ResultadoSimulacion simular(int cantidadMinas, int partidas, long semilla) {
+        if (partidas < 0) {
+            throw new IllegalArgumentException("La cantidad de partidas no puede ser negativa");
+        }
+        long inicio = System.nanoTime();
+        ResultadoSimulacion resultado = pool.invoke(new TareaLote(cantidadMinas, semilla, 0, partidas));
+        resultado.setNanos(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+
+    // Juega una partida y acumula sus estadísticas en el resultado
+    void jugarPartida(int cantidadMinas, long semillaPartida, ResultadoSimulacion resultado) {
+        TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, cantidadMinas);
+        tablero.setColocadorMinas(new ColocadorMinas(semillaPartida));
+        SplittableRandom aleatorio = new SplittableRandom(semillaPartida);
+        boolean minasColocadas = false;
+
+        // Tope de turnos por si una estrategia deja de progresar
+        int turnosRestantes = 2 * tablero.getTotalCeldas() + 1;
+        while (!tablero.isJuegoTerminado() && turnosRestantes-- > 0) {
+            List<Jugada> jugadas = estrategia.siguientesJugadas(tablero, aleatorio);
+            if (jugadas.isEmpty()) {
+                break;
+            }
+
+            for (Jugada jugada : jugadas) {
+                if (tablero.isJuegoTerminado()) {
+                    break;
+                }
+                if (jugada.esMarcar()) {
+                    if (tablero.marcarCelda(jugada.getFila(), jugada.getColumna())) {
+                        resultado.registrarClic();
+                    }
+                    continue;
+                }
+
+                if (!minasColocadas) {
+                    tablero.colocarMinas(jugada.getFila(), jugada.getColumna());
+                    minasColocadas = true;
+                }
+                if (tablero.estaRevelada(jugada.getFila() * tablero.getColumnas() + jugada.getColumna())) {
+                    continue;
+                }
+                resultado.registrarClic();
+                tablero.revelarCelda(jugada.getFila(), jugada.getColumna());
+                if (tablero.getCeldasUltimaCascada() > 0) {
+                    resultado.registrarCascada(tablero.getCeldasUltimaCascada());
+                }
+            }
+        }
+
+        resultado.registrarPartida(tablero.isJuegoGanado());
+    }
+
+    // ========== EJECUCIÓN DESDE CONSOLA ==========
+
+    public static void main(String[] args) {
+        int partidas = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        EstrategiaJuego estrategia = args.length > 1 && args[1].equals("aleatoria")
+            ? new EstrategiaAleatoria()
+            : new EstrategiaSolucionador();
+        long semilla = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+
+        SimuladorPartidas simulador = new SimuladorPartidas(estrategia);
+        System.out.println("Estrategia: " + estrategia.getNombre() + " - " + partidas + " partidas por dificultad");
+        for (int i = 0; i < MINAS_POR_DIFICULTAD.length; i++) {
+            ResultadoSimulacion resultado = simulador.simular(MINAS_POR_DIFICULTAD[i], partidas, semilla);
+            System.out.printf("%-11s (%d minas): %s%n", NOMBRES_DIFICULTAD[i], MINAS_POR_DIFICULTAD[i], resultado);
+        }
+    }
+
+    // ========== CLASES INTERNAS ==========
+
+    private final class TareaLote extends RecursiveTask<ResultadoSimulacion> {
+        private final int cantidadMinas;
+        private final long semilla;
+        private final int desde;
+        private final int hasta;
+
+
+        TareaLote(int cantidadMinas, long semilla, int desde, int hasta) {
+            this.cantidadMinas = cantidadMinas;
+            this.semilla = semilla;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+
+        @Override
+        protected ResultadoSimulacion compute() {
+            if (hasta - desde <= PARTIDAS_POR_BLOQUE) {
+                ResultadoSimulacion resultado = new ResultadoSimulacion();
+                for (int i = desde; i < hasta; i++) {
+                    jugarPartida(cantidadMinas, semilla + i, resultado);
+                }
+                return resultado;
+            }
+
+            int mitad = (desde + hasta) >>> 1;
+            TareaLote izquierda = new TareaLote(cantidadMinas, semilla, desde, mitad);
+            TareaLote derecha = new TareaLote(cantidadMinas, semilla, mitad, hasta);
+            izquierda.fork();
+            ResultadoSimulacion resultado = derecha.compute();
+            resultado.combinar(izquierda.join());
+            return resultado;
+        }
+    }
+}
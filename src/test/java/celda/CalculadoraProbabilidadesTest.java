@@ -0,0 +1,203 @@
+package celda;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pruebas unitarias para la clase CalculadoraProbabilidades
+ */
+class CalculadoraProbabilidadesTest {
+
+    private static TableroBuscaminas crearPartida(int filas, int columnas, int minas, long semilla) {
+        TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, minas);
+        ColocadorMinas colocador = new ColocadorMinas(semilla);
+        colocador.setRadioZonaSegura(0);
+        tablero.setColocadorMinas(colocador);
+        tablero.colocarMinas(0, 0);
+        tablero.revelarCelda(0, 0);
+        return tablero;
+    }
+
+    // Probabilidades exactas recorriendo todas las distribuciones de minas compatibles
+    private static double[] fuerzaBruta(TableroBuscaminas tablero) {
+        byte[] estados = tablero.getEstadosCeldas();
+        int filas = tablero.getFilas();
+        int columnas = tablero.getColumnas();
+        int[] ocultas = new int[estados.length];
+        int cantidadOcultas = 0;
+        int banderas = 0;
+        for (int i = 0; i < estados.length; i++) {
+            if ((estados[i] & Celda.BIT_MARCADA) != 0) {
+                banderas++;
+            } else if ((estados[i] & Celda.BIT_REVELADA) == 0) {
+                ocultas[cantidadOcultas++] = i;
+            }
+        }
+
+        int minasRestantes = tablero.getCantidadMinas() - banderas;
+        double[] vecesMina = new double[estados.length];
+        double total = 0;
+        boolean[] mina = new boolean[estados.length];
+
+        for (int mascara = 0; mascara < (1 << cantidadOcultas); mascara++) {
+            if (Integer.bitCount(mascara) != minasRestantes) {
+                continue;
+            }
+            for (int i = 0; i < estados.length; i++) {
+                mina[i] = (estados[i] & Celda.BIT_MARCADA) != 0;
+            }
+            for (int b = 0; b < cantidadOcultas; b++) {
+                mina[ocultas[b]] = (mascara & (1 << b)) != 0;
+            }
+
+            boolean compatible = true;
+            for (int i = 0; i < estados.length && compatible; i++) {
+                if ((estados[i] & Celda.BIT_REVELADA) == 0) {
+                    continue;
+                }
+                int fila = i / columnas;
+                int columna = i % columnas;
+                int cuenta = 0;
+                for (int f = Math.max(0, fila - 1); f <= Math.min(filas - 1, fila + 1); f++) {
+                    for (int c = Math.max(0, columna - 1); c <= Math.min(columnas - 1, columna + 1); c++) {
+                        if (mina[f * columnas + c]) {
+                            cuenta++;
+                        }
+                    }
+                }
+                compatible = !mina[i] && cuenta == (estados[i] & Celda.MASCARA_ADYACENTES);
+            }
+
+            if (compatible) {
+                total++;
+                for (int b = 0; b < cantidadOcultas; b++) {
+                    if (mina[ocultas[b]]) {
+                        vecesMina[ocultas[b]]++;
+                    }
+                }
+            }
+        }
+
+        double[] probabilidades = new double[estados.length];
+        for (int i = 0; i < estados.length; i++) {
+            probabilidades[i] = vecesMina[i] / total;
+        }
+        return probabilidades;
+    }
+
+    @Test
+    @DisplayName("Test: Coincide con la fuerza bruta en tableros pequeños")
+    void testCoincideConFuerzaBruta() {
+        int comparados = 0;
+        for (long semilla = 1; semilla <= 40; semilla++) {
+            TableroBuscaminas tablero = crearPartida(4, 5, 4, semilla);
+            if (tablero.isJuegoTerminado()) {
+                continue;
+            }
+
+            CalculadoraProbabilidades.Resultado resultado = new CalculadoraProbabilidades().calcular(tablero);
+            double[] esperadas = fuerzaBruta(tablero);
+
+            int masSegura = -1;
+            for (int fila = 0; fila < 4; fila++) {
+                for (int columna = 0; columna < 5; columna++) {
+                    double probabilidad = resultado.getProbabilidad(fila, columna);
+                    if (tablero.getCelda(fila, columna).estaRevelada()) {
+                        assertTrue(Double.isNaN(probabilidad));
+                    } else {
+                        assertEquals(esperadas[fila * 5 + columna], probabilidad, 1e-9,
+                            "Semilla " + semilla + " celda (" + fila + ", " + columna + ")");
+                        if (masSegura < 0 || probabilidad < resultado.getProbabilidad(masSegura / 5, masSegura % 5)) {
+                            masSegura = fila * 5 + columna;
+                        }
+                    }
+                }
+            }
+            // La frontera y el interior se guardan aparte, pero el desempate es el del recorrido completo
+            assertEquals(masSegura, resultado.getCeldaMasSegura(), "Semilla " + semilla);
+            assertFalse(resultado.isAproximado());
+            comparados++;
+        }
+        assertTrue(comparados > 10);
+    }
+
+    @Test
+    @DisplayName("Test: Las componentes repetidas se sirven desde la caché")
+    void testCacheComponentes() {
+        TableroBuscaminas tablero = crearPartida(16, 30, 99, 7L);
+        CalculadoraProbabilidades calculadora = new CalculadoraProbabilidades();
+
+        CalculadoraProbabilidades.Resultado primero = calculadora.calcular(tablero);
+        int fallos = calculadora.getFallosCache();
+        CalculadoraProbabilidades.Resultado segundo = calculadora.calcular(tablero);
+
+        assertEquals(fallos, calculadora.getFallosCache());
+        assertTrue(calculadora.getAciertosCache() > 0);
+        assertEquals(primero.getCeldaMasSegura(), segundo.getCeldaMasSegura());
+    }
+
+    @Test
+    @DisplayName("Test: Sin presupuesto de enumeración se estima por muestreo")
+    void testMuestreo() {
+        TableroBuscaminas tablero = crearPartida(16, 30, 99, 3L);
+        CalculadoraProbabilidades calculadora = new CalculadoraProbabilidades(ForkJoinPool.commonPool(), 1, 50, 10_000);
+
+        CalculadoraProbabilidades.Resultado resultado = calculadora.calcular(tablero);
+
+        assertTrue(resultado.isAproximado());
+        for (int fila = 0; fila < 16; fila++) {
+            for (int columna = 0; columna < 30; columna++) {
+                double probabilidad = resultado.getProbabilidad(fila, columna);
+                assertTrue(Double.isNaN(probabilidad) || (probabilidad >= 0 && probabilidad <= 1));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Un tablero grande con miles de componentes se calcula en segundos")
+    void testLatenciaTableroGrande() {
+        TableroBuscaminas tablero = new TableroBuscaminas(1000, 1000, 150_000);
+        tablero.setColocadorMinas(new ColocadorMinas(7L));
+        tablero.colocarMinas(500, 500);
+        for (int fila = 0; fila < 1000; fila += 50) {
+            for (int columna = 0; columna < 1000; columna += 50) {
+                if (!tablero.getCelda(fila, columna).esMina() && tablero.getCelda(fila, columna).getMinasAdyacentes() == 0) {
+                    tablero.revelarCelda(fila, columna);
+                }
+            }
+        }
+        // Unas rondas del solucionador dejan una frontera larga partida en muchas componentes
+        SolucionadorBuscaminas solucionador = new SolucionadorBuscaminas();
+        for (int ronda = 0; ronda < 10; ronda++) {
+            SolucionadorBuscaminas.Resultado deducciones = solucionador.resolver(tablero);
+            for (int i = 0; i < deducciones.getCantidadSeguras(); i++) {
+                tablero.revelarCelda(deducciones.getFilaSegura(i), deducciones.getColumnaSegura(i));
+            }
+            for (int i = 0; i < deducciones.getCantidadMinas(); i++) {
+                if (!tablero.getCelda(deducciones.getFilaMina(i), deducciones.getColumnaMina(i)).estaMarcada()) {
+                    tablero.marcarCelda(deducciones.getFilaMina(i), deducciones.getColumnaMina(i));
+                }
+            }
+        }
+        CalculadoraProbabilidades calculadora = new CalculadoraProbabilidades();
+
+        CalculadoraProbabilidades.Resultado resultado =
+                assertTimeoutPreemptively(Duration.ofSeconds(20), () -> calculadora.calcular(tablero));
+
+        double interior = resultado.getProbabilidadInterior();
+        assertTrue(interior > 0 && interior < 1, "Probabilidad interior: " + interior);
+        assertTrue(resultado.getCeldaMasSegura() >= 0);
+    }
+
+    @Test
+    @DisplayName("Test: Combinaciones en logaritmos")
+    void testLogCombinaciones() {
+        assertEquals(Math.log(10), CalculadoraProbabilidades.logCombinaciones(5, 2), 1e-12);
+        assertEquals(0, CalculadoraProbabilidades.logCombinaciones(7, 0), 1e-12);
+        assertEquals(0, CalculadoraProbabilidades.logCombinaciones(7, 7), 1e-12);
+    }
+}
@@ -164,4 +164,21 @@ class CeldaTest {
         celda.alternarMarcado();
         assertTrue(celda.estaMarcada(), "Tercera alternancia debería marcar la celda nuevamente");
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testEstablecerMinasAdyacentes_AsignaContador() {
+        celda.revelar();
+        celda.establecerMinasAdyacentes(7);
+        assertEquals(7, celda.getMinasAdyacentes(), "Debería asignar el contador directamente");
+        assertTrue(celda.estaRevelada(), "Asignar el contador no debería cambiar el resto del estado");
+        
+        celda.establecerMinasAdyacentes(0);
+        assertEquals(0, celda.getMinasAdyacentes(), "Debería poder volver a cero");
+    }
+    
+    @Test
+    void testEstablecerMinasAdyacentes_ValorInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> celda.establecerMinasAdyacentes(9));
+        assertThrows(IllegalArgumentException.class, () -> celda.establecerMinasAdyacentes(-1));
+    }
+}
@@ -0,0 +1,94 @@
+package celda;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la clase CodificadorTablero
+ */
+class CodificadorTableroTest {
+
+    private static TableroBuscaminas crearPartidaEnCurso(int filas, int columnas, int minas, long semilla) {
+        TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, minas);
+        tablero.setColocadorMinas(new ColocadorMinas(semilla));
+        tablero.colocarMinas(filas / 2, columnas / 2);
+        tablero.revelarCelda(filas / 2, columnas / 2);
+
+        int[] minasColocadas = CalculadorAdyacencias.buscarMinas(tablero.getEstadosCeldas());
+        for (int i = 0; i < Math.min(3, minasColocadas.length); i++) {
+            tablero.marcarCelda(minasColocadas[i] / columnas, minasColocadas[i] % columnas);
+        }
+        return tablero;
+    }
+
+    @Test
+    @DisplayName("Test: Codificar y decodificar conserva el tablero")
+    void testIdaYVuelta() {
+        TableroBuscaminas original = crearPartidaEnCurso(20, 20, 60, 9L);
+
+        byte[] datos = CodificadorTablero.codificar(original);
+        TableroBuscaminas cargado = CodificadorTablero.decodificar(datos, 20, 20, 60);
+
+        assertArrayEquals(original.getEstadosCeldas(), cargado.getEstadosCeldas());
+    }
+
+    @Test
+    @DisplayName("Test: Tamaño del BLOB")
+    void testTamano() {
+        assertEquals(150, CodificadorTablero.codificar(new TableroBuscaminas(20, 20, 60)).length);
+        assertEquals(3 * 13, CodificadorTablero.codificar(new TableroBuscaminas(10, 10, 10)).length);
+    }
+
+    @Test
+    @DisplayName("Test: Se restauran los contadores de la partida")
+    void testContadoresRestaurados() {
+        TableroBuscaminas original = crearPartidaEnCurso(30, 16, 99, 4L);
+
+        TableroBuscaminas cargado = CodificadorTablero.decodificar(CodificadorTablero.codificar(original), 30, 16, 99);
+
+        assertEquals(original.getCeldasReveladas(), cargado.getCeldasReveladas());
+        assertEquals(original.getMinasMarcadas(), cargado.getMinasMarcadas());
+        assertEquals(original.isJuegoTerminado(), cargado.isJuegoTerminado());
+        assertEquals(original.isJuegoGanado(), cargado.isJuegoGanado());
+    }
+
+    @Test
+    @DisplayName("Test: Partida perdida se carga como terminada")
+    void testPartidaPerdida() {
+        TableroBuscaminas original = crearPartidaEnCurso(20, 20, 60, 2L);
+        int mina = CalculadorAdyacencias.buscarMinas(original.getEstadosCeldas())[10];
+        original.revelarCelda(mina / 20, mina % 20);
+        assertTrue(original.isJuegoTerminado());
+
+        TableroBuscaminas cargado = CodificadorTablero.decodificar(CodificadorTablero.codificar(original), 20, 20, 60);
+
+        assertTrue(cargado.isJuegoTerminado());
+        assertFalse(cargado.isJuegoGanado());
+    }
+
+    @Test
+    @DisplayName("Test: Datos con longitud incorrecta")
+    void testDatosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> CodificadorTablero.decodificar(new byte[10], 20, 20, 60));
+        assertThrows(IllegalArgumentException.class, () -> CodificadorTablero.decodificar(null, 20, 20, 60));
+    }
+
+    @Test
+    @DisplayName("Test: Aplicar cambios sobre datos codificados")
+    void testAplicarCambios() {
+        TableroBuscaminas tablero = crearPartidaEnCurso(20, 20, 60, 9L);
+        byte[] datos = CodificadorTablero.codificar(tablero);
+        tablero.marcarGuardado();
+
+        tablero.revelarCelda(0, 0);
+        tablero.marcarCelda(19, 19);
+        tablero.marcarCelda(19, 19);
+        tablero.marcarCelda(19, 18);
+        CodificadorTablero.aplicarCambios(datos, 400, tablero.getCeldasPendientes(), tablero.getEstadosPendientes());
+
+        assertArrayEquals(CodificadorTablero.codificar(tablero), datos);
+        assertThrows(IllegalArgumentException.class,
+            () -> CodificadorTablero.aplicarCambios(datos, 400, new int[]{400}, new byte[1]));
+    }
+}
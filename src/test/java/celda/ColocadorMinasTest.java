@@ -0,0 +1,107 @@
+package celda;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la clase ColocadorMinas
+ */
+class ColocadorMinasTest {
+
+    private static TableroBuscaminas crearTablero(int filas, int columnas, int minas, ColocadorMinas colocador) {
+        TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, minas);
+        tablero.setColocadorMinas(colocador);
+        return tablero;
+    }
+
+    private static int contarMinas(TableroBuscaminas tablero) {
+        int minas = 0;
+        for (int fila = 0; fila < tablero.getFilas(); fila++) {
+            for (int columna = 0; columna < tablero.getColumnas(); columna++) {
+                if (tablero.getCelda(fila, columna).esMina()) {
+                    minas++;
+                }
+            }
+        }
+        return minas;
+    }
+
+    @Test
+    @DisplayName("Test: Misma semilla produce el mismo tablero")
+    void testSemillaReproducible() {
+        TableroBuscaminas primero = crearTablero(20, 20, 60, new ColocadorMinas(42L));
+        TableroBuscaminas segundo = crearTablero(20, 20, 60, new ColocadorMinas(42L));
+        primero.colocarMinas(5, 5);
+        segundo.colocarMinas(5, 5);
+
+        for (int fila = 0; fila < 20; fila++) {
+            for (int columna = 0; columna < 20; columna++) {
+                assertEquals(primero.getCelda(fila, columna).esMina(), segundo.getCelda(fila, columna).esMina());
+                assertEquals(primero.getCelda(fila, columna).getMinasAdyacentes(),
+                             segundo.getCelda(fila, columna).getMinasAdyacentes());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Zona segura 3x3 alrededor del primer clic")
+    void testZonaSeguraVecindario() {
+        ColocadorMinas colocador = new ColocadorMinas(7L);
+        colocador.setRadioZonaSegura(1);
+        TableroBuscaminas tablero = crearTablero(10, 10, 91, colocador);
+        tablero.colocarMinas(4, 4);
+
+        assertEquals(91, contarMinas(tablero));
+        for (int fila = 3; fila <= 5; fila++) {
+            for (int columna = 3; columna <= 5; columna++) {
+                assertFalse(tablero.getCelda(fila, columna).esMina());
+            }
+        }
+        assertEquals(0, tablero.getCelda(4, 4).getMinasAdyacentes());
+    }
+
+    @Test
+    @DisplayName("Test: Zona segura recortada en la esquina")
+    void testZonaSeguraEsquina() {
+        ColocadorMinas colocador = new ColocadorMinas(3L);
+        colocador.setRadioZonaSegura(1);
+        TableroBuscaminas tablero = crearTablero(5, 5, 21, colocador);
+        tablero.colocarMinas(0, 0);
+
+        assertEquals(21, contarMinas(tablero));
+        assertFalse(tablero.getCelda(0, 0).esMina());
+        assertFalse(tablero.getCelda(0, 1).esMina());
+        assertFalse(tablero.getCelda(1, 0).esMina());
+        assertFalse(tablero.getCelda(1, 1).esMina());
+    }
+
+    @Test
+    @DisplayName("Test: Zona segura se reduce si no caben las minas")
+    void testZonaSeguraReducida() {
+        ColocadorMinas colocador = new ColocadorMinas(11L);
+        colocador.setRadioZonaSegura(1);
+        TableroBuscaminas tablero = crearTablero(4, 4, 15, colocador);
+        tablero.colocarMinas(1, 1);
+
+        assertEquals(15, contarMinas(tablero));
+        assertFalse(tablero.getCelda(1, 1).esMina());
+    }
+
+    @Test
+    @DisplayName("Test: Densidad muy alta en tablero grande")
+    void testDensidadAlta() {
+        TableroBuscaminas tablero = crearTablero(1000, 1000, 950_000, new ColocadorMinas(99L));
+        tablero.colocarMinas(500, 500);
+
+        assertEquals(950_000, contarMinas(tablero));
+        assertFalse(tablero.getCelda(500, 500).esMina());
+    }
+
+    @Test
+    @DisplayName("Test: Radio negativo no permitido")
+    void testRadioNegativo() {
+        ColocadorMinas colocador = new ColocadorMinas();
+        assertThrows(IllegalArgumentException.class, () -> colocador.setRadioZonaSegura(-1));
+    }
+}
@@ -0,0 +1,121 @@
+package celda;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+/**
+ * Pruebas unitarias para la clase GeneradorSinAdivinanzas
+ */
+class GeneradorSinAdivinanzasTest {
+
+    private static GeneradorSinAdivinanzas crearGenerador(long semilla, long tiempoLimiteMs) {
+        GeneradorSinAdivinanzas generador = new GeneradorSinAdivinanzas(semilla);
+        generador.setTiempoLimiteMs(tiempoLimiteMs);
+        return generador;
+    }
+
+    private static boolean resolverSinAdivinar(TableroBuscaminas tablero) {
+        SolucionadorBuscaminas solucionador = new SolucionadorBuscaminas();
+        while (!tablero.isJuegoTerminado()) {
+            SolucionadorBuscaminas.Resultado resultado = solucionador.resolver(tablero);
+            if (!resultado.hayJugadaSegura()) {
+                return false;
+            }
+            for (int i = 0; i < resultado.getCantidadSeguras(); i++) {
+                tablero.revelarCelda(resultado.getFilaSegura(i), resultado.getColumnaSegura(i));
+            }
+            for (int i = 0; i < resultado.getCantidadMinas(); i++) {
+                if (!tablero.getCelda(resultado.getFilaMina(i), resultado.getColumnaMina(i)).estaMarcada()) {
+                    tablero.marcarCelda(resultado.getFilaMina(i), resultado.getColumnaMina(i));
+                }
+            }
+        }
+        return tablero.isJuegoGanado();
+    }
+
+    @Test
+    @DisplayName("Test: El tablero generado se resuelve sin adivinar")
+    void testTableroResoluble() {
+        for (long semilla = 1; semilla <= 5; semilla++) {
+            GeneradorSinAdivinanzas generador = crearGenerador(semilla, 5_000);
+            TableroBuscaminas tablero = new TableroBuscaminas(20, 20, 60);
+            tablero.setColocadorMinas(generador);
+
+            tablero.colocarMinas(10, 10);
+
+            assertTrue(generador.isUltimaGeneracionSinAdivinanzas());
+            assertTrue(generador.getIntentosUltimaGeneracion() > 0);
+            assertTrue(generador.getNanosUltimaGeneracion() > 0);
+            assertTrue(tablero.revelarCelda(10, 10));
+            assertTrue(resolverSinAdivinar(tablero), "Semilla " + semilla);
+        }
+    }
+
+    @Test
+    @DisplayName("Test: La misma semilla genera el mismo tablero")
+    void testReproducible() {
+        TableroBuscaminas primero = new TableroBuscaminas(20, 20, 60);
+        TableroBuscaminas segundo = new TableroBuscaminas(20, 20, 60);
+        primero.setColocadorMinas(crearGenerador(42L, 5_000));
+        segundo.setColocadorMinas(crearGenerador(42L, 5_000));
+
+        primero.colocarMinas(3, 4);
+        segundo.colocarMinas(3, 4);
+
+        assertArrayEquals(primero.getEstadosCeldas(), segundo.getEstadosCeldas());
+
+        primero.reiniciar();
+        segundo.reiniciar();
+        primero.colocarMinas(3, 4);
+        segundo.colocarMinas(3, 4);
+
+        assertArrayEquals(primero.getEstadosCeldas(), segundo.getEstadosCeldas());
+    }
+
+    @Test
+    @DisplayName("Test: Reiniciar con el mismo primer clic genera otro tablero")
+    void testGeneracionesDistintas() {
+        TableroBuscaminas tablero = new TableroBuscaminas(20, 20, 60);
+        tablero.setColocadorMinas(crearGenerador(42L, 5_000));
+
+        tablero.colocarMinas(3, 4);
+        int[] primeras = CalculadorAdyacencias.buscarMinas(tablero.getEstadosCeldas());
+        tablero.reiniciar();
+        tablero.colocarMinas(3, 4);
+        int[] segundas = CalculadorAdyacencias.buscarMinas(tablero.getEstadosCeldas());
+
+        assertFalse(Arrays.equals(primeras, segundas));
+    }
+
+    @Test
+    @DisplayName("Test: Si se agota el tiempo se coloca un tablero normal")
+    void testTiempoAgotado() {
+        // En 2x2 con una mina siempre hay que adivinar tras el primer clic
+        GeneradorSinAdivinanzas generador = crearGenerador(7L, 20);
+        TableroBuscaminas tablero = new TableroBuscaminas(2, 2, 1);
+        tablero.setColocadorMinas(generador);
+
+        tablero.colocarMinas(0, 0);
+
+        assertFalse(generador.isUltimaGeneracionSinAdivinanzas());
+        assertFalse(tablero.getCelda(0, 0).esMina());
+        assertEquals(1, CalculadorAdyacencias.buscarMinas(tablero.getEstadosCeldas()).length);
+    }
+
+    @Test
+    @DisplayName("Test: Modo sin adivinanzas en el tablero")
+    void testModoTablero() {
+        TableroBuscaminas tablero = new TableroBuscaminas();
+        assertFalse(tablero.isModoSinAdivinanzas());
+
+        tablero.setModoSinAdivinanzas(true);
+        assertTrue(tablero.isModoSinAdivinanzas());
+        assertTrue(tablero.getColocadorMinas() instanceof GeneradorSinAdivinanzas);
+
+        tablero.setModoSinAdivinanzas(false);
+        assertFalse(tablero.isModoSinAdivinanzas());
+    }
+}
@@ -0,0 +1,99 @@
+package celda;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pruebas unitarias para la clase RellenoParalelo: debe revelar exactamente
+ * las mismas celdas que el recorrido secuencial.
+ */
+class RellenoParaleloTest {
+
+    private static byte[] generarCeldas(int filas, int columnas, int minas, long semilla) {
+        TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, minas);
+        tablero.setColocadorMinas(new ColocadorMinas(semilla));
+        tablero.colocarMinas(0, 0);
+        return tablero.getEstadosCeldas().clone();
+    }
+
+    private static int buscarCeldaVacia(byte[] celdas) {
+        for (int i = 0; i < celdas.length; i++) {
+            if (Celda.esVacia(celdas[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    @DisplayName("Test: Mismo resultado que el relleno secuencial con bloques pequeños")
+    void testEquivalenciaConSecuencial() {
+        int filas = 97;
+        int columnas = 131;
+        for (long semilla = 1; semilla <= 5; semilla++) {
+            byte[] secuencial = generarCeldas(filas, columnas, 900, semilla);
+            byte[] paralelo = secuencial.clone();
+            int inicio = buscarCeldaVacia(secuencial);
+            assertTrue(inicio >= 0);
+
+            secuencial[inicio] |= Celda.BIT_REVELADA;
+            paralelo[inicio] |= Celda.BIT_REVELADA;
+
+            int reveladasSecuencial = new RellenoInundacion().rellenar(secuencial, filas, columnas, inicio, new CambiosTablero(columnas));
+            int reveladasParalelo = new RellenoParalelo(ForkJoinPool.commonPool(), 7)
+                .rellenar(paralelo, filas, columnas, inicio, new CambiosTablero(columnas));
+
+            assertEquals(reveladasSecuencial, reveladasParalelo);
+            assertArrayEquals(secuencial, paralelo);
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Las marcas detienen la cascada igual que en secuencial")
+    void testMarcasEnBorde() {
+        int filas = 40;
+        int columnas = 40;
+        byte[] secuencial = new byte[filas * columnas];
+        for (int fila = 0; fila < filas; fila++) {
+            secuencial[fila * columnas + 20] = (byte) Celda.BIT_MARCADA;
+        }
+        byte[] paralelo = secuencial.clone();
+        secuencial[0] |= Celda.BIT_REVELADA;
+        paralelo[0] |= Celda.BIT_REVELADA;
+
+        int reveladasSecuencial = new RellenoInundacion().rellenar(secuencial, filas, columnas, 0, new CambiosTablero(columnas));
+        int reveladasParalelo = new RellenoParalelo(ForkJoinPool.commonPool(), 8)
+            .rellenar(paralelo, filas, columnas, 0, new CambiosTablero(columnas));
+
+        assertEquals(40 * 20 - 1, reveladasParalelo);
+        assertEquals(reveladasSecuencial, reveladasParalelo);
+        assertArrayEquals(secuencial, paralelo);
+    }
+
+    @Test
+    @DisplayName("Test: Tablero grande en modo paralelo cuenta igual que el secuencial")
+    void testTableroGrandeParalelo() {
+        TableroBuscaminas secuencial = new TableroBuscaminas(1100, 1100, 20_000);
+        TableroBuscaminas paralelo = new TableroBuscaminas(1100, 1100, 20_000);
+        secuencial.setColocadorMinas(new ColocadorMinas(77L));
+        paralelo.setColocadorMinas(new ColocadorMinas(77L));
+        paralelo.setRevelacionParalela(true);
+
+        secuencial.colocarMinas(550, 550);
+        paralelo.colocarMinas(550, 550);
+        int inicio = buscarCeldaVacia(secuencial.getEstadosCeldas());
+        int fila = inicio / 1100;
+        int columna = inicio % 1100;
+
+        assertTrue(secuencial.revelarCelda(fila, columna));
+        assertTrue(paralelo.revelarCelda(fila, columna));
+
+        assertEquals(secuencial.getCeldasReveladas(), paralelo.getCeldasReveladas());
+        assertEquals(secuencial.getCeldasUltimaCascada(), paralelo.getCeldasUltimaCascada());
+        assertEquals(secuencial.getUltimosCambios().getCantidad(), paralelo.getUltimosCambios().getCantidad());
+        assertArrayEquals(secuencial.getEstadosCeldas(), paralelo.getEstadosCeldas());
+    }
+}
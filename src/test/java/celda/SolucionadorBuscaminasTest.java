@@ -0,0 +1,189 @@
+package celda;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Pruebas unitarias para la clase SolucionadorBuscaminas
+ */
+class SolucionadorBuscaminasTest {
+
+    // M = mina oculta, F = mina marcada, H = oculta segura, R = revelada
+    private static TableroBuscaminas construir(String... filas) {
+        int minas = 0;
+        for (String fila : filas) {
+            for (char c : fila.toCharArray()) {
+                if (c == 'M' || c == 'F') {
+                    minas++;
+                }
+            }
+        }
+
+        TableroBuscaminas tablero = new TableroBuscaminas(filas.length, filas[0].length(), minas);
+        for (int f = 0; f < filas.length; f++) {
+            for (int c = 0; c < filas[f].length(); c++) {
+                if (filas[f].charAt(c) == 'M' || filas[f].charAt(c) == 'F') {
+                    tablero.getCelda(f, c).establecerComoMina();
+                }
+            }
+        }
+        tablero.recalcularMinasAdyacentes();
+
+        byte[] estados = tablero.getEstadosCeldas();
+        for (int f = 0; f < filas.length; f++) {
+            for (int c = 0; c < filas[f].length(); c++) {
+                int indice = f * filas[f].length() + c;
+                if (filas[f].charAt(c) == 'R') {
+                    estados[indice] |= Celda.BIT_REVELADA;
+                } else if (filas[f].charAt(c) == 'F') {
+                    estados[indice] |= Celda.BIT_MARCADA;
+                }
+            }
+        }
+        return tablero;
+    }
+
+    @Test
+    @DisplayName("Test: Patrón 1-2-1 se resuelve por subconjuntos")
+    void testPatronUnoDosUno() {
+        TableroBuscaminas tablero = construir(
+            "RRR",
+            "MHM",
+            "HMH");
+
+        SolucionadorBuscaminas.Resultado resultado = new SolucionadorBuscaminas().resolver(tablero);
+
+        assertArrayEquals(new int[]{4}, resultado.getCeldasSeguras());
+        int[] minas = resultado.getMinasSeguras();
+        Arrays.sort(minas);
+        assertArrayEquals(new int[]{3, 5}, minas);
+        assertEquals(1, resultado.getFilaSegura(0));
+        assertEquals(1, resultado.getColumnaSegura(0));
+    }
+
+    @Test
+    @DisplayName("Test: Número con sus minas marcadas libera las demás vecinas")
+    void testBanderasLiberanVecinas() {
+        TableroBuscaminas tablero = construir(
+            "FHHHH",
+            "RRHHM",
+            "HHHHH");
+
+        SolucionadorBuscaminas.Resultado resultado = new SolucionadorBuscaminas().resolver(tablero);
+
+        int[] seguras = resultado.getCeldasSeguras();
+        assertTrue(contiene(seguras, 1), "La vecina superior de (1,0) debe ser segura");
+        assertFalse(contiene(seguras, 9), "La mina oculta nunca puede ser segura");
+    }
+
+    @Test
+    @DisplayName("Test: Sin información suficiente no se sugiere nada")
+    void testCincuentaPorCiento() {
+        TableroBuscaminas tablero = construir(
+            "RR",
+            "MH");
+
+        SolucionadorBuscaminas.Resultado resultado = new SolucionadorBuscaminas().resolver(tablero);
+
+        assertFalse(resultado.hayJugadaSegura());
+    }
+
+    @Test
+    @DisplayName("Test: Con todas las minas marcadas las celdas interiores son seguras")
+    void testReglaGlobal() {
+        TableroBuscaminas tablero = construir("FRRH");
+
+        SolucionadorBuscaminas.Resultado resultado = new SolucionadorBuscaminas().resolver(tablero);
+
+        assertArrayEquals(new int[]{3}, resultado.getCeldasSeguras());
+        assertEquals(0, resultado.getCantidadMinas());
+    }
+
+    @Test
+    @DisplayName("Test: Las deducciones nunca contradicen el tablero real")
+    void testDeduccionesCorrectas() {
+        for (long semilla = 1; semilla <= 30; semilla++) {
+            TableroBuscaminas tablero = new TableroBuscaminas(16, 30, 99);
+            tablero.setColocadorMinas(new ColocadorMinas(semilla));
+            tablero.colocarMinas(8, 15);
+            tablero.revelarCelda(8, 15);
+
+            SolucionadorBuscaminas solucionador = new SolucionadorBuscaminas();
+            while (!tablero.isJuegoTerminado()) {
+                SolucionadorBuscaminas.Resultado resultado = solucionador.resolver(tablero);
+                if (!resultado.hayJugadaSegura()) {
+                    break;
+                }
+                for (int i = 0; i < resultado.getCantidadSeguras(); i++) {
+                    Celda celda = tablero.getCelda(resultado.getFilaSegura(i), resultado.getColumnaSegura(i));
+                    assertFalse(celda.esMina(), "Semilla " + semilla + ": celda segura con mina");
+                    tablero.revelarCelda(resultado.getFilaSegura(i), resultado.getColumnaSegura(i));
+                }
+                for (int i = 0; i < resultado.getCantidadMinas(); i++) {
+                    Celda celda = tablero.getCelda(resultado.getFilaMina(i), resultado.getColumnaMina(i));
+                    assertTrue(celda.esMina(), "Semilla " + semilla + ": mina deducida sin mina");
+                    if (!celda.estaMarcada()) {
+                        tablero.marcarCelda(resultado.getFilaMina(i), resultado.getColumnaMina(i));
+                    }
+                }
+            }
+            assertFalse(tablero.isJuegoTerminado() && !tablero.isJuegoGanado());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Una franja larga se resuelve entera desde la cola de restricciones")
+    void testFranjaLarga() {
+        TableroBuscaminas tablero = construir(
+            "RRR".repeat(4000),
+            "HMH".repeat(4000),
+            "HHH".repeat(4000));
+
+        SolucionadorBuscaminas.Resultado resultado = new SolucionadorBuscaminas().resolver(tablero);
+
+        assertEquals(4000, resultado.getCantidadMinas());
+        // Con las 4000 minas ubicadas, la regla global libera también la fila de abajo
+        assertEquals(20000, resultado.getCantidadSeguras());
+        for (int i = 0; i < resultado.getCantidadMinas(); i++) {
+            assertEquals(1, resultado.getFilaMina(i));
+            assertEquals(1, resultado.getColumnaMina(i) % 3);
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Las pistas en un tablero de 5000x5000 no dependen de reservar el tablero entero")
+    void testLatenciaTableroGrande() {
+        TableroBuscaminas tablero = new TableroBuscaminas(5000, 5000, 3_750_000);
+        tablero.setColocadorMinas(new ColocadorMinas(7L));
+        tablero.colocarMinas(2500, 2500);
+        tablero.revelarCelda(2500, 2500);
+        SolucionadorBuscaminas solucionador = new SolucionadorBuscaminas();
+
+        // Cada pista recorre los bytes del tablero una vez, pero solo reserva memoria para la frontera
+        SolucionadorBuscaminas.Resultado resultado = assertTimeoutPreemptively(Duration.ofSeconds(3), () -> {
+            SolucionadorBuscaminas.Resultado ultimo = null;
+            for (int pista = 0; pista < 50; pista++) {
+                ultimo = solucionador.resolver(tablero);
+            }
+            return ultimo;
+        });
+
+        byte[] estados = tablero.getEstadosCeldas();
+        for (int indice : resultado.getCeldasSeguras()) {
+            assertEquals(0, estados[indice] & Celda.BIT_MINA);
+        }
+    }
+
+    private static boolean contiene(int[] valores, int valor) {
+        for (int v : valores) {
+            if (v == valor) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -217,4 +217,334 @@ class TableroBuscaminasTest {
             tablero.getCelda(0, 20);
         });
     }
+    
+    @Test
+    @DisplayName("Test: Tablero rectangular configurable")
+    void testTableroRectangular() {
+        TableroBuscaminas rectangular = new TableroBuscaminas(8, 30, 40);
+        assertEquals(8, rectangular.getFilas());
+        assertEquals(30, rectangular.getColumnas());
+        assertEquals(240, rectangular.getTotalCeldas());
+        
+        rectangular.colocarMinas(7, 29);
+        
+        int minasContadas = 0;
+        for (int fila = 0; fila < rectangular.getFilas(); fila++) {
+            for (int columna = 0; columna < rectangular.getColumnas(); columna++) {
+                if (rectangular.getCelda(fila, columna).esMina()) {
+                    minasContadas++;
+                }
+            }
+        }
+        assertEquals(40, minasContadas);
+        assertFalse(rectangular.getCelda(7, 29).esMina());
+    }
+    
+    @Test
+    @DisplayName("Test: Parámetros de tablero inválidos")
+    void testParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new TableroBuscaminas(0, 10, 5));
+        assertThrows(IllegalArgumentException.class, () -> new TableroBuscaminas(10, 10, 100));
+        assertThrows(IllegalArgumentException.class, () -> new TableroBuscaminas(10, 10, -1));
+    }
+    
+    @Test
+    @DisplayName("Test: La vista de celda escribe en el almacenamiento empaquetado")
+    void testVistaCeldaCompartida() {
+        Celda vista = tablero.getCelda(3, 4);
+        vista.establecerComoMina();
+        vista.alternarMarcado();
+        
+        Celda otraVista = tablero.getCelda(3, 4);
+        assertTrue(otraVista.esMina());
+        assertTrue(otraVista.estaMarcada());
+        assertFalse(otraVista.estaRevelada());
+        assertFalse(tablero.getCelda(3, 5).esMina());
+    }
+    
+    @Test
+    @DisplayName("Test: Tablero grande con almacenamiento empaquetado")
+    void testTableroGrande() {
+        TableroBuscaminas grande = new TableroBuscaminas(5000, 5000, 1);
+        assertEquals(25_000_000, grande.getTotalCeldas());
+        
+        grande.marcarCelda(4999, 4999);
+        assertTrue(grande.getCelda(4999, 4999).estaMarcada());
+        assertEquals(1, grande.getMinasMarcadas());
+    }
+    
+    @Test
+    @DisplayName("Test: Adyacencias calculadas desde las minas coinciden con el conteo directo")
+    void testAdyacenciasDesdeMinas() {
+        TableroBuscaminas denso = new TableroBuscaminas(30, 40, 500);
+        denso.setColocadorMinas(new ColocadorMinas(2024L));
+        denso.colocarMinas(10, 10);
+        
+        for (int fila = 0; fila < denso.getFilas(); fila++) {
+            for (int columna = 0; columna < denso.getColumnas(); columna++) {
+                Celda celda = denso.getCelda(fila, columna);
+                int esperado = 0;
+                if (!celda.esMina()) {
+                    for (int df = -1; df <= 1; df++) {
+                        for (int dc = -1; dc <= 1; dc++) {
+                            int f = fila + df;
+                            int c = columna + dc;
+                            if (f >= 0 && f < denso.getFilas() && c >= 0 && c < denso.getColumnas()
+                                    && denso.getCelda(f, c).esMina()) {
+                                esperado++;
+                            }
+                        }
+                    }
+                }
+                assertEquals(esperado, celda.getMinasAdyacentes());
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Test: Recalcular adyacencias tras colocar minas manualmente")
+    void testRecalcularAdyacencias() {
+        tablero.getCelda(0, 0).establecerComoMina();
+        tablero.getCelda(0, 2).establecerComoMina();
+        tablero.getCelda(1, 1).establecerMinasAdyacentes(5);
+        
+        tablero.recalcularMinasAdyacentes();
+        
+        assertEquals(2, tablero.getCelda(1, 1).getMinasAdyacentes());
+        assertEquals(2, tablero.getCelda(0, 1).getMinasAdyacentes());
+        assertEquals(1, tablero.getCelda(1, 0).getMinasAdyacentes());
+        assertEquals(0, tablero.getCelda(0, 0).getMinasAdyacentes());
+        assertEquals(0, tablero.getCelda(5, 5).getMinasAdyacentes());
+    }
+    
+    @Test
+    @DisplayName("Test: Cascada de un millón de celdas con métricas")
+    void testCascadaMillonCeldas() {
+        TableroBuscaminas abierto = new TableroBuscaminas(1000, 1000, 0);
+        abierto.colocarMinas(500, 500);
+        
+        assertTrue(abierto.revelarCelda(500, 500));
+        
+        assertEquals(1_000_000, abierto.getCeldasReveladas());
+        assertEquals(999_999, abierto.getCeldasUltimaCascada());
+        assertTrue(abierto.getCeldasVisitadasUltimaCascada() >= abierto.getCeldasUltimaCascada());
+        assertTrue(abierto.getNanosUltimaCascada() > 0);
+        assertTrue(abierto.isJuegoGanado());
+    }
+    
+    @Test
+    @DisplayName("Test: La cascada no revela celdas marcadas")
+    void testCascadaRespetaMarcas() {
+        TableroBuscaminas abierto = new TableroBuscaminas(10, 10, 0);
+        abierto.colocarMinas(0, 0);
+        abierto.marcarCelda(9, 9);
+        
+        abierto.revelarCelda(0, 0);
+        
+        assertEquals(99, abierto.getCeldasReveladas());
+        assertFalse(abierto.getCelda(9, 9).estaRevelada());
+        assertTrue(abierto.getCelda(9, 9).estaMarcada());
+        assertFalse(abierto.isJuegoGanado());
+    }
+    
+    @Test
+    @DisplayName("Test: Métricas de cascada a cero sin inundación")
+    void testMetricasSinCascada() {
+        TableroBuscaminas pequeno = new TableroBuscaminas(3, 3, 1);
+        pequeno.getCelda(0, 0).establecerComoMina();
+        pequeno.recalcularMinasAdyacentes();
+        
+        pequeno.revelarCelda(2, 2);
+        int primeraCascada = pequeno.getCeldasUltimaCascada();
+        assertTrue(primeraCascada > 0);
+        
+        pequeno.reiniciar();
+        pequeno.getCelda(0, 0).establecerComoMina();
+        pequeno.recalcularMinasAdyacentes();
+        pequeno.revelarCelda(1, 1);
+        assertEquals(0, pequeno.getCeldasUltimaCascada());
+        
+        // Revelar una celda ya revelada tampoco deja las cifras de la jugada anterior
+        pequeno.revelarCelda(2, 2);
+        assertTrue(pequeno.getCeldasUltimaCascada() > 0);
+        assertFalse(pequeno.revelarCelda(2, 2));
+        assertEquals(0, pequeno.getCeldasUltimaCascada());
+        assertEquals(0, pequeno.getCeldasVisitadasUltimaCascada());
+        assertEquals(0, pequeno.getNanosUltimaCascada());
+    }
+    
+    @Test
+    @DisplayName("Test: Cambios registrados al revelar con cascada")
+    void testCambiosRevelarCascada() {
+        TableroBuscaminas abierto = new TableroBuscaminas(10, 10, 1);
+        abierto.getCelda(9, 9).establecerComoMina();
+        abierto.recalcularMinasAdyacentes();
+        
+        abierto.revelarCelda(0, 0);
+        CambiosTablero cambios = abierto.getUltimosCambios();
+        
+        assertEquals(abierto.getCeldasReveladas(), cambios.getCantidad());
+        assertEquals(0, cambios.getFila(0));
+        assertEquals(0, cambios.getColumna(0));
+        for (int i = 0; i < cambios.getCantidad(); i++) {
+            assertTrue(cambios.estaRevelada(i));
+            assertFalse(cambios.esMina(i));
+            assertEquals(abierto.getCelda(cambios.getFila(i), cambios.getColumna(i)).getMinasAdyacentes(),
+                         cambios.getMinasAdyacentes(i));
+        }
+    }
+    
+    @Test
+    @DisplayName("Test: Cambios registrados al marcar y en operaciones inválidas")
+    void testCambiosMarcar() {
+        tablero.colocarMinas(0, 0);
+        
+        tablero.marcarCelda(4, 7);
+        CambiosTablero cambios = tablero.getUltimosCambios();
+        assertEquals(1, cambios.getCantidad());
+        assertEquals(4, cambios.getFila(0));
+        assertEquals(7, cambios.getColumna(0));
+        assertTrue(cambios.estaMarcada(0));
+        
+        tablero.revelarCelda(4, 7);
+        assertTrue(tablero.getUltimosCambios().estaVacio());
+        
+        tablero.marcarCelda(4, 7);
+        assertEquals(1, tablero.getUltimosCambios().getCantidad());
+        assertFalse(tablero.getUltimosCambios().estaMarcada(0));
+    }
+    
+    @Test
+    @DisplayName("Test: Celdas pendientes para el guardado incremental")
+    void testCeldasPendientes() {
+        tablero.colocarMinas(0, 0);
+        assertTrue(tablero.requiereGuardadoCompleto());
+        
+        tablero.marcarGuardado();
+        assertFalse(tablero.requiereGuardadoCompleto());
+        assertEquals(0, tablero.getCantidadCeldasPendientes());
+        
+        // Marcar y desmarcar la misma celda la deja pendiente una sola vez
+        tablero.marcarCelda(4, 7);
+        tablero.marcarCelda(4, 7);
+        assertArrayEquals(new int[]{4 * tablero.getColumnas() + 7}, tablero.getCeldasPendientes());
+        assertEquals(0, tablero.getEstadosPendientes()[0] & Celda.BIT_MARCADA);
+        
+        tablero.marcarGuardado();
+        tablero.marcarCelda(4, 7);
+        assertEquals(1, tablero.getCantidadCeldasPendientes());
+        assertNotEquals(0, tablero.getEstadosPendientes()[0] & Celda.BIT_MARCADA);
+        
+        tablero.reiniciar();
+        assertTrue(tablero.requiereGuardadoCompleto());
+        assertEquals(0, tablero.getCantidadCeldasPendientes());
+    }
+    
+    @Test
+    @DisplayName("Test: Un aviso por jugada con sus celdas, y al reiniciar")
+    void testObservadorCambios() {
+        StringBuilder avisos = new StringBuilder();
+        int[] celdasAvisadas = new int[1];
+        ObservadorTablero observador = new ObservadorTablero() {
+            @Override
+            public void celdasCambiadas(TableroBuscaminas origen, CambiosTablero cambios) {
+                avisos.append('C');
+                celdasAvisadas[0] = cambios.getCantidad();
+            }
+            
+            @Override
+            public void tableroReiniciado(TableroBuscaminas origen) {
+                avisos.append('R');
+            }
+        };
+        TableroBuscaminas abierto = new TableroBuscaminas(10, 10, 0);
+        abierto.agregarObservador(observador);
+        abierto.colocarMinas(0, 0);
+        assertEquals("", avisos.toString());
+        
+        abierto.marcarCelda(9, 9);
+        abierto.marcarCelda(9, 9);
+        assertEquals("CC", avisos.toString());
+        assertEquals(1, celdasAvisadas[0]);
+        
+        // La cascada llega en un solo aviso; una jugada que no cambia nada no avisa
+        abierto.revelarCelda(0, 0);
+        abierto.revelarCelda(5, 5);
+        assertEquals("CCC", avisos.toString());
+        assertEquals(100, celdasAvisadas[0]);
+        
+        abierto.reiniciar();
+        assertEquals("CCCR", avisos.toString());
+        
+        abierto.quitarObservador(observador);
+        abierto.marcarCelda(9, 9);
+        assertEquals("CCCR", avisos.toString());
+    }
+    
+    @Test
+    @DisplayName("Test: El final de la partida se avisa una vez, después de sus celdas")
+    void testObservadorFinPartida() {
+        StringBuilder avisos = new StringBuilder();
+        ObservadorTablero observador = new ObservadorTablero() {
+            @Override
+            public void celdasCambiadas(TableroBuscaminas origen, CambiosTablero cambios) {
+                avisos.append('C');
+            }
+            
+            @Override
+            public void partidaTerminada(TableroBuscaminas origen, boolean ganada) {
+                avisos.append(ganada ? 'G' : 'P');
+            }
+        };
+        tablero.colocarMinas(0, 0);
+        tablero.agregarObservador(observador);
+        int[] mina = null;
+        for (int fila = 0; fila < tablero.getFilas() && mina == null; fila++) {
+            for (int columna = 0; columna < tablero.getColumnas() && mina == null; columna++) {
+                if (tablero.getCelda(fila, columna).esMina()) {
+                    mina = new int[]{fila, columna};
+                }
+            }
+        }
+        assertFalse(tablero.revelarCelda(mina[0], mina[1]));
+        assertEquals("CP", avisos.toString());
+        
+        avisos.setLength(0);
+        tablero.reiniciar();
+        tablero.colocarMinas(0, 0);
+        for (int fila = 0; fila < tablero.getFilas(); fila++) {
+            for (int columna = 0; columna < tablero.getColumnas(); columna++) {
+                if (!tablero.getCelda(fila, columna).esMina()) {
+                    tablero.revelarCelda(fila, columna);
+                }
+            }
+        }
+        assertTrue(tablero.isJuegoGanado());
+        assertEquals('G', avisos.charAt(avisos.length() - 1));
+        assertEquals(1, avisos.chars().filter(c -> c == 'G').count());
+    }
+    
+    @Test
+    @DisplayName("Test: Consultas por índice iguales a las de la vista, y lado solo en tableros cuadrados")
+    void testConsultasPorIndice() {
+        TableroBuscaminas rectangular = new TableroBuscaminas(8, 13, 20);
+        rectangular.setColocadorMinas(new ColocadorMinas(21L));
+        rectangular.colocarMinas(4, 6);
+        rectangular.revelarCelda(4, 6);
+        rectangular.marcarCelda(0, 12);
+        
+        for (int fila = 0; fila < rectangular.getFilas(); fila++) {
+            for (int columna = 0; columna < rectangular.getColumnas(); columna++) {
+                Celda celda = rectangular.getCelda(fila, columna);
+                int indice = fila * rectangular.getColumnas() + columna;
+                assertEquals(celda.esMina(), rectangular.esMina(indice));
+                assertEquals(celda.estaRevelada(), rectangular.estaRevelada(indice));
+                assertEquals(celda.estaMarcada(), rectangular.estaMarcada(indice));
+                assertEquals(celda.getMinasAdyacentes(), rectangular.getMinasAdyacentes(indice));
+            }
+        }
+        
+        assertThrows(IllegalStateException.class, rectangular::getTamano);
+        assertEquals(20, tablero.getTamano());
+    }
 }
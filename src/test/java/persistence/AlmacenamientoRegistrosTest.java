@@ -0,0 +1,200 @@
+package persistence;
+
+import celda.TableroBuscaminas;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static persistence.PartidasPrueba.crearPartida;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pruebas de los almacenamientos en memoria y en archivo mapeado: deben
+ * comportarse igual que SQLite a ojos de los servicios
+ */
+class AlmacenamientoRegistrosTest {
+
+    @TempDir
+    Path directorio;
+
+    private static void marcarPrimeraOculta(TableroBuscaminas tablero) {
+        for (int fila = 0; fila < tablero.getFilas(); fila++) {
+            for (int columna = 0; columna < tablero.getColumnas(); columna++) {
+                if (!tablero.getCelda(fila, columna).estaRevelada() && !tablero.getCelda(fila, columna).estaMarcada()) {
+                    tablero.marcarCelda(fila, columna);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void assertMismoEstado(TableroBuscaminas esperado, TableroBuscaminas real) {
+        assertEquals(esperado.getCeldasReveladas(), real.getCeldasReveladas());
+        assertEquals(esperado.getMinasMarcadas(), real.getMinasMarcadas());
+        assertEquals(esperado.isJuegoTerminado(), real.isJuegoTerminado());
+        for (int fila = 0; fila < esperado.getFilas(); fila++) {
+            for (int columna = 0; columna < esperado.getColumnas(); columna++) {
+                assertEquals(esperado.getCelda(fila, columna).esMina(), real.getCelda(fila, columna).esMina());
+                assertEquals(esperado.getCelda(fila, columna).estaRevelada(), real.getCelda(fila, columna).estaRevelada());
+                assertEquals(esperado.getCelda(fila, columna).estaMarcada(), real.getCelda(fila, columna).estaMarcada());
+            }
+        }
+    }
+
+    // Lo mismo que cubren las pruebas de SlotGuardadoDAO y PartidaDAO sobre SQLite
+    private static void verificarContrato(AlmacenamientoPartidas almacenamiento) throws AlmacenamientoException {
+        List<SlotGuardadoDAO.SlotInfo> iniciales = almacenamiento.obtenerInfoSlots();
+        assertEquals(3, iniciales.size());
+        for (SlotGuardadoDAO.SlotInfo info : iniciales) {
+            assertFalse(info.estaOcupado());
+        }
+        assertThrows(AlmacenamientoException.class, () -> almacenamiento.cargarDesdeSlot(1));
+        assertNull(almacenamiento.obtenerInfoSlot(99));
+        assertThrows(AlmacenamientoException.class,
+            () -> almacenamiento.guardarEnSlot(99, "X", "Ana", InstantaneaTablero.completa(crearPartida())));
+
+        // Guardado completo y después solo los cambios
+        TableroBuscaminas tablero = crearPartida();
+        almacenamiento.guardarEnSlot(1, "Mi partida", "Ana", InstantaneaTablero.completa(tablero));
+        tablero.marcarGuardado();
+        marcarPrimeraOculta(tablero);
+        almacenamiento.guardarCambiosEnSlot(1, InstantaneaTablero.cambios(tablero));
+        assertMismoEstado(tablero, almacenamiento.cargarDesdeSlot(1));
+        assertEquals(1, almacenamiento.obtenerInfoSlot(1).getMinasMarcadas());
+        assertThrows(AlmacenamientoException.class,
+            () -> almacenamiento.guardarCambiosEnSlot(2, InstantaneaTablero.cambios(tablero)));
+
+        int nuevo = almacenamiento.crearSlot("Otra", "Ana", InstantaneaTablero.completa(crearPartida()));
+        assertEquals(4, nuevo);
+
+        // Del más reciente al más antiguo, de dos en dos
+        List<Integer> ids = new ArrayList<>();
+        CursorPagina cursor = null;
+        do {
+            PaginaGuardados<SlotGuardadoDAO.SlotInfo> pagina =
+                almacenamiento.obtenerPaginaSlots(FiltroGuardados.todos(), cursor, 2);
+            for (SlotGuardadoDAO.SlotInfo info : pagina.getElementos()) {
+                ids.add(info.getSlotId());
+            }
+            cursor = pagina.getSiguiente();
+        } while (cursor != null);
+        // Con la misma fecha desempata el id, así que el último creado va primero
+        assertEquals(4, ids.get(0));
+        assertEquals(List.of(1, 2, 3, 4), ids.stream().sorted().toList());
+        PaginaGuardados<SlotGuardadoDAO.SlotInfo> deAna =
+            almacenamiento.obtenerPaginaSlots(FiltroGuardados.porJugador("Ana"), null, 10);
+        assertEquals(2, deAna.getElementos().size());
+        assertFalse(deAna.hayMas());
+
+        almacenamiento.limpiarSlot(1);
+        assertFalse(almacenamiento.obtenerInfoSlot(1).estaOcupado());
+        // Los slots vacíos quedan en 'en_curso' pero no aparecen al filtrar por estado
+        List<SlotGuardadoDAO.SlotInfo> enCurso =
+            almacenamiento.obtenerPaginaSlots(FiltroGuardados.porEstado("en_curso"), null, 10).getElementos();
+        assertEquals(List.of(4), enCurso.stream().map(SlotGuardadoDAO.SlotInfo::getSlotId).toList());
+        assertThrows(AlmacenamientoException.class, () -> almacenamiento.cargarDesdeSlot(1));
+
+        // Partidas
+        TableroBuscaminas partida = crearPartida();
+        int partidaId = almacenamiento.guardarPartida("Ana", partida);
+        marcarPrimeraOculta(partida);
+        almacenamiento.actualizarPartida(partidaId, partida);
+        assertMismoEstado(partida, almacenamiento.cargarPartida(partidaId));
+        assertEquals(1, almacenamiento.obtenerPartidasGuardadas().size());
+        assertEquals("en_curso", almacenamiento.obtenerPaginaPartidas(FiltroGuardados.todos(), null, 5)
+                                               .getElementos().get(0).getEstadoPartida());
+        almacenamiento.eliminarPartida(partidaId);
+        assertThrows(AlmacenamientoException.class, () -> almacenamiento.eliminarPartida(partidaId));
+        assertThrows(AlmacenamientoException.class, () -> almacenamiento.cargarPartida(partidaId));
+    }
+
+    @Test
+    @DisplayName("Test: El almacenamiento en memoria cumple el contrato")
+    void testContratoMemoria() throws AlmacenamientoException {
+        verificarContrato(new AlmacenamientoMemoria());
+    }
+
+    @Test
+    @DisplayName("Test: El almacenamiento mapeado cumple el contrato")
+    void testContratoMapeado() throws AlmacenamientoException {
+        AlmacenamientoMapeado almacenamiento = new AlmacenamientoMapeado(directorio);
+        try {
+            verificarContrato(almacenamiento);
+        } finally {
+            almacenamiento.cerrar();
+        }
+        assertFalse(almacenamiento.estaDisponible());
+        assertThrows(AlmacenamientoException.class, almacenamiento::obtenerInfoSlots);
+    }
+
+    @Test
+    @DisplayName("Test: El archivo mapeado conserva los guardados al reabrirlo y crece al llenarse")
+    void testMapeadoPersisteAlReabrir() throws AlmacenamientoException {
+        TableroBuscaminas tablero = crearPartida();
+        AlmacenamientoMapeado almacenamiento = new AlmacenamientoMapeado(directorio);
+        almacenamiento.guardarEnSlot(2, "Persistente", "Ana", InstantaneaTablero.completa(tablero));
+        // Más slots que la capacidad inicial del archivo
+        int ultimo = 0;
+        for (int i = 0; i < 20; i++) {
+            ultimo = almacenamiento.crearSlot("Extra " + i, "Luis", InstantaneaTablero.completa(tablero));
+        }
+        int partidaId = almacenamiento.guardarPartida("Ana", tablero);
+        almacenamiento.cerrar();
+
+        AlmacenamientoMapeado reabierto = new AlmacenamientoMapeado(directorio);
+        try {
+            assertEquals(23, reabierto.obtenerInfoSlots().size());
+            assertEquals("Persistente", reabierto.obtenerInfoSlot(2).getNombrePartida());
+            assertEquals("Extra 19", reabierto.obtenerInfoSlot(ultimo).getNombrePartida());
+            assertMismoEstado(tablero, reabierto.cargarDesdeSlot(2));
+            assertMismoEstado(tablero, reabierto.cargarPartida(partidaId));
+            // Los ids no se reutilizan
+            assertEquals(ultimo + 1, reabierto.crearSlot("Nuevo", "Ana", InstantaneaTablero.completa(tablero)));
+        } finally {
+            reabierto.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Un registro dañado se detecta por su CRC y no oculta el resto")
+    void testMapeadoDetectaRegistroDanado() throws Exception {
+        AlmacenamientoMapeado almacenamiento = new AlmacenamientoMapeado(directorio);
+        almacenamiento.guardarEnSlot(1, "Mi partida", "Ana", InstantaneaTablero.completa(crearPartida()));
+        almacenamiento.cerrar();
+
+        // Un byte del nombre de la partida del slot 1
+        try (RandomAccessFile archivo = new RandomAccessFile(
+                directorio.resolve(AlmacenamientoMapeado.ARCHIVO_SLOTS).toFile(), "rw")) {
+            archivo.seek(ArchivoRegistros.TAMANO_CABECERA + 42);
+            archivo.write('X');
+        }
+
+        AlmacenamientoMapeado reabierto = new AlmacenamientoMapeado(directorio);
+        try {
+            assertEquals(2, reabierto.obtenerInfoSlots().size());
+            assertThrows(AlmacenamientoException.class, () -> reabierto.cargarDesdeSlot(1));
+        } finally {
+            reabierto.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Un nombre que no cabe en el registro se rechaza sin tocar el guardado")
+    void testMapeadoRechazaTextoLargo() throws AlmacenamientoException {
+        AlmacenamientoMapeado almacenamiento = new AlmacenamientoMapeado(directorio);
+        try {
+            TableroBuscaminas tablero = crearPartida();
+            almacenamiento.guardarEnSlot(1, "Corto", "Ana", InstantaneaTablero.completa(tablero));
+            String largo = "x".repeat(ArchivoRegistros.MAXIMO_NOMBRE + 1);
+            assertThrows(AlmacenamientoException.class,
+                () -> almacenamiento.guardarEnSlot(1, largo, "Ana", InstantaneaTablero.completa(tablero)));
+            assertEquals("Corto", almacenamiento.obtenerInfoSlot(1).getNombrePartida());
+        } finally {
+            almacenamiento.cerrar();
+        }
+    }
+}
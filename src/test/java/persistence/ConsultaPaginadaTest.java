@@ -0,0 +1,162 @@
+package persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pruebas del listado paginado por conjunto de claves sobre una base de datos temporal
+ */
+class ConsultaPaginadaTest {
+
+    private static final int TOTAL_SLOTS = 50;
+
+    @TempDir
+    Path directorio;
+
+    private Connection conn;
+
+    @BeforeEach
+    void preparar() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite:" + directorio.resolve("paginas.db"));
+        MigracionesEsquema.aplicarPendientes(conn);
+        try (Statement statement = conn.createStatement()) {
+            statement.execute("DELETE FROM slots_guardado");
+        }
+        // Fechas repetidas de cinco en cinco para que el id tenga que desempatar
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO slots_guardado (slot_id, nombre_partida, nombre_jugador, estado_partida, " +
+                "fecha_ultima_modificacion) VALUES (?, ?, ?, ?, datetime('2024-01-01', ? || ' minutes'))")) {
+            for (int id = 1; id <= TOTAL_SLOTS; id++) {
+                ps.setInt(1, id);
+                ps.setString(2, "Partida " + id);
+                ps.setString(3, id % 2 == 0 ? "Par" : "Impar");
+                ps.setString(4, id % 3 == 0 ? "terminada" : "en_curso");
+                ps.setInt(5, id / 5);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    @AfterEach
+    void cerrar() throws SQLException {
+        conn.close();
+    }
+
+    private List<Integer> recorrer(FiltroGuardados filtro, int tamano) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        CursorPagina cursor = null;
+        do {
+            PaginaGuardados<Integer> pagina = ConsultaPaginada.consultar(conn, "slot_id, fecha_ultima_modificacion",
+                                                                         "slots_guardado", "slot_id", filtro,
+                                                                         cursor, tamano, rs -> rs.getInt("slot_id"));
+            assertTrue(pagina.getElementos().size() <= tamano);
+            ids.addAll(pagina.getElementos());
+            cursor = pagina.getSiguiente();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<Integer> esperados(String condicion) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT slot_id FROM slots_guardado WHERE " + condicion +
+                                                   " ORDER BY fecha_ultima_modificacion DESC, slot_id DESC")) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Test: Las páginas recorren todos los slots en orden y sin repetir")
+    void testRecorridoCompleto() throws SQLException {
+        List<Integer> ids = recorrer(FiltroGuardados.todos(), 7);
+        List<Integer> porJugador = recorrer(FiltroGuardados.porJugador("Par"), 4);
+        List<Integer> porEstado = recorrer(FiltroGuardados.porEstado("terminada"), 5);
+
+        // Con exactamente una página llena no debe quedar una página vacía detrás
+        PaginaGuardados<Integer> unica = ConsultaPaginada.consultar(conn, "slot_id, fecha_ultima_modificacion",
+                                                                    "slots_guardado", "slot_id",
+                                                                    FiltroGuardados.todos(), null, TOTAL_SLOTS,
+                                                                    rs -> rs.getInt("slot_id"));
+        assertFalse(unica.hayMas());
+
+        assertEquals(TOTAL_SLOTS, ids.size());
+        assertEquals(List.of(50, 49, 48, 47, 46, 45, 44), ids.subList(0, 7));
+        assertEquals(esperados("1 = 1"), ids);
+        assertEquals(esperados("nombre_jugador = 'Par'"), porJugador);
+        assertEquals(esperados("estado_partida = 'terminada'"), porEstado);
+        assertEquals(16, porEstado.size());
+    }
+
+    @Test
+    @DisplayName("Test: El filtro por estado deja fuera los slots vaciados")
+    void testFiltroEstadoSinVacios() throws SQLException {
+        // Un slot vaciado vuelve a 'en_curso' con el jugador "Vacío"
+        try (Statement statement = conn.createStatement()) {
+            statement.execute("UPDATE slots_guardado SET nombre_jugador = 'Vacío' WHERE slot_id IN (1, 2, 49)");
+        }
+
+        List<Integer> enCurso = recorrer(FiltroGuardados.porEstado("en_curso"), 6);
+
+        assertEquals(esperados("estado_partida = 'en_curso' AND nombre_jugador <> 'Vacío'"), enCurso);
+        assertFalse(enCurso.contains(1) || enCurso.contains(2) || enCurso.contains(49));
+        assertEquals(31, enCurso.size());
+        assertEquals(TOTAL_SLOTS, recorrer(FiltroGuardados.todos(), 10).size());
+    }
+
+    @Test
+    @DisplayName("Test: Cada criterio del listado usa su índice sin ordenar en memoria")
+    void testPlanesConIndice() throws SQLException {
+        CursorPagina cursor = new CursorPagina("2024-01-01 00:05:00", 30);
+        FiltroGuardados[] filtros = {
+            FiltroGuardados.todos(), FiltroGuardados.porJugador("Par"), FiltroGuardados.porEstado("en_curso")
+        };
+        String[] indices = {"idx_slots_fecha", "idx_slots_jugador", "idx_slots_estado"};
+
+        for (int i = 0; i < filtros.length; i++) {
+            String sql = ConsultaPaginada.construirSql("slot_id, nombre_partida, fecha_ultima_modificacion",
+                                                       "slots_guardado", "slot_id", filtros[i], cursor);
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+                int parametro = 1;
+                if (filtros[i].getColumna() != null) {
+                    ps.setString(parametro++, filtros[i].getValor());
+                }
+                ps.setString(parametro++, cursor.getFechaUltimaModificacion());
+                ps.setInt(parametro++, cursor.getId());
+                ps.setInt(parametro, 20);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString("detail")).append('\n');
+                    }
+                }
+            }
+            assertTrue(plan.toString().contains(indices[i]), plan.toString());
+            assertFalse(plan.toString().contains("TEMP B-TREE"), plan.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Tamaño de página fuera de rango")
+    void testTamanoInvalido() throws SQLException {
+        assertThrows(IllegalArgumentException.class, () -> ConsultaPaginada.consultar(
+            conn, "slot_id", "slots_guardado", "slot_id", FiltroGuardados.todos(), null, 0, rs -> rs.getInt(1)));
+        assertThrows(IllegalArgumentException.class, () -> FiltroGuardados.porJugador(null));
+    }
+}
@@ -0,0 +1,183 @@
+package persistence;
+
+import celda.ColocadorMinas;
+import celda.CodificadorTablero;
+import celda.TableroBuscaminas;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static persistence.PartidasPrueba.crearPartida;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Pruebas del diario de jugadas y de su recuperación al crear el servicio
+ */
+class DiarioJugadasTest {
+
+    private static final int SLOT = 3;
+
+    @TempDir
+    Path directorio;
+
+    private static TableroBuscaminas copiar(TableroBuscaminas tablero) {
+        return CodificadorTablero.decodificar(CodificadorTablero.codificar(tablero), tablero.getFilas(),
+                                              tablero.getColumnas(), tablero.getCantidadMinas());
+    }
+
+    // Primera celda oculta sin mina, para revelarla sin perder
+    private static int[] celdaSegura(TableroBuscaminas tablero) {
+        for (int fila = 0; fila < tablero.getFilas(); fila++) {
+            for (int columna = 0; columna < tablero.getColumnas(); columna++) {
+                if (!tablero.getCelda(fila, columna).estaRevelada() && !tablero.getCelda(fila, columna).esMina()
+                    && !tablero.getCelda(fila, columna).estaMarcada()) {
+                    return new int[] {fila, columna};
+                }
+            }
+        }
+        throw new IllegalStateException("No quedan celdas seguras");
+    }
+
+    private static int[] celdaOculta(TableroBuscaminas tablero) {
+        for (int fila = 0; fila < tablero.getFilas(); fila++) {
+            for (int columna = 0; columna < tablero.getColumnas(); columna++) {
+                if (!tablero.getCelda(fila, columna).estaRevelada()) {
+                    return new int[] {fila, columna};
+                }
+            }
+        }
+        throw new IllegalStateException("No quedan celdas ocultas");
+    }
+
+    private static void assertMismoEstado(TableroBuscaminas esperado, TableroBuscaminas real) {
+        assertEquals(esperado.getCeldasReveladas(), real.getCeldasReveladas());
+        assertEquals(esperado.getMinasMarcadas(), real.getMinasMarcadas());
+        assertArrayEquals(CodificadorTablero.codificar(esperado), CodificadorTablero.codificar(real));
+    }
+
+    @Test
+    @DisplayName("Test: Reproducir el diario sobre la instantánea reconstruye el tablero, aunque se repita")
+    void testReproducir() throws IOException {
+        TableroBuscaminas tablero = crearPartida();
+        TableroBuscaminas instantanea = copiar(tablero);
+        Path archivo = directorio.resolve("slot-1.diario");
+        DiarioJugadas diario = DiarioJugadas.abrir(archivo, tablero);
+
+        int[] bandera = celdaOculta(tablero);
+        tablero.marcarCelda(bandera[0], bandera[1]);
+        diario.anotar(tablero, TipoJugada.MARCAR, bandera[0], bandera[1]);
+        for (int i = 0; i < 5; i++) {
+            int[] segura = celdaSegura(tablero);
+            tablero.revelarCelda(segura[0], segura[1]);
+            diario.anotar(tablero, TipoJugada.REVELAR, segura[0], segura[1]);
+        }
+        tablero.marcarCelda(bandera[0], bandera[1]);
+        diario.anotar(tablero, TipoJugada.MARCAR, bandera[0], bandera[1]);
+        diario.sincronizar();
+        assertEquals(DiarioJugadas.TAMANO_CABECERA + 7 * DiarioJugadas.TAMANO_JUGADA, Files.size(archivo));
+
+        assertEquals(7, DiarioJugadas.reproducir(archivo, instantanea));
+        assertMismoEstado(tablero, instantanea);
+        // Las jugadas guardan el resultado: aplicarlas otra vez no cambia nada
+        assertEquals(7, DiarioJugadas.reproducir(archivo, instantanea));
+        assertMismoEstado(tablero, instantanea);
+
+        // Un final escrito a medias se ignora, y al reabrir se corta
+        Files.write(archivo, new byte[] {1, 0, 3}, StandardOpenOption.APPEND);
+        assertEquals(7, DiarioJugadas.reproducir(archivo, copiar(instantanea)));
+        diario.cerrar();
+        DiarioJugadas reabierto = DiarioJugadas.abrir(archivo, tablero);
+        assertEquals(7, reabierto.getPendientes());
+        reabierto.cerrar();
+    }
+
+    @Test
+    @DisplayName("Test: El diario de otra partida no se aplica")
+    void testOtraPartida() throws IOException {
+        TableroBuscaminas tablero = crearPartida();
+        Path archivo = directorio.resolve("slot-1.diario");
+        DiarioJugadas diario = DiarioJugadas.abrir(archivo, tablero);
+        int[] segura = celdaSegura(tablero);
+        tablero.revelarCelda(segura[0], segura[1]);
+        diario.anotar(tablero, TipoJugada.REVELAR, segura[0], segura[1]);
+        diario.sincronizar();
+
+        TableroBuscaminas otra = new TableroBuscaminas(20, 20, 40);
+        otra.setColocadorMinas(new ColocadorMinas(99L));
+        otra.colocarMinas(0, 0);
+        assertEquals(-1, DiarioJugadas.reproducir(archivo, otra));
+        assertEquals(0, otra.getCeldasReveladas());
+
+        // Abrirlo para otra partida lo empieza de cero
+        diario.cerrar();
+        DiarioJugadas nuevo = DiarioJugadas.abrir(archivo, otra);
+        assertEquals(0, nuevo.getPendientes());
+        assertEquals(DiarioJugadas.TAMANO_CABECERA, Files.size(archivo));
+        nuevo.cerrar();
+        assertFalse(Files.exists(archivo));
+    }
+
+    @Test
+    @DisplayName("Test: Descartar las jugadas cubiertas conserva solo las posteriores")
+    void testDescartarHasta() throws IOException {
+        TableroBuscaminas tablero = crearPartida();
+        Path archivo = directorio.resolve("slot-1.diario");
+        DiarioJugadas diario = DiarioJugadas.abrir(archivo, tablero);
+        for (int i = 0; i < 4; i++) {
+            int[] segura = celdaSegura(tablero);
+            tablero.revelarCelda(segura[0], segura[1]);
+            diario.anotar(tablero, TipoJugada.REVELAR, segura[0], segura[1]);
+        }
+        TableroBuscaminas instantanea = copiar(tablero);
+        long cubiertas = diario.getAnotadas();
+        for (int i = 0; i < 3; i++) {
+            int[] segura = celdaSegura(tablero);
+            tablero.revelarCelda(segura[0], segura[1]);
+            diario.anotar(tablero, TipoJugada.REVELAR, segura[0], segura[1]);
+        }
+
+        diario.descartarHasta(cubiertas);
+        diario.sincronizar();
+        assertEquals(3, diario.getPendientes());
+        assertEquals(DiarioJugadas.TAMANO_CABECERA + 3 * DiarioJugadas.TAMANO_JUGADA, Files.size(archivo));
+        assertEquals(3, DiarioJugadas.reproducir(archivo, instantanea));
+        assertMismoEstado(tablero, instantanea);
+        diario.cerrar();
+        assertTrue(Files.exists(archivo));
+    }
+
+    @Test
+    @DisplayName("Test: Las jugadas sin compactar se recuperan al crear el servicio y el diario se compacta")
+    void testRecuperacionYCompactacion() throws Exception {
+        SlotGuardadoService servicio = new SlotGuardadoService(TipoAlmacenamiento.MEMORIA, directorio);
+        TableroBuscaminas tablero = crearPartida();
+        servicio.guardarEnSlot(SLOT, "Diario", "Ana", tablero);
+
+        // Poner y quitar la misma bandera hasta pasar una compactación
+        int[] bandera = celdaOculta(tablero);
+        for (int i = 0; i < SlotGuardadoService.JUGADAS_POR_COMPACTACION + 3; i++) {
+            tablero.marcarCelda(bandera[0], bandera[1]);
+            servicio.guardarJugadaAsync(SLOT, "Diario", "Ana", tablero, TipoJugada.MARCAR, bandera[0], bandera[1]).join();
+        }
+        int[] segura = celdaSegura(tablero);
+        tablero.revelarCelda(segura[0], segura[1]);
+        servicio.guardarJugadaAsync(SLOT, "Diario", "Ana", tablero, TipoJugada.REVELAR, segura[0], segura[1]).join();
+        // Tras la compactación solo quedan en el diario las jugadas posteriores
+        Path archivo = directorio.resolve("slot-" + SLOT + ".diario");
+        assertEquals(DiarioJugadas.TAMANO_CABECERA + 4 * DiarioJugadas.TAMANO_JUGADA, Files.size(archivo));
+
+        // Sin cerrar el servicio, como tras un cierre inesperado: el slot aún no tiene las últimas jugadas
+        SlotGuardadoService recuperado = new SlotGuardadoService(TipoAlmacenamiento.MEMORIA, directorio);
+        try {
+            assertMismoEstado(tablero, recuperado.cargarDesdeSlot(SLOT));
+            assertFalse(Files.exists(archivo));
+        } finally {
+            recuperado.limpiarSlot(SLOT);
+            recuperado.cerrar();
+        }
+    }
+}
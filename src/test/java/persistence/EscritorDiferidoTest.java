@@ -0,0 +1,148 @@
+package persistence;
+
+import celda.TableroBuscaminas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import static persistence.PartidasPrueba.crearPartida;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Pruebas de integración para el escritor en segundo plano de los slots
+ */
+class EscritorDiferidoTest {
+
+    private static final int SLOT = 3;
+
+    private final SlotGuardadoDAO slotDAO = new SlotGuardadoDAO();
+    private final EscritorDiferido escritor = new EscritorDiferido(new AlmacenamientoSQLite());
+
+    @AfterEach
+    void limpiar() throws Exception {
+        escritor.cerrar(SlotGuardadoService.TIEMPO_MAXIMO_CIERRE_MS);
+        slotDAO.limpiarSlot(SLOT);
+    }
+
+    // Ocupa el hilo del escritor hasta que se abra el cerrojo, para que los guardados queden en cola
+    private CountDownLatch bloquearEscritor() {
+        CountDownLatch cerrojo = new CountDownLatch(1);
+        escritor.ejecutar(() -> {
+            cerrojo.await();
+            return null;
+        });
+        return cerrojo;
+    }
+
+    @Test
+    @DisplayName("Test: Guardados seguidos del mismo slot se combinan en una escritura")
+    void testCombinarGuardados() throws Exception {
+        TableroBuscaminas tablero = crearPartida();
+        CountDownLatch cerrojo = bloquearEscritor();
+
+        List<CompletableFuture<Void>> resultados = new ArrayList<>();
+        resultados.add(escritor.guardar(SLOT, "Combinada", "Jugador", InstantaneaTablero.completa(tablero), false));
+        tablero.marcarGuardado();
+        for (int columna = 0; columna < 10; columna++) {
+            tablero.marcarCelda(0, columna);
+            if (columna % 3 == 0) {
+                tablero.marcarCelda(0, columna);
+            }
+            resultados.add(escritor.guardar(SLOT, null, null, InstantaneaTablero.cambios(tablero), false));
+            tablero.marcarGuardado();
+        }
+        cerrojo.countDown();
+        CompletableFuture.allOf(resultados.toArray(new CompletableFuture[0])).join();
+
+        assertEquals(11, escritor.getGuardadosRecibidos());
+        assertEquals(1, escritor.getGuardadosEscritos());
+
+        TableroBuscaminas cargado = slotDAO.cargarDesdeSlot(SLOT);
+        assertEquals(tablero.getMinasMarcadas(), cargado.getMinasMarcadas());
+        for (int columna = 0; columna < 20; columna++) {
+            assertEquals(tablero.getCelda(0, columna).estaMarcada(), cargado.getCelda(0, columna).estaMarcada());
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Una lectura encolada ve los guardados pedidos antes")
+    void testOrdenLecturas() {
+        TableroBuscaminas tablero = crearPartida();
+        CountDownLatch cerrojo = bloquearEscritor();
+
+        escritor.guardar(SLOT, "Orden", "Jugador", InstantaneaTablero.completa(tablero), false);
+        CompletableFuture<TableroBuscaminas> carga = escritor.ejecutar(() -> slotDAO.cargarDesdeSlot(SLOT));
+        assertFalse(carga.isDone());
+        cerrojo.countDown();
+
+        assertEquals(tablero.getCeldasReveladas(), carga.join().getCeldasReveladas());
+    }
+
+    @Test
+    @DisplayName("Test: Un guardado no adelanta al vaciado encolado antes que él")
+    void testGuardarVaciarGuardar() throws Exception {
+        TableroBuscaminas primero = crearPartida();
+        TableroBuscaminas segundo = crearPartida();
+        segundo.marcarCelda(0, 0);
+        CountDownLatch cerrojo = bloquearEscritor();
+
+        escritor.guardar(SLOT, "Primero", "Jugador", InstantaneaTablero.completa(primero), false);
+        escritor.ejecutar(() -> {
+            slotDAO.limpiarSlot(SLOT);
+            return null;
+        });
+        CompletableFuture<Void> ultimo = escritor.guardar(SLOT, "Segundo", "Jugador",
+                                                          InstantaneaTablero.completa(segundo), false);
+        cerrojo.countDown();
+        ultimo.join();
+
+        assertEquals(2, escritor.getGuardadosEscritos());
+        assertEquals("Segundo", slotDAO.obtenerInfoSlot(SLOT).getNombrePartida());
+        assertEquals(1, slotDAO.cargarDesdeSlot(SLOT).getMinasMarcadas());
+    }
+
+    @Test
+    @DisplayName("Test: Tras cerrar, las tareas descartadas o nuevas terminan con error")
+    void testTareasTrasCerrar() {
+        TableroBuscaminas tablero = crearPartida();
+        CountDownLatch cerrojo = bloquearEscritor();
+        CompletableFuture<Void> encolado = escritor.guardar(SLOT, "Cierre", "Jugador",
+                                                            InstantaneaTablero.completa(tablero), false);
+        CompletableFuture<Object> lectura = escritor.ejecutar(() -> null);
+
+        // El hilo sigue bloqueado: el cierre agota el tiempo y descarta la cola
+        assertFalse(escritor.cerrar(50));
+        cerrojo.countDown();
+        assertTrue(encolado.isCompletedExceptionally());
+        assertTrue(lectura.isCompletedExceptionally());
+
+        for (int intento = 0; intento < 2; intento++) {
+            CompletableFuture<Void> rechazado = escritor.guardar(SLOT, "Cierre", "Jugador",
+                                                                 InstantaneaTablero.completa(tablero), false);
+            assertTrue(rechazado.isCompletedExceptionally());
+        }
+        assertTrue(escritor.ejecutar(() -> null).isCompletedExceptionally());
+    }
+
+    @Test
+    @DisplayName("Test: Los errores llegan por el resultado y el cierre vacía la cola")
+    void testErroresYCierre() {
+        TableroBuscaminas tablero = crearPartida();
+        tablero.marcarGuardado();
+        tablero.marcarCelda(0, 0);
+
+        // Un slot inexistente no se puede actualizar
+        CompletableFuture<Void> fallido = escritor.guardar(99, null, null, InstantaneaTablero.cambios(tablero), false);
+        CompletableFuture<Void> pendiente = escritor.guardar(SLOT, "Cierre", "Jugador",
+                                                              InstantaneaTablero.completa(tablero), false);
+
+        assertTrue(escritor.cerrar(SlotGuardadoService.TIEMPO_MAXIMO_CIERRE_MS));
+        assertTrue(fallido.isCompletedExceptionally());
+        assertTrue(pendiente.isDone());
+        assertFalse(pendiente.isCompletedExceptionally());
+    }
+}
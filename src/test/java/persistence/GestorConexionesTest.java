@@ -0,0 +1,146 @@
+package persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Pruebas de la reserva de conexiones sobre una base de datos temporal
+ */
+class GestorConexionesTest {
+
+    @TempDir
+    Path directorio;
+
+    private GestorConexiones gestor;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        gestor = crearGestor(PerfilPragmas.RAPIDO);
+        try (Connection conn = gestor.obtener();
+             Statement statement = conn.createStatement()) {
+            statement.execute("CREATE TABLE valores (id INTEGER PRIMARY KEY, valor INTEGER)");
+            statement.execute("INSERT INTO valores VALUES (1, 10), (2, 20)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        gestor.cerrar();
+    }
+
+    private GestorConexiones crearGestor(PerfilPragmas perfil) {
+        return new GestorConexiones("jdbc:sqlite:" + directorio.resolve("prueba.db"), perfil);
+    }
+
+    private static int leerValor(Connection conn, int id) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT valor FROM valores WHERE id = ?")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test: La conexión física se reutiliza y el envoltorio queda cerrado")
+    void testReutilizacion() throws SQLException {
+        Connection primera = gestor.obtener();
+        primera.close();
+        assertTrue(primera.isClosed());
+        assertThrows(SQLException.class, primera::createStatement);
+
+        try (Connection segunda = gestor.obtener()) {
+            assertFalse(segunda.isClosed());
+            assertEquals(10, leerValor(segunda, 1));
+        }
+        assertEquals(1, gestor.getConexionesCreadas());
+    }
+
+    @Test
+    @DisplayName("Test: Caché de sentencias preparadas")
+    void testCacheSentencias() throws SQLException {
+        try (Connection conn = gestor.obtener()) {
+            assertEquals(10, leerValor(conn, 1));
+            assertEquals(20, leerValor(conn, 2));
+        }
+        try (Connection conn = gestor.obtener()) {
+            assertEquals(10, leerValor(conn, 1));
+        }
+        assertEquals(1, gestor.getFallosSentencias());
+        assertEquals(2, gestor.getAciertosSentencias());
+
+        // El mismo SQL abierto dos veces a la vez usa una copia aparte
+        try (Connection conn = gestor.obtener();
+             PreparedStatement externa = conn.prepareStatement("SELECT valor FROM valores WHERE id = ?")) {
+            externa.setInt(1, 2);
+            try (ResultSet rs = externa.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals(10, leerValor(conn, 1));
+                assertEquals(20, rs.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Una transacción sin commit se deshace al devolver la conexión")
+    void testRollbackAlCerrar() throws SQLException {
+        try (Connection conn = gestor.obtener();
+             PreparedStatement ps = conn.prepareStatement("UPDATE valores SET valor = ? WHERE id = 1")) {
+            conn.setAutoCommit(false);
+            ps.setInt(1, 99);
+            ps.executeUpdate();
+        }
+
+        try (Connection conn = gestor.obtener()) {
+            assertTrue(conn.getAutoCommit());
+            assertEquals(10, leerValor(conn, 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Perfiles de PRAGMA")
+    void testPerfilesPragmas() throws SQLException {
+        try (Connection conn = gestor.obtener();
+             Statement statement = conn.createStatement()) {
+            ResultSet rs = statement.executeQuery("PRAGMA journal_mode");
+            assertEquals("wal", rs.getString(1));
+            rs = statement.executeQuery("PRAGMA synchronous");
+            assertEquals(1, rs.getInt(1));
+        }
+        gestor.cerrar();
+
+        gestor = crearGestor(PerfilPragmas.CLASICO);
+        try (Connection conn = gestor.obtener();
+             Statement statement = conn.createStatement()) {
+            ResultSet rs = statement.executeQuery("PRAGMA journal_mode");
+            assertEquals("delete", rs.getString(1));
+            rs = statement.executeQuery("PRAGMA synchronous");
+            assertEquals(2, rs.getInt(1));
+        }
+
+        String anterior = System.getProperty(PerfilPragmas.PROPIEDAD);
+        try {
+            System.setProperty(PerfilPragmas.PROPIEDAD, "duradero");
+            assertEquals(PerfilPragmas.DURADERO, PerfilPragmas.desdePropiedades());
+            System.setProperty(PerfilPragmas.PROPIEDAD, "inexistente");
+            assertThrows(IllegalArgumentException.class, PerfilPragmas::desdePropiedades);
+        } finally {
+            if (anterior == null) {
+                System.clearProperty(PerfilPragmas.PROPIEDAD);
+            } else {
+                System.setProperty(PerfilPragmas.PROPIEDAD, anterior);
+            }
+        }
+    }
+}
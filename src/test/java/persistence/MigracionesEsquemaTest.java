@@ -0,0 +1,139 @@
+package persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Pruebas de las migraciones del esquema sobre bases de datos temporales
+ */
+class MigracionesEsquemaTest {
+
+    @TempDir
+    Path directorio;
+
+    private Connection abrir(String nombre) throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + directorio.resolve(nombre));
+    }
+
+    private static int contar(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Base de datos nueva y arranque con el esquema al día")
+    void testBaseDatosNueva() throws SQLException {
+        try (Connection conn = abrir("nueva.db");
+             Statement statement = conn.createStatement()) {
+            assertEquals(0, MigracionesEsquema.leerVersion(conn));
+
+            assertEquals(MigracionesEsquema.getVersionActual(), MigracionesEsquema.aplicarPendientes(conn));
+            assertEquals(MigracionesEsquema.getVersionActual(), MigracionesEsquema.leerVersion(conn));
+            assertEquals(0, MigracionesEsquema.aplicarPendientes(conn));
+            assertTrue(conn.getAutoCommit());
+
+            assertEquals(3, contar(statement, "SELECT COUNT(*) FROM slots_guardado"));
+            assertEquals(MigracionesEsquema.getVersionActual(), contar(statement, "SELECT COUNT(*) FROM schema_version"));
+            assertEquals(1, contar(statement, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'partidas'"));
+            assertEquals(1, contar(statement, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'cambios_slots'"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Base de datos anterior a schema_version con guardados por filas")
+    void testBaseDatosAntigua() throws SQLException {
+        try (Connection conn = abrir("antigua.db");
+             Statement statement = conn.createStatement()) {
+            // Esquema original: sin columnas del formato BLOB ni tabla de versiones
+            statement.execute("""
+                CREATE TABLE slots_guardado (
+                    slot_id INTEGER PRIMARY KEY CHECK (slot_id IN (1, 2, 3)),
+                    nombre_partida TEXT, nombre_jugador TEXT,
+                    fecha_creacion DATETIME DEFAULT CURRENT_TIMESTAMP,
+                    fecha_ultima_modificacion DATETIME DEFAULT CURRENT_TIMESTAMP,
+                    cantidad_minas INTEGER NOT NULL DEFAULT 60,
+                    celdas_reveladas INTEGER NOT NULL DEFAULT 0,
+                    minas_marcadas INTEGER NOT NULL DEFAULT 0,
+                    juego_terminado BOOLEAN NOT NULL DEFAULT 0,
+                    juego_ganado BOOLEAN NOT NULL DEFAULT 0,
+                    tiempo_juego INTEGER DEFAULT 0,
+                    estado_partida TEXT DEFAULT 'en_curso')
+                """);
+            statement.execute("""
+                CREATE TABLE celdas_slots (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT, slot_id INTEGER NOT NULL,
+                    fila INTEGER NOT NULL, columna INTEGER NOT NULL,
+                    es_mina BOOLEAN NOT NULL DEFAULT 0, esta_revelada BOOLEAN NOT NULL DEFAULT 0,
+                    esta_marcada BOOLEAN NOT NULL DEFAULT 0, minas_adyacentes INTEGER NOT NULL DEFAULT 0,
+                    UNIQUE(slot_id, fila, columna))
+                """);
+            statement.execute("INSERT INTO slots_guardado (slot_id, nombre_partida, nombre_jugador, cantidad_minas) " +
+                              "VALUES (1, 'Antigua', 'Jugador', 1), (2, 'Slot 2', 'Vacío', 60)");
+            for (int fila = 0; fila < 20; fila++) {
+                for (int columna = 0; columna < 20; columna++) {
+                    boolean mina = fila == 0 && columna == 0;
+                    statement.execute("INSERT INTO celdas_slots (slot_id, fila, columna, es_mina, esta_revelada) " +
+                                      "VALUES (1, " + fila + ", " + columna + ", " + (mina ? 1 : 0) + ", " +
+                                      (fila == 19 ? 1 : 0) + ")");
+                }
+            }
+
+            assertEquals(MigracionesEsquema.getVersionActual(), MigracionesEsquema.aplicarPendientes(conn));
+
+            assertEquals(0, contar(statement, "SELECT COUNT(*) FROM celdas_slots"));
+            assertEquals(3, contar(statement, "SELECT COUNT(*) FROM slots_guardado"));
+            assertEquals(150, contar(statement, "SELECT LENGTH(tablero_blob) FROM slots_guardado WHERE slot_id = 1"));
+            assertEquals(1, contar(statement, "SELECT version_formato FROM slots_guardado WHERE slot_id = 1"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Repetir las migraciones no pierde datos")
+    void testRepetirMigraciones() throws SQLException {
+        try (Connection conn = abrir("repetida.db");
+             Statement statement = conn.createStatement()) {
+            MigracionesEsquema.aplicarPendientes(conn);
+            statement.execute("UPDATE slots_guardado SET nombre_partida = 'Guardada' WHERE slot_id = 1");
+            statement.execute("DELETE FROM schema_version");
+
+            assertEquals(MigracionesEsquema.getVersionActual(), MigracionesEsquema.aplicarPendientes(conn));
+
+            assertEquals(3, contar(statement, "SELECT COUNT(*) FROM slots_guardado"));
+            assertEquals(1, contar(statement, "SELECT COUNT(*) FROM slots_guardado WHERE nombre_partida = 'Guardada'"));
+            assertEquals(1, contar(statement, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'idx_slots_fecha'"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test: El listado de partidas usa el índice de cobertura")
+    void testIndiceListadoPartidas() throws SQLException {
+        try (Connection conn = abrir("indices.db");
+             Statement statement = conn.createStatement()) {
+            MigracionesEsquema.aplicarPendientes(conn);
+
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery("EXPLAIN QUERY PLAN " +
+                    "SELECT id, nombre_jugador, fecha_creacion, fecha_ultima_modificacion, " +
+                    "cantidad_minas, celdas_reveladas, minas_marcadas, juego_terminado, " +
+                    "juego_ganado, estado_partida FROM partidas ORDER BY fecha_ultima_modificacion DESC")) {
+                while (rs.next()) {
+                    plan.append(rs.getString("detail")).append('\n');
+                }
+            }
+
+            assertTrue(plan.toString().contains("COVERING INDEX idx_partidas_listado"), plan.toString());
+            assertFalse(plan.toString().contains("TEMP B-TREE"), plan.toString());
+        }
+    }
+}
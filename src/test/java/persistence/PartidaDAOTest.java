@@ -0,0 +1,141 @@
+package persistence;
+
+import celda.ColocadorMinas;
+import celda.TableroBuscaminas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Pruebas de integración para la clase PartidaDAO con el formato BLOB
+ */
+class PartidaDAOTest {
+
+    private static final String JUGADOR_PRUEBA = "__prueba_partida_dao__";
+
+    private final PartidaDAO partidaDAO = new PartidaDAO();
+
+    @AfterEach
+    void limpiar() throws SQLException {
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM partidas WHERE nombre_jugador = ?")) {
+            ps.setString(1, JUGADOR_PRUEBA);
+            ps.executeUpdate();
+        }
+    }
+
+    private static TableroBuscaminas crearPartida(int filas, int columnas, int minas) {
+        TableroBuscaminas tablero = new TableroBuscaminas(filas, columnas, minas);
+        tablero.setColocadorMinas(new ColocadorMinas(15L));
+        tablero.colocarMinas(filas / 2, columnas / 2);
+        tablero.revelarCelda(filas / 2, columnas / 2);
+        return tablero;
+    }
+
+    private static void assertMismoTablero(TableroBuscaminas esperado, TableroBuscaminas real) {
+        assertEquals(esperado.getFilas(), real.getFilas());
+        assertEquals(esperado.getColumnas(), real.getColumnas());
+        assertEquals(esperado.getCeldasReveladas(), real.getCeldasReveladas());
+        for (int fila = 0; fila < esperado.getFilas(); fila++) {
+            for (int columna = 0; columna < esperado.getColumnas(); columna++) {
+                assertEquals(esperado.getCelda(fila, columna).esMina(), real.getCelda(fila, columna).esMina());
+                assertEquals(esperado.getCelda(fila, columna).estaRevelada(), real.getCelda(fila, columna).estaRevelada());
+                assertEquals(esperado.getCelda(fila, columna).getMinasAdyacentes(),
+                             real.getCelda(fila, columna).getMinasAdyacentes());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Guardar y cargar una partida en una sola fila")
+    void testGuardarYCargar() throws SQLException {
+        TableroBuscaminas tablero = crearPartida(20, 20, 60);
+
+        int id = partidaDAO.guardarPartida(JUGADOR_PRUEBA, tablero);
+
+        assertMismoTablero(tablero, partidaDAO.cargarPartida(id));
+    }
+
+    @Test
+    @DisplayName("Test: Tableros de cualquier tamaño")
+    void testTableroRectangular() throws SQLException {
+        TableroBuscaminas tablero = crearPartida(37, 81, 400);
+
+        int id = partidaDAO.guardarPartida(JUGADOR_PRUEBA, tablero);
+
+        assertMismoTablero(tablero, partidaDAO.cargarPartida(id));
+    }
+
+    @Test
+    @DisplayName("Test: Actualizar una partida guardada")
+    void testActualizar() throws SQLException {
+        TableroBuscaminas tablero = crearPartida(20, 20, 30);
+        int id = partidaDAO.guardarPartida(JUGADOR_PRUEBA, tablero);
+
+        tablero.marcarCelda(0, 0);
+        partidaDAO.actualizarPartida(id, tablero);
+
+        TableroBuscaminas cargado = partidaDAO.cargarPartida(id);
+        assertEquals(tablero.getCelda(0, 0).estaMarcada(), cargado.getCelda(0, 0).estaMarcada());
+        assertEquals(tablero.getMinasMarcadas(), cargado.getMinasMarcadas());
+    }
+
+    @Test
+    @DisplayName("Test: Migración de partidas guardadas por filas")
+    void testMigracionFormatoPorFilas() throws SQLException {
+        TableroBuscaminas tablero = crearPartida(20, 20, 60);
+        int id;
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             Statement statement = conn.createStatement()) {
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS celdas_partida (
+                    partida_id INTEGER NOT NULL,
+                    fila INTEGER NOT NULL,
+                    columna INTEGER NOT NULL,
+                    es_mina BOOLEAN NOT NULL,
+                    esta_revelada BOOLEAN NOT NULL,
+                    esta_marcada BOOLEAN NOT NULL,
+                    minas_adyacentes INTEGER NOT NULL
+                )
+                """);
+            statement.execute("INSERT INTO partidas (nombre_jugador, cantidad_minas, version_formato) " +
+                              "VALUES ('" + JUGADOR_PRUEBA + "', 60, 0)");
+            try (ResultSet rs = statement.executeQuery("SELECT last_insert_rowid()")) {
+                rs.next();
+                id = rs.getInt(1);
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO celdas_partida VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (int fila = 0; fila < 20; fila++) {
+                    for (int columna = 0; columna < 20; columna++) {
+                        ps.setInt(1, id);
+                        ps.setInt(2, fila);
+                        ps.setInt(3, columna);
+                        ps.setBoolean(4, tablero.getCelda(fila, columna).esMina());
+                        ps.setBoolean(5, tablero.getCelda(fila, columna).estaRevelada());
+                        ps.setBoolean(6, tablero.getCelda(fila, columna).estaMarcada());
+                        ps.setInt(7, tablero.getCelda(fila, columna).getMinasAdyacentes());
+                        ps.executeUpdate();
+                    }
+                }
+            }
+
+            MigradorFormatoTablero.migrarGuardadosPorFilas(conn);
+
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM celdas_partida WHERE partida_id = " + id)) {
+                rs.next();
+                assertEquals(0, rs.getInt(1));
+            }
+        }
+
+        assertMismoTablero(tablero, partidaDAO.cargarPartida(id));
+    }
+}
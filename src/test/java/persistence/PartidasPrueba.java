@@ -0,0 +1,22 @@
+package persistence;
+
+import celda.ColocadorMinas;
+import celda.TableroBuscaminas;
+
+/**
+ * Partidas de prueba compartidas por las pruebas de persistencia
+ */
+final class PartidasPrueba {
+
+    private PartidasPrueba() {
+    }
+
+    // 20x20 con 40 minas y el primer clic en el centro; la semilla fija hace el tablero reproducible
+    static TableroBuscaminas crearPartida() {
+        TableroBuscaminas tablero = new TableroBuscaminas(20, 20, 40);
+        tablero.setColocadorMinas(new ColocadorMinas(21L));
+        tablero.colocarMinas(10, 10);
+        tablero.revelarCelda(10, 10);
+        return tablero;
+    }
+}
@@ -0,0 +1,259 @@
+package persistence;
+
+import celda.TableroBuscaminas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static persistence.PartidasPrueba.crearPartida;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Pruebas de integración del guardado incremental de SlotGuardadoService.
+ * Comprueban las filas de cambios_slots, así que van contra SQLite: la base
+ * de datos es la de buscaminas.db.ruta, que Maven apunta a un archivo de
+ * target/, y los diarios van a un directorio temporal.
+ */
+class SlotGuardadoServiceTest {
+
+    private static final int SLOT = 3;
+
+    @TempDir
+    Path directorioDiarios;
+
+    private SlotGuardadoService servicio;
+
+    @BeforeEach
+    void preparar() {
+        assertNotNull(System.getProperty(DatabaseManager.PROPIEDAD_RUTA),
+                      "Sin buscaminas.db.ruta las pruebas escribirían en el buscaminas.db del usuario");
+        servicio = crearServicio();
+    }
+
+    @AfterEach
+    void limpiar() throws Exception {
+        servicio.limpiarSlot(SLOT);
+        servicio.cerrar();
+    }
+
+    private SlotGuardadoService crearServicio() {
+        return new SlotGuardadoService(TipoAlmacenamiento.SQLITE, directorioDiarios);
+    }
+
+    // Lee el slot con un servicio sin caché, es decir, lo que quedó escrito
+    private TableroBuscaminas cargarConServicioNuevo() throws Exception {
+        SlotGuardadoService nuevo = crearServicio();
+        try {
+            return nuevo.cargarDesdeSlot(SLOT);
+        } finally {
+            nuevo.cerrar();
+        }
+    }
+
+    private static int contarCambios() throws SQLException {
+        return contarCambios(SLOT);
+    }
+
+    private static int contarCambios(int slotId) throws SQLException {
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM cambios_slots WHERE slot_id = ?")) {
+            ps.setInt(1, slotId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static void assertMismoEstado(TableroBuscaminas esperado, TableroBuscaminas real) {
+        assertEquals(esperado.getCeldasReveladas(), real.getCeldasReveladas());
+        assertEquals(esperado.getMinasMarcadas(), real.getMinasMarcadas());
+        assertEquals(esperado.isJuegoTerminado(), real.isJuegoTerminado());
+        for (int fila = 0; fila < esperado.getFilas(); fila++) {
+            for (int columna = 0; columna < esperado.getColumnas(); columna++) {
+                assertEquals(esperado.getCelda(fila, columna).esMina(), real.getCelda(fila, columna).esMina());
+                assertEquals(esperado.getCelda(fila, columna).estaRevelada(), real.getCelda(fila, columna).estaRevelada());
+                assertEquals(esperado.getCelda(fila, columna).estaMarcada(), real.getCelda(fila, columna).estaMarcada());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test: El guardado automático escribe solo las celdas cambiadas")
+    void testGuardadoIncremental() throws Exception {
+        TableroBuscaminas tablero = crearPartida();
+        servicio.guardarEnSlot(SLOT, "Incremental", "Jugador", tablero);
+        assertEquals(0, contarCambios());
+
+        tablero.marcarCelda(0, 0);
+        servicio.guardarAutomaticamente(SLOT, "Partida Automática", "Jugador", tablero);
+        assertEquals(1, contarCambios());
+        assertEquals(0, tablero.getCantidadCeldasPendientes());
+
+        tablero.marcarCelda(0, 0);
+        tablero.marcarCelda(0, 1);
+        servicio.guardarAutomaticamente(SLOT, "Partida Automática", "Jugador", tablero);
+        assertEquals(2, contarCambios());
+
+        assertMismoEstado(tablero, cargarConServicioNuevo());
+        assertEquals("Incremental", servicio.obtenerInfoSlots().get(SLOT - 1).getNombrePartida());
+        assertEquals(tablero.getTotalCeldas(), servicio.obtenerInfoSlots().get(SLOT - 1).getTotalCeldas());
+    }
+
+    @Test
+    @DisplayName("Test: Los cambios acumulados se pliegan en el BLOB")
+    void testCompactacion() throws Exception {
+        TableroBuscaminas tablero = crearPartida();
+        servicio.guardarEnSlot(SLOT, "Compactación", "Jugador", tablero);
+
+        // Una jugada por celda oculta hasta alcanzar justo el umbral de compactación
+        int guardadas = 0;
+        for (int indice = 0; guardadas < SlotGuardadoService.umbralCompactacion(tablero); indice++) {
+            if (tablero.marcarCelda(indice / 20, indice % 20)) {
+                servicio.guardarAutomaticamente(SLOT, "Partida Automática", "Jugador", tablero);
+                guardadas++;
+                assertEquals(guardadas % SlotGuardadoService.umbralCompactacion(tablero), contarCambios());
+            }
+        }
+
+        assertEquals(0, contarCambios());
+        assertMismoEstado(tablero, cargarConServicioNuevo());
+    }
+
+    @Test
+    @DisplayName("Test: Un tablero distinto o reiniciado se guarda completo")
+    void testGuardadoCompletoNecesario() throws Exception {
+        TableroBuscaminas tablero = crearPartida();
+        servicio.guardarEnSlot(SLOT, "Completo", "Jugador", tablero);
+        tablero.marcarCelda(0, 0);
+        servicio.guardarAutomaticamente(SLOT, "Partida Automática", "Jugador", tablero);
+
+        TableroBuscaminas otro = crearPartida();
+        otro.marcarCelda(19, 19);
+        servicio.guardarAutomaticamente(SLOT, "Partida Automática", "Jugador", otro);
+
+        assertEquals(0, contarCambios());
+        assertMismoEstado(otro, servicio.cargarDesdeSlot(SLOT));
+    }
+
+    @Test
+    @DisplayName("Test: Guardar en un slot nuevo y seguir con guardados incrementales")
+    void testCrearSlot() throws Exception {
+        TableroBuscaminas tablero = crearPartida();
+        int slotId = servicio.crearSlot("Nueva", "Jugador", tablero);
+        try {
+            assertTrue(slotId > 3);
+            assertTrue(servicio.slotEstaOcupado(slotId));
+
+            tablero.marcarCelda(0, 0);
+            servicio.guardarAutomaticamente(slotId, "Partida Automática", "Jugador", tablero);
+            assertEquals(1, contarCambios(slotId));
+
+            PaginaGuardados<SlotGuardadoDAO.SlotInfo> pagina =
+                servicio.obtenerPaginaSlots(FiltroGuardados.porJugador("Jugador"), null, 500);
+            assertTrue(pagina.getElementos().stream().anyMatch(slot -> slot.getSlotId() == slotId
+                                                                       && "Nueva".equals(slot.getNombrePartida())));
+            assertMismoEstado(tablero, servicio.cargarDesdeSlot(slotId));
+        } finally {
+            try (Connection conn = DatabaseManager.getInstance().getConnection();
+                 PreparedStatement ps = conn.prepareStatement("DELETE FROM slots_guardado WHERE slot_id = ?");
+                 PreparedStatement psCambios = conn.prepareStatement("DELETE FROM cambios_slots WHERE slot_id = ?")) {
+                ps.setInt(1, slotId);
+                ps.executeUpdate();
+                psCambios.setInt(1, slotId);
+                psCambios.executeUpdate();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Los metadatos de los slots se sirven desde la caché")
+    void testCacheMetadatos() throws Exception {
+        SlotGuardadoService conCache = crearServicio();
+        try {
+            FiltroGuardados filtro = FiltroGuardados.todos();
+            conCache.obtenerInfoSlots();
+            conCache.obtenerPaginaSlots(filtro, null, 10);
+            assertEquals(0, conCache.getAciertosCache());
+            assertEquals(2, conCache.getFallosCache());
+
+            // Un guardado actualiza la caché en lugar de vaciarla
+            TableroBuscaminas tablero = crearPartida();
+            conCache.guardarEnSlot(SLOT, "En caché", "Jugador", tablero);
+            tablero.marcarCelda(0, 0);
+            conCache.guardarAutomaticamente(SLOT, "Partida Automática", "Jugador", tablero);
+
+            SlotGuardadoDAO.SlotInfo info = conCache.obtenerInfoSlots().get(SLOT - 1);
+            assertEquals("En caché", info.getNombrePartida());
+            assertEquals(1, info.getMinasMarcadas());
+            assertTrue(conCache.slotEstaOcupado(SLOT));
+
+            PaginaGuardados<SlotGuardadoDAO.SlotInfo> pagina = conCache.obtenerPaginaSlots(filtro, null, 10);
+            assertEquals(SLOT, pagina.getElementos().get(0).getSlotId());
+            assertEquals(1, pagina.getElementos().get(0).getMinasMarcadas());
+            assertEquals(3, conCache.getAciertosCache());
+            assertEquals(2, conCache.getFallosCache());
+
+            // La página mantenida en memoria coincide con la que devuelve la base de datos
+            PaginaGuardados<SlotGuardadoDAO.SlotInfo> desdeDisco = new SlotGuardadoDAO().obtenerPaginaSlots(filtro, null, 10);
+            assertEquals(desdeDisco.getElementos().stream().map(SlotGuardadoDAO.SlotInfo::getSlotId).sorted().toList(),
+                         pagina.getElementos().stream().map(SlotGuardadoDAO.SlotInfo::getSlotId).sorted().toList());
+            assertEquals(desdeDisco.hayMas(), pagina.hayMas());
+
+            // Los resultados son copias: modificarlos no altera la caché
+            info.setNombrePartida("Modificado");
+            assertEquals("En caché", conCache.obtenerInfoSlots().get(SLOT - 1).getNombrePartida());
+
+            conCache.limpiarSlot(SLOT);
+            assertFalse(conCache.slotEstaOcupado(SLOT));
+            assertEquals(2, conCache.getFallosCache());
+        } finally {
+            conCache.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Test: Una jugada del diario no repite el slot en el listado paginado")
+    void testJugadaDiarioSinRepetirEnListado() throws Exception {
+        TableroBuscaminas tablero = crearPartida();
+        servicio.guardarEnSlot(SLOT, "Diario", "Jugador", tablero);
+        // El slot pasa a ser el más antiguo, así que queda fuera de la primera página
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                 "UPDATE slots_guardado SET fecha_ultima_modificacion = '2000-01-01 00:00:00' WHERE slot_id = ?")) {
+            ps.setInt(1, SLOT);
+            ps.executeUpdate();
+        }
+
+        FiltroGuardados filtro = FiltroGuardados.todos();
+        servicio.obtenerInfoSlots();
+        servicio.obtenerPaginaSlots(filtro, null, 2);
+
+        tablero.marcarCelda(0, 0);
+        servicio.guardarJugadaAsync(SLOT, "Diario", "Jugador", tablero, TipoJugada.MARCAR, 0, 0).join();
+
+        List<Integer> vistos = new ArrayList<>();
+        PaginaGuardados<SlotGuardadoDAO.SlotInfo> pagina = servicio.obtenerPaginaSlots(filtro, null, 2);
+        while (true) {
+            for (SlotGuardadoDAO.SlotInfo info : pagina.getElementos()) {
+                vistos.add(info.getSlotId());
+            }
+            if (!pagina.hayMas()) {
+                break;
+            }
+            pagina = servicio.obtenerPaginaSlots(filtro, pagina.getSiguiente(), 2);
+        }
+        assertEquals(vistos.size(), new HashSet<>(vistos).size(), vistos.toString());
+        assertTrue(vistos.contains(SLOT), vistos.toString());
+    }
+}
@@ -0,0 +1,63 @@
+package simulacion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pruebas unitarias para la clase SimuladorPartidas
+ */
+class SimuladorPartidasTest {
+
+    @Test
+    @DisplayName("Test: El resultado no depende del número de hilos")
+    void testReproducibleEntreHilos() {
+        ForkJoinPool unHilo = new ForkJoinPool(1);
+        ForkJoinPool cuatroHilos = new ForkJoinPool(4);
+        try {
+            ResultadoSimulacion secuencial = new SimuladorPartidas(new EstrategiaSolucionador(), unHilo, 20, 20)
+                .simular(60, 300, 11L);
+            ResultadoSimulacion paralelo = new SimuladorPartidas(new EstrategiaSolucionador(), cuatroHilos, 20, 20)
+                .simular(60, 300, 11L);
+
+            assertEquals(300, secuencial.getPartidas());
+            assertTrue(secuencial.mismasEstadisticas(paralelo));
+        } finally {
+            unHilo.shutdown();
+            cuatroHilos.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test: El solucionador gana más partidas que el azar")
+    void testSolucionadorSuperaAlAzar() {
+        ResultadoSimulacion aleatoria = new SimuladorPartidas(new EstrategiaAleatoria()).simular(30, 300, 5L);
+        ResultadoSimulacion solucionador = new SimuladorPartidas(new EstrategiaSolucionador()).simular(30, 300, 5L);
+
+        assertTrue(solucionador.getTasaVictoria() > aleatoria.getTasaVictoria());
+        assertTrue(solucionador.getTasaVictoria() > 0.5);
+    }
+
+    @Test
+    @DisplayName("Test: Estadísticas coherentes")
+    void testEstadisticas() {
+        ResultadoSimulacion resultado = new SimuladorPartidas(new EstrategiaSolucionador()).simular(30, 200, 3L);
+
+        assertEquals(200, resultado.getPartidas());
+        assertTrue(resultado.getVictorias() <= resultado.getPartidas());
+        assertTrue(resultado.getClics() >= resultado.getPartidas());
+        assertTrue(resultado.getCascadas() > 0);
+        assertTrue(resultado.getCascadaMaxima() <= 400 - 30);
+        assertTrue(resultado.getCascadaPromedio() <= resultado.getCascadaMaxima());
+        assertTrue(resultado.getPartidasPorSegundo() > 0);
+    }
+
+    @Test
+    @DisplayName("Test: Cantidad de partidas negativa")
+    void testPartidasNegativas() {
+        SimuladorPartidas simulador = new SimuladorPartidas(new EstrategiaAleatoria());
+        assertThrows(IllegalArgumentException.class, () -> simulador.simular(30, -1, 1L));
+    }
+}